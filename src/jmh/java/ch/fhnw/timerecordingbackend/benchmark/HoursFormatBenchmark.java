@@ -0,0 +1,70 @@
+package ch.fhnw.timerecordingbackend.benchmark;
+
+import ch.fhnw.timerecordingbackend.util.DateTimeUtils;
+import ch.fhnw.timerecordingbackend.util.HoursCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz und Allokationsrate (mit -prof gc) der "HH:mm"-Umrechnungen aus DateTimeUtils und HoursCodec.
+ * Die Parameter decken Tageswerte, negative Differenzen und Jahressummen ausserhalb des Caches ab.
+ * Ausführen mit: mvn -Pbenchmark test-compile exec:exec -Djmh.args="HoursFormatBenchmark -prof gc"
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HoursFormatBenchmark {
+
+    @Param({"08:24", "-01:30", "1840:15"})
+    public String time;
+
+    private double hours;
+    private int minutes;
+
+    @Setup
+    public void setUp() {
+        minutes = HoursCodec.parse(time);
+        hours = minutes / 60.0;
+    }
+
+    @Benchmark
+    public String formatHours() {
+        return DateTimeUtils.formatHours(hours);
+    }
+
+    @Benchmark
+    public Double parseHours() {
+        return DateTimeUtils.parseHours(time);
+    }
+
+    @Benchmark
+    public String addHours() {
+        return DateTimeUtils.addHours(time, "00:36");
+    }
+
+    @Benchmark
+    public String codecFormat() {
+        return HoursCodec.format(minutes);
+    }
+
+    @Benchmark
+    public int codecParse() {
+        return HoursCodec.parse(time);
+    }
+}
@@ -0,0 +1,133 @@
+package ch.fhnw.timerecordingbackend.benchmark;
+
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
+import ch.fhnw.timerecordingbackend.security.JwtAuthenticationFilter;
+import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
+import ch.fhnw.timerecordingbackend.security.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz der JWT-Prüfung pro Anfrage: früheres dreifaches Parsen (validateToken, getUsernameFromJwt,
+ * getAuthoritiesFromJwt mit je neuem Parser) gegenüber einer Verifikation mit und ohne Cache verifizierter Tokens,
+ * sowie der ganze JwtAuthenticationFilter. Der Benutzer-Cache ist ein Stub, damit nur die Token-Prüfung zählt.
+ * Ausführen mit: mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtFilterBenchmark"
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET =
+            "benchmarkSecretKeyVeryLongAndSecureForHS512AlgorithmWithAtLeast512BitsLengthPadding";
+
+    private String token;
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = provider(10_000);
+        uncachedProvider = provider(0);
+
+        AuthenticatedUser user = new AuthenticatedUser(42L, "anna@example.com", Set.of("EMPLOYEE"), 8.0, true, null);
+        token = cachedProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        AuthenticatedUserCache userCache = new AuthenticatedUserCache() {
+            @Override
+            public AuthenticatedUser get(Long userId) {
+                return user;
+            }
+        };
+        cachedFilter = filter(cachedProvider, userCache);
+        uncachedFilter = filter(uncachedProvider, userCache);
+    }
+
+    /**
+     * Frühere Variante: drei Parser, drei Signaturprüfungen pro Anfrage.
+     */
+    @Benchmark
+    public Object legacyTripleParse() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        String username = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        List<?> roles = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().get("roles", List.class);
+        return username.length() + roles.size();
+    }
+
+    @Benchmark
+    public Claims verifyOnceUncached() {
+        return uncachedProvider.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyOnceCached() {
+        return cachedProvider.verify(token);
+    }
+
+    @Benchmark
+    public Authentication filterUncached() throws Exception {
+        return runFilter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Authentication filterCached() throws Exception {
+        return runFilter(cachedFilter);
+    }
+
+    private Authentication runFilter(JwtAuthenticationFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static JwtTokenProvider provider(int cacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 3_600_000);
+        ReflectionTestUtils.setField(provider, "verifiedTokenCacheSize", cacheSize);
+        ReflectionTestUtils.setField(provider, "revocationStore", new TokenRevocationStore());
+        return provider;
+    }
+
+    private static JwtAuthenticationFilter filter(JwtTokenProvider provider, AuthenticatedUserCache userCache) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", provider);
+        ReflectionTestUtils.setField(filter, "authenticatedUserCache", userCache);
+        return filter;
+    }
+}
@@ -0,0 +1,60 @@
+package ch.fhnw.timerecordingbackend.benchmark;
+
+import ch.fhnw.timerecordingbackend.model.TimeIntervals;
+import ch.fhnw.timerecordingbackend.util.WorkingTimeCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz und Allokationsrate der Arbeitszeitberechnung pro Zeiteintrag.
+ * Ausführen mit: mvn -Pbenchmark test-compile exec:exec -Djmh.args="WorkingTimeBenchmark -prof gc"
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkingTimeBenchmark {
+
+    // Typischer Tag: 07:30-12:00, 12:45-17:15, 18:00-offen; Pausen 10:00-10:15, 15:00-15:10
+    private int[] workPairs;
+    private int[] breakPairs;
+    private TimeIntervals work;
+    private TimeIntervals breaks;
+
+    @Setup
+    public void setUp() {
+        workPairs = new int[] {450, 720, 765, 1035, 1080, WorkingTimeCalculator.OPEN};
+        breakPairs = new int[] {600, 615, 900, 910};
+        work = TimeIntervals.ofMinutes(workPairs);
+        breaks = TimeIntervals.ofMinutes(breakPairs);
+    }
+
+    @Benchmark
+    public int actualMinutesFromArrays() {
+        return WorkingTimeCalculator.actualMinutes(workPairs, breakPairs);
+    }
+
+    @Benchmark
+    public int actualMinutesFromIntervals() {
+        return TimeIntervals.actualMinutes(work, breaks);
+    }
+
+    @Benchmark
+    public int differenceMinutes() {
+        return TimeIntervals.actualMinutes(work, breaks) - WorkingTimeCalculator.plannedMinutes(8.4);
+    }
+}
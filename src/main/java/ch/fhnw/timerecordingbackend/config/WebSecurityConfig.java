@@ -2,6 +2,7 @@ package ch.fhnw.timerecordingbackend.config;
 
 import ch.fhnw.timerecordingbackend.security.JwtAuthenticationFilter;
 import ch.fhnw.timerecordingbackend.security.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -65,6 +66,9 @@ public class WebSecurityConfig {
 
                 // Konfiguriere URL-basierte Zugriffskontrolle
                 .authorizeHttpRequests(auth -> auth
+                        // Asynchrone Dispatches (z. B. Streaming-Export) wurden beim ursprünglichen Request bereits autorisiert
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Öffentliche Seiten und statische Ressourcen
                         .requestMatchers(
                                 "/", "/index.html", "/login.html", "/dashboard.html",
@@ -83,7 +87,7 @@ public class WebSecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/users/change-password").authenticated()
 
                         // Nur Admins & Manager dürfen die Benutzerliste sehen
-                        .requestMatchers("/api/admin/users").hasAnyAuthority("ADMIN", "MANAGER")
+                        .requestMatchers("/api/admin/users", "/api/admin/users/page").hasAnyAuthority("ADMIN", "MANAGER")
 
                         // Nur Admins dürfen auf alle Admin-Endpunkte zugreifen
                         .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
@@ -1,5 +1,7 @@
 package ch.fhnw.timerecordingbackend.controller;
 
+import ch.fhnw.timerecordingbackend.dto.absence.AbsenceBulkResult;
+import ch.fhnw.timerecordingbackend.dto.absence.AbsenceCalendarResponse;
 import ch.fhnw.timerecordingbackend.dto.absence.AbsenceRequest;
 import ch.fhnw.timerecordingbackend.dto.absence.AbsenceResponse;
 import ch.fhnw.timerecordingbackend.model.Absence;
@@ -8,6 +10,7 @@ import ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus;
 import ch.fhnw.timerecordingbackend.security.SecurityUtils;
 import ch.fhnw.timerecordingbackend.service.AbsenceService;
 import ch.fhnw.timerecordingbackend.service.UserService;
+import ch.fhnw.timerecordingbackend.service.VacationLedgerService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,6 +21,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -34,12 +39,15 @@ public class AbsenceController {
     private final AbsenceService absenceService;
     private final UserService userService;
     private final SecurityUtils securityUtils;
+    private final VacationLedgerService vacationLedgerService;
 
     @Autowired
-    public AbsenceController(AbsenceService absenceService, UserService userService, SecurityUtils securityUtils) {
+    public AbsenceController(AbsenceService absenceService, UserService userService, SecurityUtils securityUtils,
+                             VacationLedgerService vacationLedgerService) {
         this.absenceService = absenceService;
         this.userService = userService;
         this.securityUtils = securityUtils;
+        this.vacationLedgerService = vacationLedgerService;
     }
 
     /**
@@ -225,6 +233,30 @@ public class AbsenceController {
         return ResponseEntity.ok(Map.of("message", "Abwesenheit abgelehnt"));
     }
 
+    /**
+     * Mehrere Abwesenheiten genehmigen (nur Admin/Manager)
+     * PATCH /api/absences/bulk/approve
+     * Body: { "ids": [1, 2, 3] }
+     */
+    @PatchMapping("/bulk/approve")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('MANAGER')")
+    public ResponseEntity<AbsenceBulkResult> approveAbsences(@RequestBody Map<String, List<Long>> requestBody) {
+        User currentUser = getCurrentUser();
+        return ResponseEntity.ok(absenceService.decideAbsences(requestBody.get("ids"), currentUser.getId(), true));
+    }
+
+    /**
+     * Mehrere Abwesenheiten ablehnen (nur Admin/Manager)
+     * PATCH /api/absences/bulk/reject
+     * Body: { "ids": [1, 2, 3] }
+     */
+    @PatchMapping("/bulk/reject")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('MANAGER')")
+    public ResponseEntity<AbsenceBulkResult> rejectAbsences(@RequestBody Map<String, List<Long>> requestBody) {
+        User currentUser = getCurrentUser();
+        return ResponseEntity.ok(absenceService.decideAbsences(requestBody.get("ids"), currentUser.getId(), false));
+    }
+
     /**
      * Aktuelle und zukünftige Abwesenheiten eines Benutzers
      * GET /api/absences/user/{userId}/upcoming
@@ -312,6 +344,69 @@ public class AbsenceController {
         return ResponseEntity.ok(Map.of("absences", responses));
     }
 
+    /**
+     * Team-Kalender der genehmigten Abwesenheiten pro Tag und Art (Admin/Manager)
+     * GET /api/absences/calendar?month=2025-07&months=1&managerId={managerId}
+     */
+    @GetMapping("/calendar")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER')")
+    public ResponseEntity<AbsenceCalendarResponse> getTeamCalendar(
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "1") int months,
+            @RequestParam(required = false) Long managerId) {
+        YearMonth firstMonth;
+        try {
+            firstMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Ungültiger Monat: " + month);
+        }
+
+        User currentUser = getCurrentUser();
+        return ResponseEntity.ok(absenceService.getTeamCalendar(currentUser, managerId, firstMonth, months));
+    }
+
+    /**
+     * Eigenes Ferienkonto eines Jahres anzeigen
+     * GET /api/absences/vacation-balance?year={year}
+     */
+    @GetMapping("/vacation-balance")
+    public ResponseEntity<Map<String, Object>> getCurrentUserVacationBalance(@RequestParam(required = false) Integer year) {
+        User currentUser = getCurrentUser();
+        return ResponseEntity.ok(vacationLedgerService.getLedger(currentUser.getId(),
+                year != null ? year : LocalDate.now().getYear()));
+    }
+
+    /**
+     * Ferienkonto eines bestimmten Benutzers anzeigen (nur Admin/Manager)
+     * GET /api/absences/user/{userId}/vacation-balance?year={year}
+     */
+    @GetMapping("/user/{userId}/vacation-balance")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('MANAGER')")
+    public ResponseEntity<Map<String, Object>> getUserVacationBalance(@PathVariable Long userId,
+                                                                      @RequestParam(required = false) Integer year) {
+        return ResponseEntity.ok(vacationLedgerService.getLedger(userId,
+                year != null ? year : LocalDate.now().getYear()));
+    }
+
+    /**
+     * Ferienanspruch und Übertrag eines Benutzers setzen (nur Admin)
+     * PUT /api/absences/user/{userId}/vacation-balance
+     * Body: { "year": 2025, "entitlementDays": 25, "carriedOverDays": 3 }
+     * carriedOverDays ist optional und nur ohne Ferienkonto des Vorjahres frei wählbar, sonst wird er berechnet
+     */
+    @PutMapping("/user/{userId}/vacation-balance")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> setUserVacationEntitlement(@PathVariable Long userId,
+                                                                          @RequestBody Map<String, Integer> requestBody) {
+        Integer year = requestBody.get("year");
+        Integer entitlementDays = requestBody.get("entitlementDays");
+        if (year == null || entitlementDays == null) {
+            throw new IllegalArgumentException("Jahr und Ferienanspruch sind erforderlich");
+        }
+        Integer carriedOverDays = requestBody.get("carriedOverDays");
+        return ResponseEntity.ok(vacationLedgerService.setEntitlement(userId, year, entitlementDays, carriedOverDays));
+    }
+
     /**
      * Hilfsmethode zum Ermitteln des aktuellen Benutzers
      * @return Aktueller Benutzer
@@ -1,17 +1,29 @@
 package ch.fhnw.timerecordingbackend.controller;
 
+import ch.fhnw.timerecordingbackend.dto.admin.UserImportResult;
+import ch.fhnw.timerecordingbackend.dto.admin.UserPageResponse;
 import ch.fhnw.timerecordingbackend.dto.admin.UserRegistrationRequest;
 import ch.fhnw.timerecordingbackend.dto.admin.UserResponse;
 import ch.fhnw.timerecordingbackend.model.Registration;
 import ch.fhnw.timerecordingbackend.model.Role;
 import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
+import ch.fhnw.timerecordingbackend.security.LoginAdmissionControl;
+import ch.fhnw.timerecordingbackend.security.TokenRevocationStore;
+import ch.fhnw.timerecordingbackend.service.ManagerHierarchyService;
+import ch.fhnw.timerecordingbackend.service.ProjectStatisticsCache;
 import ch.fhnw.timerecordingbackend.service.RegistrationService;
+import ch.fhnw.timerecordingbackend.service.SearchIndexService;
+import ch.fhnw.timerecordingbackend.service.SystemLogWriter;
+import ch.fhnw.timerecordingbackend.service.UserProvisioningService;
 import ch.fhnw.timerecordingbackend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -22,6 +34,11 @@ import ch.fhnw.timerecordingbackend.model.SystemLog;
 import ch.fhnw.timerecordingbackend.repository.SystemLogRepository;
 import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -45,6 +62,30 @@ public class AdminController {
     @Autowired
     private SystemLogRepository systemLogRepository;
 
+    @Autowired
+    private ProjectStatisticsCache projectStatisticsCache;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ManagerHierarchyService managerHierarchyService;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private LoginAdmissionControl loginAdmissionControl;
+
+    @Autowired
+    private SystemLogWriter systemLogWriter;
+
     @Autowired
     public AdminController(UserService userService, PasswordEncoder passwordEncoder, RegistrationService registrationService) {
         this.userService = userService;
@@ -66,6 +107,24 @@ public class AdminController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * Gibt eine Seite der Benutzerliste zurück, sortier- und filterbar
+     * GET /api/admin/users/page?page=0&size=50&sort=lastName&direction=asc&status=ACTIVE&role=MANAGER&managerId=1
+     * @return ResponseEntity mit UserPageResponse-DTO
+     */
+    @GetMapping("/users/page")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER')")
+    public ResponseEntity<UserPageResponse> getUserPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "lastName") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Long managerId) {
+        return ResponseEntity.ok(userService.findUserPage(page, size, sort, direction, status, role, managerId));
+    }
+
     /**
      * Gibt ein UserResponse-DTO zurück, wenn ein User mit der übergebenen ID existiert
      * @param id
@@ -144,6 +203,24 @@ public class AdminController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Massenanlage von Benutzern (z.B. Onboarding einer Abteilung).
+     * Akzeptiert ein JSON-Array oder CSV mit Kopfzeile, der Body wird gestreamt gelesen.
+     * @param request HTTP-Request mit den Benutzern im Body
+     * @return Anzahl angelegter Benutzer und Fehler pro Zeile
+     * @throws IOException bei Lesefehlern
+     */
+    @PostMapping(value = "/users/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<UserImportResult> importUsers(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        if ("csv".equalsIgnoreCase(contentType.getSubtype())) {
+            Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            return ResponseEntity.ok(userProvisioningService.importCsv(
+                    new InputStreamReader(request.getInputStream(), charset)));
+        }
+        return ResponseEntity.ok(userProvisioningService.importJson(request.getInputStream()));
+    }
+
     /**
      * Aktualisiert einen bestehenden User mit den übergebenen Daten
      * @param id
@@ -186,6 +263,18 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("message", "Registrierungsanfrage genehmigt und Benutzer erstellt."));
     }
 
+    /**
+     * Genehmigt mehrere Registrierungsanfragen auf einmal
+     * @param body JSON-Body mit den IDs der Anfragen unter "ids"
+     * @return Anzahl angelegter Benutzer und Fehler pro Anfrage-ID
+     */
+    @PatchMapping("/registration-requests/approve")
+    public ResponseEntity<UserImportResult> approveRegistrationRequests(@RequestBody Map<String, List<Long>> body) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String adminEmail = authentication.getName();
+        return ResponseEntity.ok(userProvisioningService.approveRegistrations(body.get("ids"), adminEmail));
+    }
+
     /**
      * Lehnt regestrierungsanfrage ab
      * @param id
@@ -266,11 +355,15 @@ public class AdminController {
     /**
      * Sucht User mit Suchbegriff
      * @param searchTerm Suchbegriff
-     * @return ResponseEntity mit Liste mit gefundenen UserResponse-DTOs
+     * @param limit maximale Anzahl Treffer (optional, höchstens 200; ohne Angabe alle Treffer)
+     * @return ResponseEntity mit Liste mit gefundenen UserResponse-DTOs, beste Treffer zuerst
      */
     @GetMapping("/users/search")
-    public ResponseEntity<List<UserResponse>> searchUsers(@RequestParam String searchTerm) {
-        List<User> users = userService.searchUsers(searchTerm);
+    public ResponseEntity<List<UserResponse>> searchUsers(@RequestParam String searchTerm,
+                                                          @RequestParam(required = false) Integer limit) {
+        List<User> users = limit != null
+                ? userService.searchUsers(searchTerm, limit)
+                : userService.searchUsers(searchTerm);
         List<UserResponse> responses = users.stream()
                 .map(this::convertToUserResponse)
                 .collect(Collectors.toList());
@@ -302,6 +395,77 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("logs", logs));
     }
 
+    /**
+     * Kennzahlen des Caches der Projektstatistiken (Treffer, Fehlzugriffe, Verdrängungen, Invalidierungen)
+     * @return Map mit den Kennzahlen
+     */
+    @GetMapping("/cache/project-statistics")
+    public ResponseEntity<Map<String, Object>> getProjectStatisticsCacheStats() {
+        return ResponseEntity.ok(projectStatisticsCache.stats());
+    }
+
+    /**
+     * Grösse des Suchindex für Benutzer und Projekte
+     * @return Map mit den Kennzahlen
+     */
+    @GetMapping("/search-index")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(searchIndexService.stats());
+    }
+
+    /**
+     * Baut den Suchindex neu aus der Datenbank auf (z.B. nach direkten Änderungen per SQL)
+     * @return Map mit den Kennzahlen nach dem Neuaufbau
+     */
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        searchIndexService.rebuild();
+        return ResponseEntity.ok(searchIndexService.stats());
+    }
+
+    /**
+     * Kennzahlen des Team-Caches der Manager-Hierarchie
+     * @return Map mit den Kennzahlen
+     */
+    @GetMapping("/manager-hierarchy")
+    public ResponseEntity<Map<String, Object>> getManagerHierarchyStats() {
+        return ResponseEntity.ok(managerHierarchyService.stats());
+    }
+
+    /**
+     * Baut die Manager-Hierarchie neu aus den Managern der Benutzer auf (z.B. nach direkten Änderungen per SQL)
+     * @return Map mit den Kennzahlen nach dem Neuaufbau
+     */
+    @PostMapping("/manager-hierarchy/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildManagerHierarchy() {
+        managerHierarchyService.rebuildAll();
+        return ResponseEntity.ok(managerHierarchyService.stats());
+    }
+
+    /**
+     * Kennzahlen der Anmeldung: Cache der Benutzerdaten für JWT-Anfragen und gesperrte Tokens
+     * @return Map mit den Kennzahlen
+     */
+    @GetMapping("/cache/authentication")
+    public ResponseEntity<Map<String, Object>> getAuthenticationCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", authenticatedUserCache.stats());
+        stats.put("revokedTokens", tokenRevocationStore.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Kennzahlen der Logins: Latenz und Warteschlange der Passwortprüfung, abgewiesene Versuche
+     * und die Warteschlange der gesammelt geschriebenen Protokolleinträge
+     * @return Map mit den Kennzahlen
+     */
+    @GetMapping("/login-metrics")
+    public ResponseEntity<Map<String, Object>> getLoginMetrics() {
+        Map<String, Object> stats = new LinkedHashMap<>(loginAdmissionControl.stats());
+        stats.put("systemLog", systemLogWriter.stats());
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * Konvertiert ein User-Objekt in ein UserResponse-DTO
      * @param user
@@ -3,8 +3,12 @@ package ch.fhnw.timerecordingbackend.controller;
 
 import ch.fhnw.timerecordingbackend.dto.authentication.LoginRequest;
 import ch.fhnw.timerecordingbackend.dto.authentication.LoginResponse;
+import ch.fhnw.timerecordingbackend.security.LoginThrottledException;
 import ch.fhnw.timerecordingbackend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -34,10 +38,17 @@ public class AuthController {
      * und liefert bei Erfolg ein JWT mit Benutzerdaten zurück.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         try {
-            LoginResponse response = authService.login(loginRequest);
+            // Hinter einem vertrauenswürdigen Proxy liefert getRemoteAddr() die Adresse aus X-Forwarded-For
+            LoginResponse response = authService.login(loginRequest, request.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (LoginThrottledException e) {
+            // Zu viele Versuche oder ausgelastete Passwortprüfung: sofort ablehnen statt warten
+            return ResponseEntity
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (BadCredentialsException e) {
             return ResponseEntity
                     .status(401)
@@ -0,0 +1,43 @@
+package ch.fhnw.timerecordingbackend.controller;
+
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import ch.fhnw.timerecordingbackend.service.DashboardEventPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST-Controller für Live-Aktualisierungen des Dashboards über Server-Sent Events.
+ * Der Client hält eine Verbindung offen und lädt nur nach, wenn ein Ereignis eintrifft.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    @Autowired
+    private DashboardEventPublisher dashboardEventPublisher;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
+    /**
+     * Öffnet den Ereignis-Stream des angemeldeten Nutzers.
+     * Ereignisse: "time-entry", "absence" und "project" mit Aktion und IDs als JSON.
+     * @return SSE-Stream
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        Long currentUserId = securityUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Nicht authentifiziert");
+        }
+        return dashboardEventPublisher.subscribe(currentUserId);
+    }
+}
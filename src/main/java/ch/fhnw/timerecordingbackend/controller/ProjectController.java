@@ -39,14 +39,14 @@ public class ProjectController {
     /**
      * Alle Projekte abrufen (nur Admin)
      * GET /api/projects
+     * Alle Listen-Endpunkte akzeptieren ?includeUsers=false, um die beteiligten Mitarbeiter wegzulassen.
      */
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER')")
-    public ResponseEntity<Map<String, List<ProjectResponse>>> getAllProjects() {
+    public ResponseEntity<Map<String, List<ProjectResponse>>> getAllProjects(
+            @RequestParam(defaultValue = "true") boolean includeUsers) {
         List<Project> projects = projectService.findAllProjects();
-        List<ProjectResponse> responses = projects.stream()
-                .map(this::convertToProjectResponse)
-                .collect(Collectors.toList());
+        List<ProjectResponse> responses = convertToProjectResponses(projects, includeUsers);
 
         return ResponseEntity.ok(Map.of("projects", responses));
     }
@@ -56,11 +56,10 @@ public class ProjectController {
      * GET /api/projects/active
      */
     @GetMapping("/active")
-    public ResponseEntity<Map<String, List<ProjectResponse>>> getActiveProjects() {
+    public ResponseEntity<Map<String, List<ProjectResponse>>> getActiveProjects(
+            @RequestParam(defaultValue = "true") boolean includeUsers) {
         List<Project> projects = projectService.findActiveProjects();
-        List<ProjectResponse> responses = projects.stream()
-                .map(this::convertToProjectResponse)
-                .collect(Collectors.toList());
+        List<ProjectResponse> responses = convertToProjectResponses(projects, includeUsers);
 
         return ResponseEntity.ok(Map.of("projects", responses));
     }
@@ -72,7 +71,7 @@ public class ProjectController {
     @GetMapping("/{id}")
     public ResponseEntity<ProjectResponse> getProjectById(@PathVariable Long id) {
         return projectService.findById(id)
-                .map(this::convertToProjectResponse)
+                .map(project -> convertToProjectResponses(List.of(project), true).get(0))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -187,16 +186,19 @@ public class ProjectController {
 
     /**
      * Projekte suchen
-     * GET /api/projects/search?term=suchbegriff
+     * GET /api/projects/search?term=suchbegriff&limit=20
+     * Beste Treffer zuerst; limit ist optional (höchstens 200), ohne limit werden alle Treffer geliefert
      */
     @GetMapping("/search")
     public ResponseEntity<Map<String, List<ProjectResponse>>> searchProjects(
-            @RequestParam String term) {
+            @RequestParam String term,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "true") boolean includeUsers) {
 
-        List<Project> projects = projectService.searchProjects(term);
-        List<ProjectResponse> responses = projects.stream()
-                .map(this::convertToProjectResponse)
-                .collect(Collectors.toList());
+        List<Project> projects = limit != null
+                ? projectService.searchProjects(term, limit)
+                : projectService.searchProjects(term);
+        List<ProjectResponse> responses = convertToProjectResponses(projects, includeUsers);
 
         return ResponseEntity.ok(Map.of("projects", responses));
     }
@@ -207,11 +209,11 @@ public class ProjectController {
      */
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER') or #userId == authentication.principal.id")
-    public ResponseEntity<Map<String, List<ProjectResponse>>> getProjectsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<Map<String, List<ProjectResponse>>> getProjectsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "true") boolean includeUsers) {
         List<Project> projects = projectService.findProjectsByUserId(userId);
-        List<ProjectResponse> responses = projects.stream()
-                .map(this::convertToProjectResponse)
-                .collect(Collectors.toList());
+        List<ProjectResponse> responses = convertToProjectResponses(projects, includeUsers);
 
         return ResponseEntity.ok(Map.of("projects", responses));
     }
@@ -222,11 +224,11 @@ public class ProjectController {
      */
     @GetMapping("/user/{userId}/active")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER') or #userId == authentication.principal.id")
-    public ResponseEntity<Map<String, List<ProjectResponse>>> getActiveProjectsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<Map<String, List<ProjectResponse>>> getActiveProjectsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "true") boolean includeUsers) {
         List<Project> projects = projectService.findActiveProjectsByUserId(userId);
-        List<ProjectResponse> responses = projects.stream()
-                .map(this::convertToProjectResponse)
-                .collect(Collectors.toList());
+        List<ProjectResponse> responses = convertToProjectResponses(projects, includeUsers);
 
         return ResponseEntity.ok(Map.of("projects", responses));
     }
@@ -237,11 +239,11 @@ public class ProjectController {
      */
     @GetMapping("/manager/{managerId}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER') or #managerId == authentication.principal.id")
-    public ResponseEntity<Map<String, List<ProjectResponse>>> getProjectsByManagerId(@PathVariable Long managerId) {
+    public ResponseEntity<Map<String, List<ProjectResponse>>> getProjectsByManagerId(
+            @PathVariable Long managerId,
+            @RequestParam(defaultValue = "true") boolean includeUsers) {
         List<Project> projects = projectService.findProjectsByManagerId(managerId);
-        List<ProjectResponse> responses = projects.stream()
-                .map(this::convertToProjectResponse)
-                .collect(Collectors.toList());
+        List<ProjectResponse> responses = convertToProjectResponses(projects, includeUsers);
 
         return ResponseEntity.ok(Map.of("projects", responses));
     }
@@ -252,11 +254,11 @@ public class ProjectController {
      */
     @GetMapping("/manager/{managerId}/active")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER') or #managerId == authentication.principal.id")
-    public ResponseEntity<Map<String, List<ProjectResponse>>> getActiveProjectsByManagerId(@PathVariable Long managerId) {
+    public ResponseEntity<Map<String, List<ProjectResponse>>> getActiveProjectsByManagerId(
+            @PathVariable Long managerId,
+            @RequestParam(defaultValue = "true") boolean includeUsers) {
         List<Project> projects = projectService.findActiveProjectsByManagerId(managerId);
-        List<ProjectResponse> responses = projects.stream()
-                .map(this::convertToProjectResponse)
-                .collect(Collectors.toList());
+        List<ProjectResponse> responses = convertToProjectResponses(projects, includeUsers);
 
         return ResponseEntity.ok(Map.of("projects", responses));
     }
@@ -270,12 +272,37 @@ public class ProjectController {
         return true;
     }
 
+    /**
+     * Konvertiert Projekte zu ProjectResponse-DTOs. Statistiken und beteiligte Mitarbeiter werden für alle
+     * Projekte gemeinsam geladen, die Anzahl Abfragen ist damit unabhängig von der Anzahl Projekte.
+     * @param projects Die zu konvertierenden Projekte
+     * @param includeUsers false, um involvedUsers wegzulassen (Listenansichten)
+     * @return Liste von ProjectResponse-DTOs
+     */
+    private List<ProjectResponse> convertToProjectResponses(List<Project> projects, boolean includeUsers) {
+        List<Long> projectIds = projects.stream()
+                .map(Project::getId)
+                .collect(Collectors.toList());
+        Map<Long, ProjectResponse.ProjectStatistics> statistics = projectService.calculateStatisticsForProjects(projectIds);
+        Map<Long, List<User>> usersByProject = includeUsers
+                ? projectService.findUsersByProjectIds(projectIds)
+                : Map.of();
+
+        return projects.stream()
+                .map(project -> convertToProjectResponse(project, statistics.get(project.getId()),
+                        includeUsers ? usersByProject.getOrDefault(project.getId(), List.of()) : null))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Konvertiert ein Project-Objekt zu einem ProjectResponse-DTO
      * @param project Das zu konvertierende Project-Objekt
+     * @param statistics Vorab berechnete Statistiken des Projekts
+     * @param projectUsers Beteiligte Mitarbeiter oder null, wenn sie weggelassen werden
      * @return ProjectResponse-DTO
      */
-    private ProjectResponse convertToProjectResponse(Project project) {
+    private ProjectResponse convertToProjectResponse(Project project, ProjectResponse.ProjectStatistics statistics,
+                                                     List<User> projectUsers) {
         ProjectResponse response = new ProjectResponse();
         response.setId(project.getId());
         response.setName(project.getName());
@@ -293,16 +320,11 @@ public class ProjectController {
             response.setManagerName(null);
         }
 
-        // Statistiken hinzufügen
-        ProjectResponse.ProjectStatistics statistics = new ProjectResponse.ProjectStatistics();
-
-        // Gesamtstunden buchen
-        String totalHoursWorked = projectService.calculateTotalActualHoursForProject(project.getId());
-        statistics.setTotalHoursWorked(totalHoursWorked);
-
-        // Mitarbeiter die an dem Projekt gearbeitet haben
-        List<User> projectUsers = projectService.findUsersByProjectId(project.getId());
-        statistics.setActiveEmployees(projectUsers.size());
+        // Statistiken hinzufügen (Gesamtstunden, Einträge, Mitarbeiter)
+        response.setStatistics(statistics);
+        if (projectUsers == null) {
+            return response;
+        }
 
         // Konvertieren der Benutzer in eine Liste von UserResponse
         List<UserResponse> involvedUsers = projectUsers.stream()
@@ -318,7 +340,6 @@ public class ProjectController {
 
         // An response übergeben
         response.setInvolvedUsers(involvedUsers);
-        response.setStatistics(statistics);
 
         return response;
     }
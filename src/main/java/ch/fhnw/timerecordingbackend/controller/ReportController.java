@@ -0,0 +1,95 @@
+package ch.fhnw.timerecordingbackend.controller;
+
+import ch.fhnw.timerecordingbackend.dto.report.ReportResponse;
+import ch.fhnw.timerecordingbackend.model.enums.ReportGranularity;
+import ch.fhnw.timerecordingbackend.service.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * REST Controller für Auswertungen (Stunden pro Benutzer, Team und Projekt nach Tag, Woche oder Monat).
+ * Die Berechtigungen pro Auswertung werden im ReportService geprüft.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    /**
+     * Auswertung des angemeldeten Benutzers.
+     * @param from erster Tag (optional, Standard: 1. Januar des Jahres von {@code to})
+     * @param to letzter Tag (optional, Standard: heute)
+     * @param granularity DAY, WEEK oder MONTH (Standard: MONTH)
+     * @return aggregierte Zeilen pro Periode
+     */
+    @GetMapping("/me")
+    public ResponseEntity<ReportResponse> getMyReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String granularity) {
+        return ResponseEntity.ok(reportService.getCurrentUserReport(from, to, parseGranularity(granularity)));
+    }
+
+    /**
+     * Auswertung eines Benutzers (eigene, Teammitglieder oder als Admin alle).
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<ReportResponse> getUserReport(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String granularity) {
+        return ResponseEntity.ok(reportService.getUserReport(userId, from, to, parseGranularity(granularity)));
+    }
+
+    /**
+     * Auswertung eines Teams, ohne managerId das Team des angemeldeten Managers.
+     */
+    @GetMapping("/team")
+    public ResponseEntity<ReportResponse> getTeamReport(
+            @RequestParam(required = false) Long managerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String granularity) {
+        return ResponseEntity.ok(reportService.getTeamReport(managerId, from, to, parseGranularity(granularity)));
+    }
+
+    /**
+     * Auf ein Projekt gebuchte Stunden pro Periode und Benutzer.
+     */
+    @GetMapping("/projects/{projectId}")
+    public ResponseEntity<ReportResponse> getProjectReport(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String granularity) {
+        return ResponseEntity.ok(reportService.getProjectReport(projectId, from, to, parseGranularity(granularity)));
+    }
+
+    private static ReportGranularity parseGranularity(String granularity) {
+        if (granularity == null || granularity.isBlank()) {
+            return ReportGranularity.MONTH;
+        }
+        try {
+            return ReportGranularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Ungültige Granularität: " + granularity + " (erlaubt: DAY, WEEK, MONTH)");
+        }
+    }
+}
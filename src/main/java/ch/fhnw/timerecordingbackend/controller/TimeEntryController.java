@@ -1,14 +1,29 @@
 package ch.fhnw.timerecordingbackend.controller;
 
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryImportResult;
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryPageResponse;
 import ch.fhnw.timerecordingbackend.dto.time.TimeEntryRequest;
 import ch.fhnw.timerecordingbackend.dto.time.TimeEntryResponse;
+import ch.fhnw.timerecordingbackend.service.MonthlyBalanceService;
+import ch.fhnw.timerecordingbackend.service.TimeEntryImportService;
 import ch.fhnw.timerecordingbackend.service.TimeEntryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -23,9 +38,21 @@ import java.util.Map;
 @RequestMapping("/api/time-entries")
 public class TimeEntryController {
 
+    // Seitengrösse beim Streaming-Export, pro Seite wird nur diese Anzahl Einträge im Speicher gehalten
+    private static final int EXPORT_PAGE_SIZE = 500;
+
     @Autowired
     private TimeEntryService timeEntryService;
 
+    @Autowired
+    private TimeEntryImportService timeEntryImportService;
+
+    @Autowired
+    private MonthlyBalanceService monthlyBalanceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Erzeugt einen neuen Zeiteintrag.
      * @param timeEntryRequest DTO mit den Daten des neuen Eintrags
@@ -99,6 +126,25 @@ public class TimeEntryController {
         return ResponseEntity.ok(Map.of("entries", entries));
     }
 
+    /**
+     * Holt eine Seite der Zeiteinträge des Teams des angemeldeten Managers in einem Datumsfenster.
+     * Zugriff nur für Nutzer mit der Rolle MANAGER.
+     * @param from optionales Startdatum (inklusive, ISO-Format)
+     * @param to optionales Enddatum (inklusive, ISO-Format)
+     * @param cursor Cursor der vorherigen Seite (nextCursor) oder leer für die erste Seite
+     * @param limit maximale Anzahl Einträge pro Seite
+     * @return Seite mit Einträgen, nextCursor und hasMore
+     */
+    @GetMapping("/team/page")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public ResponseEntity<TimeEntryPageResponse> getTeamTimeEntriesPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(timeEntryService.getTeamTimeEntriesPage(from, to, cursor, limit));
+    }
+
     /**
      * Holt alle Zeiteinträge aller Nutzer.
      * Zugriff nur für Admins.
@@ -111,6 +157,89 @@ public class TimeEntryController {
         return ResponseEntity.ok(Map.of("entries", entries));
     }
 
+    /**
+     * Holt eine Seite aller Zeiteinträge mittels Keyset-Paginierung.
+     * Zugriff nur für Admins.
+     * @param from optionales Startdatum (inklusive, ISO-Format)
+     * @param to optionales Enddatum (inklusive, ISO-Format)
+     * @param userId optionale Benutzer-ID
+     * @param projectId optionale Projekt-ID
+     * @param cursor Cursor der vorherigen Seite (nextCursor) oder leer für die erste Seite
+     * @param limit maximale Anzahl Einträge pro Seite
+     * @return Seite mit Einträgen, nextCursor und hasMore
+     */
+    @GetMapping("/all/page")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<TimeEntryPageResponse> getAllTimeEntriesPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(timeEntryService.getAllTimeEntriesPage(from, to, userId, projectId, cursor, limit));
+    }
+
+    /**
+     * Exportiert alle Zeiteinträge als NDJSON-Stream (ein JSON-Objekt pro Zeile).
+     * Die Einträge werden seitenweise geladen und direkt geschrieben.
+     * Zugriff nur für Admins.
+     * @param from optionales Startdatum (inklusive, ISO-Format)
+     * @param to optionales Enddatum (inklusive, ISO-Format)
+     * @param userId optionale Benutzer-ID
+     * @param projectId optionale Projekt-ID
+     * @return Stream der Zeiteinträge im Format application/x-ndjson
+     */
+    @GetMapping(value = "/all/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllTimeEntries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long projectId) {
+        // Erste Seite synchron laden, damit ungültige Filter noch als 400 gemeldet werden
+        TimeEntryPageResponse firstPage = timeEntryService.getAllTimeEntriesPage(
+                from, to, userId, projectId, null, EXPORT_PAGE_SIZE);
+
+        StreamingResponseBody body = outputStream -> {
+            TimeEntryPageResponse page = firstPage;
+            while (true) {
+                for (TimeEntryResponse entry : page.getEntries()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(entry));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                if (page.getNextCursor() == null) {
+                    break;
+                }
+                page = timeEntryService.getAllTimeEntriesPage(
+                        from, to, userId, projectId, page.getNextCursor(), EXPORT_PAGE_SIZE);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Massenimport von Zeiteinträgen für beliebige Benutzer und Tage (nur Admin).
+     * Akzeptiert ein JSON-Array oder CSV mit Kopfzeile, der Body wird gestreamt gelesen.
+     * @param request HTTP-Request mit dem Import im Body
+     * @return Anzahl importierter Einträge und Fehler pro Zeile
+     * @throws IOException bei Lesefehlern
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<TimeEntryImportResult> importTimeEntries(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        if ("csv".equalsIgnoreCase(contentType.getSubtype())) {
+            Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            return ResponseEntity.ok(timeEntryImportService.importCsv(
+                    new InputStreamReader(request.getInputStream(), charset)));
+        }
+        return ResponseEntity.ok(timeEntryImportService.importJson(request.getInputStream()));
+    }
+
     /**
      * Startet die Zeiterfassung.
      * Optional kann eine Projekt-ID angegeben werden.
@@ -133,6 +262,32 @@ public class TimeEntryController {
         return ResponseEntity.ok(timeEntryService.stopTimeTracking(entryId));
     }
 
+    /**
+     * Liefert die laufende Zeiterfassung des angemeldeten Nutzers.
+     * Wird vom Dashboard abgefragt und ohne Datenbankzugriff aus dem In-Memory-Register beantwortet.
+     * @return Map mit "active" und ggf. Eintrags-ID, Startzeit und Projekt
+     */
+    @GetMapping("/active")
+    public ResponseEntity<Map<String, Object>> getActiveTimer() {
+        return ResponseEntity.ok(timeEntryService.getActiveTimer());
+    }
+
+    /**
+     * Liefert den Saldo des angemeldeten Nutzers für einen Zeitraum von Monaten aus den Monatssalden.
+     * Ohne Angaben wird das laufende Jahr bis zum aktuellen Monat verwendet.
+     * @param from erster Monat im Format yyyy-MM (optional)
+     * @param to letzter Monat im Format yyyy-MM (optional)
+     * @return Map mit Ist-, Soll-, Differenzzeit, Abwesenheitsgutschrift, Saldo und den einzelnen Monaten
+     */
+    @GetMapping("/balance")
+    public ResponseEntity<Map<String, Object>> getBalance(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        YearMonth toMonth = to != null ? to : YearMonth.now();
+        YearMonth fromMonth = from != null ? from : YearMonth.of(toMonth.getYear(), 1);
+        return ResponseEntity.ok(monthlyBalanceService.getCurrentUserBalance(fromMonth, toMonth));
+    }
+
     /**
      * Weist einen Zeiteintrag einem Projekt zu.
      * @param id ID des Zeiteintrags
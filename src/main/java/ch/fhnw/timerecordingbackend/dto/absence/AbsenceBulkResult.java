@@ -0,0 +1,103 @@
+package ch.fhnw.timerecordingbackend.dto.absence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ergebnis einer Sammelgenehmigung bzw. Sammelablehnung von Abwesenheiten.
+ * {@code updated} zählt geänderte, {@code unchanged} bereits im Zielstatus befindliche Abwesenheiten.
+ * Fehler werden mit der ID der Abwesenheit gemeldet, die Liste ist auf {@link #MAX_REPORTED_ERRORS} Einträge begrenzt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class AbsenceBulkResult {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private List<IdError> errors = new ArrayList<>();
+
+    /**
+     * Erfasst einen Fehler für eine Abwesenheits-ID.
+     */
+    public void addError(long id, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new IdError(id, message));
+        }
+    }
+
+    public void addUpdated(int count) {
+        updated += count;
+    }
+
+    public void addUnchanged(int count) {
+        unchanged += count;
+    }
+
+    // Getter und Setter
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<IdError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<IdError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Fehler zu einer einzelnen Abwesenheit.
+     */
+    public static class IdError {
+        private long id;
+        private String message;
+
+        public IdError() {}
+
+        public IdError(long id, String message) {
+            this.id = id;
+            this.message = message;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ch.fhnw.timerecordingbackend.dto.absence;
+
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Antwort-DTO für den Team-Abwesenheitskalender: wer ist an welchem Tag abwesend, getrennt nach Abwesenheitsart.
+ * Pro Benutzer und Art wird ein Tages-Bitset als Base64 übertragen. Bit i (Byte i / 8, Bit i % 8, niederwertigstes
+ * Bit zuerst) steht für den Tag {@code from + i}. Arten ohne Abwesenheit im Zeitraum fehlen in der Zeile.
+ * {@code awayPerDay} enthält die Anzahl abwesender Teammitglieder pro Tag.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class AbsenceCalendarResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private List<Row> users = new ArrayList<>();
+    private int[] awayPerDay;
+
+    public AbsenceCalendarResponse() {}
+
+    public AbsenceCalendarResponse(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+        this.days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        this.awayPerDay = new int[days];
+    }
+
+    // Getter und Setter
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public void setDays(int days) {
+        this.days = days;
+    }
+
+    public List<Row> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<Row> users) {
+        this.users = users;
+    }
+
+    public int[] getAwayPerDay() {
+        return awayPerDay;
+    }
+
+    public void setAwayPerDay(int[] awayPerDay) {
+        this.awayPerDay = awayPerDay;
+    }
+
+    /**
+     * Kalenderzeile eines Teammitglieds.
+     */
+    public static class Row {
+        private Long userId;
+        private String firstName;
+        private String lastName;
+        private Map<AbsenceType, String> absences = new EnumMap<>(AbsenceType.class);
+
+        public Row() {}
+
+        public Row(Long userId, String firstName, String lastName) {
+            this.userId = userId;
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public void setLastName(String lastName) {
+            this.lastName = lastName;
+        }
+
+        public Map<AbsenceType, String> getAbsences() {
+            return absences;
+        }
+
+        public void setAbsences(Map<AbsenceType, String> absences) {
+            this.absences = absences;
+        }
+    }
+}
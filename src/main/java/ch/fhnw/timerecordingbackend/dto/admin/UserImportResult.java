@@ -0,0 +1,90 @@
+package ch.fhnw.timerecordingbackend.dto.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ergebnis einer Massenanlage von Benutzern bzw. einer Sammelgenehmigung von Registrierungsanfragen.
+ * Fehler werden beim Import mit der Zeilennummer, bei der Genehmigung mit der ID der Anfrage gemeldet.
+ * Die Fehlerliste ist auf {@link #MAX_REPORTED_ERRORS} Einträge begrenzt, {@code failed} zählt alle Fehler.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class UserImportResult {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int created;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Erfasst einen Fehler für eine Zeile (1-basiert, ohne Kopfzeile) bzw. eine Anfrage-ID.
+     */
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void addCreated(int count) {
+        created += count;
+    }
+
+    // Getter und Setter
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Fehler einer einzelnen Zeile bzw. Anfrage.
+     */
+    public static class RowError {
+        private long row;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
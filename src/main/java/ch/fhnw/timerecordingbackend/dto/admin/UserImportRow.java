@@ -0,0 +1,23 @@
+package ch.fhnw.timerecordingbackend.dto.admin;
+
+/**
+ * Zeile einer Massenanlage von Benutzern.
+ * Entspricht einem {@link UserRegistrationRequest}, der Manager kann zusätzlich per E-Mail angegeben werden.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class UserImportRow extends UserRegistrationRequest {
+
+    // E-Mail des Managers, wird verwendet, wenn keine managerId angegeben ist
+    private String managerEmail;
+
+    // ==================== Getter und Setter ====================
+
+    public String getManagerEmail() {
+        return managerEmail;
+    }
+
+    public void setManagerEmail(String managerEmail) {
+        this.managerEmail = managerEmail;
+    }
+}
@@ -0,0 +1,68 @@
+package ch.fhnw.timerecordingbackend.dto.admin;
+
+import java.util.List;
+
+/**
+ * Antwort-DTO für eine Seite der Benutzerliste mit Gesamtanzahl für die Seitennavigation.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class UserPageResponse {
+
+    private List<UserResponse> users;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public UserPageResponse() {}
+
+    public UserPageResponse(List<UserResponse> users, int page, int size, long totalElements, int totalPages) {
+        this.users = users;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    // Getter und Setter
+    public List<UserResponse> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserResponse> users) {
+        this.users = users;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+}
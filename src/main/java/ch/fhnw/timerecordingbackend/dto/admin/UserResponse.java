@@ -4,6 +4,8 @@ import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -30,6 +32,32 @@ public class UserResponse {
     private Long managerId;
     private String managerName;
 
+    public UserResponse() {
+    }
+
+    /**
+     * Konstruktor für die Projektionsabfrage der Benutzerliste (UserRepository.findUserPage)
+     * @param roleNames Rollennamen kommagetrennt, wie von LISTAGG geliefert
+     */
+    public UserResponse(Long id, String firstName, String lastName, String email, boolean active, UserStatus status,
+                        double plannedHoursPerDay, LocalDateTime createdAt, LocalDateTime updatedAt,
+                        Long managerId, String managerFirstName, String managerLastName, String roleNames) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.active = active;
+        this.status = status;
+        this.plannedHoursPerDay = plannedHoursPerDay;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.managerId = managerId;
+        this.managerName = managerId != null ? managerFirstName + " " + managerLastName : null;
+        this.roles = roleNames == null || roleNames.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(Arrays.asList(roleNames.split(",")));
+    }
+
     /**
      * Passwort zurücksetzen
      * @param user
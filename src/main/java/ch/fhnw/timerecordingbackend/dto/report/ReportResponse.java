@@ -0,0 +1,94 @@
+package ch.fhnw.timerecordingbackend.dto.report;
+
+import ch.fhnw.timerecordingbackend.model.enums.ReportGranularity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Antwort-DTO für Auswertungen. Die Zeilen sind bereits aggregiert und werden kompakt als Arrays
+ * in der Reihenfolge von {@code columns} übertragen, Benutzernamen nur einmal in {@code users}.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class ReportResponse {
+
+    private ReportGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<String> columns;
+    private List<Object[]> rows;
+    private Map<Long, String> users;
+    private Map<String, Object> totals;
+
+    public ReportResponse() {}
+
+    public ReportResponse(ReportGranularity granularity, LocalDate from, LocalDate to, List<String> columns,
+                          List<Object[]> rows, Map<Long, String> users, Map<String, Object> totals) {
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.columns = columns;
+        this.rows = rows;
+        this.users = users;
+        this.totals = totals;
+    }
+
+    // Getter und Setter
+    public ReportGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(ReportGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<Object[]> rows) {
+        this.rows = rows;
+    }
+
+    public Map<Long, String> getUsers() {
+        return users;
+    }
+
+    public void setUsers(Map<Long, String> users) {
+        this.users = users;
+    }
+
+    public Map<String, Object> getTotals() {
+        return totals;
+    }
+
+    public void setTotals(Map<String, Object> totals) {
+        this.totals = totals;
+    }
+}
@@ -0,0 +1,89 @@
+package ch.fhnw.timerecordingbackend.dto.time;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ergebnis eines Massenimports von Zeiteinträgen mit Fehlern pro Zeile.
+ * Die Fehlerliste ist auf {@link #MAX_REPORTED_ERRORS} Einträge begrenzt, {@code failed} zählt alle Fehler.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class TimeEntryImportResult {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Erfasst einen Fehler für eine Zeile (1-basiert, ohne Kopfzeile).
+     */
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    // Getter und Setter
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Fehler einer einzelnen Importzeile.
+     */
+    public static class RowError {
+        private long row;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
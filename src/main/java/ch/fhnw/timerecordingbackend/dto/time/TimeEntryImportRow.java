@@ -0,0 +1,34 @@
+package ch.fhnw.timerecordingbackend.dto.time;
+
+/**
+ * Zeile eines Massenimports von Zeiteinträgen.
+ * Entspricht einem {@link TimeEntryRequest}, ergänzt um den Benutzer (per ID oder E-Mail), dem der Eintrag gehört.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class TimeEntryImportRow extends TimeEntryRequest {
+
+    // ID des Benutzers, alternativ zur E-Mail
+    private Long userId;
+
+    // E-Mail des Benutzers, wird verwendet, wenn keine ID angegeben ist
+    private String userEmail;
+
+    // ==================== Getter und Setter ====================
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+}
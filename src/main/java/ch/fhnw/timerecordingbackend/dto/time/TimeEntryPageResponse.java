@@ -0,0 +1,52 @@
+package ch.fhnw.timerecordingbackend.dto.time;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Antwort-DTO für eine Seite von Zeiteinträgen bei Keyset-Paginierung.
+ * Der Cursor ist opak und wird unverändert für die nächste Seite zurückgegeben.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimeEntryPageResponse {
+
+    private List<TimeEntryResponse> entries;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public TimeEntryPageResponse() {}
+
+    public TimeEntryPageResponse(List<TimeEntryResponse> entries, String nextCursor, boolean hasMore) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getter und Setter
+    public List<TimeEntryResponse> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<TimeEntryResponse> entries) {
+        this.entries = entries;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
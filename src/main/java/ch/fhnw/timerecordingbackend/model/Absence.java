@@ -14,7 +14,10 @@ import java.time.temporal.ChronoUnit;
  * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
  */
 @Entity
-@Table(name = "absences")
+@Table(name = "absences", indexes = {
+        // Index für Überschneidungs- und Kalenderabfragen pro Benutzer und Zeitraum
+        @Index(name = "idx_absences_user_start_end", columnList = "user_id, start_date, end_date")
+})
 public class Absence {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -42,6 +45,13 @@ public class Absence {
     @JoinColumn(name = "approver_id")
     private User approver;
 
+    /**
+     * Bei der Genehmigung gutgeschriebene Minuten pro Werktag, damit die Gutschrift im Monatssaldo
+     * beim Ablehnen, Ändern oder Löschen exakt zurückgebucht werden kann (null = nicht gutgeschrieben)
+     */
+    @Column(name = "credited_minutes_per_day")
+    private Integer creditedMinutesPerDay;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -119,6 +129,9 @@ public class Absence {
     public User getApprover() { return approver; }
     public void setApprover(User approver) { this.approver = approver; }
 
+    public Integer getCreditedMinutesPerDay() { return creditedMinutesPerDay; }
+    public void setCreditedMinutesPerDay(Integer creditedMinutesPerDay) { this.creditedMinutesPerDay = creditedMinutesPerDay; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,85 @@
+package ch.fhnw.timerecordingbackend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Entität Klasse für die Hülle (Closure Table) der Manager-Hierarchie: eine Zeile pro Paar aus Vorgesetztem und
+ * direkt oder indirekt unterstelltem Mitarbeiter. Tiefe 1 entspricht dem direkten Manager, 2 dem Manager des Managers usw.
+ * Wird bei jeder Änderung von users.manager_id in derselben Transaktion nachgeführt, damit Teamabfragen mit einer
+ * indizierten Unterabfrage statt über findByManager pro Aufruf auskommen.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Entity
+@Table(name = "manager_hierarchy", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_manager_hierarchy_ancestor_descendant", columnNames = {"ancestor_id", "descendant_id"})
+}, indexes = {
+        @Index(name = "idx_manager_hierarchy_descendant_depth", columnList = "descendant_id, depth")
+})
+public class ManagerHierarchy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Abgeleitete Daten, werden mit dem Benutzer gelöscht
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ancestor_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User ancestor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descendant_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User descendant;
+
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    /**
+     * Konstruktoren
+     */
+    public ManagerHierarchy() {
+    }
+
+    public ManagerHierarchy(User ancestor, User descendant, int depth) {
+        this.ancestor = ancestor;
+        this.descendant = descendant;
+        this.depth = depth;
+    }
+
+    // Getter und Setter
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getAncestor() {
+        return ancestor;
+    }
+
+    public void setAncestor(User ancestor) {
+        this.ancestor = ancestor;
+    }
+
+    public User getDescendant() {
+        return descendant;
+    }
+
+    public void setDescendant(User descendant) {
+        this.descendant = descendant;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+}
@@ -0,0 +1,155 @@
+package ch.fhnw.timerecordingbackend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entität Klasse für den Monatssaldo eines Benutzers (Ist-, Soll-, Differenzzeit und Abwesenheitsgutschrift in Minuten).
+ * Wird bei jeder Änderung von Zeiteinträgen und genehmigten Abwesenheiten inkrementell nachgeführt,
+ * damit Salden für beliebige Zeiträume über Monatszeilen statt über alle Einträge berechnet werden.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Entity
+@Table(name = "monthly_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_monthly_balances_user_month", columnNames = {"user_id", "month_start"})
+})
+public class MonthlyBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Abgeleitete Daten, werden mit dem Benutzer gelöscht
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    /**
+     * Erster Tag des Monats
+     */
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "actual_minutes", nullable = false)
+    private int actualMinutes;
+
+    @Column(name = "planned_minutes", nullable = false)
+    private int plannedMinutes;
+
+    @Column(name = "difference_minutes", nullable = false)
+    private int differenceMinutes;
+
+    @Column(name = "absence_credit_minutes", nullable = false)
+    private int absenceCreditMinutes;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Konstruktoren
+     */
+    public MonthlyBalance() {
+    }
+
+    public MonthlyBalance(User user, LocalDate monthStart) {
+        this.user = user;
+        this.monthStart = monthStart.withDayOfMonth(1);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Saldo des Monats: Differenz aus Ist- und Sollzeit zuzüglich Abwesenheitsgutschrift
+     */
+    public int getBalanceMinutes() {
+        return differenceMinutes + absenceCreditMinutes;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getter und Setter
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+
+    public void setMonthStart(LocalDate monthStart) {
+        this.monthStart = monthStart;
+    }
+
+    public int getActualMinutes() {
+        return actualMinutes;
+    }
+
+    public void setActualMinutes(int actualMinutes) {
+        this.actualMinutes = actualMinutes;
+    }
+
+    public int getPlannedMinutes() {
+        return plannedMinutes;
+    }
+
+    public void setPlannedMinutes(int plannedMinutes) {
+        this.plannedMinutes = plannedMinutes;
+    }
+
+    public int getDifferenceMinutes() {
+        return differenceMinutes;
+    }
+
+    public void setDifferenceMinutes(int differenceMinutes) {
+        this.differenceMinutes = differenceMinutes;
+    }
+
+    public int getAbsenceCreditMinutes() {
+        return absenceCreditMinutes;
+    }
+
+    public void setAbsenceCreditMinutes(int absenceCreditMinutes) {
+        this.absenceCreditMinutes = absenceCreditMinutes;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "MonthlyBalance{" +
+                "id=" + id +
+                ", user=" + (user != null ? user.getId() : null) +
+                ", monthStart=" + monthStart +
+                ", actualMinutes=" + actualMinutes +
+                ", plannedMinutes=" + plannedMinutes +
+                ", differenceMinutes=" + differenceMinutes +
+                ", absenceCreditMinutes=" + absenceCreditMinutes +
+                '}';
+    }
+}
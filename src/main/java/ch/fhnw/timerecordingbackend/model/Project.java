@@ -1,5 +1,6 @@
 package ch.fhnw.timerecordingbackend.model;
 
+import ch.fhnw.timerecordingbackend.service.SearchIndexEntityListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
@@ -13,6 +14,7 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "projects")
+@EntityListeners(SearchIndexEntityListener.class)
 public class Project {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,108 @@
+package ch.fhnw.timerecordingbackend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+/**
+ * Entität Klasse für die Projektzugehörigkeit eines Benutzers: Benutzer, die mindestens einen Zeiteintrag auf dem
+ * Projekt haben, mit erstem und letztem Buchungsdatum und Anzahl Einträgen.
+ * Wird bei jeder Änderung von Zeiteinträgen mit Projekt in derselben Transaktion nachgeführt, damit Projektlisten
+ * pro Benutzer und Benutzerlisten pro Projekt nicht über alle Zeiteinträge ermittelt werden.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Entity
+@Table(name = "project_memberships", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_project_memberships_user_project", columnNames = {"user_id", "project_id"})
+}, indexes = {
+        @Index(name = "idx_project_memberships_project_user", columnList = "project_id, user_id")
+})
+public class ProjectMembership {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Abgeleitete Daten, werden mit dem Benutzer bzw. Projekt gelöscht
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Project project;
+
+    @Column(name = "first_booked_date")
+    private LocalDate firstBookedDate;
+
+    @Column(name = "last_booked_date")
+    private LocalDate lastBookedDate;
+
+    @Column(name = "entry_count", nullable = false)
+    private int entryCount;
+
+    /**
+     * Konstruktoren
+     */
+    public ProjectMembership() {
+    }
+
+    public ProjectMembership(User user, Project project) {
+        this.user = user;
+        this.project = project;
+    }
+
+    // Getter und Setter
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    public void setProject(Project project) {
+        this.project = project;
+    }
+
+    public LocalDate getFirstBookedDate() {
+        return firstBookedDate;
+    }
+
+    public void setFirstBookedDate(LocalDate firstBookedDate) {
+        this.firstBookedDate = firstBookedDate;
+    }
+
+    public LocalDate getLastBookedDate() {
+        return lastBookedDate;
+    }
+
+    public void setLastBookedDate(LocalDate lastBookedDate) {
+        this.lastBookedDate = lastBookedDate;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+}
@@ -1,12 +1,13 @@
 package ch.fhnw.timerecordingbackend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Entität Klasse für Zeiteinträge
@@ -14,7 +15,13 @@ import java.util.Set;
  * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
  */
 @Entity
-@Table(name = "time_entries")
+@Table(name = "time_entries", indexes = {
+        // Index für Keyset-Paginierung, in derselben Richtung wie die Sortierung (alle Spalten absteigend)
+        @Index(name = "idx_time_entries_date_desc_user_id", columnList = "date DESC, user_id DESC, id DESC"),
+        // Indizes für Summen pro Benutzer/Zeitraum und pro Projekt/Zeitraum (Auswertungen)
+        @Index(name = "idx_time_entries_user_date", columnList = "user_id, date"),
+        @Index(name = "idx_time_entries_project_date", columnList = "project_id, date")
+})
 public class TimeEntry {
 
     @Id
@@ -28,28 +35,31 @@ public class TimeEntry {
     @Column(nullable = false)
     private LocalDate date;
 
-    @ElementCollection
-    @CollectionTable(name = "time_entry_start_times", joinColumns = @JoinColumn(name = "time_entry_id"))
-    @Column(name = "start_time")
-    private Set<LocalTime> startTimes = new HashSet<>();
-
-    @ElementCollection
-    @CollectionTable(name = "time_entry_end_times", joinColumns = @JoinColumn(name = "time_entry_id"))
-    @Column(name = "end_time")
-    private Set<LocalTime> endTimes = new HashSet<>();
+    /**
+     * Arbeits- und Pausenintervalle als Minuten-des-Tages-Paare in je einer Spalte
+     */
+    @Convert(converter = TimeIntervalsConverter.class)
+    @Column(name = "work_intervals", length = 1024)
+    private TimeIntervals workIntervals = TimeIntervals.EMPTY;
 
-    @ElementCollection
-    @CollectionTable(name = "time_entry_breaks", joinColumns = @JoinColumn(name = "time_entry_id"))
-    private Set<Break> breaks = new HashSet<>();
+    @Convert(converter = TimeIntervalsConverter.class)
+    @Column(name = "break_intervals", length = 1024)
+    private TimeIntervals breakIntervals = TimeIntervals.EMPTY;
 
-    @Column(name = "actual_hours", nullable = false)
-    private String actualHours;
+    /**
+     * Arbeitszeiten in Minuten, Formatierung als "HH:mm" erfolgt erst im DTO
+     */
+    @ColumnDefault("0")
+    @Column(name = "actual_minutes", nullable = false)
+    private int actualMinutes;
 
-    @Column(name = "planned_hours", nullable = false)
-    private String plannedHours;
+    @ColumnDefault("0")
+    @Column(name = "planned_minutes", nullable = false)
+    private int plannedMinutes;
 
-    @Column(nullable = false)
-    private String difference;
+    @ColumnDefault("0")
+    @Column(name = "difference_minutes", nullable = false)
+    private int differenceMinutes;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -61,21 +71,29 @@ public class TimeEntry {
     @JoinColumn(name = "project_id")
     private Project project;
 
+    /**
+     * Schreibgeschützte Sicht auf die Fremdschlüsselspalten für Abfragen (Keyset-Paginierung), damit Filter,
+     * Cursor und Sortierung auf time_entries statt auf den per JOIN FETCH geladenen Tabellen ausgewertet werden.
+     * Gesetzt werden die Werte ausschliesslich über user und project.
+     */
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "project_id", insertable = false, updatable = false)
+    private Long projectId;
+
     /**
      * Konstruktoren
      */
     public TimeEntry() {
-        this.actualHours = "00:00";
-        this.plannedHours = "00:00";
-        this.difference = "00:00";
     }
 
-    public TimeEntry(User user, LocalDate date, String actualHours, String plannedHours, String difference) {
+    public TimeEntry(User user, LocalDate date, int actualMinutes, int plannedMinutes, int differenceMinutes) {
         this.user = user;
         this.date = date;
-        this.actualHours = actualHours;
-        this.plannedHours = plannedHours;
-        this.difference = difference;
+        this.actualMinutes = actualMinutes;
+        this.plannedMinutes = plannedMinutes;
+        this.differenceMinutes = differenceMinutes;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
@@ -84,22 +102,40 @@ public class TimeEntry {
      * Start, Pausen- und Endzeit hinzufügen
      */
     public void addStartTime(LocalTime startTime) {
-        startTimes.add(startTime);
+        workIntervals = getWorkIntervals().with(startTime, null);
     }
 
+    /**
+     * Schliesst das offene Arbeitsintervall mit der angegebenen Endzeit
+     */
     public void addEndTime(LocalTime endTime) {
-        endTimes.add(endTime);
+        workIntervals = getWorkIntervals().closeOpen(endTime);
     }
 
     public void addBreak(LocalTime start, LocalTime end) {
-        breaks.add(new Break(start, end));
+        breakIntervals = getBreakIntervals().with(start, end);
+    }
+
+    /**
+     * Setzt die Arbeitszeiten aus Start- und Endzeiten, die sortiert paarweise zugeordnet werden
+     */
+    public void setWorkTimes(List<LocalTime> startTimes, List<LocalTime> endTimes) {
+        workIntervals = TimeIntervals.fromStartAndEndTimes(startTimes, endTimes);
+    }
+
+    /**
+     * Alle Arbeits- und Pausenzeiten entfernen
+     */
+    public void clearTimes() {
+        workIntervals = TimeIntervals.EMPTY;
+        breakIntervals = TimeIntervals.EMPTY;
     }
 
     /**
      * Zeiteintrag aktiv prüfen
      */
     public boolean isActive() {
-        return startTimes.size() > endTimes.size();
+        return getWorkIntervals().hasOpenInterval();
     }
 
     /**
@@ -135,52 +171,72 @@ public class TimeEntry {
         this.date = date;
     }
 
-    public Set<LocalTime> getStartTimes() {
-        return startTimes;
+    public TimeIntervals getWorkIntervals() {
+        return workIntervals != null ? workIntervals : TimeIntervals.EMPTY;
+    }
+
+    public void setWorkIntervals(TimeIntervals workIntervals) {
+        this.workIntervals = workIntervals;
     }
 
-    public void setStartTimes(Set<LocalTime> startTimes) {
-        this.startTimes = startTimes;
+    public TimeIntervals getBreakIntervals() {
+        return breakIntervals != null ? breakIntervals : TimeIntervals.EMPTY;
     }
 
-    public Set<LocalTime> getEndTimes() {
-        return endTimes;
+    public void setBreakIntervals(TimeIntervals breakIntervals) {
+        this.breakIntervals = breakIntervals;
     }
 
-    public void setEndTimes(Set<LocalTime> endTimes) {
-        this.endTimes = endTimes;
+    /**
+     * Sortierte Startzeiten, abgeleitet aus den Arbeitsintervallen
+     */
+    public List<LocalTime> getStartTimes() {
+        return getWorkIntervals().startTimes();
     }
 
-    public Set<Break> getBreaks() {
-        return breaks;
+    /**
+     * Sortierte Endzeiten der abgeschlossenen Arbeitsintervalle
+     */
+    public List<LocalTime> getEndTimes() {
+        return getWorkIntervals().endTimes();
     }
 
-    public void setBreaks(Set<Break> breaks) {
-        this.breaks = breaks;
+    /**
+     * Pausen, abgeleitet aus den Pausenintervallen
+     */
+    public List<Break> getBreaks() {
+        TimeIntervals intervals = getBreakIntervals();
+        List<Break> result = new ArrayList<>(intervals.size());
+        for (int i = 0; i < intervals.size(); i++) {
+            int end = intervals.endMinute(i);
+            result.add(new Break(TimeIntervals.toTime(intervals.startMinute(i)),
+                    end != TimeIntervals.OPEN ? TimeIntervals.toTime(end) : null));
+        }
+        return result;
     }
 
-    public String getActualHours() {
-        return actualHours;
+    public int getActualMinutes() {
+        return actualMinutes;
     }
 
-    public void setActualHours(String actualHours) {
-        this.actualHours = actualHours;
+    public void setActualMinutes(int actualMinutes) {
+        this.actualMinutes = actualMinutes;
     }
 
-    public String getPlannedHours() {
-        return plannedHours;
+    public int getPlannedMinutes() {
+        return plannedMinutes;
     }
 
-    public void setPlannedHours(String plannedHours) {
-        this.plannedHours = plannedHours;
+    public void setPlannedMinutes(int plannedMinutes) {
+        this.plannedMinutes = plannedMinutes;
     }
 
-    public String getDifference() {
-        return difference;
+    public int getDifferenceMinutes() {
+        return differenceMinutes;
     }
 
-    public void setDifference(String difference) {
-        this.difference = difference;
+    public void setDifferenceMinutes(int differenceMinutes) {
+        this.differenceMinutes = differenceMinutes;
     }
 
     public LocalDateTime getCreatedAt() {
@@ -217,22 +273,21 @@ public class TimeEntry {
                 "id=" + id +
                 ", user=" + (user != null ? user.getId() : null) +
                 ", date=" + date +
-                ", actualHours='" + actualHours + '\'' +
-                ", plannedHours='" + plannedHours + '\'' +
-                ", difference='" + difference + '\'' +
+                ", workIntervals=" + workIntervals +
+                ", breakIntervals=" + breakIntervals +
+                ", actualMinutes=" + actualMinutes +
+                ", plannedMinutes=" + plannedMinutes +
+                ", differenceMinutes=" + differenceMinutes +
                 ", project=" + (project != null ? project.getName() : null) +
                 '}';
     }
 
     /**
-     * Embedded-Klasse für Pausen
+     * Wertklasse für Pausen
      */
-    @Embeddable
     public static class Break {
-        @Column(name = "break_start")
         private LocalTime start;
 
-        @Column(name = "break_end")
         private LocalTime end;
 
         // Konstruktor
@@ -0,0 +1,227 @@
+package ch.fhnw.timerecordingbackend.model;
+
+import ch.fhnw.timerecordingbackend.util.WorkingTimeCalculator;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unveränderliche, nach Startzeit sortierte Liste von Zeitintervallen eines Tages.
+ * Intern als Array von Minuten-des-Tages-Paaren [start0, end0, start1, end1, ...] gehalten,
+ * ein noch offenes Intervall (laufende Zeiterfassung) hat als Ende {@link #OPEN}.
+ * Persistiert wird die Liste über den {@link TimeIntervalsConverter} in einer einzigen Spalte.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public final class TimeIntervals {
+
+    public static final int OPEN = WorkingTimeCalculator.OPEN;
+    public static final TimeIntervals EMPTY = new TimeIntervals(new int[0]);
+
+    private final int[] minutes;
+
+    private TimeIntervals(int[] minutes) {
+        this.minutes = minutes;
+    }
+
+    /**
+     * Erstellt Intervalle aus Start- und Endzeiten. Beide Listen werden sortiert und paarweise zugeordnet,
+     * überzählige Startzeiten bleiben offen. Überzählige Endzeiten werden ignoriert.
+     */
+    public static TimeIntervals fromStartAndEndTimes(List<LocalTime> startTimes, List<LocalTime> endTimes) {
+        int[] starts = toSortedMinutes(startTimes);
+        int[] ends = toSortedMinutes(endTimes);
+        int[] result = new int[starts.length * 2];
+        for (int i = 0; i < starts.length; i++) {
+            result[2 * i] = starts[i];
+            result[2 * i + 1] = i < ends.length ? ends[i] : OPEN;
+        }
+        return new TimeIntervals(result);
+    }
+
+    /**
+     * Erstellt Intervalle aus einem Minuten-Array (Paare aus Start und Ende), die Paare werden nach Start sortiert.
+     */
+    public static TimeIntervals ofMinutes(int... pairs) {
+        if (pairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Intervalle benötigen eine gerade Anzahl Werte");
+        }
+        if (pairs.length == 0) {
+            return EMPTY;
+        }
+        int[] copy = pairs.clone();
+        sortPairs(copy);
+        return new TimeIntervals(copy);
+    }
+
+    /**
+     * Fügt ein Intervall hinzu und liefert eine neue Instanz.
+     * @param start Startzeit
+     * @param end Endzeit oder null für ein offenes Intervall
+     */
+    public TimeIntervals with(LocalTime start, LocalTime end) {
+        int[] copy = Arrays.copyOf(minutes, minutes.length + 2);
+        copy[minutes.length] = toMinute(start);
+        copy[minutes.length + 1] = end != null ? toMinute(end) : OPEN;
+        sortPairs(copy);
+        return new TimeIntervals(copy);
+    }
+
+    /**
+     * Schliesst das zuletzt begonnene offene Intervall und liefert eine neue Instanz.
+     * @throws IllegalStateException wenn kein offenes Intervall existiert
+     */
+    public TimeIntervals closeOpen(LocalTime end) {
+        for (int i = minutes.length - 2; i >= 0; i -= 2) {
+            if (minutes[i + 1] == OPEN) {
+                int[] copy = minutes.clone();
+                copy[i + 1] = toMinute(end);
+                return new TimeIntervals(copy);
+            }
+        }
+        throw new IllegalStateException("Kein offenes Zeitintervall vorhanden");
+    }
+
+    public int size() {
+        return minutes.length / 2;
+    }
+
+    public boolean isEmpty() {
+        return minutes.length == 0;
+    }
+
+    public int startMinute(int index) {
+        return minutes[2 * index];
+    }
+
+    /**
+     * @return Endminute des Intervalls oder {@link #OPEN}
+     */
+    public int endMinute(int index) {
+        return minutes[2 * index + 1];
+    }
+
+    public boolean hasOpenInterval() {
+        for (int i = 1; i < minutes.length; i += 2) {
+            if (minutes[i] == OPEN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Startminute des zuletzt begonnenen offenen Intervalls oder {@link #OPEN}
+     */
+    public int openStartMinute() {
+        for (int i = minutes.length - 2; i >= 0; i -= 2) {
+            if (minutes[i + 1] == OPEN) {
+                return minutes[i];
+            }
+        }
+        return OPEN;
+    }
+
+    /**
+     * Summe der Minuten aller abgeschlossenen Intervalle, deren Ende nach dem Start liegt.
+     */
+    public int totalClosedMinutes() {
+        return WorkingTimeCalculator.closedMinutes(minutes);
+    }
+
+    /**
+     * Ist-Zeit aus Arbeits- und Pausenintervallen, direkt auf den internen Arrays berechnet.
+     */
+    public static int actualMinutes(TimeIntervals work, TimeIntervals breaks) {
+        return WorkingTimeCalculator.actualMinutes(work.minutes, breaks.minutes);
+    }
+
+    /**
+     * Sortierte Startzeiten aller Intervalle.
+     */
+    public List<LocalTime> startTimes() {
+        List<LocalTime> result = new ArrayList<>(size());
+        for (int i = 0; i < minutes.length; i += 2) {
+            result.add(toTime(minutes[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Sortierte Endzeiten aller abgeschlossenen Intervalle.
+     */
+    public List<LocalTime> endTimes() {
+        List<LocalTime> result = new ArrayList<>(size());
+        for (int i = 1; i < minutes.length; i += 2) {
+            if (minutes[i] != OPEN) {
+                result.add(toTime(minutes[i]));
+            }
+        }
+        result.sort(LocalTime::compareTo);
+        return result;
+    }
+
+    /**
+     * Kopie der Minuten-Paare.
+     */
+    public int[] toMinutes() {
+        return minutes.clone();
+    }
+
+    public static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public static LocalTime toTime(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    private static int[] toSortedMinutes(List<LocalTime> times) {
+        if (times == null) {
+            return new int[0];
+        }
+        int[] result = new int[times.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = toMinute(times.get(i));
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Insertion Sort über die Paare nach Startminute, die Listen pro Tag sind klein.
+     */
+    private static void sortPairs(int[] pairs) {
+        for (int i = 2; i < pairs.length; i += 2) {
+            int start = pairs[i];
+            int end = pairs[i + 1];
+            int j = i - 2;
+            while (j >= 0 && pairs[j] > start) {
+                pairs[j + 2] = pairs[j];
+                pairs[j + 3] = pairs[j + 1];
+                j -= 2;
+            }
+            pairs[j + 2] = start;
+            pairs[j + 3] = end;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimeIntervals other)) return false;
+        return Arrays.equals(minutes, other.minutes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(minutes);
+    }
+
+    @Override
+    public String toString() {
+        return TimeIntervalsConverter.encode(this);
+    }
+}
@@ -0,0 +1,78 @@
+package ch.fhnw.timerecordingbackend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * JPA-Konverter für {@link TimeIntervals}.
+ * Speichert die Intervalle kompakt als Text aus Minuten-des-Tages-Paaren, z.B. "480-720,780-1020,1080-"
+ * (08:00-12:00, 13:00-17:00 und ein offenes Intervall ab 18:00). Das Format ist auf H2 und Postgres identisch.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Converter
+public class TimeIntervalsConverter implements AttributeConverter<TimeIntervals, String> {
+
+    @Override
+    public String convertToDatabaseColumn(TimeIntervals intervals) {
+        if (intervals == null || intervals.isEmpty()) {
+            return "";
+        }
+        return encode(intervals);
+    }
+
+    @Override
+    public TimeIntervals convertToEntityAttribute(String value) {
+        return decode(value);
+    }
+
+    static String encode(TimeIntervals intervals) {
+        StringBuilder sb = new StringBuilder(intervals.size() * 9);
+        for (int i = 0; i < intervals.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(intervals.startMinute(i)).append('-');
+            if (intervals.endMinute(i) != TimeIntervals.OPEN) {
+                sb.append(intervals.endMinute(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    static TimeIntervals decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return TimeIntervals.EMPTY;
+        }
+        int count = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == ',') {
+                count++;
+            }
+        }
+        int[] pairs = new int[count * 2];
+        int index = 0;
+        int number = 0;
+        boolean hasDigits = false;
+        for (int i = 0; i <= value.length(); i++) {
+            char c = i < value.length() ? value.charAt(i) : ',';
+            if (c >= '0' && c <= '9') {
+                number = number * 10 + (c - '0');
+                hasDigits = true;
+            } else if (c == '-' || c == ',') {
+                if (index % 2 == 0 && (c != '-' || !hasDigits)) {
+                    throw new IllegalArgumentException("Ungültige Zeitintervalle: " + value);
+                }
+                if (index % 2 == 1 && c != ',') {
+                    throw new IllegalArgumentException("Ungültige Zeitintervalle: " + value);
+                }
+                pairs[index++] = hasDigits ? number : TimeIntervals.OPEN;
+                number = 0;
+                hasDigits = false;
+            } else {
+                throw new IllegalArgumentException("Ungültige Zeitintervalle: " + value);
+            }
+        }
+        return TimeIntervals.ofMinutes(pairs);
+    }
+}
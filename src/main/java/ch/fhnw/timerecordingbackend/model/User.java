@@ -1,6 +1,9 @@
 package ch.fhnw.timerecordingbackend.model;
 
 import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCacheEntityListener;
+import ch.fhnw.timerecordingbackend.service.ManagerHierarchyEntityListener;
+import ch.fhnw.timerecordingbackend.service.SearchIndexEntityListener;
 import jakarta.persistence.*;
 
 import ch.fhnw.timerecordingbackend.model.Role;
@@ -15,6 +18,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "users")
+@EntityListeners({SearchIndexEntityListener.class, ManagerHierarchyEntityListener.class,
+        AuthenticatedUserCacheEntityListener.class})
 public class User {
 
     @Id
@@ -181,12 +186,23 @@ public class User {
         return roles;
     }
 
+    /**
+     * Rollenänderungen setzen den Zeitstempel, damit der Benutzer selbst als geändert gilt
+     * und die Entity-Listener (z.B. Invalidierung des Anmelde-Caches) auslösen
+     */
     public void setRoles(Set<Role> roles) {
         this.roles = roles;
+        this.updatedAt = LocalDateTime.now();
     }
 
     public void addRole(Role role) {
         this.roles.add(role);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void removeRole(Role role) {
+        this.roles.remove(role);
+        this.updatedAt = LocalDateTime.now();
     }
 
     public double getPlannedHoursPerDay() {
@@ -0,0 +1,139 @@
+package ch.fhnw.timerecordingbackend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entität Klasse für das Ferienkonto eines Benutzers pro Jahr (Anspruch, Übertrag, genehmigte und beantragte Tage).
+ * Genehmigte und beantragte Ferientage werden bei jeder Änderung einer Ferien-Abwesenheit als Werktage
+ * nachgeführt, damit Restferien und Prüfungen eine einzelne Zeile lesen statt alle Abwesenheiten.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Entity
+@Table(name = "vacation_ledgers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vacation_ledgers_user_year", columnNames = {"user_id", "ledger_year"})
+})
+public class VacationLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Abgeleitete Daten, werden mit dem Benutzer gelöscht
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "ledger_year", nullable = false)
+    private int year;
+
+    @Column(name = "entitlement_days", nullable = false)
+    private int entitlementDays;
+
+    @Column(name = "carried_over_days", nullable = false)
+    private int carriedOverDays;
+
+    @Column(name = "approved_days", nullable = false)
+    private int approvedDays;
+
+    @Column(name = "pending_days", nullable = false)
+    private int pendingDays;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Konstruktoren
+     */
+    public VacationLedger() {
+    }
+
+    /**
+     * Verbleibende Ferientage nach genehmigten Abwesenheiten
+     */
+    public int getRemainingDays() {
+        return entitlementDays + carriedOverDays - approvedDays;
+    }
+
+    /**
+     * Noch beantragbare Ferientage (verbleibend abzüglich beantragter Abwesenheiten)
+     */
+    public int getAvailableDays() {
+        return getRemainingDays() - pendingDays;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getter und Setter
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getEntitlementDays() {
+        return entitlementDays;
+    }
+
+    public void setEntitlementDays(int entitlementDays) {
+        this.entitlementDays = entitlementDays;
+    }
+
+    public int getCarriedOverDays() {
+        return carriedOverDays;
+    }
+
+    public void setCarriedOverDays(int carriedOverDays) {
+        this.carriedOverDays = carriedOverDays;
+    }
+
+    public int getApprovedDays() {
+        return approvedDays;
+    }
+
+    public void setApprovedDays(int approvedDays) {
+        this.approvedDays = approvedDays;
+    }
+
+    public int getPendingDays() {
+        return pendingDays;
+    }
+
+    public void setPendingDays(int pendingDays) {
+        this.pendingDays = pendingDays;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
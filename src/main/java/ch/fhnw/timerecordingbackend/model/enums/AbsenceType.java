@@ -29,6 +29,15 @@ public enum AbsenceType {
         return displayName;
     }
 
+    /**
+     * Gibt an, ob genehmigte Abwesenheiten dieser Art als Sollzeit gutgeschrieben werden.
+     * Home Office wird normal erfasst, unbezahlter Urlaub wird nicht angerechnet.
+     * @return true, wenn die Abwesenheit im Monatssaldo gutgeschrieben wird
+     */
+    public boolean isCreditedAsWorkTime() {
+        return this != HOME_OFFICE && this != UNPAID_LEAVE;
+    }
+
     /**
      * AbsenceType aus DisplayName ermitteln
      * @param displayName = Anzeigename
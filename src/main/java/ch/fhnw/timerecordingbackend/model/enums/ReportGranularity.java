@@ -0,0 +1,31 @@
+package ch.fhnw.timerecordingbackend.model.enums;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+/**
+ * Zeitraster der Auswertungen
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public enum ReportGranularity {
+    DAY,    // Tag, z.B. "2025-01-06"
+    WEEK,   // ISO-Kalenderwoche, z.B. "2025-W02"
+    MONTH;  // Monat, z.B. "2025-01"
+
+    /**
+     * Bezeichnung der Periode, in die ein Datum fällt. Die Bezeichnungen sortieren als Text chronologisch.
+     */
+    public String periodOf(LocalDate date) {
+        switch (this) {
+            case DAY:
+                return date.toString();
+            case WEEK:
+                int week = date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+                return date.get(IsoFields.WEEK_BASED_YEAR) + (week < 10 ? "-W0" : "-W") + week;
+            default:
+                int month = date.getMonthValue();
+                return date.getYear() + (month < 10 ? "-0" : "-") + month;
+        }
+    }
+}
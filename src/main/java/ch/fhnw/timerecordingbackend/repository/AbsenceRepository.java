@@ -5,10 +5,13 @@ import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus;
 import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -80,6 +83,38 @@ public interface AbsenceRepository extends JpaRepository<Absence, Long> {
     @Query("SELECT COUNT(a) > 0 FROM Absence a WHERE a.user.id = :userId AND :date BETWEEN a.startDate AND a.endDate AND a.status = ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus.APPROVED")
     boolean hasApprovedAbsenceOnDate(@Param("userId") Long userId, @Param("date") LocalDate date);
 
+    /**
+     * Prüft, ob sich ein Zeitraum mit einer bestehenden Abwesenheit des Benutzers überschneidet.
+     * Bereichsabfrage über den Index idx_absences_user_start_end statt Laden aller Abwesenheiten.
+     * @param userId ID des Benutzers
+     * @param startDate Beginn des Zeitraums
+     * @param endDate Ende des Zeitraums
+     * @param excludeId ID einer auszuschliessenden Abwesenheit (z.B. beim Aktualisieren) oder null
+     * @return true, wenn eine Überschneidung besteht
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Absence a WHERE a.user.id = :userId AND a.startDate <= :endDate " +
+            "AND a.endDate >= :startDate AND (:excludeId IS NULL OR a.id <> :excludeId)")
+    boolean existsOverlapping(@Param("userId") Long userId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate,
+                              @Param("excludeId") Long excludeId);
+
+    /**
+     * Zeiträume und Arten der Abwesenheiten mehrerer Benutzer mit einem Status, die einen Zeitraum berühren.
+     * Liefert nur die für den Team-Kalender nötigen Spalten statt ganzer Entitäten.
+     * @param userIds IDs der Benutzer
+     * @param status Der gewünschte Abwesenheitsstatus.
+     * @param startDate Beginn des Zeitraums
+     * @param endDate Ende des Zeitraums
+     * @return Zeilen [userId, startDate, endDate, type]
+     */
+    @Query("SELECT a.user.id, a.startDate, a.endDate, a.type FROM Absence a WHERE a.user.id IN :userIds " +
+            "AND a.status = :status AND a.startDate <= :endDate AND a.endDate >= :startDate")
+    List<Object[]> findIntervalsByUserIdsAndStatus(@Param("userIds") Collection<Long> userIds,
+                                                   @Param("status") AbsenceStatus status,
+                                                   @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
+
     /**
      * Summe der genehmigten Abwesenheiten eines Benutzers für einen bestimmten Zeitraum zurück.
      * @param userId
@@ -123,4 +158,69 @@ public interface AbsenceRepository extends JpaRepository<Absence, Long> {
      */
     List<Absence> findByUserInAndStatus(List<User> users, AbsenceStatus status);
 
+    /**
+     * Findet alle Abwesenheiten mit einem Status für das Team eines Managers über die Manager-Hierarchie.
+     * Ersetzt das vorgängige Laden der Teammitglieder per findByManager, der Benutzer wird direkt mitgeladen.
+     * @param managerId ID des Managers
+     * @param maxDepth maximale Tiefe in der Hierarchie (1 = nur direkt unterstellte Mitarbeiter)
+     * @param status Der gewünschte Abwesenheitsstatus.
+     * @return Eine Liste von Abwesenheiten.
+     */
+    @Query("SELECT a FROM Absence a JOIN FETCH a.user WHERE a.status = :status AND a.user.id IN " +
+            "(SELECT h.descendant.id FROM ManagerHierarchy h WHERE h.ancestor.id = :managerId AND h.depth <= :maxDepth)")
+    List<Absence> findTeamAbsencesByStatus(@Param("managerId") Long managerId,
+                                           @Param("maxDepth") int maxDepth,
+                                           @Param("status") AbsenceStatus status);
+
+    /**
+     * Daten für Sammelentscheide (Admin): Abwesenheiten zu IDs ohne Laden der Entitäten.
+     * @param ids IDs der Abwesenheiten
+     * @return Zeilen [id, userId, plannedHoursPerDay, managerId, startDate, endDate, type, status, creditedMinutesPerDay]
+     */
+    @Query("SELECT a.id, u.id, u.plannedHoursPerDay, m.id, a.startDate, a.endDate, a.type, a.status, a.creditedMinutesPerDay " +
+            "FROM Absence a JOIN a.user u LEFT JOIN u.manager m WHERE a.id IN :ids")
+    List<Object[]> findDecisionRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Daten für Sammelentscheide (Manager): nur Abwesenheiten von Mitarbeitern im Team des Managers.
+     * Autorisiert damit den ganzen Stapel mit einer Abfrage über die Manager-Hierarchie.
+     * @param ids IDs der Abwesenheiten
+     * @param managerId ID des Managers
+     * @param maxDepth maximale Tiefe in der Hierarchie
+     * @return Zeilen wie {@link #findDecisionRows(Collection)}
+     */
+    @Query("SELECT a.id, u.id, u.plannedHoursPerDay, m.id, a.startDate, a.endDate, a.type, a.status, a.creditedMinutesPerDay " +
+            "FROM Absence a JOIN a.user u LEFT JOIN u.manager m WHERE a.id IN :ids AND u.id IN " +
+            "(SELECT h.descendant.id FROM ManagerHierarchy h WHERE h.ancestor.id = :managerId AND h.depth <= :maxDepth)")
+    List<Object[]> findTeamDecisionRows(@Param("ids") Collection<Long> ids,
+                                        @Param("managerId") Long managerId,
+                                        @Param("maxDepth") int maxDepth);
+
+    /**
+     * Genehmigt mehrere Abwesenheiten mit einem UPDATE.
+     * @param ids IDs der Abwesenheiten (gleiche gutgeschriebene Minuten pro Tag)
+     * @param approver Genehmiger
+     * @param creditedMinutesPerDay im Monatssaldo gutgeschriebene Minuten pro Werktag
+     * @param now Zeitstempel der Änderung
+     * @return Anzahl geänderter Zeilen
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Absence a SET a.status = ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus.APPROVED, " +
+            "a.approver = :approver, a.creditedMinutesPerDay = :creditedMinutesPerDay, a.updatedAt = :now WHERE a.id IN :ids")
+    int approveAll(@Param("ids") Collection<Long> ids,
+                   @Param("approver") User approver,
+                   @Param("creditedMinutesPerDay") Integer creditedMinutesPerDay,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Lehnt mehrere Abwesenheiten mit einem UPDATE ab (Genehmiger und Gutschrift werden entfernt).
+     * @param ids IDs der Abwesenheiten
+     * @param now Zeitstempel der Änderung
+     * @return Anzahl geänderter Zeilen
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Absence a SET a.status = ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus.REJECTED, " +
+            "a.approver = NULL, a.creditedMinutesPerDay = NULL, a.updatedAt = :now WHERE a.id IN :ids")
+    int rejectAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
 }
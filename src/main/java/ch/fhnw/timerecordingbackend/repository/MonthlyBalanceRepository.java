@@ -0,0 +1,44 @@
+package ch.fhnw.timerecordingbackend.repository;
+
+import ch.fhnw.timerecordingbackend.model.MonthlyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository für Monatssalden
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Repository
+public interface MonthlyBalanceRepository extends JpaRepository<MonthlyBalance, Long> {
+
+    /**
+     * Addiert Deltas atomar auf eine bestehende Monatszeile, ohne sie vorher zu laden.
+     * @return Anzahl aktualisierter Zeilen (0, wenn für den Monat noch keine Zeile existiert)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MonthlyBalance b SET b.actualMinutes = b.actualMinutes + :actual, " +
+            "b.plannedMinutes = b.plannedMinutes + :planned, " +
+            "b.differenceMinutes = b.differenceMinutes + :difference, " +
+            "b.absenceCreditMinutes = b.absenceCreditMinutes + :absenceCredit, " +
+            "b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.user.id = :userId AND b.monthStart = :monthStart")
+    int addDeltas(@Param("userId") Long userId, @Param("monthStart") LocalDate monthStart,
+                  @Param("actual") int actual, @Param("planned") int planned,
+                  @Param("difference") int difference, @Param("absenceCredit") int absenceCredit);
+
+    /**
+     * Monatszeilen eines Benutzers in einem Zeitraum, aufsteigend nach Monat.
+     */
+    @Query("SELECT b FROM MonthlyBalance b WHERE b.user.id = :userId AND b.monthStart BETWEEN :from AND :to ORDER BY b.monthStart")
+    List<MonthlyBalance> findByUserIdAndMonthStartBetween(@Param("userId") Long userId,
+                                                          @Param("from") LocalDate from,
+                                                          @Param("to") LocalDate to);
+
+}
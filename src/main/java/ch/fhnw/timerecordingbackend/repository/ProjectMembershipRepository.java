@@ -0,0 +1,83 @@
+package ch.fhnw.timerecordingbackend.repository;
+
+import ch.fhnw.timerecordingbackend.model.ProjectMembership;
+import ch.fhnw.timerecordingbackend.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository für Projektzugehörigkeiten
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Repository
+public interface ProjectMembershipRepository extends JpaRepository<ProjectMembership, Long> {
+
+    @Query("SELECT m FROM ProjectMembership m WHERE m.user.id = :userId AND m.project.id = :projectId")
+    Optional<ProjectMembership> findByUserIdAndProjectId(@Param("userId") Long userId, @Param("projectId") Long projectId);
+
+    /**
+     * Addiert Einträge atomar auf eine bestehende Zugehörigkeit und erweitert den Buchungszeitraum.
+     * @return Anzahl aktualisierter Zeilen (0, wenn noch keine Zeile existiert)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProjectMembership m SET m.entryCount = m.entryCount + :count, " +
+            "m.firstBookedDate = CASE WHEN m.firstBookedDate IS NULL OR m.firstBookedDate > :firstDate THEN :firstDate ELSE m.firstBookedDate END, " +
+            "m.lastBookedDate = CASE WHEN m.lastBookedDate IS NULL OR m.lastBookedDate < :lastDate THEN :lastDate ELSE m.lastBookedDate END " +
+            "WHERE m.user.id = :userId AND m.project.id = :projectId")
+    int addEntries(@Param("userId") Long userId, @Param("projectId") Long projectId,
+                   @Param("firstDate") LocalDate firstDate, @Param("lastDate") LocalDate lastDate,
+                   @Param("count") int count);
+
+    /**
+     * Zieht einen Eintrag von einer Zugehörigkeit ab.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProjectMembership m SET m.entryCount = m.entryCount - 1 " +
+            "WHERE m.user.id = :userId AND m.project.id = :projectId")
+    int removeEntry(@Param("userId") Long userId, @Param("projectId") Long projectId);
+
+    /**
+     * Löscht die Zugehörigkeit, wenn keine Einträge mehr auf dem Projekt gebucht sind.
+     */
+    @Modifying
+    @Query("DELETE FROM ProjectMembership m WHERE m.user.id = :userId AND m.project.id = :projectId AND m.entryCount <= 0")
+    int deleteIfEmpty(@Param("userId") Long userId, @Param("projectId") Long projectId);
+
+    /**
+     * Berechnet ersten und letzten Buchungstag neu, aber nur, wenn das entfernte Datum einer der beiden war.
+     * Die Teilabfragen laufen über den Index auf (user_id, date) der Zeiteinträge.
+     */
+    @Modifying
+    @Query("UPDATE ProjectMembership m SET " +
+            "m.firstBookedDate = (SELECT MIN(t.date) FROM TimeEntry t WHERE t.user.id = :userId AND t.project.id = :projectId), " +
+            "m.lastBookedDate = (SELECT MAX(t.date) FROM TimeEntry t WHERE t.user.id = :userId AND t.project.id = :projectId) " +
+            "WHERE m.user.id = :userId AND m.project.id = :projectId " +
+            "AND (m.firstBookedDate = :removedDate OR m.lastBookedDate = :removedDate)")
+    int refreshBookedDates(@Param("userId") Long userId, @Param("projectId") Long projectId,
+                           @Param("removedDate") LocalDate removedDate);
+
+    /**
+     * Benutzer, die mindestens einen Zeiteintrag auf dem Projekt gebucht haben.
+     * Jeder Benutzer kommt höchstens einmal vor, da es pro Benutzer und Projekt nur eine Zugehörigkeit gibt.
+     * @param projectId ID des Projekts
+     * @return Liste der Benutzer, leer, wenn auf dem Projekt nichts gebucht ist
+     */
+    @Query("SELECT m.user FROM ProjectMembership m WHERE m.project.id = :projectId AND m.entryCount > 0")
+    List<User> findUsersWithEntriesByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Zugehörigkeiten für mehrere Projekte in einer Abfrage.
+     * @return Liste mit [Projekt-ID, Benutzer-ID]
+     */
+    @Query("SELECT m.project.id, m.user.id FROM ProjectMembership m WHERE m.project.id IN :projectIds AND m.entryCount > 0")
+    List<Object[]> findUserIdsByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+}
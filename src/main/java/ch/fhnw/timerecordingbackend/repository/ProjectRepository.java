@@ -1,6 +1,8 @@
 package ch.fhnw.timerecordingbackend.repository;
 
 import ch.fhnw.timerecordingbackend.model.Project;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,6 +19,14 @@ import java.util.Optional;
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
+    /**
+     * Gibt alle Projekte inklusive Manager zurück (Listenansichten, ohne Nachladen pro Projekt)
+     * @return Liste aller Projekte
+     */
+    @Override
+    @EntityGraph(attributePaths = "manager")
+    List<Project> findAll();
+
     /**
      * Projekt nach Name finden
      * @param name
@@ -35,6 +45,7 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * Gibt alle aktiven Projekte zurück
      * @return Liste mit aktiven Projekten
      */
+    @EntityGraph(attributePaths = "manager")
     List<Project> findByActiveTrue();
 
     /**
@@ -42,6 +53,7 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * @param id
      * @return Liste mit Projekten eines Managers
      */
+    @EntityGraph(attributePaths = "manager")
     List<Project> findByManagerId(Long id);
 
     /**
@@ -49,6 +61,7 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * @param id
      * @return Liste mit aktiven Projekten eines Managers
      */
+    @EntityGraph(attributePaths = "manager")
     List<Project> findByManagerIdAndActiveTrue(Long id);
 
     /**
@@ -57,16 +70,29 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * @return Liste mit gefundenen Projekten
      * Quelle: ChatGPT.com
      */
+    @EntityGraph(attributePaths = "manager")
     @Query("SELECT p FROM Project p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Project> searchProjects(@Param("searchTerm") String searchTerm);
 
+    /**
+     * Sucht Projekte mit Suchbegriff, sortiert nach Name und auf eine Seite begrenzt (Fallback ohne Suchindex)
+     * @param searchTerm Suchbegriff
+     * @param pageable Begrenzung der Trefferzahl
+     * @return Liste mit gefundenen Projekten
+     */
+    @EntityGraph(attributePaths = "manager")
+    @Query("SELECT p FROM Project p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY p.name, p.id")
+    List<Project> searchProjects(@Param("searchTerm") String searchTerm, Pageable pageable);
+
     /**
      * Sucht Projekten mit User ID
      * @param userId
      * @return Liste mit gefundenen Projekten
      * Quelle: ChatGPT.com
     */
-    @Query("SELECT DISTINCT p FROM Project p JOIN p.timeEntries t WHERE t.user.id = :userId")
+    @EntityGraph(attributePaths = "manager")
+    @Query("SELECT p FROM Project p WHERE p.id IN " +
+            "(SELECT m.project.id FROM ProjectMembership m WHERE m.user.id = :userId AND m.entryCount > 0)")
     List<Project> findProjectsByUserId(@Param("userId") Long userId);
 
     /**
@@ -75,7 +101,9 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * @return Liste mit gefundenen aktiven Projekten
      * Quelle: ChatGPT.com
     */
-    @Query("SELECT DISTINCT p FROM Project p JOIN p.timeEntries t WHERE t.user.id = :userId AND p.active = true")
+    @EntityGraph(attributePaths = "manager")
+    @Query("SELECT p FROM Project p WHERE p.active = true AND p.id IN " +
+            "(SELECT m.project.id FROM ProjectMembership m WHERE m.user.id = :userId AND m.entryCount > 0)")
     List<Project> findActiveProjectsByUserId(@Param("userId") Long userId);
 
     /**
@@ -83,6 +111,6 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * @param projectId
      * @return
      */
-    @Query("SELECT COUNT(DISTINCT t.user.id) FROM TimeEntry t WHERE t.project.id = :projectId")
+    @Query("SELECT COUNT(m) FROM ProjectMembership m WHERE m.project.id = :projectId AND m.entryCount > 0")
     long countUsersByProjectId(@Param("projectId") Long projectId);
 }
@@ -2,8 +2,12 @@ package ch.fhnw.timerecordingbackend.repository;
 
 import ch.fhnw.timerecordingbackend.model.Registration;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +21,12 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     Optional<Registration> findByEmail(String email);
     boolean existsByEmail(String email);
     List<Registration> findByStatus(String status);
+
+    /**
+     * Setzt ausstehende Anfragen in einer Anweisung auf genehmigt.
+     * @return Anzahl geänderter Anfragen, weniger als angegeben, wenn eine Anfrage nicht mehr ausstehend war
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Registration r SET r.status = 'APPROVED' WHERE r.id IN :ids AND r.status = 'PENDING'")
+    int markApproved(@Param("ids") Collection<Long> ids);
 }
@@ -2,12 +2,14 @@ package ch.fhnw.timerecordingbackend.repository;
 
 import ch.fhnw.timerecordingbackend.model.TimeEntry;
 import ch.fhnw.timerecordingbackend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -72,36 +74,69 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
     List<TimeEntry> findByProjectIsNull();
 
     /**
-     * Summe der tatsächlichen Arbeitsstunden eines Benutzers für einen bestimmten Zeitraum zurück.
+     * Summe der tatsächlichen Arbeitszeit eines Benutzers für einen bestimmten Zeitraum zurück.
      * @param userId
      * @param startDate
      * @param endDate
-     * @return String mit der Summe der tatsächlichen Arbeitsstunden eines Benutzers für einen bestimmten Zeitraum.
-     * Quelle: ChatGPT.com
+     * @return Summe der tatsächlichen Arbeitszeit in Minuten (0, wenn keine Einträge vorhanden sind).
      */
-    @Query("SELECT SUM(t.actualHours) FROM TimeEntry t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate")
-    String sumActualHoursByUserIdAndDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT COALESCE(SUM(t.actualMinutes), 0) FROM TimeEntry t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate")
+    long sumActualMinutesByUserIdAndDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     /**
-     * Summe der geplanten Arbeitsstunden eines Benutzers für einen bestimmten Zeitraum zurück.
+     * Summe der geplanten Arbeitszeit eines Benutzers für einen bestimmten Zeitraum zurück.
      * @param userId
      * @param startDate
      * @param endDate
-     * @return String mit der Summe der geplanten Arbeitsstunden eines Benutzers für einen bestimmten Zeitraum.
-     * Quelle: ChatGPT.com
+     * @return Summe der geplanten Arbeitszeit in Minuten (0, wenn keine Einträge vorhanden sind).
+     */
+    @Query("SELECT COALESCE(SUM(t.plannedMinutes), 0) FROM TimeEntry t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate")
+    long sumPlannedMinutesByUserIdAndDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Summe der tatsächlichen Arbeitszeit pro Benutzer für einen bestimmten Zeitraum.
+     * @param startDate
+     * @param endDate
+     * @return Liste mit [Benutzer-ID, Summe in Minuten]
      */
-    @Query("SELECT SUM(t.plannedHours) FROM TimeEntry t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate")
-    String sumPlannedHoursByUserIdAndDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT t.user.id, SUM(t.actualMinutes) FROM TimeEntry t WHERE t.date BETWEEN :startDate AND :endDate GROUP BY t.user.id")
+    List<Object[]> sumActualMinutesGroupedByUser(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     /**
      * Liefert alle aktiven Zeiteinträge eines Benutzers zurück.
+     * Ein offenes Arbeitsintervall hat in der kodierten Spalte kein Ende nach dem "-".
      * @param userId
      * @return Liste mit aktiven Zeiteinträgen eines Benutzers.
      * Quelle: ChatGPT.com
      */
-    @Query("SELECT t FROM TimeEntry t WHERE t.user.id = :userId AND SIZE(t.startTimes) > SIZE(t.endTimes)")
+    @Query(value = "SELECT * FROM time_entries WHERE user_id = :userId AND (work_intervals LIKE '%-' OR work_intervals LIKE '%-,%')", nativeQuery = true)
     List<TimeEntry> findActiveEntriesByUserId(@Param("userId") Long userId);
 
+    /**
+     * Liefert die IDs aller Zeiteinträge mit laufender Zeiterfassung (offenes Arbeitsintervall).
+     * @return IDs der aktiven Zeiteinträge
+     */
+    @Query(value = "SELECT id FROM time_entries WHERE work_intervals LIKE '%-' OR work_intervals LIKE '%-,%'", nativeQuery = true)
+    List<Long> findActiveEntryIds();
+
+    /**
+     * Lädt Zeiteinträge inklusive Benutzer und Projekt anhand ihrer IDs.
+     * @param ids IDs der Zeiteinträge
+     * @return Zeiteinträge mit geladenem Benutzer und Projekt
+     */
+    @Query("SELECT t FROM TimeEntry t JOIN FETCH t.user LEFT JOIN FETCH t.project WHERE t.id IN :ids")
+    List<TimeEntry> findAllWithUserAndProjectByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Liefert Benutzer-ID und Datum aller bestehenden Einträge der angegebenen Benutzer in einem Zeitraum.
+     * Wird beim Massenimport zur Erkennung doppelter Einträge pro Block verwendet.
+     * @return Liste mit [Benutzer-ID, Datum]
+     */
+    @Query("SELECT t.user.id, t.date FROM TimeEntry t WHERE t.user.id IN :userIds AND t.date BETWEEN :startDate AND :endDate")
+    List<Object[]> findUserIdAndDateByUserIdInAndDateBetween(@Param("userIds") Collection<Long> userIds,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
     /**
      * Anzahl der Arbeits-Tage eines Benutzers für einen bestimmten Zeitraum zurück.
      * @param userId
@@ -114,20 +149,133 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
     long countWorkdaysByUserIdAndDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     /**
-     * Summe aller tatsächlichen Stunden für ein Projekt berechnen
+     * Summe aller tatsächlichen Arbeitszeiten für ein Projekt berechnen
      * @param projectId
-     * @return
-     * Quelle: ChatGPT.com
+     * @return Summe in Minuten (0, wenn keine Einträge vorhanden sind)
      */
-    @Query(value = "SELECT COALESCE(SUM(EXTRACT(HOUR FROM TO_TIMESTAMP(t.actual_hours, 'HH24:MI')) * 60 + EXTRACT(MINUTE FROM TO_TIMESTAMP(t.actual_hours, 'HH24:MI'))), 0) FROM time_entries t WHERE t.project_id = :projectId", nativeQuery = true)
-    List<Object[]> sumActualHoursByProjectId(@Param("projectId") Long projectId);
+    @Query("SELECT COALESCE(SUM(t.actualMinutes), 0) FROM TimeEntry t WHERE t.project.id = :projectId")
+    long sumActualMinutesByProjectId(@Param("projectId") Long projectId);
 
     /**
-     * Benutzer anhand Zeiteinträge für ein Projekt finden
-     * @param projectId
-     * @return
+     * Summe der tatsächlichen Arbeitszeit pro Projekt für mehrere Projekte in einer Abfrage.
+     * @param projectIds IDs der Projekte
+     * @return Liste mit [Projekt-ID, Summe in Minuten], Projekte ohne Einträge fehlen
+     */
+    @Query("SELECT t.project.id, SUM(t.actualMinutes) FROM TimeEntry t WHERE t.project.id IN :projectIds GROUP BY t.project.id")
+    List<Object[]> sumActualMinutesGroupedByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * Statistiken für mehrere Projekte in einer gruppierten Abfrage.
+     * @param projectIds IDs der Projekte
+     * @return Liste mit [Projekt-ID, Summe in Minuten, Anzahl Einträge], Projekte ohne Einträge fehlen
+     */
+    @Query("SELECT t.project.id, SUM(t.actualMinutes), COUNT(t) FROM TimeEntry t " +
+            "WHERE t.project.id IN :projectIds GROUP BY t.project.id")
+    List<Object[]> summarizeByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * Liefert alle Zeiteinträge sortiert nach Datum (absteigend) und Benutzername.
+     * Benutzer und Projekt werden direkt mitgeladen.
+     * @return Liste aller Zeiteinträge
+     */
+    @Query("SELECT t FROM TimeEntry t JOIN FETCH t.user u LEFT JOIN FETCH t.project " +
+            "ORDER BY t.date DESC, u.firstName ASC, u.lastName ASC")
+    List<TimeEntry> findAllOrderByDateDescAndUserName();
+
+    /**
+     * Liefert alle Zeiteinträge des Teams eines Managers (über die Manager-Hierarchie) in einer Abfrage.
+     * Sortiert nach Datum (absteigend) und Benutzername, Benutzer und Projekt werden direkt mitgeladen.
+     * @param managerId ID des Managers
+     * @param maxDepth maximale Tiefe in der Hierarchie (1 = nur direkt unterstellte Mitarbeiter)
+     * @return Liste mit Zeiteinträgen des Teams
+     */
+    @Query("SELECT t FROM TimeEntry t JOIN FETCH t.user u LEFT JOIN FETCH t.project " +
+            "WHERE u.id IN (SELECT h.descendant.id FROM ManagerHierarchy h " +
+            "WHERE h.ancestor.id = :managerId AND h.depth <= :maxDepth) " +
+            "ORDER BY t.date DESC, u.firstName ASC, u.lastName ASC")
+    List<TimeEntry> findTeamEntriesByManagerId(@Param("managerId") Long managerId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Gemeinsamer Teil der Keyset-Paginierung über (Datum, Benutzer-ID, Eintrag-ID), alle absteigend wie
+     * der Index idx_time_entries_date_desc_user_id. Datumsgrenzen und Cursor sind immer gesetzt, der Cursor
+     * wird als ein Zeilenwert-Vergleich geschrieben; die optionalen Filter sind auf eigene Abfragen verteilt,
+     * damit alle Bedingungen indexfähig bleiben. userId und projectId verweisen auf die Spalten der Eintragstabelle
+     * statt auf die per JOIN FETCH geladenen Tabellen.
+     */
+    String PAGE_SELECT = "SELECT t FROM TimeEntry t JOIN FETCH t.user LEFT JOIN FETCH t.project " +
+            "WHERE t.date BETWEEN :fromDate AND :toDate " +
+            "AND (t.date, t.userId, t.id) < (:cursorDate, :cursorUserId, :cursorId) ";
+    String PAGE_ORDER = "ORDER BY t.date DESC, t.userId DESC, t.id DESC";
+
+    /**
+     * Seite aller Zeiteinträge nach dem Cursor
+     * @param fromDate frühestes Datum (inklusive)
+     * @param toDate spätestes Datum (inklusive)
+     * @param cursorDate Datum des letzten Eintrags der vorherigen Seite
+     * @param cursorUserId Benutzer-ID des letzten Eintrags der vorherigen Seite
+     * @param cursorId ID des letzten Eintrags der vorherigen Seite
+     * @param pageable Limit der Seite (nur Limit, kein Offset)
+     * @return Liste mit Zeiteinträgen nach dem Cursor
+     */
+    @Query(PAGE_SELECT + PAGE_ORDER)
+    List<TimeEntry> findPageAfterCursor(@Param("fromDate") LocalDate fromDate,
+                                        @Param("toDate") LocalDate toDate,
+                                        @Param("cursorDate") LocalDate cursorDate,
+                                        @Param("cursorUserId") Long cursorUserId,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    /**
+     * Seite der Zeiteinträge eines Benutzers nach dem Cursor
+     */
+    @Query(PAGE_SELECT + "AND t.userId = :userId " + PAGE_ORDER)
+    List<TimeEntry> findUserPageAfterCursor(@Param("userId") Long userId,
+                                            @Param("fromDate") LocalDate fromDate,
+                                            @Param("toDate") LocalDate toDate,
+                                            @Param("cursorDate") LocalDate cursorDate,
+                                            @Param("cursorUserId") Long cursorUserId,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    /**
+     * Seite der Zeiteinträge eines Projekts nach dem Cursor
+     */
+    @Query(PAGE_SELECT + "AND t.projectId = :projectId " + PAGE_ORDER)
+    List<TimeEntry> findProjectPageAfterCursor(@Param("projectId") Long projectId,
+                                               @Param("fromDate") LocalDate fromDate,
+                                               @Param("toDate") LocalDate toDate,
+                                               @Param("cursorDate") LocalDate cursorDate,
+                                               @Param("cursorUserId") Long cursorUserId,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+
+    /**
+     * Seite der Zeiteinträge eines Benutzers auf einem Projekt nach dem Cursor
+     */
+    @Query(PAGE_SELECT + "AND t.userId = :userId AND t.projectId = :projectId " + PAGE_ORDER)
+    List<TimeEntry> findUserProjectPageAfterCursor(@Param("userId") Long userId,
+                                                   @Param("projectId") Long projectId,
+                                                   @Param("fromDate") LocalDate fromDate,
+                                                   @Param("toDate") LocalDate toDate,
+                                                   @Param("cursorDate") LocalDate cursorDate,
+                                                   @Param("cursorUserId") Long cursorUserId,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Pageable pageable);
+
+    /**
+     * Seite der Zeiteinträge des Teams eines Managers nach dem Cursor
+     * @param managerId ID des Managers
+     * @param maxDepth maximale Tiefe in der Manager-Hierarchie
      */
-    @Query("SELECT DISTINCT t.user FROM TimeEntry t WHERE t.project.id = :projectId")
-    List<User> findDistinctUsersByProjectId(@Param("projectId") Long projectId);
+    @Query(PAGE_SELECT + "AND t.userId IN (SELECT h.descendant.id FROM ManagerHierarchy h " +
+            "WHERE h.ancestor.id = :managerId AND h.depth <= :maxDepth) " + PAGE_ORDER)
+    List<TimeEntry> findTeamPageAfterCursor(@Param("managerId") Long managerId,
+                                            @Param("maxDepth") int maxDepth,
+                                            @Param("fromDate") LocalDate fromDate,
+                                            @Param("toDate") LocalDate toDate,
+                                            @Param("cursorDate") LocalDate cursorDate,
+                                            @Param("cursorUserId") Long cursorUserId,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
 
 }
@@ -1,12 +1,17 @@
 package ch.fhnw.timerecordingbackend.repository;
 
+import ch.fhnw.timerecordingbackend.dto.admin.UserResponse;
 import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +23,39 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Alle User mit Rollen und Manager in einer Abfrage
+     * @return Liste aller User
+     */
+    @EntityGraph(attributePaths = {"roles", "manager"})
+    @Query("SELECT u FROM User u")
+    List<User> findAllWithRolesAndManager();
+
+    /**
+     * Seite der Benutzerliste als DTO-Projektion: Rollen (LISTAGG) und Managername kommen aus derselben Abfrage.
+     * Alle Filter sind optional (null = kein Filter). Sortiert wird über JpaSort mit den Aliasen u (User) und m (Manager).
+     * @param status Benutzerstatus
+     * @param role Rollenname
+     * @param managerId ID des direkten Managers
+     * @param pageable Seite, Grösse und Sortierung
+     * @return Seite mit UserResponse-DTOs
+     */
+    @Query(value = "SELECT new ch.fhnw.timerecordingbackend.dto.admin.UserResponse(u.id, u.firstName, u.lastName, u.email, " +
+            "u.active, u.status, u.plannedHoursPerDay, u.createdAt, u.updatedAt, m.id, m.firstName, m.lastName, " +
+            "LISTAGG(r.name, ',')) " +
+            "FROM User u LEFT JOIN u.manager m LEFT JOIN u.roles r " +
+            "WHERE (:status IS NULL OR u.status = :status) " +
+            "AND (:managerId IS NULL OR m.id = :managerId) " +
+            "AND (:role IS NULL OR EXISTS (SELECT 1 FROM User u2 JOIN u2.roles r2 WHERE u2.id = u.id AND r2.name = :role)) " +
+            "GROUP BY u.id, u.firstName, u.lastName, u.email, u.active, u.status, u.plannedHoursPerDay, " +
+            "u.createdAt, u.updatedAt, m.id, m.firstName, m.lastName",
+            countQuery = "SELECT COUNT(u) FROM User u " +
+                    "WHERE (:status IS NULL OR u.status = :status) " +
+                    "AND (:managerId IS NULL OR u.manager.id = :managerId) " +
+                    "AND (:role IS NULL OR EXISTS (SELECT 1 FROM User u2 JOIN u2.roles r2 WHERE u2.id = u.id AND r2.name = :role))")
+    Page<UserResponse> findUserPage(@Param("status") UserStatus status, @Param("role") String role,
+                                    @Param("managerId") Long managerId, Pageable pageable);
+
     /**
      * User nach E-Mail finden
      * @param email sucht nach E-Mail Adresse
@@ -32,6 +70,56 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * User nach mehreren E-Mail Adressen finden
+     * @param emails gesuchte E-Mail Adressen
+     * @return Liste der gefundenen User
+     */
+    List<User> findByEmailIn(Collection<String> emails);
+
+    /**
+     * Bereits vergebene E-Mail Adressen aus einer Menge, ohne Gross-/Kleinschreibung (Massenanlage)
+     * @param emails klein geschriebene E-Mail Adressen
+     * @return klein geschriebene E-Mail Adressen, die bereits einem User gehören
+     */
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * ID, E-Mail (klein geschrieben) und Rollennamen der User mit den angegebenen IDs oder E-Mail Adressen,
+     * eine Zeile pro Rolle. Dient der Prüfung von Managern bei der Massenanlage.
+     * @param ids gesuchte IDs
+     * @param emails gesuchte, klein geschriebene E-Mail Adressen
+     * @return Zeilen [id, email, rollenname]
+     */
+    @Query("SELECT u.id, LOWER(u.email), r.name FROM User u JOIN u.roles r " +
+            "WHERE u.id IN :ids OR LOWER(u.email) IN :emails")
+    List<Object[]> findRoleNamesByIdInOrEmailIn(@Param("ids") Collection<Long> ids,
+                                                @Param("emails") Collection<String> emails);
+
+    /**
+     * IDs zu E-Mail Adressen, z.B. nach dem Einfügen per JDBC-Batch
+     * @param emails E-Mail Adressen
+     * @return Zeilen [id, email]
+     */
+    @Query("SELECT u.id, u.email FROM User u WHERE u.email IN :emails")
+    List<Object[]> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * Namen zu Benutzer-IDs, z.B. für Kalenderzeilen ohne Laden der Entitäten und Rollen
+     * @param ids Benutzer-IDs
+     * @return Zeilen [id, firstName, lastName], nach Nachname, Vorname sortiert
+     */
+    @Query("SELECT u.id, u.firstName, u.lastName FROM User u WHERE u.id IN :ids ORDER BY u.lastName, u.firstName, u.id")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Namen aller aktiven Benutzer
+     * @return Zeilen [id, firstName, lastName], nach Nachname, Vorname sortiert
+     */
+    @Query("SELECT u.id, u.firstName, u.lastName FROM User u WHERE u.active = true ORDER BY u.lastName, u.firstName, u.id")
+    List<Object[]> findActiveNames();
+
     /**
      * Gibt alle aktiven User zurück
      * @return Liste mit aktiven Usern
@@ -62,6 +150,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<User> searchUsers(@Param("searchTerm") String searchTerm);
 
+    /**
+     * Sucht User mit Suchbegriff, sortiert nach Name und auf eine Seite begrenzt (Fallback ohne Suchindex)
+     * @param searchTerm Suchbegriff
+     * @param pageable Begrenzung der Trefferzahl
+     * @return Liste mit gefundenen Usern
+     */
+    @Query("SELECT u FROM User u WHERE LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY u.lastName, u.firstName, u.id")
+    List<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
+
     /**
      * Findet alle Benutzer, die dem angegebenen Manager direkt unterstellt sind.
      * @param manager Der Manager-Benutzer.
@@ -0,0 +1,58 @@
+package ch.fhnw.timerecordingbackend.repository;
+
+import ch.fhnw.timerecordingbackend.model.VacationLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository für Ferienkonten
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Repository
+public interface VacationLedgerRepository extends JpaRepository<VacationLedger, Long> {
+
+    /**
+     * Addiert genehmigte und beantragte Tage atomar auf ein bestehendes Ferienkonto, ohne es vorher zu laden.
+     * @return Anzahl aktualisierter Zeilen (0, wenn für das Jahr noch keine Zeile existiert)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VacationLedger l SET l.approvedDays = l.approvedDays + :approved, " +
+            "l.pendingDays = l.pendingDays + :pending, l.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE l.user.id = :userId AND l.year = :year")
+    int addDays(@Param("userId") Long userId, @Param("year") int year,
+                @Param("approved") int approved, @Param("pending") int pending);
+
+    /**
+     * Setzt Anspruch und Übertrag eines bestehenden Ferienkontos.
+     * @return Anzahl aktualisierter Zeilen
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VacationLedger l SET l.entitlementDays = :entitlement, l.carriedOverDays = :carriedOver, " +
+            "l.updatedAt = CURRENT_TIMESTAMP WHERE l.user.id = :userId AND l.year = :year")
+    int updateEntitlement(@Param("userId") Long userId, @Param("year") int year,
+                          @Param("entitlement") int entitlement, @Param("carriedOver") int carriedOver);
+
+    /**
+     * Setzt den Übertrag eines bestehenden Ferienkontos, sofern er sich ändert.
+     * @return Anzahl aktualisierter Zeilen (0, wenn die Zeile fehlt oder den Übertrag bereits hat)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VacationLedger l SET l.carriedOverDays = :carriedOver, l.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE l.user.id = :userId AND l.year = :year AND l.carriedOverDays <> :carriedOver")
+    int updateCarryOver(@Param("userId") Long userId, @Param("year") int year,
+                        @Param("carriedOver") int carriedOver);
+
+    /**
+     * Werte eines Ferienkontos direkt aus der Datenbank, auch nach Aktualisierungen in derselben Transaktion.
+     * @return Zeilen [entitlementDays, carriedOverDays, approvedDays, pendingDays] (höchstens eine)
+     */
+    @Query("SELECT l.entitlementDays, l.carriedOverDays, l.approvedDays, l.pendingDays FROM VacationLedger l " +
+            "WHERE l.user.id = :userId AND l.year = :year")
+    List<Object[]> findDays(@Param("userId") Long userId, @Param("year") int year);
+}
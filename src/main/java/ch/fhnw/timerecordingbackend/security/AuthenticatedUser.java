@@ -0,0 +1,119 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import ch.fhnw.timerecordingbackend.model.Role;
+import ch.fhnw.timerecordingbackend.model.User;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Schlanker Principal für angemeldete Benutzer mit ID, E-Mail, Rollen, Soll-Stunden pro Tag und direktem Vorgesetzten.
+ * Beim Login enthält er das Passwort-Hash für die Prüfung durch Spring Security, danach wird es gelöscht.
+ * Bei Anfragen mit JWT wird er aus den Claims und dem {@link AuthenticatedUserCache} aufgebaut, ohne Datenbankzugriff.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String email;
+    private final Set<String> roles;
+    private final double plannedHoursPerDay;
+    private final boolean active;
+    private final Long managerId;
+    private String password;
+
+    public AuthenticatedUser(Long id, String email, Set<String> roles, double plannedHoursPerDay,
+                             boolean active, String password) {
+        this(id, email, roles, plannedHoursPerDay, active, null, password);
+    }
+
+    public AuthenticatedUser(Long id, String email, Set<String> roles, double plannedHoursPerDay,
+                             boolean active, Long managerId, String password) {
+        this.id = id;
+        this.email = email;
+        this.roles = Set.copyOf(roles);
+        this.plannedHoursPerDay = plannedHoursPerDay;
+        this.active = active;
+        this.managerId = managerId;
+        this.password = password;
+    }
+
+    /**
+     * Baut den Principal aus einem geladenen Benutzer, inklusive Passwort-Hash für die Anmeldung.
+     */
+    public static AuthenticatedUser of(User user) {
+        Set<String> roles = user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
+        return new AuthenticatedUser(user.getId(), user.getEmail(), roles, user.getPlannedHoursPerDay(),
+                user.isActive(), user.getManager() != null ? user.getManager().getId() : null, user.getPassword());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public boolean hasRole(String roleName) {
+        return roles.contains(roleName);
+    }
+
+    public double getPlannedHoursPerDay() {
+        return plannedHoursPerDay;
+    }
+
+    /**
+     * ID des direkten Vorgesetzten oder null (nicht im Token enthalten, stammt aus dem {@link AuthenticatedUserCache}).
+     */
+    public Long getManagerId() {
+        return managerId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream().map(SimpleGrantedAuthority::new).toList();
+    }
+
+    public List<String> getRoleNames() {
+        return roles.stream().sorted().toList();
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -0,0 +1,162 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kurzlebiger Cache der Anmeldedaten (E-Mail, Aktiv-Flag, Rollen, Soll-Stunden, Vorgesetzter) pro Benutzer-ID.
+ * Der {@link JwtAuthenticationFilter} prüft damit bei jeder Anfrage, ob der Benutzer noch aktiv ist und welche Rollen
+ * er aktuell hat, ohne die Datenbank abzufragen. Änderungen am Benutzer (Deaktivierung, Rollenwechsel) invalidieren
+ * den Eintrag nach dem Commit über den {@link AuthenticatedUserCacheEntityListener}; die Ablaufzeit
+ * (app.security.user-cache-ttl-seconds) begrenzt die Verzögerung bei Änderungen auf anderen Instanzen.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private static final class Entry {
+        private final AuthenticatedUser user;
+        private final long expiresAt;
+
+        private Entry(AuthenticatedUser user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.security.user-cache-ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Liefert die aktuellen Anmeldedaten eines Benutzers, bei fehlendem oder abgelaufenem Eintrag aus der Datenbank.
+     * @return Principal ohne Passwort oder null, wenn der Benutzer nicht (mehr) existiert
+     */
+    public AuthenticatedUser get(Long userId) {
+        long now = System.currentTimeMillis();
+        long loadedGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt > now) {
+                hits.incrementAndGet();
+                return entry.user;
+            }
+            loadedGeneration = generation.get();
+        }
+        misses.incrementAndGet();
+
+        AuthenticatedUser loaded = load(userId);
+        if (loaded != null) {
+            synchronized (this) {
+                // Wurde während des Ladens invalidiert, bleibt der Eintrag leer
+                if (generation.get() == loadedGeneration) {
+                    entries.put(userId, new Entry(loaded, now + ttlSeconds * 1000));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidiert den Eintrag eines Benutzers nach dem Commit der laufenden Transaktion.
+     * @param userId Benutzer-ID oder null (ohne Wirkung)
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                entries.remove(userId);
+            }
+            invalidations.incrementAndGet();
+        });
+    }
+
+    /**
+     * Leert den Cache vollständig.
+     */
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Kennzahlen des Caches für die Administration.
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", MAX_ENTRIES);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private AuthenticatedUser load(Long userId) {
+        String[] email = new String[1];
+        boolean[] active = new boolean[1];
+        double[] plannedHoursPerDay = new double[1];
+        Long[] managerId = new Long[1];
+        Set<String> roles = new HashSet<>();
+        jdbcTemplate.query("SELECT u.email, u.active, u.planned_hours_per_day, u.manager_id, r.name FROM users u "
+                + "LEFT JOIN user_roles ur ON ur.user_id = u.id LEFT JOIN roles r ON r.id = ur.role_id "
+                + "WHERE u.id = ?", rs -> {
+            email[0] = rs.getString(1);
+            active[0] = rs.getBoolean(2);
+            plannedHoursPerDay[0] = rs.getDouble(3);
+            long manager = rs.getLong(4);
+            managerId[0] = rs.wasNull() ? null : manager;
+            if (rs.getString(5) != null) {
+                roles.add(rs.getString(5));
+            }
+        }, userId);
+        if (email[0] == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, email[0], roles, plannedHoursPerDay[0], active[0], managerId[0], null);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import ch.fhnw.timerecordingbackend.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * JPA-Listener für User, der den {@link AuthenticatedUserCache} bei Änderungen (z.B. Deaktivierung, Rollenwechsel,
+ * Löschung) invalidiert. Neue Benutzer sind noch nicht im Cache und brauchen keine Invalidierung.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class AuthenticatedUserCacheEntityListener {
+
+    @Autowired
+    @Lazy
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        if (authenticatedUserCache != null) {
+            authenticatedUserCache.invalidate(user.getId());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ch.fhnw.timerecordingbackend.security;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -14,7 +15,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
+import java.util.Collection;
 
 /**
  * Filter zur JWT-Authentifizierung bei jeder Anfrage
@@ -33,6 +34,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
     /**
      * Diese Methode wird bei jeder Anfrage automatisch aufgerufen.
      * Sie prüft, ob ein gültiges JWT vorhanden ist, und setzt ggf. den Benutzerkontext.
@@ -44,26 +48,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // JWT-Token wird aus dem Authorization-Header extrahiert
             String jwt = getJwtFromRequest(request);
 
-            // Wenn ein JWT vorhanden ist und es gültig ist, wird der Benutzer im SecurityContext gesetzt
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                // Benutzernamen aus dem JWT extrahieren
-                String username = tokenProvider.getUsernameFromJwt(jwt);
+            // Token einmal verifizieren (Signatur, Ablauf, Blacklist), danach nur noch die Claims auswerten
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.verify(jwt) : null;
 
-                // Benutzerrollen aus dem JWT extrahieren
-                List<GrantedAuthority> authorities = tokenProvider.getAuthoritiesFromJwt(jwt);
+            // Wenn ein JWT vorhanden ist und es gültig ist, wird der Benutzer im SecurityContext gesetzt
+            if (claims != null) {
+                // Principal aus den Claims (Benutzer-ID, Rollen, Soll-Stunden), ohne Datenbankzugriff
+                AuthenticatedUser claimsPrincipal = tokenProvider.getPrincipal(claims);
 
-                // Benutzerdetails über das UserDetailsService-Interface laden
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = null;
+                Collection<? extends GrantedAuthority> authorities = null;
+                if (claimsPrincipal != null) {
+                    // Aktiv-Flag und aktuelle Rollen aus dem kurzlebigen Cache, damit Deaktivierung und
+                    // Rollenwechsel auch für bereits ausgestellte Tokens gelten
+                    AuthenticatedUser current = authenticatedUserCache.get(claimsPrincipal.getId());
+                    if (current != null && current.isEnabled() && current.getEmail().equals(claimsPrincipal.getEmail())) {
+                        userDetails = current;
+                        authorities = current.getAuthorities();
+                    }
+                } else {
+                    // Ältere Tokens ohne Benutzer-ID: Benutzerdetails über das UserDetailsService-Interface laden
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                    authorities = tokenProvider.getAuthorities(claims);
+                }
 
-                // Erstellung eines Authentication-Objekts mit den geladenen Benutzerdaten und Rollen
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, authorities);
+                if (userDetails != null) {
+                    // Erstellung eines Authentication-Objekts mit den Benutzerdaten und Rollen
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, authorities);
 
-                // Zusätzliche Details zur Anfrage hinzufügen (IP-Adresse, Session-ID etc.)
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    // Zusätzliche Details zur Anfrage hinzufügen (IP-Adresse, Session-ID etc.)
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                // Authentifizierten Benutzer in den SecurityContext setzen
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    // Authentifizierten Benutzer in den SecurityContext setzen
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             // Fehlerbehandlung bei Problemen mit dem Token oder der Authentifizierung
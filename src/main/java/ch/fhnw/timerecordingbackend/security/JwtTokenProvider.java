@@ -2,6 +2,7 @@ package ch.fhnw.timerecordingbackend.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys; // Diese Zeile hinzufügen
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -11,6 +12,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey; // Diese Zeile hinzufügen
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -34,25 +38,79 @@ public class JwtTokenProvider {
     @Value("${app.jwtExpirationInMs}")
     private int jwtExpirationInMs;
 
-    // Set zur Speicherung von invalidierten (z. B. ausgeloggten) Tokens
-    private Set<String> blacklistedTokens = new HashSet<>();
+    // Anzahl zuletzt verifizierter Tokens im Cache (0 = jedes Token wird neu verifiziert)
+    @Value("${app.security.verified-token-cache-size:10000}")
+    private int verifiedTokenCacheSize;
+
+    // Speicher für invalidierte (z. B. ausgeloggte) Tokens, optional von allen Instanzen geteilt
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    // Schlüssel und Parser werden einmal erzeugt und für alle Anfragen wiederverwendet
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
+    /**
+     * Bereits verifiziertes Token: Claims und Ablaufzeitpunkt.
+     */
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Zuletzt verifizierte Tokens, Schlüssel ist der SHA-256-Hash des Tokens
+    private final Map<String, VerifiedToken> verifiedTokens = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > verifiedTokenCacheSize;
+        }
+    };
 
     // Methode zur Generierung eines sicheren Schlüssels für HS512
     private SecretKey getSigningKey() {
-        // Wenn jwtSecret leer ist, erstellen wir einen zufälligen Schlüssel
-        if (jwtSecret == null || jwtSecret.isEmpty()) {
-            return Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        SecretKey key = signingKey;
+        if (key != null) {
+            return key;
+        }
+        synchronized (this) {
+            if (signingKey == null) {
+                // Wenn jwtSecret leer ist, erstellen wir einen zufälligen Schlüssel (gültig bis zum Neustart)
+                if (jwtSecret == null || jwtSecret.isEmpty()) {
+                    signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+                } else {
+                    // Ansonsten verwenden wir den konfigurierten Schlüssel, stellen aber sicher,
+                    // dass er lang genug ist
+                    signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+                }
+            }
+            return signingKey;
         }
+    }
 
-        // Ansonsten verwenden wir den konfigurierten Schlüssel, stellen aber sicher,
-        // dass er lang genug ist
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = current;
+        }
+        return current;
     }
 
+    // Claims für den schlanken Principal, damit Anfragen ohne Benutzerabfrage authentifiziert werden
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_PLANNED_HOURS_PER_DAY = "plannedHoursPerDay";
+
     /**
      * Erstellt ein JWT-Token auf Basis der übergebenen Authentifizierungsdaten.
-     * Das Token enthält Username, Rollen und Ablaufzeit.
+     * Das Token enthält Username, Rollen und Ablaufzeit, bei einem {@link AuthenticatedUser} zusätzlich
+     * Benutzer-ID und Soll-Stunden pro Tag.
      */
     public String generateToken(Authentication authentication) {
         // Extrahiert UserDetails aus dem Authentication-Objekt
@@ -66,62 +124,133 @@ public class JwtTokenProvider {
                 .collect(Collectors.toList());
 
         // Erstellt und signiert das JWT Token mit einem sicheren Schlüssel
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername()) // Benutzername als Subject
                 .claim("roles", roles) // Rollen als Claim hinzufügen
                 .setIssuedAt(new Date()) // Zeitpunkt der Ausstellung
-                .setExpiration(expiryDate) // Ablaufdatum
+                .setExpiration(expiryDate); // Ablaufdatum
+        if (userPrincipal instanceof AuthenticatedUser user) {
+            builder.claim(CLAIM_USER_ID, user.getId())
+                    .claim(CLAIM_PLANNED_HOURS_PER_DAY, user.getPlannedHoursPerDay());
+        }
+        return builder
                 .signWith(getSigningKey()) // Verwenden Sie die neue Methode für den Schlüssel
                 .compact(); // Finales Token-String erstellen
     }
 
     /**
-     * Extrahiert den Benutzernamen (Subject) aus einem gültigen JWT
+     * Prüft Blacklist, Signatur und Ablauf eines Tokens und liefert die Claims. Pro Anfrage genügt ein Aufruf;
+     * ein bereits verifiziertes Token wird bis zu seinem Ablauf aus dem Cache bedient, ohne Signaturprüfung.
+     * @return verifizierte Claims oder null, wenn das Token ungültig, abgelaufen oder gesperrt ist
      */
-    public String getUsernameFromJwt(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        // Prüft, ob Token auf der Blacklist steht
+        String key = hash(token);
+        if (revocationStore.isRevoked(key)) {
+            return null; // Deaktiviert das Token, z. B. durch Logout
+        }
 
-        return claims.getSubject(); // Benutzername
+        long now = System.currentTimeMillis();
+        if (verifiedTokenCacheSize > 0) {
+            synchronized (verifiedTokens) {
+                VerifiedToken cached = verifiedTokens.get(key);
+                if (cached != null) {
+                    if (cached.expiresAt > now) {
+                        return cached.claims;
+                    }
+                    verifiedTokens.remove(key);
+                    return null;
+                }
+            }
+        }
+
+        Claims claims = parse(token);
+        if (claims != null && verifiedTokenCacheSize > 0 && claims.getExpiration() != null) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(key, new VerifiedToken(claims, claims.getExpiration().getTime()));
+            }
+        }
+        return claims;
     }
 
     /**
-     * Extrahiert die Rollen aus dem Token und wandelt sie in Spring Security Authorities um
+     * Baut den Principal aus verifizierten Claims.
+     * @return Principal ohne Passwort oder null bei älteren Tokens ohne Benutzer-ID
      */
-    public List<GrantedAuthority> getAuthoritiesFromJwt(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        // Holt Rolen als Liste aus dem "roles"-Claim
-        List<String> roles = claims.get("roles", List.class);
+    public AuthenticatedUser getPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
+        }
+        Number plannedHoursPerDay = claims.get(CLAIM_PLANNED_HOURS_PER_DAY, Number.class);
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), new HashSet<>(getRoleNames(claims)),
+                plannedHoursPerDay != null ? plannedHoursPerDay.doubleValue() : 8.0, true, null);
+    }
 
-        // Wandelt Rollen in SimpleGrantedAuthority-Objekte um
-        return roles.stream()
+    /**
+     * Wandelt den "roles"-Claim verifizierter Claims in Spring Security Authorities um.
+     */
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        return getRoleNames(claims).stream()
                 .map(SimpleGrantedAuthority::new) // Für jede Rolle
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Baut den Principal aus den Claims eines gültigen Tokens.
+     * @return Principal ohne Passwort oder null bei ungültigen oder älteren Tokens ohne Benutzer-ID
+     */
+    public AuthenticatedUser getPrincipalFromJwt(String token) {
+        Claims claims = verify(token);
+        return claims != null ? getPrincipal(claims) : null;
+    }
+
+    /**
+     * Extrahiert den Benutzernamen (Subject) aus einem gültigen JWT
+     */
+    public String getUsernameFromJwt(String token) {
+        Claims claims = verify(token);
+        return claims != null ? claims.getSubject() : null; // Benutzername
+    }
+
+    /**
+     * Extrahiert die Rollen aus dem Token und wandelt sie in Spring Security Authorities um
+     */
+    public List<GrantedAuthority> getAuthoritiesFromJwt(String token) {
+        Claims claims = verify(token);
+        return claims != null ? getAuthorities(claims) : List.of();
+    }
+
     // Prüft die Gültigkeit des Tokens
     public boolean validateToken(String authToken) {
-        // Prüft, ob Token auf der Blacklist steht
-        if (blacklistedTokens.contains(authToken)) {
-            return false; // Deaktiviert das Token, z. B. durch Logout
+        return verify(authToken) != null;
+    }
+
+    // Fügt Token zur Blacklist hinzu, z. B. bei Logout
+    // Bei validateToken() gelten diese Tokens bis zu ihrem Ablauf als ungültig
+    public void blacklistToken(String token) {
+        Claims claims = verify(token);
+        if (claims == null || claims.getExpiration() == null) {
+            return; // Ungültige oder bereits gesperrte Tokens werden ohnehin abgelehnt
+        }
+        String key = hash(token);
+        revocationStore.revoke(key, claims.getExpiration().getTime());
+        synchronized (verifiedTokens) {
+            verifiedTokens.remove(key);
         }
+    }
 
+    /**
+     * Parst das Token und verifiziert Signatur und Ablauf.
+     */
+    private Claims parse(String token) {
         try {
             // Versucht das Token zu parsen und zu verifizieren
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true; // Token gültig
-        } catch (SecurityException e) {
+            return getParser().parseClaimsJws(token).getBody();
+        } catch (io.jsonwebtoken.security.SecurityException e) {
             // JWT Signatur ist ungültig
             System.out.println("Invalid JWT signature: " + e.getMessage());
         } catch (MalformedJwtException e) {
@@ -137,12 +266,24 @@ public class JwtTokenProvider {
             // Token-String ist leer oder null
             System.out.println("JWT claims string is empty: " + e.getMessage());
         }
-        return false; // Token ungültig
+        return null; // Token ungültig
     }
 
-    // Fügt Token zur Blacklist hinzu, z. B. bei Logout
-    // Bei validateToken() gelten diese Tokens als ungültig
-    public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
+    private static List<String> getRoleNames(Claims claims) {
+        // Holt Rolen als Liste aus dem "roles"-Claim
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream().map(String::valueOf).collect(Collectors.toList());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zulassungskontrolle für Logins: begrenzt Versuche pro Konto und pro IP-Adresse (Token-Bucket, Auffüllung über eine
+ * Minute) und führt die BCrypt-Prüfung auf dem begrenzten Login-Pool des {@link PasswordHashingPool} aus.
+ * Überzählige Versuche werden sofort mit {@link LoginThrottledException} (HTTP 429) abgewiesen statt in Tomcat-Threads
+ * zu warten. Latenz der Passwortprüfung, Warteschlange und Ablehnungen sind über {@link #stats()} abrufbar.
+ * Die Client-IP stammt hinter einem Proxy aus X-Forwarded-For (server.forward-headers-strategy); ein Limit von 0
+ * schaltet die jeweilige Prüfung ab.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class LoginAdmissionControl {
+
+    private static final long REFILL_PERIOD_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int LATENCY_SAMPLES = 1024;
+
+    /**
+     * Token-Bucket eines Kontos oder einer IP-Adresse.
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+
+        /**
+         * Entnimmt einen Versuch.
+         * @return 0 bei Erfolg, sonst Sekunden bis zum nächsten freien Versuch
+         */
+        private synchronized long tryAcquire(int capacity, long now) {
+            refill(capacity, now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            double missingNanos = (1 - tokens) * REFILL_PERIOD_NANOS / capacity;
+            return Math.max(1, (long) Math.ceil(missingNanos / 1_000_000_000d));
+        }
+
+        private synchronized boolean isFull(int capacity, long now) {
+            refill(capacity, now);
+            return tokens >= capacity;
+        }
+
+        private void refill(int capacity, long now) {
+            tokens = Math.min(capacity, tokens + (double) (now - updatedAt) * capacity / REFILL_PERIOD_NANOS);
+            updatedAt = now;
+        }
+    }
+
+    private final PasswordHashingPool passwordHashingPool;
+    private final int accountAttemptsPerMinute;
+    private final int ipAttemptsPerMinute;
+    private final long verifyTimeoutMs;
+
+    private final Map<String, Bucket> accountBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong throttledAccount = new AtomicLong();
+    private final AtomicLong throttledIp = new AtomicLong();
+    private final AtomicLong rejectedBusy = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    // Die letzten Latenzen der Passwortprüfung (Warten + Hashen) in Mikrosekunden
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private final AtomicLong latencyCount = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    @Autowired
+    public LoginAdmissionControl(PasswordHashingPool passwordHashingPool,
+                                 @Value("${app.security.login.account-attempts-per-minute:10}") int accountAttemptsPerMinute,
+                                 @Value("${app.security.login.ip-attempts-per-minute:600}") int ipAttemptsPerMinute,
+                                 @Value("${app.security.login.verify-timeout-ms:5000}") long verifyTimeoutMs) {
+        this.passwordHashingPool = passwordHashingPool;
+        this.accountAttemptsPerMinute = accountAttemptsPerMinute;
+        this.ipAttemptsPerMinute = ipAttemptsPerMinute;
+        this.verifyTimeoutMs = verifyTimeoutMs;
+    }
+
+    /**
+     * Prüft die Versuchslimits für Konto und IP-Adresse und verbraucht je einen Versuch.
+     * @param email E-Mail aus dem Login-Request
+     * @param clientIp IP-Adresse des Clients oder null
+     * @throws LoginThrottledException wenn eines der Limits erreicht ist
+     */
+    public void admit(String email, String clientIp) {
+        long now = System.nanoTime();
+        if (clientIp != null && ipAttemptsPerMinute > 0) {
+            long retryAfter = bucket(ipBuckets, clientIp, ipAttemptsPerMinute, now).tryAcquire(ipAttemptsPerMinute, now);
+            if (retryAfter > 0) {
+                throttledIp.incrementAndGet();
+                throw new LoginThrottledException("Zu viele Anmeldeversuche von dieser Adresse", retryAfter);
+            }
+        }
+        if (email != null && accountAttemptsPerMinute > 0) {
+            String account = email.trim().toLowerCase(Locale.ROOT);
+            long retryAfter = bucket(accountBuckets, account, accountAttemptsPerMinute, now)
+                    .tryAcquire(accountAttemptsPerMinute, now);
+            if (retryAfter > 0) {
+                throttledAccount.incrementAndGet();
+                throw new LoginThrottledException("Zu viele Anmeldeversuche für dieses Konto", retryAfter);
+            }
+        }
+        admitted.incrementAndGet();
+    }
+
+    /**
+     * Prüft ein Passwort auf dem Login-Pool und wartet höchstens app.security.login.verify-timeout-ms.
+     * @throws LoginThrottledException wenn der Pool ausgelastet ist oder die Prüfung zu lange dauert
+     */
+    public boolean verifyPassword(String rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> verification;
+        try {
+            verification = passwordHashingPool.submitVerification(rawPassword, encodedPassword);
+        } catch (RejectedExecutionException e) {
+            rejectedBusy.incrementAndGet();
+            throw new LoginThrottledException("Anmeldung momentan ausgelastet", 1);
+        }
+        try {
+            return verification.get(verifyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            verification.cancel(true);
+            timeouts.incrementAndGet();
+            throw new LoginThrottledException("Anmeldung momentan ausgelastet", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginThrottledException("Anmeldung abgebrochen", 1);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException : new IllegalStateException(e.getCause());
+        } finally {
+            recordLatency(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Entfernt Buckets, die wieder voll sind und damit dem Ausgangszustand entsprechen.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeIdleBuckets() {
+        long now = System.nanoTime();
+        accountBuckets.values().removeIf(bucket -> bucket.isFull(accountAttemptsPerMinute, now));
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(ipAttemptsPerMinute, now));
+    }
+
+    /**
+     * Kennzahlen der Login-Zulassung: Latenz der Passwortprüfung, Auslastung des Pools und Ablehnungen.
+     */
+    public Map<String, Object> stats() {
+        long count = latencyCount.get();
+        int samples = (int) Math.min(count, LATENCY_SAMPLES);
+        long[] sorted;
+        synchronized (latencies) {
+            sorted = Arrays.copyOf(latencies, samples);
+        }
+        Arrays.sort(sorted);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("samples", samples);
+        latency.put("p50Ms", percentile(sorted, 0.50));
+        latency.put("p95Ms", percentile(sorted, 0.95));
+        latency.put("p99Ms", percentile(sorted, 0.99));
+        latency.put("maxMs", maxLatency.get() / 1000.0);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("admitted", admitted.get());
+        stats.put("throttledAccount", throttledAccount.get());
+        stats.put("throttledIp", throttledIp.get());
+        stats.put("rejectedBusy", rejectedBusy.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("verifyThreads", passwordHashingPool.getVerificationPoolSize());
+        stats.put("activeVerifications", passwordHashingPool.getActiveVerifications());
+        stats.put("queueDepth", passwordHashingPool.getVerificationQueueDepth());
+        stats.put("verificationLatency", latency);
+        stats.put("trackedAccounts", accountBuckets.size());
+        stats.put("trackedIps", ipBuckets.size());
+        return stats;
+    }
+
+    private static Bucket bucket(Map<String, Bucket> buckets, String key, int capacity, long now) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+    }
+
+    private void recordLatency(long micros) {
+        long index = latencyCount.getAndIncrement();
+        synchronized (latencies) {
+            latencies[(int) (index % LATENCY_SAMPLES)] = micros;
+        }
+        maxLatency.accumulateAndGet(micros, Math::max);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
@@ -0,0 +1,21 @@
+package ch.fhnw.timerecordingbackend.security;
+
+/**
+ * Wird geworfen, wenn ein Login-Versuch wegen zu vieler Versuche (pro Konto oder IP) oder ausgelasteter
+ * Passwortprüfung abgelehnt wird. Der AuthController beantwortet ihn mit 429 und Retry-After.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
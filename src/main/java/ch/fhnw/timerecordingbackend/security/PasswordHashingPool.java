@@ -0,0 +1,134 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Begrenzter Thread-Pool für BCrypt-Hashing. Ein Hash kostet je nach Stärke rund 50-100 ms CPU, bei Massenanlagen
+ * werden die Passwörter deshalb parallel, aber höchstens mit app.security.password-hashing.threads Threads gehasht.
+ * Ist die Warteschlange voll, hasht der aufrufende Thread selbst und bremst so den Aufrufer statt Aufgaben zu stapeln.
+ * Passwortprüfungen beim Login laufen auf einem eigenen, kleineren Pool (app.security.login.verify-threads) mit kurzer
+ * Warteschlange (app.security.login.max-queued). Ist er ausgelastet, wird die Prüfung abgelehnt statt gestapelt,
+ * damit Login-Spitzen nicht alle Prozessoren und Tomcat-Threads belegen.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class PasswordHashingPool {
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor verifyExecutor;
+
+    @Autowired
+    public PasswordHashingPool(PasswordEncoder passwordEncoder,
+                               @Value("${app.security.password-hashing.threads:0}") int threads,
+                               @Value("${app.security.login.verify-threads:0}") int verifyThreads,
+                               @Value("${app.security.login.max-queued:32}") int maxQueuedVerifications) {
+        this.passwordEncoder = passwordEncoder;
+        // 0 = Anzahl Prozessoren, damit parallele Massenanlagen die Anfragen anderer Benutzer nicht verdrängen
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory("password-hashing-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        // 0 = halbe Anzahl Prozessoren, der Rest bleibt für Stempeln und andere Anfragen frei
+        int verifyPoolSize = verifyThreads > 0 ? verifyThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        BlockingQueue<Runnable> verifyQueue = maxQueuedVerifications > 0
+                ? new ArrayBlockingQueue<>(maxQueuedVerifications) : new SynchronousQueue<>();
+        this.verifyExecutor = new ThreadPoolExecutor(verifyPoolSize, verifyPoolSize, 0L, TimeUnit.MILLISECONDS,
+                verifyQueue, threadFactory("password-verify-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hasht mehrere Passwörter parallel.
+     * @param rawPasswords Passwörter im Klartext
+     * @return Hashes in derselben Reihenfolge
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            futures.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor));
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<String> future : futures) {
+                hashes.add(future.join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+        return hashes;
+    }
+
+    /**
+     * Prüft ein Passwort auf dem Login-Pool.
+     * @return Future mit dem Ergebnis von PasswordEncoder.matches
+     * @throws RejectedExecutionException wenn alle Threads beschäftigt sind und die Warteschlange voll ist
+     */
+    public CompletableFuture<Boolean> submitVerification(String rawPassword, String encodedPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.matches(rawPassword, encodedPassword), verifyExecutor);
+    }
+
+    /**
+     * Anzahl wartender Passwortprüfungen.
+     */
+    public int getVerificationQueueDepth() {
+        return verifyExecutor.getQueue().size();
+    }
+
+    /**
+     * Anzahl laufender Passwortprüfungen.
+     */
+    public int getActiveVerifications() {
+        return verifyExecutor.getActiveCount();
+    }
+
+    /**
+     * Anzahl Threads für Passwortprüfungen.
+     */
+    public int getVerificationPoolSize() {
+        return verifyExecutor.getMaximumPoolSize();
+    }
+
+    /**
+     * Anzahl Threads des Pools.
+     */
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        verifyExecutor.shutdownNow();
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -46,11 +46,45 @@ public class SecurityUtils {
         return principal.toString();
     }
 
+    /**
+     * Gibt den Principal des aktuell angemeldeten Benutzers zurück (ID, E-Mail, Rollen, Soll-Stunden),
+     * oder null, falls die Anfrage nicht per JWT authentifiziert ist. Benötigt keinen Datenbankzugriff.
+     */
+    public AuthenticatedUser getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    /**
+     * Gibt die ID des aktuell angemeldeten Benutzers zurück, ohne ihn aus der Datenbank zu laden
+     * (Fallback über die E-Mail-Adresse, wenn der Principal keine ID enthält)
+     */
+    public Long getCurrentUserId() {
+        AuthenticatedUser principal = getCurrentPrincipal();
+        if (principal != null) {
+            return principal.getId();
+        }
+        User user = getCurrentUser();
+        return user != null ? user.getId() : null;
+    }
+
     /**
      * Gibt das vollständige User-Objekt des aktuell angemeldeten Benutzers zurück,
-     * oder null, falls kein Benutzer angemeldet ist oder der Benutzer nicht gefunden wurde
+     * oder null, falls kein Benutzer angemeldet ist oder der Benutzer nicht gefunden wurde.
+     * Lädt den Benutzer samt Rollen aus der Datenbank; nur verwenden, wenn Felder benötigt werden, die der
+     * Principal ({@link #getCurrentPrincipal()}) nicht enthält. Als Fremdschlüssel genügt
+     * {@code userRepository.getReferenceById(id)}.
      */
     public User getCurrentUser() {
+        AuthenticatedUser principal = getCurrentPrincipal();
+        if (principal != null) {
+            return userRepository.findById(principal.getId())
+                    .orElse(null);
+        }
         String email = getCurrentUsername(); // E-Mail abrufen
         return userRepository.findByEmail(email)
                 .orElse(null); // Null, falls Benutzer nicht gefunden
@@ -0,0 +1,159 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Speicher für gesperrte JWTs (z.B. nach Logout), abgelegt als SHA-256-Hash mit dem Ablaufzeitpunkt des Tokens.
+ * Einträge werden nach Ablauf entfernt, da abgelaufene Tokens ohnehin abgelehnt werden; die Grösse ist damit durch
+ * die Anzahl Sperren innerhalb einer Token-Laufzeit begrenzt.
+ * Modus app.security.revocation.mode:
+ * - local (Standard): nur im Speicher dieser Instanz
+ * - jdbc: zusätzlich in der Tabelle revoked_tokens, jede Instanz übernimmt neue Sperren der anderen Instanzen
+ *   periodisch (app.security.revocation.sync-interval-ms) in ihren lokalen Speicher. Die Prüfung pro Anfrage
+ *   bleibt damit ein Map-Zugriff ohne Datenbankabfrage.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class TokenRevocationStore implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    // Überlappung beim Abgleich, damit spät committete Sperren anderer Instanzen nicht verpasst werden
+    private static final long SYNC_OVERLAP_MS = 60_000;
+
+    @Autowired(required = false)
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.security.revocation.mode:local}")
+    private String mode = "local";
+
+    // Token-Hash -> Ablaufzeitpunkt des Tokens in Millisekunden
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong synchronizedEntries = new AtomicLong();
+
+    // Neuester bereits übernommener Sperrzeitpunkt aus der Datenbank
+    private volatile Timestamp syncWatermark;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (isShared()) {
+            synchronizeShared();
+        }
+    }
+
+    /**
+     * Sperrt ein Token bis zu seinem Ablauf.
+     * @param tokenHash SHA-256-Hash des Tokens
+     * @param expiresAt Ablaufzeitpunkt des Tokens in Millisekunden
+     */
+    public void revoke(String tokenHash, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(tokenHash, expiresAt);
+        if (isShared()) {
+            try {
+                jdbcTemplate.update("INSERT INTO revoked_tokens (token_hash, expires_at, revoked_at) "
+                        + "VALUES (?, ?, CURRENT_TIMESTAMP)", tokenHash, new Timestamp(expiresAt));
+            } catch (DuplicateKeyException e) {
+                // Bereits von einer anderen Anfrage gesperrt
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob ein Token gesperrt ist. Abgelaufene Einträge werden dabei entfernt.
+     * @param tokenHash SHA-256-Hash des Tokens
+     */
+    public boolean isRevoked(String tokenHash) {
+        Long expiresAt = revoked.get(tokenHash);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            if (revoked.remove(tokenHash, expiresAt)) {
+                evictions.incrementAndGet();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Entfernt abgelaufene Sperren und übernimmt im Modus jdbc die Sperren der anderen Instanzen.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval-ms:5000}")
+    public void maintain() {
+        long now = System.currentTimeMillis();
+        revoked.forEach((hash, expiresAt) -> {
+            if (expiresAt <= now && revoked.remove(hash, expiresAt)) {
+                evictions.incrementAndGet();
+            }
+        });
+        if (isShared()) {
+            synchronizeShared();
+        }
+    }
+
+    /**
+     * Kennzahlen für die Administration.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", isShared() ? "jdbc" : "local");
+        stats.put("size", revoked.size());
+        stats.put("evictions", evictions.get());
+        stats.put("synchronized", synchronizedEntries.get());
+        stats.put("syncWatermark", syncWatermark);
+        return stats;
+    }
+
+    private boolean isShared() {
+        return "jdbc".equalsIgnoreCase(mode) && jdbcTemplate != null;
+    }
+
+    private synchronized void synchronizeShared() {
+        try {
+            jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at < CURRENT_TIMESTAMP");
+
+            Timestamp watermark = syncWatermark;
+            String sql = "SELECT token_hash, expires_at, revoked_at FROM revoked_tokens WHERE expires_at > CURRENT_TIMESTAMP";
+            Object[] args = {};
+            if (watermark != null) {
+                sql += " AND revoked_at > ?";
+                args = new Object[]{new Timestamp(watermark.getTime() - SYNC_OVERLAP_MS)};
+            }
+            Timestamp[] newest = {watermark};
+            jdbcTemplate.query(sql, rs -> {
+                revoked.put(rs.getString(1), rs.getTimestamp(2).getTime());
+                Timestamp revokedAt = rs.getTimestamp(3);
+                if (newest[0] == null || revokedAt.after(newest[0])) {
+                    newest[0] = revokedAt;
+                }
+                synchronizedEntries.incrementAndGet();
+            }, args);
+            syncWatermark = newest[0];
+        } catch (DataAccessException e) {
+            // Lokale Sperren bleiben gültig, der nächste Abgleich holt die fehlenden nach
+            logger.warn("Abgleich der gesperrten Tokens fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+}
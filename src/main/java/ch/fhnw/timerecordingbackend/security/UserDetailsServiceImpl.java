@@ -4,16 +4,12 @@ package ch.fhnw.timerecordingbackend.security;
 import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import javax.swing.*;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implementierung von UserDetailsService zur Benutzerladung via E-Mail
@@ -38,21 +34,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        // Wandelt Benutzerrollen in Spring Security Authorities um (z. B. "ROLE_ADMIN")
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))
-                .collect(Collectors.toList());
-
-        // Erstellt ein UserDetails-Objekt mit E-Mail, Passwort und Rollen
-        // Die Booleans definieren Status wie Aktivität, Ablauf, Sperre
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(), // E-Mail
-                user.getPassword(), // Verschlüsseltes Passwort
-                user.isActive(), // Ob Benutzer aktiv ist
-                true,   // // Account nicht abgelaufen
-                true,   // // Credentials nicht abgelaufen
-                true,   // // Account nicht gesperrt
-                authorities // Rollen
-        );
+        // Principal mit ID, Rollen und Soll-Stunden, damit der JwtTokenProvider sie als Claims ins Token schreiben kann.
+        // isEnabled() liefert das Aktiv-Flag, ein deaktivierter Benutzer kann sich nicht anmelden.
+        return AuthenticatedUser.of(user);
     }
 }
@@ -1,10 +1,13 @@
 package ch.fhnw.timerecordingbackend.service;
 
+import ch.fhnw.timerecordingbackend.dto.absence.AbsenceBulkResult;
+import ch.fhnw.timerecordingbackend.dto.absence.AbsenceCalendarResponse;
 import ch.fhnw.timerecordingbackend.model.Absence;
 import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
@@ -166,4 +169,26 @@ public interface AbsenceService {
      * @return true, wenn sich Abwesenheiten überschneiden, sonst false
      */
     boolean hasOverlappingAbsences(Long userId, LocalDate startDate, LocalDate endDate, Long excludeId);
+
+    /**
+     * Team-Kalender der genehmigten Abwesenheiten als Tages-Bitsets pro Benutzer und Abwesenheitsart
+     * @param currentUser aktuell angemeldeter Benutzer (Admin oder Manager)
+     * @param managerId Team dieses Managers; null = eigenes Team, für Admins alle aktiven Benutzer.
+     *                  Manager dürfen nur ihr eigenes Team oder das eines ihnen unterstellten Managers abfragen.
+     * @param month erster Monat des Kalenders
+     * @param months Anzahl Monate (1 bis 12)
+     * @return Kalender mit einer Zeile pro Teammitglied
+     */
+    AbsenceCalendarResponse getTeamCalendar(User currentUser, Long managerId, YearMonth month, int months);
+
+    /**
+     * Mehrere Abwesenheiten auf einmal genehmigen oder ablehnen. Der ganze Stapel wird mit einer Abfrage autorisiert
+     * (Admins alle, sonst nur Abwesenheiten des eigenen Teams), der Status mit einem UPDATE gesetzt und die Protokolle
+     * in einem Batch geschrieben. Nicht gefundene oder nicht berechtigte IDs werden als Fehler gemeldet.
+     * @param ids IDs der Abwesenheiten
+     * @param approverId ID des Genehmigers bzw. Ablehnenden
+     * @param approve true = genehmigen, false = ablehnen
+     * @return Anzahl geänderter und unveränderter Abwesenheiten sowie Fehler pro ID
+     */
+    AbsenceBulkResult decideAbsences(List<Long> ids, Long approverId, boolean approve);
 }
\ No newline at end of file
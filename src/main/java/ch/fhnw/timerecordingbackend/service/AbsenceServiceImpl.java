@@ -1,5 +1,7 @@
 package ch.fhnw.timerecordingbackend.service;
 
+import ch.fhnw.timerecordingbackend.dto.absence.AbsenceBulkResult;
+import ch.fhnw.timerecordingbackend.dto.absence.AbsenceCalendarResponse;
 import ch.fhnw.timerecordingbackend.model.Absence;
 import ch.fhnw.timerecordingbackend.model.SystemLog;
 import ch.fhnw.timerecordingbackend.model.User;
@@ -10,14 +12,28 @@ import ch.fhnw.timerecordingbackend.repository.SystemLogRepository;
 import ch.fhnw.timerecordingbackend.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementierung AbsenceService Interface
@@ -27,18 +43,43 @@ import java.util.Optional;
 @Service
 public class AbsenceServiceImpl implements AbsenceService{
 
+    // Obergrenze für den Team-Kalender (ein Jahr)
+    private static final int MAX_CALENDAR_MONTHS = 12;
+    // Obergrenze für Sammelgenehmigungen pro Anfrage
+    private static final int MAX_BULK_DECISIONS = 1000;
+
+    private static final String INSERT_LOG_SQL = "INSERT INTO system_logs (action, timestamp, details, user_id, "
+            + "user_email, target_entity, target_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_LOG_TYPES = {Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.BIGINT,
+            Types.VARCHAR, Types.VARCHAR, Types.BIGINT};
+
     private final AbsenceRepository absenceRepository;
     private final UserRepository userRepository;
     private final SystemLogRepository systemLogRepository;
+    private final MonthlyBalanceService monthlyBalanceService;
+    private final DashboardEventPublisher dashboardEventPublisher;
+    private final ManagerHierarchyService managerHierarchyService;
+    private final VacationLedgerService vacationLedgerService;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
     public AbsenceServiceImpl(
             AbsenceRepository absenceRepository,
             UserRepository userRepository,
-            SystemLogRepository systemLogRepository) {
+            SystemLogRepository systemLogRepository,
+            MonthlyBalanceService monthlyBalanceService,
+            DashboardEventPublisher dashboardEventPublisher,
+            ManagerHierarchyService managerHierarchyService,
+            VacationLedgerService vacationLedgerService,
+            JdbcTemplate jdbcTemplate) {
         this.absenceRepository = absenceRepository;
         this.userRepository = userRepository;
         this.systemLogRepository = systemLogRepository;
+        this.monthlyBalanceService = monthlyBalanceService;
+        this.dashboardEventPublisher = dashboardEventPublisher;
+        this.managerHierarchyService = managerHierarchyService;
+        this.vacationLedgerService = vacationLedgerService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -84,6 +125,9 @@ public class AbsenceServiceImpl implements AbsenceService{
             throw new IllegalArgumentException("Die Abwesenheit überschneidet sich mit einer bestehenden Abwesenheit");
         }
 
+        // Prüfung der verfügbaren Ferientage
+        vacationLedgerService.checkAvailable(absence);
+
         // Zeitstempel setzen
         LocalDateTime now = LocalDateTime.now();
         absence.setCreatedAt(now);
@@ -91,11 +135,14 @@ public class AbsenceServiceImpl implements AbsenceService{
 
         // Abwesenheit speichern
         Absence savedAbsence = absenceRepository.save(absence);
+        vacationLedgerService.addAbsence(savedAbsence);
 
         // Log erstellen
         createSystemLog("Abwesenheit erstellt für " + absence.getUser().getFullName(),
                 "Abwesenheit ID: " + savedAbsence.getId() + ", Typ: " + absence.getType().getDisplayName() +
                         ", Zeitraum: " + absence.getStartDate() + " bis " + absence.getEndDate());
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.ABSENCE, "created",
+                savedAbsence.getUser(), savedAbsence.getId());
 
         return savedAbsence;
     }
@@ -125,17 +172,32 @@ public class AbsenceServiceImpl implements AbsenceService{
             throw new IllegalArgumentException("Die Abwesenheit überschneidet sich mit einer bestehenden Abwesenheit");
         }
 
+        // Gutschrift einer genehmigten Abwesenheit und Ferientage für den alten Zeitraum zurückbuchen
+        boolean approved = existingAbsence.getStatus() == AbsenceStatus.APPROVED;
+        if (approved) {
+            monthlyBalanceService.revokeAbsenceCredit(existingAbsence);
+        }
+        vacationLedgerService.removeAbsence(existingAbsence);
+
         // Abwesenheit aktualisieren
         existingAbsence.setStartDate(updatedAbsence.getStartDate());
         existingAbsence.setEndDate(updatedAbsence.getEndDate());
         existingAbsence.setType(updatedAbsence.getType());
         existingAbsence.setUpdatedAt(LocalDateTime.now());
 
+        vacationLedgerService.checkAvailable(existingAbsence);
+        vacationLedgerService.addAbsence(existingAbsence);
+        if (approved) {
+            monthlyBalanceService.creditAbsence(existingAbsence);
+        }
+
         Absence savedAbsence = absenceRepository.save(existingAbsence);
 
         // Log erstellen
         createSystemLog("Abwesenheit aktualisiert für " + existingAbsence.getUser().getFullName(),
                 "Abwesenheit ID: " + existingAbsence.getId());
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.ABSENCE, "updated",
+                existingAbsence.getUser(), existingAbsence.getId());
 
         return savedAbsence;
     }
@@ -152,16 +214,22 @@ public class AbsenceServiceImpl implements AbsenceService{
                 .orElseThrow(() -> new IllegalArgumentException("Abwesenheit nicht vorhanden"));
 
 
-        String userName = absence.getUser().getFullName();
+        User user = absence.getUser();
+        String userName = user.getFullName();
         String absenceDetails = "Typ: " + absence.getType().getDisplayName() +
                 ", Zeitraum: " + absence.getStartDate() + " bis " + absence.getEndDate();
 
-        // Abwesenheit löschen
+        // Gutschrift und Ferientage zurückbuchen und Abwesenheit löschen
+        if (absence.getStatus() == AbsenceStatus.APPROVED) {
+            monthlyBalanceService.revokeAbsenceCredit(absence);
+        }
+        vacationLedgerService.removeAbsence(absence);
         absenceRepository.delete(absence);
 
         // Log erstellen
         createSystemLog("Abwesenheit gelöscht für " + userName,
                 "Abwesenheit ID: " + id + ", " + absenceDetails);
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.ABSENCE, "deleted", user, id);
     }
 
     /**
@@ -185,23 +253,31 @@ public class AbsenceServiceImpl implements AbsenceService{
         User applicant = absence.getUser();
 
         boolean isAdmin = approver.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
-        // Prüft, ob der Antragsteller einen Manager hat UND ob dieser Manager der aktuelle Genehmiger ist
-        boolean isDirectManager = applicant.getManager() != null && applicant.getManager().getId().equals(approverId);
+        // Prüft über die Manager-Hierarchie, ob der Antragsteller zum Team des Genehmigers gehört
+        boolean isTeamManager = managerHierarchyService.isInTeam(approverId, applicant.getId());
 
-        // Nur Admins oder der direkte Vorgesetzte dürfen genehmigen
-        if (!isAdmin && !isDirectManager) {
-            throw new AccessDeniedException("Nur der direkte Vorgesetzte oder ein Administrator darf diese Abwesenheit genehmigen.");
+        // Nur Admins oder ein Vorgesetzter in der Hierarchie dürfen genehmigen
+        if (!isAdmin && !isTeamManager) {
+            throw new AccessDeniedException("Nur ein Vorgesetzter oder ein Administrator darf diese Abwesenheit genehmigen.");
         }
 
-        // Abwesenheit genehmigen
+        // Abwesenheit genehmigen und im Monatssaldo gutschreiben (bei erneuter Genehmigung nicht doppelt)
+        if (absence.getStatus() == AbsenceStatus.APPROVED) {
+            monthlyBalanceService.revokeAbsenceCredit(absence);
+        }
+        vacationLedgerService.removeAbsence(absence);
         absence.approve(approver);
         absence.setUpdatedAt(LocalDateTime.now()); // Sicherstellen, dass das Update-Datum gesetzt wird
+        monthlyBalanceService.creditAbsence(absence);
+        vacationLedgerService.addAbsence(absence);
         Absence approvedAbsence = absenceRepository.save(absence);
 
         // Log erstellen
         createSystemLog("Abwesenheit genehmigt für " + applicant.getFullName() +
                         " von " + approver.getFullName(),
                 "Abwesenheit ID: " + approvedAbsence.getId() + ", Status: Genehmigt");
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.ABSENCE, "approved",
+                applicant, approvedAbsence.getId());
 
         return approvedAbsence;
     }
@@ -225,13 +301,17 @@ public class AbsenceServiceImpl implements AbsenceService{
         User applicant = absence.getUser();
 
         boolean isAdmin = rejecter.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
-        boolean isDirectManager = applicant.getManager() != null && applicant.getManager().getId().equals(rejecterId);
+        boolean isTeamManager = managerHierarchyService.isInTeam(rejecterId, applicant.getId());
 
-        if (!isAdmin && !isDirectManager) {
-            throw new AccessDeniedException("Nur der direkte Vorgesetzte oder ein Administrator darf diese Abwesenheit ablehnen.");
+        if (!isAdmin && !isTeamManager) {
+            throw new AccessDeniedException("Nur ein Vorgesetzter oder ein Administrator darf diese Abwesenheit ablehnen.");
         }
 
-        // Abwesenheit ablehnen
+        // Abwesenheit ablehnen, eine bereits gebuchte Gutschrift zurückbuchen
+        if (absence.getStatus() == AbsenceStatus.APPROVED) {
+            monthlyBalanceService.revokeAbsenceCredit(absence);
+        }
+        vacationLedgerService.removeAbsence(absence);
         absence.reject();
         absence.setUpdatedAt(LocalDateTime.now());
         Absence rejectedAbsence = absenceRepository.save(absence);
@@ -240,10 +320,135 @@ public class AbsenceServiceImpl implements AbsenceService{
         createSystemLog("Abwesenheit abgelehnt für " + applicant.getFullName() +
                         " von " + rejecter.getFullName(),
                 "Abwesenheit ID: " + rejectedAbsence.getId() + ", Status: Abgelehnt");
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.ABSENCE, "rejected",
+                applicant, rejectedAbsence.getId());
 
         return rejectedAbsence;
     }
 
+    /**
+     * Sammelentscheid über Abwesenheiten: eine Abfrage lädt und autorisiert alle Abwesenheiten (ohne Entitäten),
+     * Monatssaldo und Ferienkonto werden pro Abwesenheit nachgeführt, der Status wird pro gutgeschriebener
+     * Minutenzahl mit einem UPDATE gesetzt und die Protokolle per JDBC-Batch geschrieben.
+     * @param ids
+     * @param approverId
+     * @param approve
+     * @return
+     * @author PD
+     */
+    @Override
+    @Transactional
+    public AbsenceBulkResult decideAbsences(List<Long> ids, Long approverId, boolean approve) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Keine Abwesenheiten angegeben");
+        }
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        if (requestedIds.size() > MAX_BULK_DECISIONS) {
+            throw new IllegalArgumentException("Höchstens " + MAX_BULK_DECISIONS + " Abwesenheiten pro Anfrage");
+        }
+
+        User approver = userRepository.findById(approverId)
+                .orElseThrow(() -> new IllegalArgumentException("Genehmiger nicht vorhanden"));
+        boolean isAdmin = approver.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
+
+        // Autorisierung des ganzen Stapels: Manager erhalten nur Abwesenheiten ihres Teams zurück
+        List<Object[]> rows = isAdmin
+                ? absenceRepository.findDecisionRows(requestedIds)
+                : absenceRepository.findTeamDecisionRows(requestedIds, approverId, managerHierarchyService.maxDepth());
+
+        AbsenceBulkResult result = new AbsenceBulkResult();
+        AbsenceStatus targetStatus = approve ? AbsenceStatus.APPROVED : AbsenceStatus.REJECTED;
+        Set<Long> foundIds = new HashSet<>();
+        Map<Integer, List<Long>> idsByCredit = new HashMap<>();
+        List<Long> changedIds = new ArrayList<>();
+        List<Object[]> changedRows = new ArrayList<>();
+
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            foundIds.add(id);
+            if (row[7] == targetStatus) {
+                result.addUnchanged(1);
+                continue;
+            }
+
+            // Abwesenheit ohne Entität abbilden, damit Saldo und Ferienkonto die bestehenden Buchungen verwenden
+            Absence absence = decisionSnapshot(row);
+            if (absence.getStatus() == AbsenceStatus.APPROVED) {
+                monthlyBalanceService.revokeAbsenceCredit(absence);
+            }
+            vacationLedgerService.removeAbsence(absence);
+            absence.setStatus(targetStatus);
+            if (approve) {
+                monthlyBalanceService.creditAbsence(absence);
+                vacationLedgerService.addAbsence(absence);
+                idsByCredit.computeIfAbsent(absence.getCreditedMinutesPerDay(), credit -> new ArrayList<>()).add(id);
+            }
+            changedIds.add(id);
+            changedRows.add(row);
+        }
+
+        for (Long id : requestedIds) {
+            if (!foundIds.contains(id)) {
+                result.addError(id, "Abwesenheit nicht vorhanden oder keine Berechtigung");
+            }
+        }
+        if (changedIds.isEmpty()) {
+            return result;
+        }
+
+        // Status pro gutgeschriebener Minutenzahl bzw. für alle Ablehnungen mit einem UPDATE setzen
+        LocalDateTime now = LocalDateTime.now();
+        if (approve) {
+            idsByCredit.forEach((credit, creditIds) -> absenceRepository.approveAll(creditIds, approver, credit, now));
+        } else {
+            absenceRepository.rejectAll(changedIds, now);
+        }
+        result.addUpdated(changedIds.size());
+
+        // Protokolle in einem Batch schreiben, Ereignisse nach dem Commit an Mitarbeiter und Vorgesetzte melden
+        String action = approve ? "Abwesenheit genehmigt (Sammelgenehmigung) von " + approver.getFullName()
+                : "Abwesenheit abgelehnt (Sammelablehnung) von " + approver.getFullName();
+        String status = approve ? "Genehmigt" : "Abgelehnt";
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> logRows = new ArrayList<>(changedRows.size());
+        for (Object[] row : changedRows) {
+            Long id = (Long) row[0];
+            logRows.add(new Object[]{action, timestamp, "Abwesenheit ID: " + id + ", Status: " + status,
+                    approver.getId(), approver.getEmail(), "Absence", id});
+
+            Set<Long> recipients = new LinkedHashSet<>();
+            recipients.add((Long) row[1]);
+            if (row[3] != null) {
+                recipients.add((Long) row[3]);
+            }
+            dashboardEventPublisher.publish(DashboardEventPublisher.ABSENCE, approve ? "approved" : "rejected",
+                    (Long) row[1], id, recipients);
+        }
+        jdbcTemplate.batchUpdate(INSERT_LOG_SQL, logRows, INSERT_LOG_TYPES);
+
+        return result;
+    }
+
+    /**
+     * Bildet eine Zeile aus {@link AbsenceRepository#findDecisionRows} als nicht verwaltete Abwesenheit ab.
+     */
+    private static Absence decisionSnapshot(Object[] row) {
+        User user = new User();
+        user.setId((Long) row[1]);
+        user.setPlannedHoursPerDay(((Number) row[2]).doubleValue());
+
+        Absence absence = new Absence();
+        absence.setId((Long) row[0]);
+        absence.setUser(user);
+        absence.setStartDate((LocalDate) row[4]);
+        absence.setEndDate((LocalDate) row[5]);
+        absence.setType((AbsenceType) row[6]);
+        absence.setStatus((AbsenceStatus) row[7]);
+        absence.setCreditedMinutesPerDay((Integer) row[8]);
+        return absence;
+    }
+
     /**
      * Genehmigte Absenz finden
      * @author FA
@@ -268,11 +473,8 @@ public class AbsenceServiceImpl implements AbsenceService{
         if (currentUser.hasRole("ADMIN")) {
             return absenceRepository.findByStatus(AbsenceStatus.PENDING);
         } else if (currentUser.hasRole("MANAGER")) {
-            List<User> directReports = userRepository.findByManager(currentUser);
-            if (directReports == null || directReports.isEmpty()) {
-                return Collections.emptyList();
-            }
-            return absenceRepository.findByUserInAndStatus(directReports, AbsenceStatus.PENDING);
+            return absenceRepository.findTeamAbsencesByStatus(currentUser.getId(),
+                    managerHierarchyService.maxDepth(), AbsenceStatus.PENDING);
         }
         return Collections.emptyList();
     }
@@ -293,12 +495,9 @@ public class AbsenceServiceImpl implements AbsenceService{
             // Admins sehen alle genehmigten Abwesenheiten aller Benutzer
             return absenceRepository.findByStatus(AbsenceStatus.APPROVED);
         } else if (currentUser.hasRole("MANAGER")) {
-            // Manager sehen genehmigte Abwesenheiten ihrer direkten Mitarbeiter
-            List<User> directReports = userRepository.findByManager(currentUser);
-            if (directReports == null || directReports.isEmpty()) {
-                return Collections.emptyList();
-            }
-            return absenceRepository.findByUserInAndStatus(directReports, AbsenceStatus.APPROVED);
+            // Manager sehen genehmigte Abwesenheiten ihres Teams
+            return absenceRepository.findTeamAbsencesByStatus(currentUser.getId(),
+                    managerHierarchyService.maxDepth(), AbsenceStatus.APPROVED);
         }
         return Collections.emptyList();
     }
@@ -366,7 +565,7 @@ public class AbsenceServiceImpl implements AbsenceService{
     }
 
     /**
-     * Überlappung bei Abwesenheiten
+     * Überlappung bei Abwesenheiten, als Bereichsabfrage über (user_id, start_date, end_date)
      * @param userId
      * @param startDate
      * @param endDate
@@ -375,27 +574,91 @@ public class AbsenceServiceImpl implements AbsenceService{
      */
     @Override
     public boolean hasOverlappingAbsences(Long userId, LocalDate startDate, LocalDate endDate, Long excludeId) {
-        // Alle Abwesenheiten eines Benutzers abrufen
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Benutzer nicht vorhanden"));
+        return absenceRepository.existsOverlapping(userId, startDate, endDate, excludeId);
+    }
+
+    /**
+     * Team-Kalender: lädt die Namen des Teams und die genehmigten Zeiträume im Kalenderbereich mit je einer Abfrage
+     * und setzt pro Benutzer und Art die Bits der abwesenden Tage.
+     * @param currentUser
+     * @param managerId
+     * @param month
+     * @param months
+     * @return
+     */
+    @Override
+    public AbsenceCalendarResponse getTeamCalendar(User currentUser, Long managerId, YearMonth month, int months) {
+        if (currentUser == null) {
+            throw new AccessDeniedException("Benutzer nicht authentifiziert.");
+        }
+        if (month == null || months < 1 || months > MAX_CALENDAR_MONTHS) {
+            throw new IllegalArgumentException("Der Kalender umfasst 1 bis " + MAX_CALENDAR_MONTHS + " Monate");
+        }
 
-        List<Absence> existingAbsences = absenceRepository.findByUser(user);
+        boolean isAdmin = currentUser.hasRole("ADMIN");
+        if (!isAdmin && !currentUser.hasRole("MANAGER")) {
+            throw new AccessDeniedException("Nur Manager oder Administratoren dürfen den Team-Kalender abrufen.");
+        }
+        if (!isAdmin && managerId != null && !managerId.equals(currentUser.getId())
+                && !managerHierarchyService.isInTeam(currentUser.getId(), managerId)) {
+            throw new AccessDeniedException("Manager dürfen nur den Kalender ihres eigenen Teams abrufen.");
+        }
 
-        // Prüfung auf Überschneidung
-        for (Absence existing : existingAbsences) {
-            // Aktuelle Abwesenheit ausschliessen
-            if (excludeId != null && existing.getId().equals(excludeId)) {
-                continue;
-            }
+        List<Object[]> members;
+        if (isAdmin && managerId == null) {
+            members = userRepository.findActiveNames();
+        } else {
+            long[] teamIds = managerHierarchyService.findTeamUserIds(managerId != null ? managerId : currentUser.getId());
+            members = teamIds.length == 0 ? Collections.emptyList()
+                    : userRepository.findNamesByIdIn(Arrays.stream(teamIds).boxed().toList());
+        }
+
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(months - 1L).atEndOfMonth();
+        AbsenceCalendarResponse calendar = new AbsenceCalendarResponse(from, to);
+        if (members.isEmpty()) {
+            return calendar;
+        }
+
+        Map<Long, Integer> rowByUserId = new HashMap<>();
+        List<Long> userIds = new ArrayList<>(members.size());
+        for (Object[] member : members) {
+            Long userId = (Long) member[0];
+            rowByUserId.put(userId, userIds.size());
+            userIds.add(userId);
+            calendar.getUsers().add(new AbsenceCalendarResponse.Row(userId, (String) member[1], (String) member[2]));
+        }
 
-            // Prüfung auf Überschneidung
-            if (!(endDate.isBefore(existing.getStartDate()) ||
-                    startDate.isAfter(existing.getEndDate()))) {
-                return true; // Überschneidung gefunden
+        // Tages-Bitsets pro Zeile und Art, dazu ein Bitset aller Abwesenheiten pro Zeile für die Tageszählung
+        List<Map<AbsenceType, BitSet>> bitsByRow = new ArrayList<>(userIds.size());
+        BitSet[] awayByRow = new BitSet[userIds.size()];
+        for (int i = 0; i < userIds.size(); i++) {
+            bitsByRow.add(new EnumMap<>(AbsenceType.class));
+        }
+        long firstDay = from.toEpochDay();
+        int days = calendar.getDays();
+        for (Object[] interval : absenceRepository.findIntervalsByUserIdsAndStatus(userIds, AbsenceStatus.APPROVED, from, to)) {
+            int row = rowByUserId.get((Long) interval[0]);
+            int startIndex = (int) Math.max(0, ((LocalDate) interval[1]).toEpochDay() - firstDay);
+            int endIndex = (int) Math.min(days - 1L, ((LocalDate) interval[2]).toEpochDay() - firstDay);
+            bitsByRow.get(row).computeIfAbsent((AbsenceType) interval[3], type -> new BitSet(days))
+                    .set(startIndex, endIndex + 1);
+            if (awayByRow[row] == null) {
+                awayByRow[row] = new BitSet(days);
             }
+            awayByRow[row].set(startIndex, endIndex + 1);
         }
 
-        return false; // Keine Überschneidung
+        Base64.Encoder encoder = Base64.getEncoder();
+        int[] awayPerDay = calendar.getAwayPerDay();
+        for (int row = 0; row < userIds.size(); row++) {
+            Map<AbsenceType, String> absences = calendar.getUsers().get(row).getAbsences();
+            bitsByRow.get(row).forEach((type, bits) -> absences.put(type, encoder.encodeToString(bits.toByteArray())));
+            if (awayByRow[row] != null) {
+                awayByRow[row].stream().forEach(day -> awayPerDay[day]++);
+            }
+        }
+        return calendar;
     }
 
     /**
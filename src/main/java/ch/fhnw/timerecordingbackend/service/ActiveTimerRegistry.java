@@ -0,0 +1,256 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.TimeIntervals;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-Memory-Register der laufenden Zeiterfassungen, pro Benutzer nach Zeiteintrag geführt.
+ * Ein Benutzer kann mehrere offene Einträge haben (z.B. ein am Vortag nicht gestoppter Timer),
+ * pro Tag jedoch höchstens einen. Wird beim Start aus der Datenbank aufgebaut und danach von {@link TimeEntryServiceImpl} write-through
+ * nach erfolgreichem Commit aktualisiert, damit "läuft ein Timer / welcher Eintrag" ohne Datenbankzugriff
+ * beantwortet werden kann.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class ActiveTimerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveTimerRegistry.class);
+
+    // Benutzer-ID -> (Zeiteintrag-ID -> Timer); Benutzer ohne laufenden Timer werden entfernt
+    private final Map<Long, Map<Long, ActiveTimer>> timersByUserId = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+
+    /**
+     * Baut das Register aus allen Zeiteinträgen mit offenem Arbeitsintervall auf.
+     * Läuft nach den Start-Migrationen, da diese als CommandLineRunner vor dem ApplicationReadyEvent ausgeführt werden.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, Map<Long, ActiveTimer>> loaded = new HashMap<>();
+        List<Long> activeIds = timeEntryRepository.findActiveEntryIds();
+        if (!activeIds.isEmpty()) {
+            for (TimeEntry entry : timeEntryRepository.findAllWithUserAndProjectByIdIn(activeIds)) {
+                loaded.computeIfAbsent(entry.getUser().getId(), id -> new HashMap<>())
+                        .put(entry.getId(), ActiveTimer.of(entry, null, entry.getUser().getEmail()));
+            }
+        }
+        // Ohne vorheriges Leeren austauschen, damit gleichzeitige Abfragen keinen leeren Zustand sehen
+        timersByUserId.keySet().retainAll(loaded.keySet());
+        userIdsByEmail.values().retainAll(loaded.keySet());
+        loaded.forEach((userId, timers) -> timersByUserId.compute(userId, (id, existing) -> {
+            Map<Long, ActiveTimer> replaced = new ConcurrentHashMap<>();
+            timers.values().forEach(timer -> {
+                replaced.put(timer.getEntryId(), keepExactStart(existing, timer));
+                userIdsByEmail.put(timer.getEmail(), userId);
+            });
+            return replaced;
+        }));
+        logger.info("Register der laufenden Zeiterfassungen aufgebaut: {} aktiv", size());
+    }
+
+    /**
+     * Zuletzt gestarteter laufender Timer eines Benutzers.
+     */
+    public Optional<ActiveTimer> findByUserId(Long userId) {
+        Map<Long, ActiveTimer> timers = userId == null ? null : timersByUserId.get(userId);
+        if (timers == null) {
+            return Optional.empty();
+        }
+        return timers.values().stream().max(Comparator.comparing(ActiveTimer::getStartedAt));
+    }
+
+    public Optional<ActiveTimer> findByEmail(String email) {
+        Long userId = email == null ? null : userIdsByEmail.get(email);
+        return findByUserId(userId);
+    }
+
+    public boolean isRunning(Long userId) {
+        return userId != null && timersByUserId.containsKey(userId);
+    }
+
+    /**
+     * Prüft, ob für den Benutzer an diesem Tag ein Timer läuft. Offene Einträge anderer Tage zählen nicht.
+     */
+    public boolean isRunning(Long userId, LocalDate date) {
+        Map<Long, ActiveTimer> timers = userId == null ? null : timersByUserId.get(userId);
+        return timers != null && timers.values().stream().anyMatch(timer -> timer.getDate().equals(date));
+    }
+
+    /**
+     * Übernimmt den Zustand eines gespeicherten Zeiteintrags: ein offener Eintrag wird als laufender Timer
+     * registriert, ein geschlossener Eintrag entfernt seinen Timer. Innerhalb einer Transaktion erst nach dem Commit.
+     * @param entry gespeicherter Zeiteintrag
+     * @param startedAt genauer Startzeitpunkt oder null, um die Startminute aus dem Eintrag zu verwenden
+     */
+    public void sync(TimeEntry entry, LocalDateTime startedAt) {
+        sync(entry, startedAt, null);
+    }
+
+    /**
+     * Wie {@link #sync(TimeEntry, LocalDateTime)}, mit der E-Mail-Adresse aus dem Principal, damit der Benutzer
+     * des Eintrags nicht geladen werden muss.
+     * @param email E-Mail-Adresse des Benutzers oder null, um sie aus dem Eintrag zu lesen
+     */
+    public void sync(TimeEntry entry, LocalDateTime startedAt, String email) {
+        ActiveTimer timer = entry.isActive()
+                ? ActiveTimer.of(entry, startedAt, email != null ? email : entry.getUser().getEmail()) : null;
+        Long userId = entry.getUser().getId();
+        Long entryId = entry.getId();
+        afterCommit(() -> {
+            if (timer != null) {
+                put(timer);
+            } else {
+                removeIfEntry(userId, entryId);
+            }
+        });
+    }
+
+    /**
+     * Entfernt den Timer eines gelöschten Zeiteintrags.
+     */
+    public void remove(Long userId, Long entryId) {
+        afterCommit(() -> removeIfEntry(userId, entryId));
+    }
+
+    public int size() {
+        return timersByUserId.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private void put(ActiveTimer timer) {
+        timersByUserId.compute(timer.getUserId(), (userId, timers) -> {
+            Map<Long, ActiveTimer> updated = timers != null ? timers : new ConcurrentHashMap<>();
+            updated.put(timer.getEntryId(), keepExactStart(updated, timer));
+            userIdsByEmail.put(timer.getEmail(), userId);
+            return updated;
+        });
+    }
+
+    /**
+     * Behält den sekundengenauen Startzeitpunkt eines bereits registrierten Timers, wenn sich die Startminute
+     * nicht geändert hat (z.B. bei einer Projektzuweisung während der laufenden Zeiterfassung).
+     */
+    private ActiveTimer keepExactStart(Map<Long, ActiveTimer> timers, ActiveTimer timer) {
+        ActiveTimer existing = timers == null ? null : timers.get(timer.getEntryId());
+        if (existing != null && existing.getStartedAt().truncatedTo(ChronoUnit.MINUTES).equals(timer.getStartedAt())) {
+            return new ActiveTimer(timer.userId, timer.email, timer.entryId, timer.date, existing.getStartedAt(),
+                    timer.projectId, timer.projectName);
+        }
+        return timer;
+    }
+
+    /**
+     * Entfernt den Timer eines Zeiteintrags. Hat der Benutzer danach keinen laufenden Timer mehr,
+     * wird auch seine E-Mail-Zuordnung entfernt.
+     */
+    private void removeIfEntry(Long userId, Long entryId) {
+        timersByUserId.computeIfPresent(userId, (id, timers) -> {
+            ActiveTimer removed = timers.remove(entryId);
+            if (!timers.isEmpty()) {
+                return timers;
+            }
+            if (removed != null) {
+                userIdsByEmail.remove(removed.getEmail(), id);
+            }
+            return null;
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Unveränderlicher Schnappschuss einer laufenden Zeiterfassung.
+     */
+    public static final class ActiveTimer {
+        private final Long userId;
+        private final String email;
+        private final Long entryId;
+        private final LocalDate date;
+        private final LocalDateTime startedAt;
+        private final Long projectId;
+        private final String projectName;
+
+        private ActiveTimer(Long userId, String email, Long entryId, LocalDate date, LocalDateTime startedAt,
+                            Long projectId, String projectName) {
+            this.userId = userId;
+            this.email = email;
+            this.entryId = entryId;
+            this.date = date;
+            this.startedAt = startedAt;
+            this.projectId = projectId;
+            this.projectName = projectName;
+        }
+
+        static ActiveTimer of(TimeEntry entry, LocalDateTime startedAt, String email) {
+            if (startedAt == null) {
+                int startMinute = entry.getWorkIntervals().openStartMinute();
+                startedAt = LocalDateTime.of(entry.getDate(), TimeIntervals.toTime(Math.max(startMinute, 0)));
+            }
+            return new ActiveTimer(entry.getUser().getId(), email, entry.getId(),
+                    entry.getDate(), startedAt,
+                    entry.getProject() != null ? entry.getProject().getId() : null,
+                    entry.getProject() != null ? entry.getProject().getName() : null);
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Long getEntryId() {
+            return entryId;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public Long getProjectId() {
+            return projectId;
+        }
+
+        public String getProjectName() {
+            return projectName;
+        }
+    }
+}
@@ -20,6 +20,14 @@ public interface AuthService {
      */
     LoginResponse login(LoginRequest loginRequest);
 
+    /**
+     * Authentifiziert einen Nutzer mit Limits pro Konto und Client-Adresse.
+     * @param loginRequest DTO mit E-Mail und Passwort des Nutzers
+     * @param clientIp IP-Adresse des Clients oder null
+     * @return LoginResponse-DTO mit generiertem Token und Nutzerinformationen
+     */
+    LoginResponse login(LoginRequest loginRequest, String clientIp);
+
     /**
      * Invalidiert einen bestehenden JWT-Token beim Logout.
      * @param token Das zu invalidierende JWT-Token
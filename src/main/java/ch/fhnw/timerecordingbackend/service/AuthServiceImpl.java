@@ -2,27 +2,27 @@ package ch.fhnw.timerecordingbackend.service;
 
 import ch.fhnw.timerecordingbackend.dto.authentication.LoginRequest;
 import ch.fhnw.timerecordingbackend.dto.authentication.LoginResponse;
-import ch.fhnw.timerecordingbackend.model.SystemLog;
 import ch.fhnw.timerecordingbackend.model.User;
-import ch.fhnw.timerecordingbackend.repository.SystemLogRepository;
 import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
 import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
+import ch.fhnw.timerecordingbackend.security.LoginAdmissionControl;
+import ch.fhnw.timerecordingbackend.security.LoginThrottledException;
 import ch.fhnw.timerecordingbackend.security.SecurityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -38,9 +38,6 @@ public class AuthServiceImpl implements AuthService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private JwtTokenProvider tokenProvider;
 
@@ -48,7 +45,10 @@ public class AuthServiceImpl implements AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private SystemLogRepository systemLogRepository;
+    private SystemLogWriter systemLogWriter;
+
+    @Autowired
+    private LoginAdmissionControl loginAdmissionControl;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -56,84 +56,95 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private SecurityUtils securityUtils;
 
+    private volatile String dummyPasswordHash;
+
+    /**
+     * Authentifiziert einen Benutzer ohne bekannte Client-Adresse (kein Limit pro IP)
+     * @param loginRequest Enthält E-Mail und Passwort
+     * @return LoginResponse mit JWT-Token und Benutzerinformationen
+     */
+    @Override
+    public LoginResponse login(LoginRequest loginRequest) {
+        return login(loginRequest, null);
+    }
+
     /**
      * Authentifiziert einen Benutzer und gibt Token mit Benutzerinformationen zurück
      * PD - Rollenerkennung geändert
+     * FA - Der Benutzer wird nur einmal geladen, die BCrypt-Prüfung läuft über die {@link LoginAdmissionControl}
+     * (Limits pro Konto und IP, begrenzter Pool) und die Protokolleinträge werden gesammelt geschrieben
      * @param loginRequest Enthält E-Mail und Passwort
+     * @param clientIp IP-Adresse des Clients oder null
      * @return LoginResponse mit JWT-Token und Benutzerinformationen
      * @throws BadCredentialsException wenn Login-Daten ungültig sind
      * @throws DisabledException wenn Benutzerkonto deaktiviert ist
+     * @throws LoginThrottledException wenn zu viele Versuche vorliegen oder die Passwortprüfung ausgelastet ist
      */
     @Override
-    public LoginResponse login(LoginRequest loginRequest) {
-        try {
-            logger.info("Login-Versuch für: {}", loginRequest.getEmail());
-
-            // Benutzer vor Authentifizierung laden für Aktivitätsprüfung
-            User user = userRepository.findByEmail(loginRequest.getEmail())
-                    .orElseThrow(() -> new BadCredentialsException("Ungültige Login-Daten"));
+    public LoginResponse login(LoginRequest loginRequest, String clientIp) {
+        logger.info("Login-Versuch für: {}", loginRequest.getEmail());
+        loginAdmissionControl.admit(loginRequest.getEmail(), clientIp);
+
+        // Benutzer einmal laden (mit Rollen) für Aktivitätsprüfung, Passwortprüfung und Token
+        User user = userRepository.findByEmail(loginRequest.getEmail()).orElse(null);
+        if (user == null) {
+            // Gleicher Aufwand wie bei bekannten Konten, damit die Antwortzeit keine E-Mail-Adressen verrät
+            loginAdmissionControl.verifyPassword(loginRequest.getPassword(), getDummyPasswordHash());
+            throw new BadCredentialsException("Ungültige Login-Daten");
+        }
 
-            logger.info("🔍 Benutzer gefunden: {} mit {} Rollen", user.getEmail(), user.getRoles().size());
+        logger.info("🔍 Benutzer gefunden: {} mit {} Rollen", user.getEmail(), user.getRoles().size());
 
-            // Prüfen ob Benutzer aktiv ist
-            if (!user.isActive()) {
-                logger.warn("Benutzer {} ist deaktiviert", user.getEmail());
-                logAuthActivity(user, "Login failed", "Account disabled");
-                throw new DisabledException("Benutzerkonto ist deaktiviert");
-            }
-
-            // Spring Security Authentifizierung verwenden
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getEmail(),
-                            loginRequest.getPassword()
-                    )
-            );
+        // Prüfen ob Benutzer aktiv ist
+        if (!user.isActive()) {
+            logger.warn("Benutzer {} ist deaktiviert", user.getEmail());
+            logAuthActivity(user, "Login failed", "Account disabled", clientIp);
+            throw new DisabledException("Benutzerkonto ist deaktiviert");
+        }
 
-            // Authentication im SecurityContext setzen
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (!loginAdmissionControl.verifyPassword(loginRequest.getPassword(), user.getPassword())) {
+            // Fehlgeschlagenen Login protokollieren
+            logAuthActivity(user, "Login failed", "Invalid credentials", clientIp);
+            throw new BadCredentialsException("Ungültige Login-Daten");
+        }
 
-            // JWT-Token generieren
-            String jwt = tokenProvider.generateToken(authentication);
+        // Rollen extrahieren und in Response schreiben
+        List<String> allRoles = user.getRoles().stream()
+                .map(role -> role.getName()) // Rolle-Namen extrahieren
+                .collect(Collectors.toList());
 
-            // Rollen extrahieren und in Response schreiben
-            List<String> allRoles = user.getRoles().stream()
-                    .map(role -> role.getName()) // Rolle-Namen extrahieren
-                    .collect(Collectors.toList());
+        // Principal wie beim Laden über den UserDetailsService, ohne den Benutzer ein zweites Mal zu lesen
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), new HashSet<>(allRoles),
+                user.getPlannedHoursPerDay(), user.isActive(), null);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities());
 
-            // Rollen in Response schreiben
-            logger.info("🔍 Alle Rollen für {}: {}", user.getEmail(), allRoles);
+        // Authentication im SecurityContext setzen
+        SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Primäre Rolle bestimmen (erste Rolle falls mehrere vorhanden)
-            String primaryRole = allRoles.isEmpty() ? "EMPLOYEE" : allRoles.get(0);
+        // JWT-Token generieren
+        String jwt = tokenProvider.generateToken(authentication);
 
-            // UserDto für Response erstellen
-            LoginResponse.UserDto userDto = new LoginResponse.UserDto(
-                    user.getId(),
-                    user.getFullName(),
-                    primaryRole,
-                    allRoles
-            );
+        // Rollen in Response schreiben
+        logger.info("🔍 Alle Rollen für {}: {}", user.getEmail(), allRoles);
 
-            logger.info("✅ Login erfolgreich für: {} mit Rollen: {}", loginRequest.getEmail(), allRoles);
+        // Primäre Rolle bestimmen (erste Rolle falls mehrere vorhanden)
+        String primaryRole = allRoles.isEmpty() ? "EMPLOYEE" : allRoles.get(0);
 
-            // Erfolgreichen Login protokollieren
-            logAuthActivity(user, "User logged in", "Login successful");
+        // UserDto für Response erstellen
+        LoginResponse.UserDto userDto = new LoginResponse.UserDto(
+                user.getId(),
+                user.getFullName(),
+                primaryRole,
+                allRoles
+        );
 
-            return new LoginResponse(jwt, userDto);
+        logger.info("✅ Login erfolgreich für: {} mit Rollen: {}", loginRequest.getEmail(), allRoles);
 
-        } catch (AuthenticationException e) {
-            // Fehlgeschlagenen Login protokollieren falls Benutzer existiert
-            userRepository.findByEmail(loginRequest.getEmail())
-                    .ifPresent(user -> logAuthActivity(user, "Login failed", "Invalid credentials"));
+        // Erfolgreichen Login protokollieren
+        logAuthActivity(user, "User logged in", "Login successful", clientIp);
 
-            // Spezifische Exception-Behandlung
-            if (e instanceof DisabledException) {
-                throw e; // DisabledException weiterwerfen
-            } else {
-                throw new BadCredentialsException("Ungültige Login-Daten");
-            }
-        }
+        return new LoginResponse(jwt, userDto);
     }
 
     /**
@@ -160,7 +171,7 @@ public class AuthServiceImpl implements AuthService {
             User user = securityUtils.getCurrentUser();
 
             if (user != null) {
-                logAuthActivity(user, "User logged out", "Logout successful");
+                logAuthActivity(user, "User logged out", "Logout successful", null);
             }
         } catch (Exception e) {
             // Falls aktueller Benutzer nicht ermittelt werden kann, trotzdem Token blacklisten
@@ -169,15 +180,21 @@ public class AuthServiceImpl implements AuthService {
     }
 
     /**
-     * Protokolliert Authentifizierungs-Aktivitäten
+     * Protokolliert Authentifizierungs-Aktivitäten (gesammelt im Hintergrund)
      */
-    private void logAuthActivity(User user, String action, String details) {
-        SystemLog log = new SystemLog();
-        log.setUserId(user.getId());
-        log.setUserEmail(user.getEmail());
-        log.setAction(action);
-        log.setDetails(details);
-        log.setTimestamp(LocalDateTime.now());
-        systemLogRepository.save(log);
+    private void logAuthActivity(User user, String action, String details, String clientIp) {
+        systemLogWriter.log(action, details, user.getId(), user.getEmail(), clientIp);
+    }
+
+    /**
+     * Hash eines zufälligen Passworts für Login-Versuche mit unbekannter E-Mail-Adresse
+     */
+    private String getDummyPasswordHash() {
+        String hash = dummyPasswordHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyPasswordHash = hash;
+        }
+        return hash;
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import ch.fhnw.timerecordingbackend.repository.AbsenceRepository;
 import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
 import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
 import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.util.DateTimeUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
@@ -175,9 +176,9 @@ public class BackupServiceImpl implements BackupService {
             bt.setEnd(b.getEnd().format(DateTimeFormatter.ISO_LOCAL_TIME));
             return bt;
         }).collect(Collectors.toList()));
-        response.setActualHours(timeEntry.getActualHours());
-        response.setPlannedHours(timeEntry.getPlannedHours());
-        response.setDifference(timeEntry.getDifference());
+        response.setActualHours(DateTimeUtils.formatMinutes(timeEntry.getActualMinutes()));
+        response.setPlannedHours(DateTimeUtils.formatMinutes(timeEntry.getPlannedMinutes()));
+        response.setDifference(DateTimeUtils.formatSignedMinutes(timeEntry.getDifferenceMinutes()));
         response.setUserId(timeEntry.getUser().getId());
         response.setUser(timeEntry.getUser().getFullName());
 
@@ -0,0 +1,192 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.User;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Verteilt Änderungen an Zeiteinträgen, Abwesenheiten und Projekten als Server-Sent Events an die
+ * geöffneten Dashboards. Ein Ereignis enthält nur Typ, Aktion und IDs, die Clients laden danach gezielt
+ * die betroffenen Daten nach, statt periodisch alles neu zu laden.
+ * Ereignisse werden erst nach dem Commit und auf einem eigenen Thread versendet, damit langsame Clients
+ * keine Service-Aufrufe blockieren.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class DashboardEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventPublisher.class);
+
+    public static final String TIME_ENTRY = "time-entry";
+    public static final String ABSENCE = "absence";
+    public static final String PROJECT = "project";
+
+    // Verbindungen werden nach 30 Minuten geschlossen, der Client verbindet sich selbständig neu
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    // Obergrenze offener Verbindungen pro Benutzer (z.B. mehrere Tabs)
+    private static final int MAX_EMITTERS_PER_USER = 5;
+
+    private final Map<Long, List<SseEmitter>> emittersByUserId = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Registriert eine neue SSE-Verbindung für einen Benutzer. Überzählige ältere Verbindungen werden geschlossen.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        List<SseEmitter> evicted = new ArrayList<>();
+        emittersByUserId.compute(userId, (id, emitters) -> {
+            List<SseEmitter> result = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            result.add(emitter);
+            while (result.size() > MAX_EMITTERS_PER_USER) {
+                evicted.add(result.remove(0));
+            }
+            return result;
+        });
+        evicted.forEach(SseEmitter::complete);
+
+        Runnable remove = () -> removeEmitter(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        // Erstes Ereignis bestätigt die Verbindung, damit der Client den Verbindungsaufbau erkennt
+        send(userId, emitter, SseEmitter.event().name("connected").data(Map.of("userId", userId)));
+        return emitter;
+    }
+
+    /**
+     * Meldet eine Änderung an den betroffenen Benutzer und seinen direkten Vorgesetzten (Team-Ansicht).
+     * @param type Ereignistyp, z.B. {@link #TIME_ENTRY}
+     * @param action Aktion, z.B. "created", "updated", "deleted"
+     * @param user betroffener Benutzer
+     * @param entityId ID der geänderten Entität
+     */
+    public void publishToUserAndManager(String type, String action, User user, Long entityId) {
+        publishToUserAndManager(type, action, user.getId(),
+                user.getManager() != null ? user.getManager().getId() : null, entityId);
+    }
+
+    /**
+     * Wie {@link #publishToUserAndManager(String, String, User, Long)}, mit den IDs aus dem Principal,
+     * ohne den Benutzer zu laden.
+     * @param managerId ID des direkten Vorgesetzten oder null
+     */
+    public void publishToUserAndManager(String type, String action, Long userId, Long managerId, Long entityId) {
+        Set<Long> recipients = new LinkedHashSet<>();
+        recipients.add(userId);
+        if (managerId != null) {
+            recipients.add(managerId);
+        }
+        publish(type, action, userId, entityId, recipients);
+    }
+
+    /**
+     * Meldet eine Änderung an alle verbundenen Benutzer (z.B. Projekte, die alle in Auswahllisten sehen).
+     */
+    public void publishToAll(String type, String action, Long entityId) {
+        publish(type, action, null, entityId, null);
+    }
+
+    /**
+     * Meldet eine Änderung an eine Menge von Benutzern.
+     * @param recipients Benutzer-IDs oder null für alle verbundenen Benutzer
+     */
+    public void publish(String type, String action, Long userId, Long entityId, Collection<Long> recipients) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", type);
+        payload.put("action", action);
+        payload.put("userId", userId);
+        payload.put("entityId", entityId);
+        Set<Long> targets = recipients != null ? new LinkedHashSet<>(recipients) : null;
+
+        afterCommit(() -> sender.execute(() -> {
+            Collection<Long> userIds = targets != null ? targets : emittersByUserId.keySet();
+            for (Long recipient : userIds) {
+                List<SseEmitter> emitters = emittersByUserId.get(recipient);
+                if (emitters == null) {
+                    continue;
+                }
+                for (SseEmitter emitter : emitters) {
+                    send(recipient, emitter, SseEmitter.event().name(type).data(payload));
+                }
+            }
+        }));
+    }
+
+    /**
+     * Hält die Verbindungen über Proxies hinweg offen und räumt abgebrochene Verbindungen auf.
+     */
+    @Scheduled(fixedRate = 25000)
+    public void sendHeartbeat() {
+        if (emittersByUserId.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> emittersByUserId.forEach((userId, emitters) ->
+                emitters.forEach(emitter -> send(userId, emitter, SseEmitter.event().comment("heartbeat")))));
+    }
+
+    public int connectionCount() {
+        return emittersByUserId.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client hat die Verbindung geschlossen
+            logger.debug("SSE-Verbindung von Benutzer {} geschlossen: {}", userId, e.getMessage());
+            removeEmitter(userId, emitter);
+        }
+    }
+
+    private void removeEmitter(Long userId, SseEmitter emitter) {
+        emittersByUserId.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        emittersByUserId.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+}
@@ -0,0 +1,39 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * JPA-Listener für User, der jede Speicherung an den {@link ManagerHierarchyService} weitergibt.
+ * Dadurch wird die Hierarchie bei createUser, updateUser, der Freigabe einer Registrierung und bei direkt über das
+ * Repository gespeicherten Benutzern gleich nachgeführt.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class ManagerHierarchyEntityListener {
+
+    @Autowired
+    @Lazy
+    private ManagerHierarchyService managerHierarchyService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        if (managerHierarchyService == null) {
+            return;
+        }
+        managerHierarchyService.managerAssigned(user.getId(),
+                user.getManager() != null ? user.getManager().getId() : null);
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        if (managerHierarchyService != null) {
+            managerHierarchyService.userRemoved(user.getId());
+        }
+    }
+}
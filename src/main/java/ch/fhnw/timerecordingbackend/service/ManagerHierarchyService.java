@@ -0,0 +1,61 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import java.util.Map;
+
+/**
+ * Interface für die Manager-Hierarchie (direkte und indirekte Teammitglieder eines Managers).
+ * Die Hierarchie wird bei jeder Änderung eines Managers in derselben Transaktion nachgeführt, die Teams werden
+ * im Speicher gecacht und nach dem Ende der Transaktion invalidiert.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public interface ManagerHierarchyService {
+
+    /**
+     * Überträgt den Manager eines Benutzers in die Hierarchie. Der Benutzer wird mit allen ihm unterstellten
+     * Mitarbeitern unter den neuen Manager verschoben. Ohne Änderung des Managers passiert nichts.
+     * @param userId ID des gespeicherten Benutzers
+     * @param managerId ID des neuen Managers oder null
+     * @throws jakarta.validation.ValidationException wenn der Manager dem Benutzer selbst unterstellt ist
+     */
+    void managerAssigned(Long userId, Long managerId);
+
+    /**
+     * Trägt neu angelegte Benutzer ohne eigene Mitarbeiter unter ihren Managern ein (z.B. nach einer Massenanlage
+     * per JDBC, bei der der Entity-Listener nicht greift). Die Vorgesetzten werden pro Manager einmal geladen.
+     * @param managerByUserId Manager-ID pro neuer Benutzer-ID
+     */
+    void addLeafUsers(Map<Long, Long> managerByUserId);
+
+    /**
+     * Invalidiert den Cache nach dem Löschen eines Benutzers (die Zeilen entfernt die Datenbank per ON DELETE CASCADE).
+     */
+    void userRemoved(Long userId);
+
+    /**
+     * Maximale Tiefe für Teamabfragen: 1 nur für direkt unterstellte Mitarbeiter, sonst ohne Begrenzung.
+     * Gesteuert über app.team.include-indirect-reports.
+     */
+    int maxDepth();
+
+    /**
+     * IDs der Teammitglieder eines Managers bis {@link #maxDepth()}, aufsteigend sortiert.
+     */
+    long[] findTeamUserIds(Long managerId);
+
+    /**
+     * Prüft, ob der Benutzer zum Team des Managers gehört (bis {@link #maxDepth()}).
+     */
+    boolean isInTeam(Long managerId, Long userId);
+
+    /**
+     * Baut die Hierarchie vollständig aus users.manager_id neu auf.
+     * @return Anzahl angelegter Zeilen
+     */
+    int rebuildAll();
+
+    /**
+     * Kennzahlen des Team-Caches für die Administration.
+     */
+    Map<String, Object> stats();
+}
@@ -0,0 +1,259 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import jakarta.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementierung ManagerHierarchyService Interface.
+ * Beim Wechsel des Managers wird der Teilbaum des Benutzers (er selbst und alle ihm unterstellten Mitarbeiter)
+ * von den bisherigen Vorgesetzten gelöst und unter die Vorgesetzten des neuen Managers gehängt. Die Abfragen laufen
+ * per JDBC auf der Verbindung der laufenden Transaktion, damit sie auch während eines Hibernate-Flushs möglich sind.
+ * Die Teams werden pro Manager als sortiertes long-Array gecacht. Jede Invalidierung erhöht eine Generation, damit
+ * ein paralleler Leser keinen veralteten Stand in den Cache schreibt.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Service
+public class ManagerHierarchyServiceImpl implements ManagerHierarchyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagerHierarchyServiceImpl.class);
+
+    // Obergrenze gecachter Teams
+    static final int MAX_CACHED_TEAMS = 1000;
+
+    private static final String INSERT_ROW =
+            "INSERT INTO manager_hierarchy (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.team.include-indirect-reports:false}")
+    private boolean includeIndirectReports;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Map<Long, long[]> teams = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+            return size() > MAX_CACHED_TEAMS;
+        }
+    };
+
+    @Override
+    public void managerAssigned(Long userId, Long managerId) {
+        if (userId == null) {
+            return;
+        }
+        Long currentManagerId = jdbcTemplate.query(
+                "SELECT ancestor_id FROM manager_hierarchy WHERE descendant_id = ? AND depth = 1",
+                (ResultSetExtractor<Long>) rs -> rs.next() ? rs.getLong(1) : null, userId);
+        if (Objects.equals(currentManagerId, managerId)) {
+            return;
+        }
+        if (userId.equals(managerId)) {
+            throw new ValidationException("Ein Benutzer kann nicht sein eigener Manager sein");
+        }
+
+        // Teilbaum des Benutzers mit Abstand zum Benutzer (er selbst mit 0)
+        Map<Long, Integer> subtree = new LinkedHashMap<>();
+        subtree.put(userId, 0);
+        jdbcTemplate.query("SELECT descendant_id, depth FROM manager_hierarchy WHERE ancestor_id = ?",
+                rs -> {
+                    subtree.put(rs.getLong(1), rs.getInt(2));
+                }, userId);
+        if (managerId != null && subtree.containsKey(managerId)) {
+            throw new ValidationException("Der Manager ist dem Benutzer unterstellt und kann nicht sein Manager sein");
+        }
+
+        // Alle Zeilen eines Mitglieds mit grösserer Tiefe als sein Abstand zum Benutzer zeigen auf bisherige Vorgesetzte
+        List<Object[]> detach = new ArrayList<>(subtree.size());
+        subtree.forEach((descendantId, distance) -> detach.add(new Object[]{descendantId, distance}));
+        jdbcTemplate.batchUpdate("DELETE FROM manager_hierarchy WHERE descendant_id = ? AND depth > ?", detach);
+
+        if (managerId != null) {
+            // Neuer Manager (Abstand 0) und dessen Vorgesetzte
+            Map<Long, Integer> ancestors = new LinkedHashMap<>();
+            ancestors.put(managerId, 0);
+            jdbcTemplate.query("SELECT ancestor_id, depth FROM manager_hierarchy WHERE descendant_id = ?",
+                    rs -> {
+                        ancestors.put(rs.getLong(1), rs.getInt(2));
+                    }, managerId);
+
+            List<Object[]> attach = new ArrayList<>(ancestors.size() * subtree.size());
+            ancestors.forEach((ancestorId, above) -> subtree.forEach((descendantId, below) ->
+                    attach.add(new Object[]{ancestorId, descendantId, above + 1 + below})));
+            jdbcTemplate.batchUpdate(INSERT_ROW, attach);
+        }
+        invalidateAfterTransaction();
+    }
+
+    @Override
+    public void addLeafUsers(Map<Long, Long> managerByUserId) {
+        if (managerByUserId.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<Long, Integer>> ancestorsByManager = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        managerByUserId.forEach((userId, managerId) -> {
+            Map<Long, Integer> ancestors = ancestorsByManager.computeIfAbsent(managerId, id -> {
+                Map<Long, Integer> loaded = new LinkedHashMap<>();
+                loaded.put(id, 0);
+                jdbcTemplate.query("SELECT ancestor_id, depth FROM manager_hierarchy WHERE descendant_id = ?",
+                        rs -> {
+                            loaded.put(rs.getLong(1), rs.getInt(2));
+                        }, id);
+                return loaded;
+            });
+            ancestors.forEach((ancestorId, above) -> rows.add(new Object[]{ancestorId, userId, above + 1}));
+        });
+        jdbcTemplate.batchUpdate(INSERT_ROW, rows);
+        invalidateAfterTransaction();
+    }
+
+    @Override
+    public void userRemoved(Long userId) {
+        invalidateAfterTransaction();
+    }
+
+    @Override
+    public int maxDepth() {
+        return includeIndirectReports ? Integer.MAX_VALUE : 1;
+    }
+
+    @Override
+    public long[] findTeamUserIds(Long managerId) {
+        return loadTeam(managerId).clone();
+    }
+
+    @Override
+    public boolean isInTeam(Long managerId, Long userId) {
+        if (managerId == null || userId == null) {
+            return false;
+        }
+        return Arrays.binarySearch(loadTeam(managerId), userId) >= 0;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildAll() {
+        Map<Long, Long> managerOf = new HashMap<>();
+        jdbcTemplate.query("SELECT id, manager_id FROM users WHERE manager_id IS NOT NULL", rs -> {
+            managerOf.put(rs.getLong(1), rs.getLong(2));
+        });
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : managerOf.keySet()) {
+            Set<Long> visited = new HashSet<>();
+            visited.add(userId);
+            int depth = 1;
+            for (Long ancestorId = managerOf.get(userId); ancestorId != null; ancestorId = managerOf.get(ancestorId)) {
+                if (!visited.add(ancestorId)) {
+                    logger.warn("Zyklische Managerzuordnung bei Benutzer {} wird ab Manager {} abgeschnitten",
+                            userId, ancestorId);
+                    break;
+                }
+                rows.add(new Object[]{ancestorId, userId, depth++});
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM manager_hierarchy");
+        jdbcTemplate.batchUpdate(INSERT_ROW, rows);
+        invalidateAfterTransaction();
+        logger.info("Manager-Hierarchie aufgebaut: {} Zeilen für {} Benutzer mit Manager", rows.size(), managerOf.size());
+        return rows.size();
+    }
+
+    @Override
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("includeIndirectReports", includeIndirectReports);
+        stats.put("cachedTeams", teams.size());
+        stats.put("maxCachedTeams", MAX_CACHED_TEAMS);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private long[] loadTeam(Long managerId) {
+        // Eine Transaktion, die die Hierarchie geändert hat, liest am Cache vorbei und schreibt nicht hinein
+        boolean changedInTransaction = TransactionSynchronizationManager.hasResource(this);
+        if (!changedInTransaction) {
+            synchronized (this) {
+                long[] team = teams.get(managerId);
+                if (team != null) {
+                    hits.incrementAndGet();
+                    return team;
+                }
+            }
+        }
+        misses.incrementAndGet();
+
+        long loadedGeneration = generation.get();
+        long[] team = jdbcTemplate.queryForList(
+                        "SELECT descendant_id FROM manager_hierarchy WHERE ancestor_id = ? AND depth <= ?",
+                        Long.class, managerId, maxDepth())
+                .stream().mapToLong(Long::longValue).sorted().toArray();
+
+        if (!changedInTransaction) {
+            synchronized (this) {
+                if (generation.get() == loadedGeneration) {
+                    teams.put(managerId, team);
+                }
+            }
+        }
+        return team;
+    }
+
+    /**
+     * Leert den Cache nach Commit oder Rollback der laufenden Transaktion (einmal pro Transaktion registriert).
+     */
+    private void invalidateAfterTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ManagerHierarchyServiceImpl.this);
+                invalidate();
+            }
+        });
+    }
+
+    private void invalidate() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            teams.clear();
+        }
+        invalidations.incrementAndGet();
+    }
+}
@@ -0,0 +1,70 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.Absence;
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Interface für die Monatssalden der Benutzer.
+ * Die Salden werden bei Änderungen von Zeiteinträgen und genehmigten Abwesenheiten inkrementell nachgeführt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public interface MonthlyBalanceService {
+
+    /**
+     * Bucht Ist-, Soll- und Differenzzeit eines Zeiteintrags auf den Monatssaldo.
+     * @param timeEntry gespeicherter oder zu speichernder Zeiteintrag
+     */
+    void addTimeEntry(TimeEntry timeEntry);
+
+    /**
+     * Bucht Ist-, Soll- und Differenzzeit eines Zeiteintrags vom Monatssaldo zurück.
+     * Muss vor dem Ändern oder Löschen des Eintrags aufgerufen werden.
+     * @param timeEntry Zeiteintrag mit den bisher gebuchten Werten
+     */
+    void subtractTimeEntry(TimeEntry timeEntry);
+
+    /**
+     * Addiert Deltas auf den Monatssaldo eines Benutzers (z.B. aggregiert aus einem Import-Block).
+     * @param userId Benutzer-ID
+     * @param date beliebiges Datum im Monat
+     */
+    void applyDeltas(Long userId, LocalDate date, int actualMinutes, int plannedMinutes,
+                     int differenceMinutes, int absenceCreditMinutes);
+
+    /**
+     * Schreibt einer genehmigten Abwesenheit die Sollzeit ihrer Werktage gut und merkt sich die Minuten pro Tag.
+     * @param absence genehmigte Abwesenheit
+     */
+    void creditAbsence(Absence absence);
+
+    /**
+     * Bucht die Gutschrift einer Abwesenheit exakt zurück, falls sie gutgeschrieben wurde.
+     * @param absence Abwesenheit mit den bisher gebuchten Daten
+     */
+    void revokeAbsenceCredit(Absence absence);
+
+    /**
+     * Saldo eines Benutzers über einen Zeitraum von Monaten, berechnet aus den Monatszeilen.
+     * @param userId Benutzer-ID
+     * @param from erster Monat (inklusive)
+     * @param to letzter Monat (inklusive)
+     * @return Map mit Summen und den einzelnen Monaten
+     */
+    Map<String, Object> getBalance(Long userId, YearMonth from, YearMonth to);
+
+    /**
+     * Saldo des angemeldeten Benutzers über einen Zeitraum von Monaten.
+     */
+    Map<String, Object> getCurrentUserBalance(YearMonth from, YearMonth to);
+
+    /**
+     * Baut alle Monatssalden aus Zeiteinträgen und genehmigten Abwesenheiten neu auf.
+     * @return Anzahl geschriebener Monatszeilen
+     */
+    int rebuildAll();
+}
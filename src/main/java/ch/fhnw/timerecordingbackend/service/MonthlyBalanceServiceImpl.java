@@ -0,0 +1,281 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.Absence;
+import ch.fhnw.timerecordingbackend.model.MonthlyBalance;
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
+import ch.fhnw.timerecordingbackend.repository.MonthlyBalanceRepository;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import ch.fhnw.timerecordingbackend.util.DateTimeUtils;
+import ch.fhnw.timerecordingbackend.util.InsertIfAbsent;
+import ch.fhnw.timerecordingbackend.util.WorkingTimeCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementierung MonthlyBalanceService Interface.
+ * Pro Benutzer und Monat existiert eine Zeile, auf die Änderungen als Deltas mit einem UPDATE addiert werden.
+ * Fehlt die Zeile, wird sie in der laufenden Transaktion leer angelegt, sofern sie nicht gleichzeitig von einer
+ * anderen Buchung angelegt wurde ({@link InsertIfAbsent}), und das UPDATE wiederholt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Service
+@Transactional
+public class MonthlyBalanceServiceImpl implements MonthlyBalanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyBalanceServiceImpl.class);
+
+    // Obergrenze für abgefragte Zeiträume (10 Jahre)
+    private static final int MAX_MONTHS = 120;
+
+    private static final List<String> KEY_COLUMNS = List.of("user_id", "month_start");
+    private static final List<String> INSERT_COLUMNS = List.of("user_id", "month_start", "actual_minutes",
+            "planned_minutes", "difference_minutes", "absence_credit_minutes", "updated_at");
+
+    private static final String INSERT_SQL = "INSERT INTO monthly_balances (user_id, month_start, actual_minutes, "
+            + "planned_minutes, difference_minutes, absence_credit_minutes, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private MonthlyBalanceRepository monthlyBalanceRepository;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InsertIfAbsent insertIfAbsent;
+
+    @Override
+    public void addTimeEntry(TimeEntry timeEntry) {
+        applyTimeEntry(timeEntry, 1);
+    }
+
+    @Override
+    public void subtractTimeEntry(TimeEntry timeEntry) {
+        applyTimeEntry(timeEntry, -1);
+    }
+
+    private void applyTimeEntry(TimeEntry timeEntry, int sign) {
+        applyDeltas(timeEntry.getUser().getId(), timeEntry.getDate(),
+                sign * timeEntry.getActualMinutes(),
+                sign * timeEntry.getPlannedMinutes(),
+                sign * timeEntry.getDifferenceMinutes(),
+                0);
+    }
+
+    @Override
+    public void applyDeltas(Long userId, LocalDate date, int actualMinutes, int plannedMinutes,
+                            int differenceMinutes, int absenceCreditMinutes) {
+        if (actualMinutes == 0 && plannedMinutes == 0 && differenceMinutes == 0 && absenceCreditMinutes == 0) {
+            return;
+        }
+        LocalDate monthStart = date.withDayOfMonth(1);
+        int updated = monthlyBalanceRepository.addDeltas(userId, monthStart,
+                actualMinutes, plannedMinutes, differenceMinutes, absenceCreditMinutes);
+        if (updated == 0) {
+            createEmptyRow(userId, monthStart);
+            monthlyBalanceRepository.addDeltas(userId, monthStart,
+                    actualMinutes, plannedMinutes, differenceMinutes, absenceCreditMinutes);
+        }
+    }
+
+    /**
+     * Legt die leere Monatszeile in der laufenden Transaktion an, falls sie noch nicht existiert.
+     */
+    private void createEmptyRow(Long userId, LocalDate monthStart) {
+        if (insertIfAbsent.insert("monthly_balances", KEY_COLUMNS, INSERT_COLUMNS, userId, Date.valueOf(monthStart),
+                0, 0, 0, 0, Timestamp.valueOf(LocalDateTime.now())) == 0) {
+            logger.debug("Monatssaldo {} für Benutzer {} wurde gleichzeitig angelegt", monthStart, userId);
+        }
+    }
+
+    @Override
+    public void creditAbsence(Absence absence) {
+        int minutesPerDay = absence.getType().isCreditedAsWorkTime()
+                ? plannedMinutesPerDay(absence.getUser()) : 0;
+        absence.setCreditedMinutesPerDay(minutesPerDay);
+        applyAbsenceCredit(absence.getUser().getId(), absence.getStartDate(), absence.getEndDate(), minutesPerDay);
+    }
+
+    @Override
+    public void revokeAbsenceCredit(Absence absence) {
+        Integer minutesPerDay = absence.getCreditedMinutesPerDay();
+        if (minutesPerDay == null) {
+            return;
+        }
+        applyAbsenceCredit(absence.getUser().getId(), absence.getStartDate(), absence.getEndDate(), -minutesPerDay);
+        absence.setCreditedMinutesPerDay(null);
+    }
+
+    /**
+     * Verteilt die Gutschrift einer Abwesenheit anhand der Werktage auf die betroffenen Monate.
+     */
+    private void applyAbsenceCredit(Long userId, LocalDate startDate, LocalDate endDate, int minutesPerDay) {
+        if (minutesPerDay == 0) {
+            return;
+        }
+        creditByMonth(startDate, endDate, minutesPerDay).forEach((monthStart, credit) ->
+                applyDeltas(userId, monthStart, 0, 0, 0, credit));
+    }
+
+    /**
+     * Gutschrift pro Monat für einen Datumsbereich (Werktage x Minuten pro Tag).
+     */
+    static Map<LocalDate, Integer> creditByMonth(LocalDate startDate, LocalDate endDate, int minutesPerDay) {
+        Map<LocalDate, Integer> result = new TreeMap<>();
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            return result;
+        }
+        LocalDate segmentStart = startDate;
+        while (!segmentStart.isAfter(endDate)) {
+            LocalDate monthEnd = DateTimeUtils.getLastDayOfMonth(segmentStart);
+            LocalDate segmentEnd = monthEnd.isBefore(endDate) ? monthEnd : endDate;
+            long workdays = DateTimeUtils.countWorkdays(segmentStart, segmentEnd);
+            if (workdays > 0) {
+                result.put(segmentStart.withDayOfMonth(1), (int) workdays * minutesPerDay);
+            }
+            segmentStart = segmentEnd.plusDays(1);
+        }
+        return result;
+    }
+
+    private static int plannedMinutesPerDay(User user) {
+        return WorkingTimeCalculator.plannedMinutes(user.getPlannedHoursPerDay());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBalance(Long userId, YearMonth from, YearMonth to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ungültiger Zeitraum");
+        }
+        if (from.plusMonths(MAX_MONTHS).isBefore(to.plusMonths(1))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Zeitraum darf höchstens " + MAX_MONTHS + " Monate umfassen");
+        }
+
+        List<MonthlyBalance> rows = monthlyBalanceRepository.findByUserIdAndMonthStartBetween(
+                userId, from.atDay(1), to.atDay(1));
+
+        int actual = 0;
+        int planned = 0;
+        int difference = 0;
+        int absenceCredit = 0;
+        List<Map<String, Object>> months = new ArrayList<>(rows.size());
+        for (MonthlyBalance row : rows) {
+            actual += row.getActualMinutes();
+            planned += row.getPlannedMinutes();
+            difference += row.getDifferenceMinutes();
+            absenceCredit += row.getAbsenceCreditMinutes();
+
+            Map<String, Object> month = toResponse(row.getActualMinutes(), row.getPlannedMinutes(),
+                    row.getDifferenceMinutes(), row.getAbsenceCreditMinutes());
+            month.put("month", YearMonth.from(row.getMonthStart()).toString());
+            months.add(month);
+        }
+
+        Map<String, Object> response = toResponse(actual, planned, difference, absenceCredit);
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        response.put("months", months);
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCurrentUserBalance(YearMonth from, YearMonth to) {
+        Long currentUserId = securityUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Nicht authentifiziert");
+        }
+        return getBalance(currentUserId, from, to);
+    }
+
+    private static Map<String, Object> toResponse(int actual, int planned, int difference, int absenceCredit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("actualHours", DateTimeUtils.formatMinutes(actual));
+        response.put("plannedHours", DateTimeUtils.formatMinutes(planned));
+        response.put("difference", DateTimeUtils.formatSignedMinutes(difference));
+        response.put("absenceCredit", DateTimeUtils.formatMinutes(absenceCredit));
+        response.put("balance", DateTimeUtils.formatSignedMinutes(difference + absenceCredit));
+        response.put("balanceMinutes", difference + absenceCredit);
+        return response;
+    }
+
+    @Override
+    public int rebuildAll() {
+        Map<Long, Map<LocalDate, int[]>> totals = new TreeMap<>();
+
+        // Zeiteinträge pro Benutzer und Monat in der Datenbank aggregieren
+        jdbcTemplate.query("SELECT user_id, EXTRACT(YEAR FROM date) AS y, EXTRACT(MONTH FROM date) AS m, "
+                        + "SUM(actual_minutes), SUM(planned_minutes), SUM(difference_minutes) FROM time_entries "
+                        + "GROUP BY user_id, EXTRACT(YEAR FROM date), EXTRACT(MONTH FROM date)",
+                (RowCallbackHandler) rs -> {
+                    int[] values = totalsFor(totals, rs.getLong(1), LocalDate.of(rs.getInt(2), rs.getInt(3), 1));
+                    values[0] += rs.getInt(4);
+                    values[1] += rs.getInt(5);
+                    values[2] += rs.getInt(6);
+                });
+
+        // Genehmigte Abwesenheiten gutschreiben, fehlende Minuten pro Tag aus der aktuellen Sollzeit übernehmen
+        List<Object[]> creditUpdates = new ArrayList<>();
+        jdbcTemplate.query("SELECT a.id, a.user_id, a.start_date, a.end_date, a.type, a.credited_minutes_per_day, "
+                        + "u.planned_hours_per_day FROM absences a JOIN users u ON u.id = a.user_id "
+                        + "WHERE a.status = 'APPROVED'",
+                (RowCallbackHandler) rs -> {
+                    int minutesPerDay;
+                    if (rs.getObject(6) != null) {
+                        minutesPerDay = rs.getInt(6);
+                    } else {
+                        minutesPerDay = AbsenceType.valueOf(rs.getString(5)).isCreditedAsWorkTime()
+                                ? WorkingTimeCalculator.plannedMinutes(rs.getDouble(7)) : 0;
+                        creditUpdates.add(new Object[]{minutesPerDay, rs.getLong(1)});
+                    }
+                    long userId = rs.getLong(2);
+                    creditByMonth(rs.getObject(3, LocalDate.class), rs.getObject(4, LocalDate.class), minutesPerDay)
+                            .forEach((monthStart, credit) -> totalsFor(totals, userId, monthStart)[3] += credit);
+                });
+        if (!creditUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE absences SET credited_minutes_per_day = ? WHERE id = ?", creditUpdates);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        totals.forEach((userId, months) -> months.forEach((monthStart, values) ->
+                rows.add(new Object[]{userId, Date.valueOf(monthStart), values[0], values[1], values[2], values[3], now})));
+
+        jdbcTemplate.update("DELETE FROM monthly_balances");
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+        logger.info("Monatssalden neu aufgebaut: {} Zeilen für {} Benutzer", rows.size(), totals.size());
+        return rows.size();
+    }
+
+    private static int[] totalsFor(Map<Long, Map<LocalDate, int[]>> totals, Long userId, LocalDate monthStart) {
+        return totals.computeIfAbsent(userId, id -> new TreeMap<>())
+                .computeIfAbsent(monthStart, month -> new int[4]);
+    }
+}
@@ -0,0 +1,40 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import java.time.LocalDate;
+
+/**
+ * Interface für die Projektzugehörigkeiten der Benutzer.
+ * Die Zugehörigkeiten werden bei Änderungen von Zeiteinträgen mit Projekt in derselben Transaktion nachgeführt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public interface ProjectMembershipService {
+
+    /**
+     * Bucht einen Zeiteintrag auf die Zugehörigkeit des Benutzers zum Projekt.
+     * @param projectId Projekt-ID oder null (ohne Wirkung)
+     */
+    void addBooking(Long userId, Long projectId, LocalDate date);
+
+    /**
+     * Bucht mehrere Zeiteinträge auf einmal (z.B. aggregiert aus einem Import-Block).
+     * @param firstDate frühestes Datum der Einträge
+     * @param lastDate spätestes Datum der Einträge
+     * @param count Anzahl Einträge
+     */
+    void addBookings(Long userId, Long projectId, LocalDate firstDate, LocalDate lastDate, int count);
+
+    /**
+     * Entfernt einen Zeiteintrag aus der Zugehörigkeit. Muss nach dem Ändern oder Löschen des Eintrags
+     * aufgerufen werden, damit erster und letzter Buchungstag ohne ihn berechnet werden.
+     * @param projectId bisherige Projekt-ID oder null (ohne Wirkung)
+     * @param date bisheriges Datum des Eintrags
+     */
+    void removeBooking(Long userId, Long projectId, LocalDate date);
+
+    /**
+     * Baut alle Zugehörigkeiten aus den bestehenden Zeiteinträgen neu auf.
+     * @return Anzahl angelegter Zugehörigkeiten
+     */
+    int rebuildAll();
+}
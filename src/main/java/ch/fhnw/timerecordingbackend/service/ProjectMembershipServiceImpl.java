@@ -0,0 +1,90 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.repository.ProjectMembershipRepository;
+import ch.fhnw.timerecordingbackend.util.InsertIfAbsent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Implementierung ProjectMembershipService Interface.
+ * Wie bei den Monatssalden wird pro Benutzer und Projekt eine Zeile per UPDATE nachgeführt. Fehlt sie, wird sie
+ * in der laufenden Transaktion leer angelegt, sofern keine gleichzeitige erste Buchung sie angelegt hat. Leere Zeilen (0 Einträge) zählen in den Abfragen nicht als Zugehörigkeit.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Service
+@Transactional
+public class ProjectMembershipServiceImpl implements ProjectMembershipService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectMembershipServiceImpl.class);
+
+    private static final List<String> KEY_COLUMNS = List.of("user_id", "project_id");
+    private static final List<String> INSERT_COLUMNS = List.of("user_id", "project_id", "entry_count");
+
+    private static final String REBUILD_SQL = "INSERT INTO project_memberships "
+            + "(user_id, project_id, first_booked_date, last_booked_date, entry_count) "
+            + "SELECT user_id, project_id, MIN(date), MAX(date), COUNT(*) FROM time_entries "
+            + "WHERE project_id IS NOT NULL GROUP BY user_id, project_id";
+
+    @Autowired
+    private ProjectMembershipRepository projectMembershipRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InsertIfAbsent insertIfAbsent;
+
+    @Override
+    public void addBooking(Long userId, Long projectId, LocalDate date) {
+        addBookings(userId, projectId, date, date, 1);
+    }
+
+    @Override
+    public void addBookings(Long userId, Long projectId, LocalDate firstDate, LocalDate lastDate, int count) {
+        if (projectId == null || count <= 0) {
+            return;
+        }
+        int updated = projectMembershipRepository.addEntries(userId, projectId, firstDate, lastDate, count);
+        if (updated == 0) {
+            createEmptyRow(userId, projectId);
+            projectMembershipRepository.addEntries(userId, projectId, firstDate, lastDate, count);
+        }
+    }
+
+    @Override
+    public void removeBooking(Long userId, Long projectId, LocalDate date) {
+        if (projectId == null) {
+            return;
+        }
+        projectMembershipRepository.removeEntry(userId, projectId);
+        if (projectMembershipRepository.deleteIfEmpty(userId, projectId) == 0) {
+            projectMembershipRepository.refreshBookedDates(userId, projectId, date);
+        }
+    }
+
+    @Override
+    public int rebuildAll() {
+        jdbcTemplate.update("DELETE FROM project_memberships");
+        int created = jdbcTemplate.update(REBUILD_SQL);
+        logger.info("{} Projektzugehörigkeiten aus Zeiteinträgen aufgebaut", created);
+        return created;
+    }
+
+    /**
+     * Legt die leere Zeile in der laufenden Transaktion an, falls sie noch nicht existiert.
+     */
+    private void createEmptyRow(Long userId, Long projectId) {
+        if (insertIfAbsent.insert("project_memberships", KEY_COLUMNS, INSERT_COLUMNS, userId, projectId, 0) == 0) {
+            logger.debug("Projektzugehörigkeit von Benutzer {} zu Projekt {} wurde gleichzeitig angelegt", userId, projectId);
+        }
+    }
+}
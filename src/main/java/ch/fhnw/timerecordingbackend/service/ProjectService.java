@@ -1,11 +1,14 @@
 package ch.fhnw.timerecordingbackend.service;
 
+import ch.fhnw.timerecordingbackend.dto.project.ProjectResponse;
 import ch.fhnw.timerecordingbackend.model.Project;
 import ch.fhnw.timerecordingbackend.model.User;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -106,12 +109,20 @@ public interface ProjectService {
     List<Project> findByManagerIdAndActiveTrue(Long managerId);
 
     /**
-     * Sucht Projekte nach Name oder Beschreibung
+     * Sucht Projekte nach Name oder Beschreibung, alle Treffer, beste zuerst
      * @param searchTerm
      * @return Liste der passenden Projekte
      */
     List<Project> searchProjects(String searchTerm);
 
+    /**
+     * Sucht Projekte nach Name oder Beschreibung, beste Treffer zuerst
+     * @param searchTerm
+     * @param limit maximale Anzahl Treffer, höchstens 200
+     * @return Liste der passenden Projekte
+     */
+    List<Project> searchProjects(String searchTerm, int limit);
+
     /**
      * Findet alle Projekte an denen ein bestimmter Benutzer gearbeitet hat
      * @param userId
@@ -170,4 +181,18 @@ public interface ProjectService {
      */
     List<User> findUsersByProjectId(Long projectId);
 
+    /**
+     * Statistiken (gebuchte Stunden, Anzahl Einträge, Mitarbeitende) für mehrere Projekte in einer Abfrage
+     * @param projectIds IDs der Projekte
+     * @return Statistiken pro Projekt-ID, auch für Projekte ohne Einträge
+     */
+    Map<Long, ProjectResponse.ProjectStatistics> calculateStatisticsForProjects(Collection<Long> projectIds);
+
+    /**
+     * Mitarbeitende für mehrere Projekte in einer Abfrage finden
+     * @param projectIds IDs der Projekte
+     * @return Benutzer pro Projekt-ID (Projekte ohne Einträge fehlen)
+     */
+    Map<Long, List<User>> findUsersByProjectIds(Collection<Long> projectIds);
+
 }
@@ -1,19 +1,32 @@
 package ch.fhnw.timerecordingbackend.service;
 
+import ch.fhnw.timerecordingbackend.dto.project.ProjectResponse;
 import ch.fhnw.timerecordingbackend.model.Project;
 import ch.fhnw.timerecordingbackend.model.SystemLog;
 import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.ProjectMembershipRepository;
 import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
 import ch.fhnw.timerecordingbackend.repository.SystemLogRepository;
 import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
 import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.util.DateTimeUtils;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementierung ProjectService
@@ -27,13 +40,23 @@ public class ProjectServiceImpl implements ProjectService{
     private final UserRepository userRepository;
     private final SystemLogRepository systemLogRepository;
     private final TimeEntryRepository timeEntryRepository;
+    private final DashboardEventPublisher dashboardEventPublisher;
+    private final ProjectStatisticsCache projectStatisticsCache;
+    private final SearchIndexService searchIndexService;
+    private final ProjectMembershipRepository projectMembershipRepository;
 
     @Autowired
-    public ProjectServiceImpl(ProjectRepository projectRepository, UserRepository userRepository, SystemLogRepository systemLogRepository, TimeEntryRepository timeEntryRepository) {
+    public ProjectServiceImpl(ProjectRepository projectRepository, UserRepository userRepository, SystemLogRepository systemLogRepository, TimeEntryRepository timeEntryRepository,
+                              DashboardEventPublisher dashboardEventPublisher, ProjectStatisticsCache projectStatisticsCache,
+                              SearchIndexService searchIndexService, ProjectMembershipRepository projectMembershipRepository) {
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.systemLogRepository = systemLogRepository;
         this.timeEntryRepository = timeEntryRepository;
+        this.dashboardEventPublisher = dashboardEventPublisher;
+        this.projectStatisticsCache = projectStatisticsCache;
+        this.searchIndexService = searchIndexService;
+        this.projectMembershipRepository = projectMembershipRepository;
     }
 
     @Override
@@ -91,6 +114,7 @@ public class ProjectServiceImpl implements ProjectService{
         // Log erstellen
         createSystemLog("Projekt erstellt: " + project.getName(),
                 "Projekt ID: " + savedProject.getId());
+        dashboardEventPublisher.publishToAll(DashboardEventPublisher.PROJECT, "created", savedProject.getId());
 
         return savedProject;
     }
@@ -119,6 +143,8 @@ public class ProjectServiceImpl implements ProjectService{
         // Log erstellen
         createSystemLog("Projekt aktualisiert: " + existingProject.getName(),
                 "Projekt ID: " + existingProject.getId());
+        projectStatisticsCache.invalidate(savedProject.getId());
+        dashboardEventPublisher.publishToAll(DashboardEventPublisher.PROJECT, "updated", savedProject.getId());
 
         return savedProject;
     }
@@ -142,6 +168,8 @@ public class ProjectServiceImpl implements ProjectService{
         // Log erstellen
         createSystemLog("Projekt deaktiviert: " + project.getName(),
                 "Projekt ID: " + project.getId());
+        projectStatisticsCache.invalidate(deactivatedProject.getId());
+        dashboardEventPublisher.publishToAll(DashboardEventPublisher.PROJECT, "deactivated", deactivatedProject.getId());
 
         return deactivatedProject;
     }
@@ -165,6 +193,8 @@ public class ProjectServiceImpl implements ProjectService{
         // Log erstellen
         createSystemLog("Projekt aktiviert: " + project.getName(),
                 "Projekt ID: " + project.getId());
+        projectStatisticsCache.invalidate(activatedProject.getId());
+        dashboardEventPublisher.publishToAll(DashboardEventPublisher.PROJECT, "activated", activatedProject.getId());
 
         return activatedProject;
     }
@@ -199,6 +229,8 @@ public class ProjectServiceImpl implements ProjectService{
         // Log erstellen
         createSystemLog("Manager zugewiesen: " + manager.getFullName() + " zu Projekt " + project.getName(),
                 "Projekt ID: " + project.getId() + ", Manager ID: " + manager.getId());
+        projectStatisticsCache.invalidate(updatedProject.getId());
+        dashboardEventPublisher.publishToAll(DashboardEventPublisher.PROJECT, "updated", updatedProject.getId());
 
         return updatedProject;
     }
@@ -225,6 +257,8 @@ public class ProjectServiceImpl implements ProjectService{
         // Log erstellen
         createSystemLog("Manager entfernt: " + managerName + " von Projekt " + project.getName(),
                 "Projekt ID: " + project.getId());
+        projectStatisticsCache.invalidate(updatedProject.getId());
+        dashboardEventPublisher.publishToAll(DashboardEventPublisher.PROJECT, "updated", updatedProject.getId());
 
         return updatedProject;
     }
@@ -236,46 +270,139 @@ public class ProjectServiceImpl implements ProjectService{
      */
     @Override
     public String calculateTotalActualHoursForProject(Long projectId) {
-        List<Object[]> results = timeEntryRepository.sumActualHoursByProjectId(projectId);
-
-        if (results != null && !results.isEmpty()) {
-            Object resultValue = results.get(0)[0];
-            if (resultValue instanceof Number) {
-                Double totalMinutes = ((Number) resultValue).doubleValue();
-                long hours = (long) (totalMinutes / 60);
-                long minutes = (long) (totalMinutes % 60);
-                return String.format("%02d:%02d", hours, minutes);
-            }
-        }
-        return "00:00";
+        long totalMinutes = timeEntryRepository.sumActualMinutesByProjectId(projectId);
+        return DateTimeUtils.formatMinutes((int) totalMinutes);
     }
 
-    // Hilfsmethode, um HH:mm String in Minuten parsen
-    private double parseHoursToMinutes(String timeString) {
-        if (timeString == null || timeString.trim().isEmpty()) {
-            return 0.0;
-        }
-        try {
-            String[] parts = timeString.split(":");
-            return Double.parseDouble(parts[0]) * 60 + Double.parseDouble(parts[1]);
-        } catch (NumberFormatException e) {
-            return 0.0;
-        }
+    /**
+     * Mitarbeiter für Projekt finden, gelesen aus den Projektzugehörigkeiten
+     * @param projectId ID des Projekts
+     * @return Benutzer mit mindestens einem Zeiteintrag auf dem Projekt
+     */
+    @Override
+    public List<User> findUsersByProjectId(Long projectId) {
+        return projectMembershipRepository.findUsersWithEntriesByProjectId(projectId);
     }
 
     /**
-     * Mitarbeiter für Projekt finden
-     * @param projectId
+     * Statistiken für mehrere Projekte aus dem Cache, fehlende Projekte mit einer gruppierten Abfrage
+     * @param projectIds
      * @return
      */
     @Override
-    public List<User> findUsersByProjectId(Long projectId) {
-        return timeEntryRepository.findDistinctUsersByProjectId(projectId);
+    public Map<Long, ProjectResponse.ProjectStatistics> calculateStatisticsForProjects(Collection<Long> projectIds) {
+        Map<Long, ProjectResponse.ProjectStatistics> statistics = new HashMap<>();
+        loadStatistics(projectIds).forEach((projectId, entry) -> statistics.put(projectId,
+                new ProjectResponse.ProjectStatistics(entry.getEntryCount(), entry.getUserCount(),
+                        DateTimeUtils.formatMinutes((int) entry.getTotalMinutes()))));
+        return statistics;
+    }
+
+    /**
+     * Mitarbeiter für mehrere Projekte, Benutzer-IDs aus dem Cache, Benutzer mit einer Abfrage laden
+     * @param projectIds
+     * @return
+     */
+    @Override
+    public Map<Long, List<User>> findUsersByProjectIds(Collection<Long> projectIds) {
+        Map<Long, List<User>> usersByProject = new HashMap<>();
+        Map<Long, ProjectStatisticsCache.Entry> entries = loadStatistics(projectIds);
+        Set<Long> userIds = new HashSet<>();
+        entries.values().forEach(entry -> Arrays.stream(entry.getUserIds()).forEach(userIds::add));
+        if (userIds.isEmpty()) {
+            return usersByProject;
+        }
+
+        Map<Long, User> usersById = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> usersById.put(user.getId(), user));
+        Comparator<User> byName = Comparator.comparing(User::getLastName).thenComparing(User::getFirstName);
+        entries.forEach((projectId, entry) -> {
+            List<User> users = new ArrayList<>();
+            for (long userId : entry.getUserIds()) {
+                User user = usersById.get(userId);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+            if (!users.isEmpty()) {
+                users.sort(byName);
+                usersByProject.put(projectId, users);
+            }
+        });
+        return usersByProject;
+    }
+
+    /**
+     * Liefert die Statistiken aus dem Cache und lädt fehlende Projekte mit zwei Abfragen für alle gemeinsam.
+     */
+    private Map<Long, ProjectStatisticsCache.Entry> loadStatistics(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<Long, ProjectStatisticsCache.Entry> entries = projectStatisticsCache.getAll(projectIds);
+        List<Long> missing = new ArrayList<>();
+        for (Long projectId : projectIds) {
+            if (!entries.containsKey(projectId)) {
+                missing.add(projectId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return entries;
+        }
+
+        long generation = projectStatisticsCache.currentGeneration();
+        Map<Long, long[]> totals = new HashMap<>();
+        for (Object[] row : timeEntryRepository.summarizeByProjectIds(missing)) {
+            totals.put((Long) row[0], new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+        Map<Long, List<Long>> userIds = new HashMap<>();
+        for (Object[] row : projectMembershipRepository.findUserIdsByProjectIds(missing)) {
+            userIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+        }
+
+        Map<Long, ProjectStatisticsCache.Entry> loaded = new HashMap<>();
+        for (Long projectId : missing) {
+            long[] total = totals.getOrDefault(projectId, new long[2]);
+            long[] users = userIds.getOrDefault(projectId, List.of()).stream().mapToLong(Long::longValue).toArray();
+            loaded.put(projectId, new ProjectStatisticsCache.Entry(total[0], total[1], users));
+        }
+        projectStatisticsCache.putAll(loaded, generation);
+        entries.putAll(loaded);
+        return entries;
     }
 
     @Override
     public List<Project> searchProjects(String searchTerm) {
-        return projectRepository.searchProjects(searchTerm);
+        // Ohne Limit wie bisher alle Treffer, beste zuerst
+        return findProjects(searchTerm, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Project> searchProjects(String searchTerm, int limit) {
+        return findProjects(searchTerm, Math.max(1, Math.min(limit, SearchIndexService.MAX_LIMIT)));
+    }
+
+    private List<Project> findProjects(String searchTerm, int limit) {
+        String term = searchTerm != null ? searchTerm.trim() : "";
+        Optional<List<Long>> ids = term.isEmpty() ? Optional.empty() : searchIndexService.searchProjectIds(term, limit);
+        if (ids.isEmpty()) {
+            return projectRepository.searchProjects(term,
+                    limit == Integer.MAX_VALUE ? Pageable.unpaged() : PageRequest.of(0, limit));
+        }
+
+        // Reihenfolge des Index beibehalten
+        Map<Long, Project> byId = new HashMap<>();
+        for (Project project : projectRepository.findAllById(ids.get())) {
+            byId.put(project.getId(), project);
+        }
+        List<Project> projects = new ArrayList<>(byId.size());
+        for (Long id : ids.get()) {
+            Project project = byId.get(id);
+            if (project != null) {
+                projects.add(project);
+            }
+        }
+        return projects;
     }
 
     @Override
@@ -0,0 +1,191 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Begrenzter Cache für Projektstatistiken (gebuchte Minuten, Anzahl Einträge, beteiligte Benutzer).
+ * Die Werte ändern sich nur, wenn ein Zeiteintrag des Projekts geschrieben wird. Die Zeiterfassung und der
+ * ProjectService invalidieren die betroffenen Projekte nach dem Commit. Am längsten nicht gelesene Projekte
+ * werden bei Erreichen der Obergrenze verdrängt.
+ * Jede Invalidierung erhöht eine Generation: Werte, die vor einer Invalidierung gelesen wurden, werden nicht mehr
+ * übernommen, damit ein paralleler Leser keinen veralteten Stand in den Cache schreibt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class ProjectStatisticsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectStatisticsCache.class);
+
+    // Obergrenze gecachter Projekte
+    static final int MAX_ENTRIES = 1000;
+
+    /**
+     * Gecachte Statistik eines Projekts. Benutzer werden nur als IDs gehalten, damit Namensänderungen sofort sichtbar sind.
+     */
+    public static final class Entry {
+        private final long totalMinutes;
+        private final long entryCount;
+        private final long[] userIds;
+
+        public Entry(long totalMinutes, long entryCount, long[] userIds) {
+            this.totalMinutes = totalMinutes;
+            this.entryCount = entryCount;
+            this.userIds = userIds;
+        }
+
+        public long getTotalMinutes() {
+            return totalMinutes;
+        }
+
+        public long getEntryCount() {
+            return entryCount;
+        }
+
+        public long[] getUserIds() {
+            return userIds.clone();
+        }
+
+        public int getUserCount() {
+            return userIds.length;
+        }
+    }
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Liefert die gecachten Statistiken der angegebenen Projekte, fehlende Projekte sind nicht enthalten.
+     */
+    public synchronized Map<Long, Entry> getAll(Collection<Long> projectIds) {
+        Map<Long, Entry> result = new HashMap<>();
+        for (Long projectId : projectIds) {
+            Entry entry = entries.get(projectId);
+            if (entry != null) {
+                result.put(projectId, entry);
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Aktuelle Generation, vor dem Laden aus der Datenbank abzufragen und an {@link #putAll} zu übergeben.
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Übernimmt geladene Statistiken, ausser es wurde seit dem Laden invalidiert.
+     * @param loadedGeneration Generation vor dem Laden
+     */
+    public synchronized void putAll(Map<Long, Entry> loaded, long loadedGeneration) {
+        if (generation.get() != loadedGeneration) {
+            return;
+        }
+        entries.putAll(loaded);
+    }
+
+    /**
+     * Invalidiert die Statistik eines Projekts nach dem Commit der laufenden Transaktion.
+     * @param projectId Projekt-ID oder null (ohne Wirkung)
+     */
+    public void invalidate(Long projectId) {
+        if (projectId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                entries.remove(projectId);
+            }
+            invalidations.incrementAndGet();
+        });
+    }
+
+    /**
+     * Invalidiert mehrere Projekte nach dem Commit (z.B. nach einem Import).
+     */
+    public void invalidateAll(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(projectIds);
+        afterCommit(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                ids.forEach(entries::remove);
+            }
+            invalidations.addAndGet(ids.size());
+        });
+    }
+
+    /**
+     * Leert den Cache vollständig.
+     */
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        logger.info("Cache der Projektstatistiken geleert");
+    }
+
+    /**
+     * Kennzahlen des Caches zur Kontrolle, ob Projektübersichten die Zeiteinträge noch auswerten.
+     */
+    public synchronized Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", MAX_ENTRIES);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : Math.round(hitCount * 1000.0 / requests) / 1000.0);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.report.ReportResponse;
+import ch.fhnw.timerecordingbackend.model.enums.ReportGranularity;
+
+import java.time.LocalDate;
+
+/**
+ * Interface für Auswertungen von Arbeitszeiten pro Benutzer, Team und Projekt.
+ * Die Aggregation erfolgt in der Datenbank, zurückgegeben werden nur die verdichteten Zeilen pro Periode.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public interface ReportService {
+
+    /**
+     * Ist-, Soll- und Überzeit sowie Abwesenheitstage eines Benutzers pro Periode.
+     * Erlaubt für den Benutzer selbst, seinen Vorgesetzten und Admins.
+     * @param userId Benutzer-ID
+     * @param from erster Tag (inklusive)
+     * @param to letzter Tag (inklusive)
+     * @param granularity Tag, Woche oder Monat
+     */
+    ReportResponse getUserReport(Long userId, LocalDate from, LocalDate to, ReportGranularity granularity);
+
+    /**
+     * Auswertung des angemeldeten Benutzers.
+     */
+    ReportResponse getCurrentUserReport(LocalDate from, LocalDate to, ReportGranularity granularity);
+
+    /**
+     * Ist-, Soll- und Überzeit sowie Abwesenheitstage aller Teammitglieder eines Managers pro Periode.
+     * Das Team stammt aus der Manager-Hierarchie, standardmässig die direkten Unterstellten,
+     * mit app.team.include-indirect-reports auch die indirekten.
+     * @param managerId Manager-ID oder null für das Team des angemeldeten Managers (andere Teams nur für Admins)
+     */
+    ReportResponse getTeamReport(Long managerId, LocalDate from, LocalDate to, ReportGranularity granularity);
+
+    /**
+     * Auf ein Projekt gebuchte Zeit pro Periode und Benutzer.
+     * Erlaubt für den Projektmanager und Admins.
+     * @param projectId Projekt-ID
+     */
+    ReportResponse getProjectReport(Long projectId, LocalDate from, LocalDate to, ReportGranularity granularity);
+}
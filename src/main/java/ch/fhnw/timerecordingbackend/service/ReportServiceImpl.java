@@ -0,0 +1,311 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.report.ReportResponse;
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.enums.ReportGranularity;
+import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import ch.fhnw.timerecordingbackend.util.DateTimeUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementierung ReportService Interface.
+ * Zeiteinträge werden per GROUP BY pro Benutzer und Tag bzw. Monat summiert, Wochen werden aus den Tagessummen
+ * gebildet (ISO-Wochen lassen sich zwischen PostgreSQL und H2 nicht einheitlich gruppieren). Abwesenheiten werden
+ * nur für den angefragten Zeitraum geladen und als Werktage gezählt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReportServiceImpl implements ReportService {
+
+    // Obergrenze für abgefragte Zeiträume (10 Jahre)
+    private static final long MAX_DAYS = 3660;
+
+    private static final List<String> TIME_COLUMNS = List.of(
+            "period", "userId", "actualMinutes", "plannedMinutes", "overtimeMinutes", "absenceDays");
+    private static final List<String> PROJECT_COLUMNS = List.of(
+            "period", "userId", "actualMinutes", "entryCount");
+
+    // Teammitglieder über die Manager-Hierarchie, Parameter: Manager-ID und maximale Tiefe
+    private static final String TEAM_MEMBER_IDS =
+            "SELECT h.descendant_id FROM manager_hierarchy h WHERE h.ancestor_id = ? AND h.depth <= ?";
+
+    // Einschränkungen auf einen Benutzer bzw. das Team eines Managers, %s ist der Tabellenalias
+    private static final String USER_CONDITION = "%s.user_id = ?";
+    private static final String TEAM_CONDITION = "%s.user_id IN (" + TEAM_MEMBER_IDS + ")";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
+    @Autowired
+    private ManagerHierarchyService managerHierarchyService;
+
+    @Override
+    public ReportResponse getUserReport(Long userId, LocalDate from, LocalDate to, ReportGranularity granularity) {
+        AuthenticatedUser currentUser = getCurrentPrincipalOrThrow();
+        // Nur der Name wird benötigt, der Benutzer wird dafür nicht als Entity geladen
+        Map<Long, String> users = userNames("SELECT id, first_name, last_name FROM users WHERE id = ?", userId);
+        if (users.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Benutzer nicht gefunden");
+        }
+
+        boolean isOwnManager = managerHierarchyService.isInTeam(currentUser.getId(), userId);
+        if (!userId.equals(currentUser.getId()) && !isOwnManager && !currentUser.hasRole("ADMIN")) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "Sie können nur Ihre eigenen Auswertungen oder die Ihres Teams einsehen.");
+        }
+        return timeReport(USER_CONDITION, new Object[]{userId}, from, to, granularity, users);
+    }
+
+    @Override
+    public ReportResponse getCurrentUserReport(LocalDate from, LocalDate to, ReportGranularity granularity) {
+        return getUserReport(getCurrentPrincipalOrThrow().getId(), from, to, granularity);
+    }
+
+    @Override
+    public ReportResponse getTeamReport(Long managerId, LocalDate from, LocalDate to, ReportGranularity granularity) {
+        AuthenticatedUser currentUser = getCurrentPrincipalOrThrow();
+        Long teamManagerId = managerId != null ? managerId : currentUser.getId();
+        if (!teamManagerId.equals(currentUser.getId()) && !currentUser.hasRole("ADMIN")) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "Sie können nur die Auswertung Ihres eigenen Teams einsehen.");
+        }
+
+        Object[] teamArgs = {teamManagerId, managerHierarchyService.maxDepth()};
+        Map<Long, String> members = userNames("SELECT id, first_name, last_name FROM users WHERE id IN ("
+                + TEAM_MEMBER_IDS + ") ORDER BY last_name, first_name", teamArgs);
+        return timeReport(TEAM_CONDITION, teamArgs, from, to, granularity, members);
+    }
+
+    @Override
+    public ReportResponse getProjectReport(Long projectId, LocalDate from, LocalDate to, ReportGranularity granularity) {
+        AuthenticatedUser currentUser = getCurrentPrincipalOrThrow();
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Projekt nicht gefunden"));
+        boolean isProjectManager = project.getManager() != null
+                && project.getManager().getId().equals(currentUser.getId());
+        if (!isProjectManager && !currentUser.hasRole("ADMIN")) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "Nur der Projektmanager oder Admins können die Projektauswertung einsehen.");
+        }
+
+        LocalDate toDate = resolveTo(to);
+        LocalDate fromDate = resolveFrom(from, toDate);
+        ReportGranularity resolved = resolveGranularity(granularity);
+
+        // Werte pro Periode und Benutzer: [gebuchte Minuten, Anzahl Einträge]
+        Map<String, Map<Long, int[]>> buckets = new TreeMap<>();
+        if (resolved == ReportGranularity.MONTH) {
+            jdbcTemplate.query("SELECT t.user_id, EXTRACT(YEAR FROM t.date), EXTRACT(MONTH FROM t.date), "
+                            + "SUM(t.actual_minutes), COUNT(*) FROM time_entries t "
+                            + "WHERE t.project_id = ? AND t.date BETWEEN ? AND ? "
+                            + "GROUP BY t.user_id, EXTRACT(YEAR FROM t.date), EXTRACT(MONTH FROM t.date)",
+                    monthHandler(buckets, new int[]{4, 5}), projectId, Date.valueOf(fromDate), Date.valueOf(toDate));
+        } else {
+            jdbcTemplate.query("SELECT t.user_id, t.date, SUM(t.actual_minutes), COUNT(*) FROM time_entries t "
+                            + "WHERE t.project_id = ? AND t.date BETWEEN ? AND ? GROUP BY t.user_id, t.date",
+                    dayHandler(buckets, resolved, new int[]{3, 4}), projectId, Date.valueOf(fromDate),
+                    Date.valueOf(toDate));
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        int totalMinutes = 0;
+        int totalEntries = 0;
+        for (Map.Entry<String, Map<Long, int[]>> period : buckets.entrySet()) {
+            for (Map.Entry<Long, int[]> user : period.getValue().entrySet()) {
+                int[] values = user.getValue();
+                rows.add(new Object[]{period.getKey(), user.getKey(), values[0], values[1]});
+                totalMinutes += values[0];
+                totalEntries += values[1];
+            }
+        }
+
+        Map<Long, String> users = userNames("SELECT id, first_name, last_name FROM users WHERE id IN "
+                + "(SELECT DISTINCT user_id FROM time_entries WHERE project_id = ? AND date BETWEEN ? AND ?) "
+                + "ORDER BY last_name, first_name", projectId, Date.valueOf(fromDate), Date.valueOf(toDate));
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("projectId", project.getId());
+        totals.put("projectName", project.getName());
+        totals.put("actualHours", DateTimeUtils.formatMinutes(totalMinutes));
+        totals.put("actualMinutes", totalMinutes);
+        totals.put("entryCount", totalEntries);
+        return new ReportResponse(resolved, fromDate, toDate, PROJECT_COLUMNS, rows, users, totals);
+    }
+
+    /**
+     * Ist-, Soll- und Überzeit sowie Abwesenheitstage für einen Benutzer oder ein Team.
+     * @param condition {@link #USER_CONDITION} oder {@link #TEAM_CONDITION}
+     * @param conditionArgs Parameter der Bedingung, vor den Datumsgrenzen gebunden
+     */
+    private ReportResponse timeReport(String condition, Object[] conditionArgs, LocalDate from, LocalDate to,
+                                      ReportGranularity granularity, Map<Long, String> users) {
+        LocalDate toDate = resolveTo(to);
+        LocalDate fromDate = resolveFrom(from, toDate);
+        ReportGranularity resolved = resolveGranularity(granularity);
+
+        // Werte pro Periode und Benutzer: [Ist, Soll, Differenz, Abwesenheitstage]
+        Map<String, Map<Long, int[]>> buckets = new TreeMap<>();
+        Object[] timeArgs = withArgs(conditionArgs, Date.valueOf(fromDate), Date.valueOf(toDate));
+        if (resolved == ReportGranularity.MONTH) {
+            jdbcTemplate.query("SELECT t.user_id, EXTRACT(YEAR FROM t.date), EXTRACT(MONTH FROM t.date), "
+                            + "SUM(t.actual_minutes), SUM(t.planned_minutes), SUM(t.difference_minutes) "
+                            + "FROM time_entries t WHERE " + String.format(condition, "t")
+                            + " AND t.date BETWEEN ? AND ? "
+                            + "GROUP BY t.user_id, EXTRACT(YEAR FROM t.date), EXTRACT(MONTH FROM t.date)",
+                    monthHandler(buckets, new int[]{4, 5, 6}), timeArgs);
+        } else {
+            jdbcTemplate.query("SELECT t.user_id, t.date, SUM(t.actual_minutes), SUM(t.planned_minutes), "
+                            + "SUM(t.difference_minutes) FROM time_entries t WHERE " + String.format(condition, "t")
+                            + " AND t.date BETWEEN ? AND ? GROUP BY t.user_id, t.date",
+                    dayHandler(buckets, resolved, new int[]{3, 4, 5}), timeArgs);
+        }
+
+        // Genehmigte Abwesenheiten (ohne Home-Office) im Zeitraum als Werktage pro Periode zählen
+        jdbcTemplate.query("SELECT a.user_id, a.start_date, a.end_date FROM absences a"
+                        + " WHERE " + String.format(condition, "a") + " AND a.status = 'APPROVED' "
+                        + "AND a.type <> 'HOME_OFFICE' AND a.start_date <= ? AND a.end_date >= ?",
+                (RowCallbackHandler) rs -> {
+                    long userId = rs.getLong(1);
+                    LocalDate start = max(rs.getDate(2).toLocalDate(), fromDate);
+                    LocalDate end = min(rs.getDate(3).toLocalDate(), toDate);
+                    for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                        if (DateTimeUtils.isWorkday(day)) {
+                            bucket(buckets, resolved.periodOf(day), userId)[3]++;
+                        }
+                    }
+                },
+                withArgs(conditionArgs, Date.valueOf(toDate), Date.valueOf(fromDate)));
+
+        List<Object[]> rows = new ArrayList<>();
+        int[] sums = new int[4];
+        for (Map.Entry<String, Map<Long, int[]>> period : buckets.entrySet()) {
+            for (Map.Entry<Long, int[]> user : period.getValue().entrySet()) {
+                int[] values = user.getValue();
+                rows.add(new Object[]{period.getKey(), user.getKey(), values[0], values[1], values[2], values[3]});
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] += values[i];
+                }
+            }
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("actualHours", DateTimeUtils.formatMinutes(sums[0]));
+        totals.put("plannedHours", DateTimeUtils.formatMinutes(sums[1]));
+        totals.put("overtime", DateTimeUtils.formatSignedMinutes(sums[2]));
+        totals.put("overtimeMinutes", sums[2]);
+        totals.put("absenceDays", sums[3]);
+        return new ReportResponse(resolved, fromDate, toDate, TIME_COLUMNS, rows, users, totals);
+    }
+
+    /**
+     * Summiert Zeilen mit (user_id, date, Werte...) in die Periode des Datums.
+     */
+    private static RowCallbackHandler dayHandler(Map<String, Map<Long, int[]>> buckets, ReportGranularity granularity,
+                                                 int[] valueColumns) {
+        return rs -> {
+            int[] values = bucket(buckets, granularity.periodOf(rs.getDate(2).toLocalDate()), rs.getLong(1));
+            for (int i = 0; i < valueColumns.length; i++) {
+                values[i] += rs.getInt(valueColumns[i]);
+            }
+        };
+    }
+
+    /**
+     * Übernimmt Zeilen mit (user_id, Jahr, Monat, Werte...) in die Monatsperiode.
+     */
+    private static RowCallbackHandler monthHandler(Map<String, Map<Long, int[]>> buckets, int[] valueColumns) {
+        return rs -> {
+            String period = ReportGranularity.MONTH.periodOf(LocalDate.of(rs.getInt(2), rs.getInt(3), 1));
+            int[] values = bucket(buckets, period, rs.getLong(1));
+            for (int i = 0; i < valueColumns.length; i++) {
+                values[i] += rs.getInt(valueColumns[i]);
+            }
+        };
+    }
+
+    private static int[] bucket(Map<String, Map<Long, int[]>> buckets, String period, Long userId) {
+        return buckets.computeIfAbsent(period, p -> new TreeMap<>()).computeIfAbsent(userId, id -> new int[4]);
+    }
+
+    /**
+     * Hängt weitere Parameter (Datumsgrenzen) an die Parameter der Benutzer- bzw. Teambedingung an.
+     */
+    private static Object[] withArgs(Object[] conditionArgs, Object... args) {
+        Object[] combined = Arrays.copyOf(conditionArgs, conditionArgs.length + args.length);
+        System.arraycopy(args, 0, combined, conditionArgs.length, args.length);
+        return combined;
+    }
+
+    private Map<Long, String> userNames(String sql, Object... args) {
+        Map<Long, String> names = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs ->
+                names.put(rs.getLong(1), rs.getString(2) + " " + rs.getString(3)), args);
+        return names;
+    }
+
+    private static LocalDate resolveTo(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+
+    private static LocalDate resolveFrom(LocalDate from, LocalDate to) {
+        LocalDate fromDate = from != null ? from : to.withDayOfYear(1);
+        if (fromDate.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Startdatum darf nicht nach dem Enddatum liegen");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, to) > MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Der Zeitraum darf höchstens 10 Jahre umfassen");
+        }
+        return fromDate;
+    }
+
+    private static ReportGranularity resolveGranularity(ReportGranularity granularity) {
+        return granularity != null ? granularity : ReportGranularity.MONTH;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Principal des aktuellen Nutzers (ID, Rollen) ohne Datenbankzugriff, sonst UNAUTHORIZED.
+     */
+    private AuthenticatedUser getCurrentPrincipalOrThrow() {
+        AuthenticatedUser principal = securityUtils.getCurrentPrincipal();
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Nicht authentifiziert");
+        }
+        return principal;
+    }
+}
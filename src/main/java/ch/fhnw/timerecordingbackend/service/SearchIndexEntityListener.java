@@ -0,0 +1,47 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * JPA-Listener für User und Project, der jede Änderung an den {@link SearchIndexService} weitergibt.
+ * Hibernate erzeugt den Listener über den Spring-Container, dadurch funktioniert die Injection.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class SearchIndexEntityListener {
+
+    @Autowired
+    @Lazy
+    private SearchIndexService searchIndexService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (searchIndexService == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            searchIndexService.indexUser(user);
+        } else if (entity instanceof Project project) {
+            searchIndexService.indexProject(project);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (searchIndexService == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            searchIndexService.removeUser(user.getId());
+        } else if (entity instanceof Project project) {
+            searchIndexService.removeProject(project.getId());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Suchindex für Benutzer (Vorname, Nachname, E-Mail) und Projekte (Name, Beschreibung).
+ * Die Indizes werden beim Start aus der Datenbank aufgebaut und danach über den {@link SearchIndexEntityListener}
+ * nach jedem Commit nachgeführt. Solange ein Index nicht aufgebaut oder per app.search.in-memory-index=false
+ * abgeschaltet ist, liefern die Suchmethoden ein leeres Optional und die Services suchen per LIKE in der Datenbank.
+ * Unter PostgreSQL werden dafür zusätzlich GIN-Trigramm-Indizes (pg_trgm) angelegt, sofern die Erweiterung verfügbar ist.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class SearchIndexService implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    public static final int MAX_LIMIT = 200;
+
+    // Ausdrucksindizes passend zu LOWER(...) LIKE in UserRepository.searchUsers und ProjectRepository.searchProjects
+    private static final String[] POSTGRES_TRIGRAM_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_projects_name_trgm ON projects USING gin (lower(name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_projects_description_trgm ON projects USING gin (lower(description) gin_trgm_ops)"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.in-memory-index:true}")
+    private boolean inMemoryIndexEnabled;
+
+    private volatile TrigramIndex userIndex;
+    private volatile TrigramIndex projectIndex;
+
+    @Override
+    public void run(String... args) {
+        createPostgresTrigramIndexes();
+        if (inMemoryIndexEnabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Baut beide Indizes neu aus der Datenbank auf. Änderungen während des Aufbaus warten, bis der neue Index aktiv ist.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+
+        TrigramIndex users = new TrigramIndex();
+        jdbcTemplate.query("SELECT id, first_name, last_name, email FROM users", rs -> {
+            putUser(users, rs.getLong("id"), rs.getString("first_name"), rs.getString("last_name"), rs.getString("email"));
+        });
+
+        TrigramIndex projects = new TrigramIndex();
+        jdbcTemplate.query("SELECT id, name, description FROM projects", rs -> {
+            putProject(projects, rs.getLong("id"), rs.getString("name"), rs.getString("description"));
+        });
+
+        userIndex = users;
+        projectIndex = projects;
+        logger.info("Suchindex aufgebaut: {} Benutzer, {} Projekte in {} ms",
+                users.size(), projects.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Sucht Benutzer im Index.
+     * @return IDs nach Relevanz sortiert oder leer, wenn der Index nicht verfügbar ist
+     */
+    public Optional<List<Long>> searchUserIds(String term, int limit) {
+        TrigramIndex index = userIndex;
+        return index == null ? Optional.empty() : Optional.of(index.search(term, limit));
+    }
+
+    /**
+     * Sucht Projekte im Index.
+     * @return IDs nach Relevanz sortiert oder leer, wenn der Index nicht verfügbar ist
+     */
+    public Optional<List<Long>> searchProjectIds(String term, int limit) {
+        TrigramIndex index = projectIndex;
+        return index == null ? Optional.empty() : Optional.of(index.search(term, limit));
+    }
+
+    /**
+     * Übernimmt einen gespeicherten Benutzer nach dem Commit. Die Werte werden sofort kopiert.
+     */
+    public void indexUser(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        long id = user.getId();
+        String firstName = user.getFirstName();
+        String lastName = user.getLastName();
+        String email = user.getEmail();
+        afterCommit(() -> {
+            TrigramIndex index = userIndex;
+            if (index != null) {
+                putUser(index, id, firstName, lastName, email);
+            }
+        });
+    }
+
+    /**
+     * Übernimmt ein gespeichertes Projekt nach dem Commit.
+     */
+    public void indexProject(Project project) {
+        if (project.getId() == null) {
+            return;
+        }
+        long id = project.getId();
+        String name = project.getName();
+        String description = project.getDescription();
+        afterCommit(() -> {
+            TrigramIndex index = projectIndex;
+            if (index != null) {
+                putProject(index, id, name, description);
+            }
+        });
+    }
+
+    public void removeUser(Long userId) {
+        afterCommit(() -> {
+            TrigramIndex index = userIndex;
+            if (index != null && userId != null) {
+                index.remove(userId);
+            }
+        });
+    }
+
+    public void removeProject(Long projectId) {
+        afterCommit(() -> {
+            TrigramIndex index = projectIndex;
+            if (index != null && projectId != null) {
+                index.remove(projectId);
+            }
+        });
+    }
+
+    /**
+     * Kennzahlen für die Administration.
+     */
+    public Map<String, Object> stats() {
+        TrigramIndex users = userIndex;
+        TrigramIndex projects = projectIndex;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", inMemoryIndexEnabled);
+        stats.put("users", users != null ? users.size() : null);
+        stats.put("projects", projects != null ? projects.size() : null);
+        return stats;
+    }
+
+    private static void putUser(TrigramIndex index, long id, String firstName, String lastName, String email) {
+        String fullName = (firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "");
+        index.put(id, lastName + " " + firstName, firstName, lastName, email, fullName);
+    }
+
+    private static void putProject(TrigramIndex index, long id, String name, String description) {
+        index.put(id, name, name, description);
+    }
+
+    /**
+     * Legt unter PostgreSQL die Trigramm-Indizes für die LIKE-Suche an. Fehlt die Berechtigung für pg_trgm,
+     * bleibt die Suche ohne diese Indizes funktionsfähig.
+     */
+    private void createPostgresTrigramIndexes() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (product == null || !product.toLowerCase().contains("postgres")) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String statement : POSTGRES_TRIGRAM_INDEXES) {
+                jdbcTemplate.execute(statement);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Trigramm-Indizes für die Suche konnten nicht angelegt werden: {}", e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable guarded = () -> {
+            // Wartet auf einen laufenden Neuaufbau, damit die Änderung im neuen Index landet
+            synchronized (this) {
+                action.run();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schreibt Protokolleinträge (system_logs) gesammelt im Hintergrund statt pro Anfrage synchron, z.B. für Logins.
+ * Einträge werden in einer begrenzten Warteschlange gesammelt und jede Sekunde per JDBC-Batch eingefügt.
+ * Ist die Warteschlange voll, werden neue Einträge verworfen und gezählt, damit Lastspitzen die Anfragen nicht bremsen.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class SystemLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemLogWriter.class);
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_LOG_SQL = "INSERT INTO system_logs (action, timestamp, details, user_id, "
+            + "user_email, ip_address, target_entity, target_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_LOG_TYPES = {Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.BIGINT,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final BlockingQueue<Object[]> pending = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Nimmt einen Protokolleintrag zum späteren Schreiben an.
+     */
+    public void log(String action, String details, Long userId, String userEmail, String ipAddress) {
+        log(action, details, userId, userEmail, ipAddress, null, null);
+    }
+
+    /**
+     * Nimmt einen Protokolleintrag mit Zielobjekt (z.B. "Absence", ID) zum späteren Schreiben an.
+     */
+    public void log(String action, String details, Long userId, String userEmail, String ipAddress,
+                    String targetEntity, Long targetId) {
+        Object[] row = {action, Timestamp.valueOf(LocalDateTime.now()), details, userId, userEmail, ipAddress,
+                targetEntity, targetId};
+        if (!pending.offer(row)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Schreibt alle wartenden Einträge in Batches.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        while (pending.drainTo(batch, BATCH_SIZE) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_LOG_SQL, batch, INSERT_LOG_TYPES);
+                written.addAndGet(batch.size());
+            } catch (DataAccessException e) {
+                dropped.addAndGet(batch.size());
+                logger.warn("{} Protokolleinträge konnten nicht geschrieben werden: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Kennzahlen für die Administration.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
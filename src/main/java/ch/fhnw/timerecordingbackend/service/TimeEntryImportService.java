@@ -0,0 +1,34 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Interface für den Massenimport von Zeiteinträgen (z.B. Migration aus dem Vorsystem oder Lohnkorrekturen).
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public interface TimeEntryImportService {
+
+    /**
+     * Importiert Zeiteinträge aus einem JSON-Array von Zeilen, das gestreamt gelesen wird.
+     * @param inputStream JSON-Array mit Objekten im Format von TimeEntryImportRow
+     * @return Anzahl importierter Einträge und Fehler pro Zeile
+     * @throws IOException bei Lesefehlern
+     */
+    TimeEntryImportResult importJson(InputStream inputStream) throws IOException;
+
+    /**
+     * Importiert Zeiteinträge aus CSV (RFC 4180) mit Kopfzeile, die Datensatz für Datensatz gelesen wird.
+     * Spalten: userId oder userEmail, date, startTimes, endTimes, breaks, projectId (Trennzeichen , oder ;),
+     * weitere Spalten werden ignoriert. Felder in Anführungszeichen dürfen Trennzeichen enthalten.
+     * Mehrere Zeiten werden mit "|" getrennt, Pausen als "HH:mm-HH:mm".
+     * @param reader CSV-Daten
+     * @return Anzahl importierter Einträge und Fehler pro Zeile
+     * @throws IOException bei Lesefehlern
+     */
+    TimeEntryImportResult importCsv(Reader reader) throws IOException;
+}
@@ -0,0 +1,448 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryImportResult;
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryImportRow;
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryRequest;
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.TimeIntervalsConverter;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.util.CsvReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Service-Implementierung für den Massenimport von Zeiteinträgen.
+ * Zeilen werden gestreamt gelesen und in Blöcken von {@link #CHUNK_SIZE} verarbeitet: Benutzer, Projekte und
+ * bestehende Einträge werden pro Block mit je einer Abfrage geladen, die gültigen Zeilen anschliessend
+ * in einer eigenen Transaktion per JDBC-Batch eingefügt. Die Validierung entspricht der von
+ * {@link TimeEntryServiceImpl}, ungültige Zeilen werden mit Zeilennummer gemeldet und übersprungen.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Service
+public class TimeEntryImportServiceImpl implements TimeEntryImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeEntryImportServiceImpl.class);
+
+    static final int CHUNK_SIZE = 1000;
+
+    // Fehlermeldung für Zeilen eines fehlgeschlagenen Blocks, ohne Details der Datenbank
+    static final String SAVE_FAILED_MESSAGE = "Speichern fehlgeschlagen, die Zeile wurde nicht importiert";
+
+    private static final String INSERT_SQL = "INSERT INTO time_entries (user_id, date, work_intervals, break_intervals, "
+            + "actual_minutes, planned_minutes, difference_minutes, project_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {Types.BIGINT, Types.DATE, Types.VARCHAR, Types.VARCHAR,
+            Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+
+    @Autowired
+    private ActiveTimerRegistry activeTimerRegistry;
+
+    @Autowired
+    private ProjectStatisticsCache projectStatisticsCache;
+
+    @Autowired
+    private MonthlyBalanceService monthlyBalanceService;
+
+    @Autowired
+    private ProjectMembershipService projectMembershipService;
+
+    @Autowired
+    private DashboardEventPublisher dashboardEventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public TimeEntryImportResult importJson(InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun();
+        long row = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JSON-Array erwartet");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                row++;
+                // Jede Zeile einzeln als Baum lesen, damit ein falscher Feldtyp nur diese Zeile betrifft
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    run.add(row, objectMapper.treeToValue(node, TimeEntryImportRow.class));
+                } catch (JsonProcessingException e) {
+                    run.result.addError(row, "Ungültige Zeile: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Syntaxfehler im Stream: bisher gelesene Zeilen werden noch importiert
+            run.result.addError(row + 1, "Ungültiges JSON: " + e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    @Override
+    public TimeEntryImportResult importCsv(Reader reader) throws IOException {
+        ImportRun run = new ImportRun();
+        CsvReader csv = new CsvReader(reader);
+        if (!csv.readHeader()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV-Kopfzeile fehlt");
+        }
+        if (!csv.hasColumns("date", "starttimes") || (!csv.hasColumn("userid") && !csv.hasColumn("useremail"))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "CSV benötigt die Spalten date, startTimes sowie userId oder userEmail");
+        }
+
+        // Felder in Anführungszeichen (z. B. mit Trennzeichen) werden vom CsvReader korrekt getrennt
+        csv.forEachRow((row, values) -> run.add(row, parseCsvRow(values)),
+                (row, message) -> run.result.addError(row, "Ungültige Zeile: " + message));
+        return run.finish();
+    }
+
+    private TimeEntryImportRow parseCsvRow(CsvReader.Row values) {
+        TimeEntryImportRow importRow = new TimeEntryImportRow();
+        String userId = values.get("userid");
+        if (!userId.isEmpty()) {
+            importRow.setUserId(Long.parseLong(userId));
+        }
+        String userEmail = values.get("useremail");
+        if (!userEmail.isEmpty()) {
+            importRow.setUserEmail(userEmail);
+        }
+        String date = values.get("date");
+        if (!date.isEmpty()) {
+            importRow.setDate(LocalDate.parse(date));
+        }
+        importRow.setStartTimes(splitList(values.get("starttimes")));
+        importRow.setEndTimes(splitList(values.get("endtimes")));
+
+        List<TimeEntryRequest.BreakTime> breaks = new ArrayList<>();
+        for (String breakValue : splitList(values.get("breaks"))) {
+            String[] parts = breakValue.split("-", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Pause im Format HH:mm-HH:mm erwartet: " + breakValue);
+            }
+            breaks.add(new TimeEntryRequest.BreakTime(parts[0].trim(), parts[1].trim()));
+        }
+        importRow.setBreaks(breaks);
+
+        String projectId = values.get("projectid");
+        if (!projectId.isEmpty()) {
+            importRow.setProjectId(Long.parseLong(projectId));
+        }
+        return importRow;
+    }
+
+    private static List<String> splitList(String value) {
+        if (value.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> result = new ArrayList<>();
+        for (String part : value.split("\\|")) {
+            if (!part.isBlank()) {
+                result.add(part.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Zustand eines einzelnen Imports: gepufferte Zeilen des aktuellen Blocks, bereits geladene Benutzer
+     * und Projekte sowie alle bekannten Kombinationen aus Benutzer und Datum.
+     */
+    private class ImportRun {
+        private final TimeEntryImportResult result = new TimeEntryImportResult();
+        private final List<PendingRow> pending = new ArrayList<>(CHUNK_SIZE);
+        private final Map<Long, User> usersById = new HashMap<>();
+        private final Map<String, User> usersByEmail = new HashMap<>();
+        private final Set<Long> projectIds = new HashSet<>();
+        private final Set<Long> missingProjectIds = new HashSet<>();
+        private final Set<String> knownEntries = new HashSet<>();
+        // Empfänger des Aktualisierungsereignisses: importierte Benutzer und ihre Vorgesetzten
+        private final Set<Long> notifiedUserIds = new HashSet<>();
+        // Projekte mit importierten Einträgen, deren Statistiken neu berechnet werden müssen
+        private final Set<Long> importedProjectIds = new HashSet<>();
+        private final TimeIntervalsConverter converter = new TimeIntervalsConverter();
+        private boolean hasActiveEntries;
+
+        void add(long row, TimeEntryImportRow importRow) {
+            pending.add(new PendingRow(row, importRow));
+            if (pending.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        TimeEntryImportResult finish() {
+            flush();
+            // Parse-Fehler werden sofort, Validierungsfehler erst pro Block erfasst
+            result.getErrors().sort(Comparator.comparingLong(TimeEntryImportResult.RowError::getRow));
+            if (hasActiveEntries) {
+                // Importierte Einträge mit offener Zeiterfassung ins Register übernehmen
+                activeTimerRegistry.rebuild();
+            }
+            projectStatisticsCache.invalidateAll(importedProjectIds);
+            if (!notifiedUserIds.isEmpty()) {
+                dashboardEventPublisher.publish(DashboardEventPublisher.TIME_ENTRY, "imported", null, null,
+                        notifiedUserIds);
+            }
+            logger.info("Import von Zeiteinträgen abgeschlossen: {} importiert, {} fehlerhaft",
+                    result.getImported(), result.getFailed());
+            return result;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            loadReferences();
+
+            List<Object[]> batch = new ArrayList<>(pending.size());
+            List<String> batchKeys = new ArrayList<>(pending.size());
+            List<Long> batchRows = new ArrayList<>(pending.size());
+            // Saldo-Deltas pro Benutzer und Monat, damit pro Block nur wenige Monatszeilen aktualisiert werden
+            Map<Long, Map<LocalDate, int[]>> balanceDeltas = new HashMap<>();
+            // Projektzugehörigkeiten pro Benutzer und Projekt: erster Tag, letzter Tag, Anzahl
+            Map<Long, Map<Long, MembershipDelta>> membershipDeltas = new HashMap<>();
+            boolean batchHasActive = false;
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            for (PendingRow pendingRow : pending) {
+                TimeEntryImportRow importRow = pendingRow.importRow;
+                try {
+                    User user = resolveUser(importRow);
+                    if (importRow.getDate() == null) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Datum fehlt");
+                    }
+                    String key = key(user.getId(), importRow.getDate());
+                    if (knownEntries.contains(key)) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "Für dieses Datum existiert bereits ein Zeiteintrag");
+                    }
+                    if (importRow.getProjectId() != null && !projectIds.contains(importRow.getProjectId())) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Projekt nicht gefunden");
+                    }
+
+                    // Dieselben Regeln und Berechnungen wie beim Anlegen einzelner Einträge
+                    TimeEntryServiceImpl.validateTimeData(importRow);
+                    TimeEntry timeEntry = new TimeEntry();
+                    TimeEntryServiceImpl.setTimesFromRequest(timeEntry, importRow);
+                    TimeEntryServiceImpl.calculateWorkingHours(timeEntry, user);
+
+                    batch.add(new Object[]{
+                            user.getId(),
+                            Date.valueOf(importRow.getDate()),
+                            converter.convertToDatabaseColumn(timeEntry.getWorkIntervals()),
+                            converter.convertToDatabaseColumn(timeEntry.getBreakIntervals()),
+                            timeEntry.getActualMinutes(),
+                            timeEntry.getPlannedMinutes(),
+                            timeEntry.getDifferenceMinutes(),
+                            importRow.getProjectId(),
+                            now,
+                            now
+                    });
+                    batchKeys.add(key);
+                    batchRows.add(pendingRow.row);
+                    if (importRow.getProjectId() != null) {
+                        importedProjectIds.add(importRow.getProjectId());
+                        membershipDeltas.computeIfAbsent(user.getId(), id -> new HashMap<>())
+                                .computeIfAbsent(importRow.getProjectId(), id -> new MembershipDelta())
+                                .add(importRow.getDate());
+                    }
+                    int[] delta = balanceDeltas.computeIfAbsent(user.getId(), id -> new HashMap<>())
+                            .computeIfAbsent(importRow.getDate().withDayOfMonth(1), month -> new int[3]);
+                    delta[0] += timeEntry.getActualMinutes();
+                    delta[1] += timeEntry.getPlannedMinutes();
+                    delta[2] += timeEntry.getDifferenceMinutes();
+                    knownEntries.add(key);
+                    batchHasActive |= timeEntry.isActive();
+                } catch (ResponseStatusException e) {
+                    result.addError(pendingRow.row, e.getReason());
+                }
+            }
+            pending.clear();
+
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, INSERT_TYPES);
+                    balanceDeltas.forEach((userId, months) -> months.forEach((month, delta) ->
+                            monthlyBalanceService.applyDeltas(userId, month, delta[0], delta[1], delta[2], 0)));
+                    membershipDeltas.forEach((userId, projects) -> projects.forEach((projectId, delta) ->
+                            projectMembershipService.addBookings(userId, projectId, delta.first, delta.last, delta.count)));
+                });
+                result.addImported(batch.size());
+                hasActiveEntries |= batchHasActive;
+                balanceDeltas.keySet().forEach(userId -> {
+                    notifiedUserIds.add(userId);
+                    User manager = usersById.get(userId).getManager();
+                    if (manager != null) {
+                        notifiedUserIds.add(manager.getId());
+                    }
+                });
+            } catch (DataAccessException e) {
+                // Der ganze Block wurde zurückgerollt, alle seine Zeilen als fehlerhaft melden. Die Ursache
+                // (Tabellen-, Spalten- und Constraint-Namen) wird nur protokolliert, nicht an den Client gegeben.
+                logger.warn("Import-Block mit {} Zeilen fehlgeschlagen", batch.size(), e);
+                batchKeys.forEach(knownEntries::remove);
+                batchRows.forEach(row -> result.addError(row, SAVE_FAILED_MESSAGE));
+            }
+        }
+
+        /**
+         * Lädt fehlende Benutzer und Projekte sowie die bestehenden Einträge des Blocks mit je einer Abfrage.
+         */
+        private void loadReferences() {
+            Set<Long> userIds = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            Set<Long> projects = new HashSet<>();
+            for (PendingRow pendingRow : pending) {
+                TimeEntryImportRow importRow = pendingRow.importRow;
+                if (importRow.getUserId() != null) {
+                    userIds.add(importRow.getUserId());
+                } else if (importRow.getUserEmail() != null) {
+                    emails.add(importRow.getUserEmail());
+                }
+                if (importRow.getProjectId() != null) {
+                    projects.add(importRow.getProjectId());
+                }
+            }
+
+            userIds.removeAll(usersById.keySet());
+            emails.removeAll(usersByEmail.keySet());
+            if (!userIds.isEmpty()) {
+                userRepository.findAllById(userIds).forEach(this::cacheUser);
+            }
+            if (!emails.isEmpty()) {
+                userRepository.findByEmailIn(emails).forEach(this::cacheUser);
+            }
+
+            projects.removeAll(projectIds);
+            projects.removeAll(missingProjectIds);
+            if (!projects.isEmpty()) {
+                for (Project project : projectRepository.findAllById(projects)) {
+                    projectIds.add(project.getId());
+                }
+                projects.removeAll(projectIds);
+                missingProjectIds.addAll(projects);
+            }
+
+            // Bestehende Einträge der betroffenen Benutzer im Datumsbereich des Blocks
+            Set<Long> chunkUserIds = new HashSet<>();
+            LocalDate minDate = null;
+            LocalDate maxDate = null;
+            for (PendingRow pendingRow : pending) {
+                User user = findUser(pendingRow.importRow);
+                LocalDate date = pendingRow.importRow.getDate();
+                if (user == null || date == null) {
+                    continue;
+                }
+                chunkUserIds.add(user.getId());
+                minDate = minDate == null || date.isBefore(minDate) ? date : minDate;
+                maxDate = maxDate == null || date.isAfter(maxDate) ? date : maxDate;
+            }
+            if (!chunkUserIds.isEmpty()) {
+                for (Object[] existing : timeEntryRepository.findUserIdAndDateByUserIdInAndDateBetween(
+                        chunkUserIds, minDate, maxDate)) {
+                    knownEntries.add(key((Long) existing[0], (LocalDate) existing[1]));
+                }
+            }
+        }
+
+        private void cacheUser(User user) {
+            usersById.put(user.getId(), user);
+            usersByEmail.put(user.getEmail(), user);
+        }
+
+        private User findUser(TimeEntryImportRow importRow) {
+            if (importRow.getUserId() != null) {
+                return usersById.get(importRow.getUserId());
+            }
+            return importRow.getUserEmail() != null ? usersByEmail.get(importRow.getUserEmail()) : null;
+        }
+
+        private User resolveUser(TimeEntryImportRow importRow) {
+            if (importRow.getUserId() == null && importRow.getUserEmail() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "userId oder userEmail fehlt");
+            }
+            User user = findUser(importRow);
+            if (user == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Benutzer nicht gefunden");
+            }
+            return user;
+        }
+
+        private String key(Long userId, LocalDate date) {
+            return userId + "|" + date;
+        }
+    }
+
+    private static class PendingRow {
+        private final long row;
+        private final TimeEntryImportRow importRow;
+
+        PendingRow(long row, TimeEntryImportRow importRow) {
+            this.row = row;
+            this.importRow = importRow;
+        }
+    }
+
+    /**
+     * Gebuchter Zeitraum und Anzahl Einträge eines Benutzers auf einem Projekt innerhalb eines Blocks
+     */
+    private static class MembershipDelta {
+        private LocalDate first;
+        private LocalDate last;
+        private int count;
+
+        void add(LocalDate date) {
+            if (first == null || date.isBefore(first)) {
+                first = date;
+            }
+            if (last == null || date.isAfter(last)) {
+                last = date;
+            }
+            count++;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ch.fhnw.timerecordingbackend.service;
 
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryPageResponse;
 import ch.fhnw.timerecordingbackend.dto.time.TimeEntryRequest;
 import ch.fhnw.timerecordingbackend.dto.time.TimeEntryResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -56,12 +58,37 @@ public interface TimeEntryService {
      */
     List<TimeEntryResponse> getTeamTimeEntries();
 
+    /**
+     * Liest eine Seite der Zeiteinträge aller Teammitglieder eines Managers in einem Datumsfenster.
+     * Alle Teammitglieder werden gemeinsam in einer Abfrage geladen.
+     * @param from optionales Startdatum (inklusive)
+     * @param to optionales Enddatum (inklusive)
+     * @param cursor opaker Cursor der vorherigen Seite oder null für die erste Seite
+     * @param limit maximale Anzahl Einträge pro Seite
+     * @return Seite mit Einträgen und Cursor für die nächste Seite
+     */
+    TimeEntryPageResponse getTeamTimeEntriesPage(LocalDate from, LocalDate to, String cursor, int limit);
+
     /**
      * Liest alle Zeiteinträge im System (nur für Admins).
      * @return Liste der TimeEntryResponse-DTOs
      */
     List<TimeEntryResponse> getAllTimeEntries();
 
+    /**
+     * Liest eine Seite aller Zeiteinträge mittels Keyset-Paginierung (nur für Admins).
+     * Sortierung: Datum absteigend, dann Benutzer-ID und Eintrag-ID aufsteigend.
+     * @param from optionales Startdatum (inklusive)
+     * @param to optionales Enddatum (inklusive)
+     * @param userId optionale Benutzer-ID
+     * @param projectId optionale Projekt-ID
+     * @param cursor opaker Cursor der vorherigen Seite oder null für die erste Seite
+     * @param limit maximale Anzahl Einträge pro Seite
+     * @return Seite mit Einträgen und Cursor für die nächste Seite
+     */
+    TimeEntryPageResponse getAllTimeEntriesPage(LocalDate from, LocalDate to, Long userId, Long projectId,
+                                                String cursor, int limit);
+
     /**
      * Startet eine Zeiterfassung für ein (optional angegebenes) Projekt.
      * @param projectId optional ID des Projekts
@@ -76,6 +103,12 @@ public interface TimeEntryService {
      */
     Map<String, Object> stopTimeTracking(Long entryId);
 
+    /**
+     * Liefert die laufende Zeiterfassung des aktuellen Benutzers aus dem In-Memory-Register.
+     * @return Map mit "active" und bei laufender Zeiterfassung Eintrags-ID, Startzeit und Projekt
+     */
+    Map<String, Object> getActiveTimer();
+
     /**
      * Weist einem bestehenden Zeiteintrag ein Projekt zu.
      * @param timeEntryId ID des Zeiteintrags
@@ -1,20 +1,29 @@
 package ch.fhnw.timerecordingbackend.service;
 
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryPageResponse;
 import ch.fhnw.timerecordingbackend.dto.time.TimeEntryRequest;
 import ch.fhnw.timerecordingbackend.dto.time.TimeEntryResponse;
 import ch.fhnw.timerecordingbackend.model.Project;
 import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.TimeIntervals;
 import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
 import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
 import ch.fhnw.timerecordingbackend.repository.UserRepository; // Import UserRepository
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
 import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import ch.fhnw.timerecordingbackend.util.DateTimeUtils;
+import ch.fhnw.timerecordingbackend.util.HoursCodec;
+import ch.fhnw.timerecordingbackend.util.WorkingTimeCalculator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -45,29 +54,54 @@ public class TimeEntryServiceImpl implements TimeEntryService {
     @Autowired
     private SecurityUtils securityUtils;
 
-    @Autowired // UserRepository hinzugefügt für getCurrentUserOrThrow und andere Benutzeroperationen
+    @Autowired
+    private ActiveTimerRegistry activeTimerRegistry;
+
+    @Autowired
+    private MonthlyBalanceService monthlyBalanceService;
+
+    @Autowired
+    private DashboardEventPublisher dashboardEventPublisher;
+
+    @Autowired
+    private ProjectStatisticsCache projectStatisticsCache;
+
+    @Autowired
+    private ProjectMembershipService projectMembershipService;
+
+    @Autowired
+    private ManagerHierarchyService managerHierarchyService;
+
+    @Autowired // UserRepository hinzugefügt für Benutzerreferenzen und andere Benutzeroperationen
     private UserRepository userRepository;
 
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
+    // Obergrenze für die Seitengrösse bei Keyset-Paginierung
+    private static final int MAX_PAGE_SIZE = 500;
+    // Datumsgrenzen der Keyset-Paginierung, wenn kein Zeitraum angegeben ist
+    private static final LocalDate MIN_PAGE_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_PAGE_DATE = LocalDate.of(9999, 12, 31);
+
     /**
      * Prüft, ob der aktuell angemeldete Nutzer Eigentümer eines bestimmten Zeiteintrags ist.
      * @param timeEntryId ID des Zeiteintrags
      * @return true, wenn der Nutzer Eigentümer ist, sonst false
      */
     public boolean isOwnerOfTimeEntry(Long timeEntryId) {
-        User currentUser = securityUtils.getCurrentUser();
-        if (currentUser == null) {
+        Long currentUserId = securityUtils.getCurrentUserId();
+        if (currentUserId == null) {
             return false;
         }
         return timeEntryRepository.findById(timeEntryId)
-                .map(timeEntry -> timeEntry.getUser().getId().equals(currentUser.getId()))
+                .map(timeEntry -> timeEntry.getUser().getId().equals(currentUserId))
                 .orElse(false);
     }
 
     @Override
     public TimeEntryResponse createTimeEntry(TimeEntryRequest request) {
-        User currentUser = getCurrentUserOrThrow();
+        AuthenticatedUser principal = getCurrentPrincipalOrThrow();
+        User currentUser = userRepository.getReferenceById(principal.getId());
 
         // Verhindere doppelte Einträge am selben Datum
         Optional<TimeEntry> existingEntry = timeEntryRepository.findByUserAndDate(currentUser, request.getDate());
@@ -84,22 +118,8 @@ public class TimeEntryServiceImpl implements TimeEntryService {
 
         setTimesFromRequest(timeEntry, request); // Zeiten und Pausen initial setzen
 
-        // Falls Pausen angegeben, diese parsen und hinzufügen
-        if (request.getBreaks() != null) {
-            for (TimeEntryRequest.BreakTime breakTime : request.getBreaks()) {
-                try {
-                    LocalTime start = LocalTime.parse(breakTime.getStart(), TIME_FORMATTER);
-                    LocalTime end = LocalTime.parse(breakTime.getEnd(), TIME_FORMATTER);
-                    timeEntry.addBreak(start, end);
-                } catch (DateTimeParseException e) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                            "Ungültiges Pausenzeit-Format: " + e.getMessage());
-                }
-            }
-        }
-
         // Arbeitszeiten und Differenz berechnen
-        calculateWorkingHours(timeEntry, currentUser);
+        calculateWorkingHours(timeEntry, principal.getPlannedHoursPerDay());
 
         // Projektzuordnung, falls ID übergeben
         if (request.getProjectId() != null) {
@@ -115,12 +135,18 @@ public class TimeEntryServiceImpl implements TimeEntryService {
 
         // Persistiere den Eintrag und konvertiere zu DTO
         TimeEntry savedEntry = timeEntryRepository.save(timeEntry);
+        monthlyBalanceService.addTimeEntry(savedEntry);
+        updateMembership(savedEntry, null);
+        activeTimerRegistry.sync(savedEntry, null);
+        projectStatisticsCache.invalidate(projectIdOf(savedEntry));
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.TIME_ENTRY, "created",
+                principal.getId(), principal.getManagerId(), savedEntry.getId());
         return convertToResponse(savedEntry);
     }
 
     @Override
     public void updateTimeEntry(Long id, TimeEntryRequest request) {
-        User currentUser = getCurrentUserOrThrow();
+        AuthenticatedUser currentUser = getCurrentPrincipalOrThrow();
         TimeEntry timeEntry = timeEntryRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "Zeiteintrag nicht gefunden"));
@@ -128,8 +154,7 @@ public class TimeEntryServiceImpl implements TimeEntryService {
         // Berechtigung prüfen
         // Ein Admin kann jeden Eintrag bearbeiten.
         // Ein normaler Benutzer kann nur seine eigenen Einträge bearbeiten.
-        boolean isAdmin = currentUser.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("ADMIN")); //
+        boolean isAdmin = currentUser.hasRole("ADMIN");
 
         if (!timeEntry.getUser().getId().equals(currentUser.getId()) && !isAdmin) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN,
@@ -140,26 +165,14 @@ public class TimeEntryServiceImpl implements TimeEntryService {
         // Validierung der neuen Zeitangaben
         validateTimeData(request);
 
-        // Zeiten aktualisieren
-        timeEntry.getStartTimes().clear();
-        timeEntry.getEndTimes().clear();
-        timeEntry.getBreaks().clear();
+        // Bisherige Werte aus dem Monatssaldo zurückbuchen, bevor die Zeiten neu berechnet werden
+        monthlyBalanceService.subtractTimeEntry(timeEntry);
+        Long previousProjectId = projectIdOf(timeEntry);
 
-        setTimesFromRequest(timeEntry, request);
+        // Zeiten aktualisieren
+        timeEntry.clearTimes();
 
-        // Pausen hinzufügen
-        if (request.getBreaks() != null) {
-            for (TimeEntryRequest.BreakTime breakTime : request.getBreaks()) {
-                try {
-                    LocalTime start = LocalTime.parse(breakTime.getStart(), TIME_FORMATTER);
-                    LocalTime end = LocalTime.parse(breakTime.getEnd(), TIME_FORMATTER);
-                    timeEntry.addBreak(start, end);
-                } catch (DateTimeParseException e) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                            "Ungültiges Pausenzeit-Format: " + e.getMessage());
-                }
-            }
-        }
+        setTimesFromRequest(timeEntry, request); // Zeiten und Pausen setzen
         // Arbeitszeiten neu berechnen
         calculateWorkingHours(timeEntry, timeEntry.getUser());
 
@@ -176,6 +189,13 @@ public class TimeEntryServiceImpl implements TimeEntryService {
         // UpdatedAt anpassen und speichern
         timeEntry.setUpdatedAt(LocalDateTime.now());
         timeEntryRepository.save(timeEntry);
+        monthlyBalanceService.addTimeEntry(timeEntry);
+        updateMembership(timeEntry, previousProjectId);
+        activeTimerRegistry.sync(timeEntry, null);
+        projectStatisticsCache.invalidate(previousProjectId);
+        projectStatisticsCache.invalidate(projectIdOf(timeEntry));
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.TIME_ENTRY, "updated",
+                timeEntry.getUser(), timeEntry.getId());
     }
 
     @Override
@@ -185,12 +205,18 @@ public class TimeEntryServiceImpl implements TimeEntryService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "Zeiteintrag nicht gefunden"));
         timeEntryRepository.delete(timeEntry);
+        monthlyBalanceService.subtractTimeEntry(timeEntry);
+        projectMembershipService.removeBooking(timeEntry.getUser().getId(), projectIdOf(timeEntry), timeEntry.getDate());
+        activeTimerRegistry.remove(timeEntry.getUser().getId(), id);
+        projectStatisticsCache.invalidate(projectIdOf(timeEntry));
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.TIME_ENTRY, "deleted",
+                timeEntry.getUser(), id);
     }
 
     @Override
     public List<TimeEntryResponse> getCurrentUserTimeEntries() {
         // Alle Zeiteinträge des aktuellen Nutzers laden
-        User currentUser = getCurrentUserOrThrow();
+        User currentUser = userRepository.getReferenceById(getCurrentPrincipalOrThrow().getId());
         List<TimeEntry> entries = timeEntryRepository.findByUser(currentUser);
         return entries.stream()
                 .map(this::convertToResponse)
@@ -210,41 +236,115 @@ public class TimeEntryServiceImpl implements TimeEntryService {
 
     @Override
     public List<TimeEntryResponse> getTeamTimeEntries() {
-        // Alle Teammitglieder des Managers laden
-        User currentManager = getCurrentUserOrThrow();
-        List<User> teamMembers = userRepository.findByManager(currentManager); //
-        if (teamMembers.isEmpty()) {
-            return Collections.emptyList();
-        }
-        // Sammle alle Einträge der Teammitglieder
-        List<TimeEntry> teamEntries = new ArrayList<>();
-        for (User member : teamMembers) {
-            teamEntries.addAll(timeEntryRepository.findByUser(member)); //
-        }
-        // Sortierung nach Datum und Benutzer
+        // Einträge aller Teammitglieder des Managers in einer Abfrage laden, sortiert nach Datum und Benutzer
+        AuthenticatedUser currentManager = getCurrentPrincipalOrThrow();
+        List<TimeEntry> teamEntries = timeEntryRepository.findTeamEntriesByManagerId(currentManager.getId(),
+                managerHierarchyService.maxDepth());
         return teamEntries.stream()
                 .map(this::convertToResponse)
-                .sorted(Comparator.comparing(TimeEntryResponse::getDate).reversed().thenComparing(TimeEntryResponse::getUser))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TimeEntryPageResponse getTeamTimeEntriesPage(LocalDate from, LocalDate to, String cursor, int limit) {
+        AuthenticatedUser currentManager = getCurrentPrincipalOrThrow();
+        return loadPage(from, to, null, null, currentManager.getId(), cursor, limit);
+    }
+
     @Override
     public List<TimeEntryResponse> getAllTimeEntries() {
-        // Liefert alle Einträge (Admin-Funktion)
-        List<TimeEntry> allEntries = timeEntryRepository.findAll();
+        // Liefert alle Einträge (Admin-Funktion), Sortierung erfolgt in der Datenbank
+        List<TimeEntry> allEntries = timeEntryRepository.findAllOrderByDateDescAndUserName();
         return allEntries.stream()
                 .map(this::convertToResponse)
-                .sorted(Comparator.comparing(TimeEntryResponse::getDate).reversed().thenComparing(TimeEntryResponse::getUser))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TimeEntryPageResponse getAllTimeEntriesPage(LocalDate from, LocalDate to, Long userId, Long projectId,
+                                                       String cursor, int limit) {
+        return loadPage(from, to, userId, projectId, null, cursor, limit);
+    }
+
+    /**
+     * Lädt eine Seite von Zeiteinträgen mittels Keyset-Paginierung mit den angegebenen Filtern.
+     */
+    private TimeEntryPageResponse loadPage(LocalDate from, LocalDate to, Long userId, Long projectId, Long managerId,
+                                           String cursor, int limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Startdatum darf nicht nach dem Enddatum liegen");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Ohne Grenzen bzw. Cursor werden feste Werte eingesetzt, damit die Abfrage immer denselben
+        // indexfähigen Bereich und Zeilenwert-Vergleich enthält
+        LocalDate fromDate = from != null ? from : MIN_PAGE_DATE;
+        LocalDate toDate = to != null ? to : MAX_PAGE_DATE;
+        LocalDate cursorDate = toDate;
+        long cursorUserId = Long.MAX_VALUE;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = LocalDate.parse(parts[0]);
+            cursorUserId = Long.parseLong(parts[1]);
+            cursorId = Long.parseLong(parts[2]);
+        }
+
+        // Ein Eintrag mehr laden, um zu erkennen, ob eine weitere Seite existiert
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<TimeEntry> entries;
+        if (managerId != null) {
+            entries = timeEntryRepository.findTeamPageAfterCursor(managerId, managerHierarchyService.maxDepth(),
+                    fromDate, toDate, cursorDate, cursorUserId, cursorId, pageRequest);
+        } else if (userId != null && projectId != null) {
+            entries = timeEntryRepository.findUserProjectPageAfterCursor(userId, projectId,
+                    fromDate, toDate, cursorDate, cursorUserId, cursorId, pageRequest);
+        } else if (userId != null) {
+            entries = timeEntryRepository.findUserPageAfterCursor(userId,
+                    fromDate, toDate, cursorDate, cursorUserId, cursorId, pageRequest);
+        } else if (projectId != null) {
+            entries = timeEntryRepository.findProjectPageAfterCursor(projectId,
+                    fromDate, toDate, cursorDate, cursorUserId, cursorId, pageRequest);
+        } else {
+            entries = timeEntryRepository.findPageAfterCursor(fromDate, toDate, cursorDate, cursorUserId, cursorId,
+                    pageRequest);
+        }
+
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            TimeEntry last = entries.get(entries.size() - 1);
+            nextCursor = encodeCursor(last);
+        }
+
+        List<TimeEntryResponse> responses = entries.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        return new TimeEntryPageResponse(responses, nextCursor, hasMore);
+    }
+
     @Override
     public Map<String, Object> startTimeTracking(Long projectId) {
-        // Startet die Zeiterfassung für heute
-        User currentUser = getCurrentUserOrThrow();
+        // Startet die Zeiterfassung für heute, der Benutzer wird nur als Referenz (Fremdschlüssel) benötigt
+        AuthenticatedUser principal = getCurrentPrincipalOrThrow();
+        User currentUser = userRepository.getReferenceById(principal.getId());
         LocalDate today = LocalDate.now();
         LocalTime now = LocalTime.now();
 
+        // Laufende Zeiterfassung von heute über das In-Memory-Register prüfen, ohne den Eintrag zu laden.
+        // Ein offener Eintrag eines Vortags verhindert den Start nicht.
+        if (activeTimerRegistry.isRunning(principal.getId(), today)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Zeiterfassung läuft bereits für diesen Eintrag");
+        }
+
         Optional<TimeEntry> existingEntryOpt = timeEntryRepository.findByUserAndDate(currentUser, today);
         TimeEntry timeEntry;
 
@@ -260,10 +360,11 @@ public class TimeEntryServiceImpl implements TimeEntryService {
             timeEntry.setUser(currentUser);
             timeEntry.setDate(today);
             timeEntry.setCreatedAt(LocalDateTime.now());
-            calculateWorkingHours(timeEntry, currentUser); // Initialwerte setzen
+            calculateWorkingHours(timeEntry, principal.getPlannedHoursPerDay()); // Initialwerte setzen
         }
 
         // Projektzuordnung optional
+        Long previousProjectId = projectIdOf(timeEntry);
         if (projectId != null) {
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
@@ -278,6 +379,16 @@ public class TimeEntryServiceImpl implements TimeEntryService {
         timeEntry.setUpdatedAt(LocalDateTime.now());
 
         TimeEntry savedEntry = timeEntryRepository.save(timeEntry);
+        if (existingEntryOpt.isEmpty()) {
+            // Nur ein neuer Eintrag verändert den Saldo (Sollzeit des Tages), eine weitere Startzeit nicht
+            monthlyBalanceService.addTimeEntry(savedEntry);
+        }
+        updateMembership(savedEntry, previousProjectId);
+        activeTimerRegistry.sync(savedEntry, LocalDateTime.of(today, now), principal.getEmail());
+        projectStatisticsCache.invalidate(previousProjectId);
+        projectStatisticsCache.invalidate(projectIdOf(savedEntry));
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.TIME_ENTRY, "timer-started",
+                principal.getId(), principal.getManagerId(), savedEntry.getId());
 
         // Antwort mit Entry-Details
         Map<String, Object> response = new HashMap<>();
@@ -296,7 +407,7 @@ public class TimeEntryServiceImpl implements TimeEntryService {
 
     @Override
     public Map<String, Object> stopTimeTracking(Long entryId) {
-        User currentUser = getCurrentUserOrThrow();
+        AuthenticatedUser currentUser = getCurrentPrincipalOrThrow();
         TimeEntry timeEntry = timeEntryRepository.findById(entryId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "Zeiteintrag nicht gefunden"));
@@ -312,20 +423,26 @@ public class TimeEntryServiceImpl implements TimeEntryService {
         }
 
         LocalTime now = LocalTime.now();
+        monthlyBalanceService.subtractTimeEntry(timeEntry);
         timeEntry.addEndTime(now);
 
         // Arbeitszeiten neu berechnen und speichern
-        calculateWorkingHours(timeEntry, currentUser);
+        calculateWorkingHours(timeEntry, currentUser.getPlannedHoursPerDay());
         timeEntry.setUpdatedAt(LocalDateTime.now());
 
         timeEntryRepository.save(timeEntry);
+        monthlyBalanceService.addTimeEntry(timeEntry);
+        activeTimerRegistry.sync(timeEntry, null, currentUser.getEmail());
+        projectStatisticsCache.invalidate(projectIdOf(timeEntry));
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.TIME_ENTRY, "timer-stopped",
+                currentUser.getId(), currentUser.getManagerId(), timeEntry.getId());
 
         // Antwort mit aktualisierten Zeiten
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Zeiterfassung gestoppt");
         response.put("endTime", LocalDateTime.of(timeEntry.getDate(), now).toString());
-        response.put("actualHours", timeEntry.getActualHours());
-        response.put("difference", timeEntry.getDifference());
+        response.put("actualHours", DateTimeUtils.formatMinutes(timeEntry.getActualMinutes()));
+        response.put("difference", DateTimeUtils.formatSignedMinutes(timeEntry.getDifferenceMinutes()));
         if (timeEntry.getProject() != null) {
             response.put("projectId", timeEntry.getProject().getId());
             response.put("projectName", timeEntry.getProject().getName());
@@ -333,12 +450,32 @@ public class TimeEntryServiceImpl implements TimeEntryService {
         return response;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getActiveTimer() {
+        // Beantwortet ausschliesslich aus dem Register, ohne Datenbankzugriff
+        Optional<ActiveTimerRegistry.ActiveTimer> timer =
+                activeTimerRegistry.findByEmail(securityUtils.getCurrentUsername());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("active", timer.isPresent());
+        timer.ifPresent(t -> {
+            response.put("entryId", t.getEntryId());
+            response.put("date", t.getDate().toString());
+            response.put("startTime", t.getStartedAt().toString());
+            response.put("projectId", t.getProjectId());
+            response.put("projectName", t.getProjectName());
+        });
+        return response;
+    }
+
     @Override
     public void assignProject(Long timeEntryId, Long projectId) {
         // Weist einem bestehenden Eintrag ein Projekt zu oder entfernt es
         TimeEntry timeEntry = timeEntryRepository.findById(timeEntryId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "Zeiteintrag nicht gefunden"));
+        Long previousProjectId = projectIdOf(timeEntry);
 
         if (projectId != null) {
             Project project = projectRepository.findById(projectId)
@@ -351,25 +488,76 @@ public class TimeEntryServiceImpl implements TimeEntryService {
 
         timeEntry.setUpdatedAt(LocalDateTime.now());
         timeEntryRepository.save(timeEntry);
+        updateMembership(timeEntry, previousProjectId);
+        activeTimerRegistry.sync(timeEntry, null);
+        projectStatisticsCache.invalidate(previousProjectId);
+        projectStatisticsCache.invalidate(projectId);
+        dashboardEventPublisher.publishToUserAndManager(DashboardEventPublisher.TIME_ENTRY, "updated",
+                timeEntry.getUser(), timeEntry.getId());
+    }
+
+    private static Long projectIdOf(TimeEntry timeEntry) {
+        return timeEntry.getProject() != null ? timeEntry.getProject().getId() : null;
+    }
+
+    /**
+     * Führt die Projektzugehörigkeit nach, wenn ein gespeicherter Eintrag das Projekt gewechselt hat.
+     * @param previousProjectId Projekt vor der Änderung (null bei neuen Einträgen)
+     */
+    private void updateMembership(TimeEntry timeEntry, Long previousProjectId) {
+        Long projectId = projectIdOf(timeEntry);
+        if (Objects.equals(previousProjectId, projectId)) {
+            return;
+        }
+        Long userId = timeEntry.getUser().getId();
+        projectMembershipService.removeBooking(userId, previousProjectId, timeEntry.getDate());
+        projectMembershipService.addBooking(userId, projectId, timeEntry.getDate());
     }
 
     /**
-     * Liefert den aktuellen Nutzer oder wirft UNAUTHORIZED.
+     * Liefert den Principal des aktuellen Nutzers (ID, Rollen, Soll-Stunden) ohne Datenbankzugriff
+     * oder wirft UNAUTHORIZED.
      */
-    private User getCurrentUserOrThrow() {
-        User currentUser = securityUtils.getCurrentUser();
-        if (currentUser == null) {
+    private AuthenticatedUser getCurrentPrincipalOrThrow() {
+        AuthenticatedUser principal = securityUtils.getCurrentPrincipal();
+        if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Nicht authentifiziert");
         }
-        // Optional: Benutzer neu aus der DB laden, um sicherzustellen, dass er aktuell ist
-        return userRepository.findById(currentUser.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Benutzer nicht in DB gefunden"));
+        return principal;
+    }
+
+    /**
+     * Kodiert die Sortierschlüssel (Datum, Benutzer-ID, ID) eines Eintrags als opaken Cursor.
+     */
+    private String encodeCursor(TimeEntry timeEntry) {
+        String raw = timeEntry.getDate() + "|" + timeEntry.getUser().getId() + "|" + timeEntry.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Dekodiert einen Cursor in seine drei Bestandteile oder wirft BAD_REQUEST.
+     */
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Ungültige Anzahl Cursor-Bestandteile");
+            }
+            LocalDate.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            Long.parseLong(parts[2]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ungültiger Cursor");
+        }
     }
 
     /**
      * Validiert Start- und Endzeiten bezüglich Format und Konsistenz.
+     * Wird auch vom Massenimport verwendet, damit dieselben Regeln gelten.
      */
-    private void validateTimeData(TimeEntryRequest request) {
+    static void validateTimeData(TimeEntryRequest request) {
         if (request.getStartTimes() == null || request.getStartTimes().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Mindestens eine Startzeit ist erforderlich");
@@ -403,84 +591,62 @@ public class TimeEntryServiceImpl implements TimeEntryService {
     }
 
     /**
-     * Überträgt String-Zeitlisten in LocalTime-Sets im Model.
+     * Überträgt String-Zeitlisten als Arbeitsintervalle und die Pausen ins Model.
      */
-    private void setTimesFromRequest(TimeEntry timeEntry, TimeEntryRequest request) {
-        if (request.getStartTimes() != null) {
-            timeEntry.setStartTimes(request.getStartTimes().stream()
-                    .map(timeStr -> LocalTime.parse(timeStr, TIME_FORMATTER))
-                    .collect(Collectors.toSet()));
-        } else {
-            timeEntry.setStartTimes(new HashSet<>());
-        }
+    static void setTimesFromRequest(TimeEntry timeEntry, TimeEntryRequest request) {
+        List<LocalTime> startTimes = request.getStartTimes() != null
+                ? request.getStartTimes().stream()
+                        .map(timeStr -> LocalTime.parse(timeStr, TIME_FORMATTER))
+                        .collect(Collectors.toList())
+                : Collections.emptyList();
+
+        List<LocalTime> endTimes = request.getEndTimes() != null
+                ? request.getEndTimes().stream()
+                        .filter(s -> s != null && !s.isEmpty()) // Nur nicht-leere Strings parsen
+                        .map(timeStr -> LocalTime.parse(timeStr, TIME_FORMATTER))
+                        .collect(Collectors.toList())
+                : Collections.emptyList();
+
+        timeEntry.setWorkTimes(startTimes, endTimes);
 
-        if (request.getEndTimes() != null) {
-            timeEntry.setEndTimes(request.getEndTimes().stream()
-                    .filter(s -> s != null && !s.isEmpty()) // Nur nicht-leere Strings parsen
-                    .map(timeStr -> LocalTime.parse(timeStr, TIME_FORMATTER))
-                    .collect(Collectors.toSet()));
-        } else {
-            timeEntry.setEndTimes(new HashSet<>());
+        // Falls Pausen angegeben, diese parsen und hinzufügen
+        if (request.getBreaks() != null) {
+            for (TimeEntryRequest.BreakTime breakTime : request.getBreaks()) {
+                if (breakTime == null || breakTime.getStart() == null || breakTime.getEnd() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Pausen benötigen Start- und Endzeit");
+                }
+                try {
+                    LocalTime start = LocalTime.parse(breakTime.getStart(), TIME_FORMATTER);
+                    LocalTime end = LocalTime.parse(breakTime.getEnd(), TIME_FORMATTER);
+                    timeEntry.addBreak(start, end);
+                } catch (DateTimeParseException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Ungültiges Pausenzeit-Format: " + e.getMessage());
+                }
+            }
         }
     }
 
     /**
      * Berechnet tatsächliche Arbeitszeit, geplante Stunden und Differenz.
+     * Die Intervalle sind bereits sortiert und gepaart, der WorkingTimeCalculator summiert direkt über die Minuten.
      */
-    private void calculateWorkingHours(TimeEntry timeEntry, User user) {
-        double plannedHoursPerDay = user.getPlannedHoursPerDay();
-        double totalMinutes = 0;
-
-        // Sortiere Zeiten und gleiche Paare ab
-        List<LocalTime> startTimes = (timeEntry.getStartTimes() != null)
-                ? new ArrayList<>(timeEntry.getStartTimes())
-                : new ArrayList<>();
-        List<LocalTime> endTimes = (timeEntry.getEndTimes() != null)
-                ? new ArrayList<>(timeEntry.getEndTimes())
-                : new ArrayList<>();
-
-        startTimes.sort(LocalTime::compareTo);
-        endTimes.sort(LocalTime::compareTo);
-
-        int pairs = Math.min(startTimes.size(), endTimes.size());
-        for (int i = 0; i < pairs; i++) {
-            LocalTime start = startTimes.get(i);
-            LocalTime end = endTimes.get(i);
-            if (end.isAfter(start)) {
-                totalMinutes += java.time.Duration.between(start, end).toMinutes();
-            }
-        }
-
-        // Pausen abziehen
-        if (timeEntry.getBreaks() != null) {
-            for (TimeEntry.Break breakTime : timeEntry.getBreaks()) {
-                if (breakTime.getStart() != null && breakTime.getEnd() != null && breakTime.getEnd().isAfter(breakTime.getStart())) {
-                    totalMinutes -= java.time.Duration.between(breakTime.getStart(), breakTime.getEnd()).toMinutes();
-                }
-            }
-        }
+    static void calculateWorkingHours(TimeEntry timeEntry, User user) {
+        calculateWorkingHours(timeEntry, user.getPlannedHoursPerDay());
+    }
 
-        // Formatiere Stunden:Minuten
-        long hours = (long) (totalMinutes / 60);
-        long minutes = (long) (Math.round(totalMinutes) % 60);
-        String actualHours = String.format("%02d:%02d", hours, minutes);
-
-        // Berechne geplante Stunden als String
-        long plannedHours = (long) plannedHoursPerDay;
-        long plannedMinutes = (long) Math.round((plannedHoursPerDay - plannedHours) * 60);
-        String plannedHoursStr = String.format("%02d:%02d", plannedHours, plannedMinutes);
-
-        // Differenz berechnen und formatieren
-        double differenceInMinutes = totalMinutes - (plannedHoursPerDay * 60);
-        long diffAbsMinutes = (long) Math.abs(Math.round(differenceInMinutes));
-        long diffH = diffAbsMinutes / 60;
-        long diffM = diffAbsMinutes % 60;
-        String differenceStr = String.format("%s%02d:%02d",
-                differenceInMinutes >= 0 ? "+" : "-", diffH, diffM);
-
-        timeEntry.setActualHours(actualHours);
-        timeEntry.setPlannedHours(plannedHoursStr);
-        timeEntry.setDifference(differenceStr);
+    /**
+     * Wie {@link #calculateWorkingHours(TimeEntry, User)}, mit den Soll-Stunden pro Tag aus dem Principal.
+     */
+    static void calculateWorkingHours(TimeEntry timeEntry, double plannedHoursPerDay) {
+        int actualMinutes = TimeIntervals.actualMinutes(timeEntry.getWorkIntervals(), timeEntry.getBreakIntervals());
+        int plannedMinutes = WorkingTimeCalculator.plannedMinutes(plannedHoursPerDay);
+
+        // Ist-, Soll- und Differenzzeit als ganze Minuten speichern
+        timeEntry.setActualMinutes(actualMinutes);
+        timeEntry.setPlannedMinutes(plannedMinutes);
+        timeEntry.setDifferenceMinutes(actualMinutes - plannedMinutes);
     }
 
     /**
@@ -490,48 +656,39 @@ public class TimeEntryServiceImpl implements TimeEntryService {
         TimeEntryResponse response = new TimeEntryResponse();
         response.setId(timeEntry.getId());
         response.setDate(timeEntry.getDate());
-        response.setActualHours(timeEntry.getActualHours());
-        response.setPlannedHours(timeEntry.getPlannedHours());
-        response.setDifference(timeEntry.getDifference());
+        response.setActualHours(DateTimeUtils.formatMinutes(timeEntry.getActualMinutes()));
+        response.setPlannedHours(DateTimeUtils.formatMinutes(timeEntry.getPlannedMinutes()));
+        response.setDifference(DateTimeUtils.formatSignedMinutes(timeEntry.getDifferenceMinutes()));
         response.setUserId(timeEntry.getUser().getId());
         response.setUser(timeEntry.getUser().getFirstName() + " " + timeEntry.getUser().getLastName());
 
-        // Start- und Endzeiten als sortierte Listen
-        if (timeEntry.getStartTimes() != null) {
-            response.setStartTimes(timeEntry.getStartTimes().stream()
-                    .sorted()
-                    .map(time -> time.format(TIME_FORMATTER))
-                    .collect(Collectors.toList()));
-        } else {
-            response.setStartTimes(Collections.emptyList());
-        }
-
-        if (timeEntry.getEndTimes() != null) {
-            response.setEndTimes(timeEntry.getEndTimes().stream()
-                    .sorted()
-                    .map(time -> time.format(TIME_FORMATTER))
-                    .collect(Collectors.toList()));
-        } else {
-            response.setEndTimes(Collections.emptyList());
+        // Start- und Endzeiten direkt aus den sortierten Minuten-Paaren, "HH:mm" aus dem vorberechneten Codec
+        TimeIntervals work = timeEntry.getWorkIntervals();
+        List<String> startTimes = new ArrayList<>(work.size());
+        List<String> endTimes = new ArrayList<>(work.size());
+        for (int i = 0; i < work.size(); i++) {
+            startTimes.add(HoursCodec.format(work.startMinute(i)));
+            if (work.endMinute(i) != TimeIntervals.OPEN) {
+                endTimes.add(HoursCodec.format(work.endMinute(i)));
+            }
         }
+        // Endzeiten sind bei sich überschneidenden Intervallen nicht automatisch sortiert ("HH:mm" sortiert wie Minuten)
+        endTimes.sort(null);
+        response.setStartTimes(startTimes);
+        response.setEndTimes(endTimes);
 
         // Pausen transformieren
-        if (timeEntry.getBreaks() != null) {
-            response.setBreaks(timeEntry.getBreaks().stream()
-                    .map(breakTime -> {
-                        TimeEntryResponse.BreakTime bt = new TimeEntryResponse.BreakTime();
-                        if (breakTime.getStart() != null) {
-                            bt.setStart(breakTime.getStart().format(TIME_FORMATTER));
-                        }
-                        if (breakTime.getEnd() != null) {
-                            bt.setEnd(breakTime.getEnd().format(TIME_FORMATTER));
-                        }
-                        return bt;
-                    })
-                    .collect(Collectors.toList()));
-        } else {
-            response.setBreaks(Collections.emptyList());
+        TimeIntervals breakIntervals = timeEntry.getBreakIntervals();
+        List<TimeEntryResponse.BreakTime> breaks = new ArrayList<>(breakIntervals.size());
+        for (int i = 0; i < breakIntervals.size(); i++) {
+            TimeEntryResponse.BreakTime bt = new TimeEntryResponse.BreakTime();
+            bt.setStart(HoursCodec.format(breakIntervals.startMinute(i)));
+            if (breakIntervals.endMinute(i) != TimeIntervals.OPEN) {
+                bt.setEnd(HoursCodec.format(breakIntervals.endMinute(i)));
+            }
+            breaks.add(bt);
         }
+        response.setBreaks(breaks);
 
         // Projektdaten hinzufügen, falls vorhanden
         if (timeEntry.getProject() != null) {
@@ -0,0 +1,44 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.admin.UserImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Interface für die Massenanlage von Benutzern (z.B. Onboarding einer ganzen Abteilung) und die
+ * Sammelgenehmigung von Registrierungsanfragen.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public interface UserProvisioningService {
+
+    /**
+     * Legt Benutzer aus einem JSON-Array an, das gestreamt gelesen wird.
+     * @param inputStream JSON-Array mit Objekten im Format von UserImportRow
+     * @return Anzahl angelegter Benutzer und Fehler pro Zeile
+     * @throws IOException bei Lesefehlern
+     */
+    UserImportResult importJson(InputStream inputStream) throws IOException;
+
+    /**
+     * Legt Benutzer aus CSV (RFC 4180) mit Kopfzeile an, die Datensatz für Datensatz gelesen wird.
+     * Spalten: firstName, lastName, email, role, password, plannedHoursPerDay, managerId oder managerEmail
+     * (Trennzeichen , oder ;), Felder in Anführungszeichen dürfen Trennzeichen enthalten.
+     * Ohne Passwort wird wie bei der Einzelanlage der Nachname verwendet.
+     * @param reader CSV-Daten
+     * @return Anzahl angelegter Benutzer und Fehler pro Zeile
+     * @throws IOException bei Lesefehlern
+     */
+    UserImportResult importCsv(Reader reader) throws IOException;
+
+    /**
+     * Genehmigt mehrere Registrierungsanfragen und legt die Benutzer an.
+     * @param requestIds IDs der Anfragen
+     * @param adminEmail E-Mail des genehmigenden Admins
+     * @return Anzahl angelegter Benutzer und Fehler pro Anfrage-ID
+     */
+    UserImportResult approveRegistrations(List<Long> requestIds, String adminEmail);
+}
@@ -0,0 +1,478 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.admin.UserImportResult;
+import ch.fhnw.timerecordingbackend.dto.admin.UserImportRow;
+import ch.fhnw.timerecordingbackend.model.Registration;
+import ch.fhnw.timerecordingbackend.model.Role;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
+import ch.fhnw.timerecordingbackend.repository.RegistrationRepository;
+import ch.fhnw.timerecordingbackend.repository.RoleRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.PasswordHashingPool;
+import ch.fhnw.timerecordingbackend.util.CsvReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Service-Implementierung für die Massenanlage von Benutzern und die Sammelgenehmigung von Registrierungsanfragen.
+ * Zeilen werden gestreamt gelesen und in Blöcken von {@link #CHUNK_SIZE} verarbeitet: Rollen werden einmal pro Lauf
+ * geladen, bereits vergebene E-Mail Adressen und die angegebenen Manager mit je einer Abfrage pro Block geprüft.
+ * Die Passwörter eines Blocks werden parallel im {@link PasswordHashingPool} gehasht, danach werden Benutzer,
+ * Rollen, Manager-Hierarchie und Systemlogs in einer eigenen Transaktion per JDBC-Batch eingefügt.
+ * Die Regeln entsprechen {@link UserServiceImpl#createUser}, ungültige Zeilen werden gemeldet und übersprungen.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Service
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProvisioningServiceImpl.class);
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_APPROVALS = 1000;
+
+    // Fehlermeldung für Zeilen eines fehlgeschlagenen Blocks, ohne Details der Datenbank
+    static final String SAVE_FAILED_MESSAGE = "Speichern fehlgeschlagen, der Benutzer wurde nicht angelegt";
+
+    // Rollen, die über eine Registrierungsanfrage vergeben werden dürfen (wie RegistrationServiceImpl)
+    private static final List<String> REGISTRATION_ROLES = List.of("EMPLOYEE", "MANAGER");
+    private static final Set<String> MANAGER_ROLES = Set.of("MANAGER", "ADMIN");
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (first_name, last_name, email, password, "
+            + "planned_hours_per_day, active, status, manager_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_USER_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.DOUBLE, Types.BOOLEAN, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP};
+    private static final String INSERT_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_LOG_SQL = "INSERT INTO system_logs (action, timestamp, details, user_id, "
+            + "user_email, target_entity, target_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_LOG_TYPES = {Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.BIGINT,
+            Types.VARCHAR, Types.VARCHAR, Types.BIGINT};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private ManagerHierarchyService managerHierarchyService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private PasswordHashingPool passwordHashingPool;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public UserImportResult importJson(InputStream inputStream) throws IOException {
+        ProvisioningRun run = new ProvisioningRun(null);
+        long row = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("JSON-Array erwartet");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                row++;
+                // Jede Zeile einzeln als Baum lesen, damit ein falscher Feldtyp nur diese Zeile betrifft
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    run.add(row, objectMapper.treeToValue(node, UserImportRow.class), null);
+                } catch (JsonProcessingException e) {
+                    run.result.addError(row, "Ungültige Zeile: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Syntaxfehler im Stream: bisher gelesene Zeilen werden noch angelegt
+            run.result.addError(row + 1, "Ungültiges JSON: " + e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    @Override
+    public UserImportResult importCsv(Reader reader) throws IOException {
+        ProvisioningRun run = new ProvisioningRun(null);
+        CsvReader csv = new CsvReader(reader);
+        if (!csv.readHeader()) {
+            throw new ValidationException("CSV-Kopfzeile fehlt");
+        }
+        if (!csv.hasColumns("firstname", "lastname", "email", "role")) {
+            throw new ValidationException("CSV benötigt die Spalten firstName, lastName, email und role");
+        }
+
+        // Gleicher CSV-Leser wie beim Zeiteintragsimport, Namen und Adressen in Anführungszeichen bleiben ganz
+        csv.forEachRow((row, values) -> run.add(row, parseCsvRow(values), null),
+                (row, message) -> run.result.addError(row, "Ungültige Zeile: " + message));
+        return run.finish();
+    }
+
+    @Override
+    public UserImportResult approveRegistrations(List<Long> requestIds, String adminEmail) {
+        if (requestIds == null || requestIds.isEmpty()) {
+            throw new ValidationException("Keine Registrierungsanfragen angegeben.");
+        }
+        Set<Long> ids = new LinkedHashSet<>(requestIds);
+        ids.remove(null);
+        if (ids.size() > MAX_APPROVALS) {
+            throw new ValidationException("Höchstens " + MAX_APPROVALS + " Anfragen pro Genehmigung.");
+        }
+
+        ProvisioningRun run = new ProvisioningRun(userRepository.findByEmail(adminEmail).orElse(null));
+        Map<Long, Registration> requests = registrationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Registration::getId, request -> request));
+        for (Long id : ids) {
+            Registration request = requests.get(id);
+            if (request == null) {
+                run.result.addError(id, "Registrierungsanfrage nicht gefunden.");
+                continue;
+            }
+            if (!"PENDING".equals(request.getStatus())) {
+                run.result.addError(id, "Anfrage ist nicht ausstehend und kann nicht genehmigt werden.");
+                continue;
+            }
+            String role = request.getRequestedRole().toUpperCase(Locale.ROOT);
+            if (!REGISTRATION_ROLES.contains(role)) {
+                run.result.addError(id, "Angeforderte Rolle '" + role + "' ist für die automatische Zuweisung "
+                        + "über die Registrierung nicht erlaubt. Manuelle Zuweisung durch Admin erforderlich.");
+                continue;
+            }
+
+            // Gleiche Vorgaben wie bei der Einzelgenehmigung: ohne Passwort gilt der Nachname, 8 Stunden pro Tag
+            UserImportRow row = new UserImportRow();
+            row.setFirstName(request.getFirstName());
+            row.setLastName(request.getLastName());
+            row.setEmail(request.getEmail());
+            row.setRole(role);
+            row.setPlannedHoursPerDay(8.0);
+            row.setManagerId(request.getManager() != null ? request.getManager().getId() : null);
+            run.add(id, row, id);
+        }
+        return run.finish();
+    }
+
+    private UserImportRow parseCsvRow(CsvReader.Row values) {
+        UserImportRow importRow = new UserImportRow();
+        importRow.setFirstName(emptyToNull(values.get("firstname")));
+        importRow.setLastName(emptyToNull(values.get("lastname")));
+        importRow.setEmail(emptyToNull(values.get("email")));
+        importRow.setRole(emptyToNull(values.get("role")));
+        importRow.setPassword(emptyToNull(values.get("password")));
+        String plannedHours = values.get("plannedhoursperday");
+        if (!plannedHours.isEmpty()) {
+            importRow.setPlannedHoursPerDay(Double.parseDouble(plannedHours));
+        }
+        String managerId = values.get("managerid");
+        if (!managerId.isEmpty()) {
+            importRow.setManagerId(Long.parseLong(managerId));
+        }
+        importRow.setManagerEmail(emptyToNull(values.get("manageremail")));
+        return importRow;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Zustand einer Massenanlage: gepufferte Zeilen des aktuellen Blocks, die Rollen, bereits geprüfte Manager
+     * und alle E-Mail Adressen des Laufs.
+     */
+    private class ProvisioningRun {
+        private final UserImportResult result = new UserImportResult();
+        private final List<PendingRow> pending = new ArrayList<>(CHUNK_SIZE);
+        private final Map<String, Role> rolesByName = new HashMap<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Set<String> existingEmails = new HashSet<>();
+        // Geprüfte Manager: true, wenn der Benutzer die Rolle MANAGER oder ADMIN hat
+        private final Map<Long, Boolean> managerRoleById = new HashMap<>();
+        private final Map<String, Long> managerIdByEmail = new HashMap<>();
+        private final Set<Long> checkedManagerIds = new HashSet<>();
+        private final Set<String> checkedManagerEmails = new HashSet<>();
+        // Genehmigender Admin, nur bei Registrierungsanfragen
+        private final User admin;
+
+        ProvisioningRun(User admin) {
+            this.admin = admin;
+            for (Role role : roleRepository.findAll()) {
+                rolesByName.put(role.getName(), role);
+            }
+        }
+
+        void add(long row, UserImportRow importRow, Long registrationId) {
+            pending.add(new PendingRow(row, importRow, registrationId));
+            if (pending.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        UserImportResult finish() {
+            flush();
+            // Parse-Fehler werden sofort, Validierungsfehler erst pro Block erfasst
+            result.getErrors().sort(Comparator.comparingLong(UserImportResult.RowError::getRow));
+            logger.info("Massenanlage von Benutzern abgeschlossen: {} angelegt, {} fehlerhaft",
+                    result.getCreated(), result.getFailed());
+            return result;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            loadReferences();
+
+            List<NewUser> users = new ArrayList<>(pending.size());
+            for (PendingRow pendingRow : pending) {
+                try {
+                    users.add(validate(pendingRow));
+                } catch (ValidationException e) {
+                    result.addError(pendingRow.row, e.getMessage());
+                }
+            }
+            pending.clear();
+            if (users.isEmpty()) {
+                return;
+            }
+
+            // BCrypt ist der teuerste Schritt, deshalb parallel und ausserhalb der Transaktion
+            List<String> hashes = passwordHashingPool.encodeAll(
+                    users.stream().map(user -> user.rawPassword).collect(Collectors.toList()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(users, hashes));
+                result.addCreated(users.size());
+            } catch (DataAccessException | ValidationException e) {
+                // Der ganze Block wurde zurückgerollt, alle seine Zeilen als fehlerhaft melden. Die Ursache eines
+                // Datenbankfehlers (Tabellen-, Spalten- und Constraint-Namen) wird nur protokolliert.
+                logger.warn("Block der Massenanlage mit {} Benutzern fehlgeschlagen", users.size(), e);
+                String message = e instanceof DataAccessException ? SAVE_FAILED_MESSAGE : e.getMessage();
+                users.forEach(user -> {
+                    seenEmails.remove(user.email);
+                    result.addError(user.row, message);
+                });
+            }
+        }
+
+        private void insert(List<NewUser> users, List<String> hashes) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> userRows = new ArrayList<>(users.size());
+            for (int i = 0; i < users.size(); i++) {
+                NewUser user = users.get(i);
+                userRows.add(new Object[]{user.firstName, user.lastName, user.email, hashes.get(i),
+                        user.plannedHoursPerDay, true, UserStatus.ACTIVE.name(), user.managerId, now, now});
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, userRows, INSERT_USER_TYPES);
+
+            Map<String, Long> idsByEmail = new HashMap<>();
+            for (Object[] row : userRepository.findIdsByEmailIn(users.stream().map(user -> user.email).toList())) {
+                idsByEmail.put((String) row[1], (Long) row[0]);
+            }
+
+            List<Object[]> roleRows = new ArrayList<>(users.size());
+            List<Object[]> logRows = new ArrayList<>(users.size() * 2);
+            Map<Long, Long> managerByUserId = new HashMap<>();
+            List<Long> registrationIds = new ArrayList<>();
+            for (NewUser user : users) {
+                Long userId = idsByEmail.get(user.email);
+                user.id = userId;
+                roleRows.add(new Object[]{userId, user.role.getId()});
+                if (user.managerId != null) {
+                    managerByUserId.put(userId, user.managerId);
+                }
+                String managerDetails = user.managerId != null ? ", Manager ID: " + user.managerId : "";
+                logRows.add(new Object[]{"Benutzer erstellt " + user.email, now,
+                        "Benutzer ID: " + userId + ", Rolle: " + user.role.getName() + managerDetails,
+                        null, null, "User", userId});
+                if (user.registrationId != null) {
+                    registrationIds.add(user.registrationId);
+                    logRows.add(new Object[]{"Registrierungsanfrage genehmigt", now,
+                            "Anfrage ID: " + user.registrationId + ", E-Mail: " + user.email
+                                    + ". Neuer Benutzer ID: " + userId,
+                            admin != null ? admin.getId() : null, admin != null ? admin.getEmail() : null,
+                            "RegistrationRequest", user.registrationId});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_ROLE_SQL, roleRows);
+            managerHierarchyService.addLeafUsers(managerByUserId);
+
+            // Nur Anfragen genehmigen, die noch ausstehend sind, sonst den Block zurückrollen
+            if (!registrationIds.isEmpty() && registrationRepository.markApproved(registrationIds) != registrationIds.size()) {
+                throw new ValidationException("Mindestens eine Anfrage wurde zwischenzeitlich bearbeitet.");
+            }
+            jdbcTemplate.batchUpdate(INSERT_LOG_SQL, logRows, INSERT_LOG_TYPES);
+
+            // Suchindex nach dem Commit nachführen, der Entity-Listener greift bei JDBC nicht
+            for (NewUser user : users) {
+                User indexed = new User(user.firstName, user.lastName, user.email, null);
+                indexed.setId(user.id);
+                searchIndexService.indexUser(indexed);
+            }
+        }
+
+        private NewUser validate(PendingRow pendingRow) {
+            UserImportRow importRow = pendingRow.importRow;
+            Set<ConstraintViolation<UserImportRow>> violations = validator.validate(importRow);
+            if (!violations.isEmpty()) {
+                throw new ValidationException(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+            String email = normalizeEmail(importRow.getEmail());
+            if (existingEmails.contains(email)) {
+                throw new ValidationException("Email existiert bereits");
+            }
+            Role role = rolesByName.get(importRow.getRole().trim().toUpperCase(Locale.ROOT));
+            if (role == null) {
+                throw new ValidationException("Rolle nicht gefunden");
+            }
+            Long managerId = resolveManager(importRow);
+            if (!seenEmails.add(email)) {
+                throw new ValidationException("E-Mail kommt mehrfach vor");
+            }
+
+            NewUser user = new NewUser();
+            user.row = pendingRow.row;
+            user.registrationId = pendingRow.registrationId;
+            user.firstName = importRow.getFirstName().trim();
+            user.lastName = importRow.getLastName().trim();
+            user.email = email;
+            // Ohne Passwort wie bei der Einzelanlage der Nachname
+            user.rawPassword = importRow.getPassword() != null && !importRow.getPassword().isEmpty()
+                    ? importRow.getPassword() : user.lastName.toLowerCase();
+            user.role = role;
+            user.plannedHoursPerDay = importRow.getPlannedHoursPerDay();
+            user.managerId = managerId;
+            return user;
+        }
+
+        private Long resolveManager(UserImportRow importRow) {
+            Long managerId = importRow.getManagerId();
+            if (managerId == null && importRow.getManagerEmail() != null && !importRow.getManagerEmail().isBlank()) {
+                String managerEmail = normalizeEmail(importRow.getManagerEmail());
+                managerId = managerIdByEmail.get(managerEmail);
+                if (managerId == null) {
+                    throw new ValidationException("Manager mit E-Mail " + importRow.getManagerEmail() + " nicht gefunden.");
+                }
+            }
+            if (managerId == null) {
+                return null;
+            }
+            Boolean isManager = managerRoleById.get(managerId);
+            if (isManager == null) {
+                throw new ValidationException("Manager mit ID " + managerId + " nicht gefunden.");
+            }
+            if (!isManager) {
+                throw new ValidationException("Der ausgewählte Benutzer mit ID " + managerId
+                        + " hat keine Manager- oder Admin-Rolle.");
+            }
+            return managerId;
+        }
+
+        /**
+         * Prüft die E-Mail Adressen des Blocks und lädt noch nicht geprüfte Manager mit je einer Abfrage.
+         */
+        private void loadReferences() {
+            Set<String> emails = new HashSet<>();
+            Set<Long> managerIds = new HashSet<>();
+            Set<String> managerEmails = new HashSet<>();
+            for (PendingRow pendingRow : pending) {
+                UserImportRow importRow = pendingRow.importRow;
+                if (importRow.getEmail() != null && !importRow.getEmail().isBlank()) {
+                    emails.add(normalizeEmail(importRow.getEmail()));
+                }
+                if (importRow.getManagerId() != null) {
+                    managerIds.add(importRow.getManagerId());
+                } else if (importRow.getManagerEmail() != null && !importRow.getManagerEmail().isBlank()) {
+                    managerEmails.add(normalizeEmail(importRow.getManagerEmail()));
+                }
+            }
+
+            existingEmails.clear();
+            if (!emails.isEmpty()) {
+                existingEmails.addAll(userRepository.findExistingEmails(emails));
+            }
+
+            managerIds.removeAll(checkedManagerIds);
+            managerEmails.removeAll(checkedManagerEmails);
+            if (!managerIds.isEmpty() || !managerEmails.isEmpty()) {
+                for (Object[] row : userRepository.findRoleNamesByIdInOrEmailIn(managerIds, managerEmails)) {
+                    Long id = (Long) row[0];
+                    managerIdByEmail.put((String) row[1], id);
+                    managerRoleById.merge(id, MANAGER_ROLES.contains((String) row[2]), Boolean::logicalOr);
+                }
+                checkedManagerIds.addAll(managerIds);
+                checkedManagerEmails.addAll(managerEmails);
+            }
+        }
+    }
+
+    private static class PendingRow {
+        private final long row;
+        private final UserImportRow importRow;
+        private final Long registrationId;
+
+        PendingRow(long row, UserImportRow importRow, Long registrationId) {
+            this.row = row;
+            this.importRow = importRow;
+            this.registrationId = registrationId;
+        }
+    }
+
+    /**
+     * Geprüfte Zeile, bereit zum Einfügen
+     */
+    private static class NewUser {
+        private long row;
+        private Long registrationId;
+        private Long id;
+        private String firstName;
+        private String lastName;
+        private String email;
+        private String rawPassword;
+        private Role role;
+        private double plannedHoursPerDay;
+        private Long managerId;
+    }
+}
@@ -1,5 +1,6 @@
 package ch.fhnw.timerecordingbackend.service;
 
+import ch.fhnw.timerecordingbackend.dto.admin.UserPageResponse;
 import ch.fhnw.timerecordingbackend.dto.authentication.ChangePasswordRequest;
 import ch.fhnw.timerecordingbackend.model.Role;
 import ch.fhnw.timerecordingbackend.model.User;
@@ -21,6 +22,20 @@ public interface UserService {
      */
     List<User> findAllUsers();
 
+    /**
+     * Liefert eine Seite der Benutzerliste mit Rollen und Managername, ohne User-Entitäten zu laden
+     * @param page Seitennummer ab 0
+     * @param size Seitengrösse (höchstens 200)
+     * @param sort Sortierfeld: firstName, lastName, email, status, active, createdAt oder managerName
+     * @param direction asc oder desc
+     * @param status optionaler Statusfilter
+     * @param role optionaler Rollenfilter
+     * @param managerId optionaler Filter auf den direkten Manager
+     * @return Seite mit Benutzern und Gesamtanzahl
+     */
+    UserPageResponse findUserPage(int page, int size, String sort, String direction,
+                                  UserStatus status, String role, Long managerId);
+
     /**
      * Liefert alle aktiven Benutzer zurück
      * @return Liste mit allen aktiven Benutzern
@@ -117,12 +132,20 @@ public interface UserService {
     User removeRoleFromUser(Long id, String roleName);
 
     /**
-     * Sucht User mit Suchbegriff
+     * Sucht User mit Suchbegriff, alle Treffer, beste zuerst
      * @param searchTerm Suchbegriff
      * @return Liste mit gefundenen Usern
      */
     List<User> searchUsers(String searchTerm);
 
+    /**
+     * Sucht User mit Suchbegriff, beste Treffer zuerst (exakt, Präfix, Wortanfang, Teilstring)
+     * @param searchTerm Suchbegriff
+     * @param limit maximale Anzahl Treffer, höchstens 200
+     * @return Liste mit gefundenen Usern
+     */
+    List<User> searchUsers(String searchTerm, int limit);
+
     /**
      * Prüft ob User mit ID Admin ist
      * @param id
@@ -1,5 +1,7 @@
 package ch.fhnw.timerecordingbackend.service;
 
+import ch.fhnw.timerecordingbackend.dto.admin.UserPageResponse;
+import ch.fhnw.timerecordingbackend.dto.admin.UserResponse;
 import ch.fhnw.timerecordingbackend.dto.authentication.ChangePasswordRequest;
 import ch.fhnw.timerecordingbackend.model.Role;
 import ch.fhnw.timerecordingbackend.model.SystemLog;
@@ -12,6 +14,11 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException; // Import für ValidationException
 import org.slf4j.Logger; // Import für Logger
 import org.slf4j.LoggerFactory; // Import für LoggerFactory
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,8 +26,12 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Random; // Import für Random
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementierung UserService Interface
@@ -33,10 +44,24 @@ public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Erlaubte Sortierfelder der Benutzerliste und ihre Ausdrücke in UserRepository.findUserPage
+    private static final Map<String, String[]> USER_PAGE_SORT = Map.of(
+            "firstName", new String[]{"u.firstName", "u.lastName"},
+            "lastName", new String[]{"u.lastName", "u.firstName"},
+            "email", new String[]{"u.email"},
+            "status", new String[]{"u.status", "u.lastName", "u.firstName"},
+            "active", new String[]{"u.active", "u.lastName", "u.firstName"},
+            "createdAt", new String[]{"u.createdAt"},
+            "managerName", new String[]{"m.lastName", "m.firstName", "u.lastName", "u.firstName"}
+    );
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final SystemLogRepository systemLogRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SearchIndexService searchIndexService;
 
 
     /**
@@ -45,12 +70,15 @@ public class UserServiceImpl implements UserService {
      * @param roleRepository
      * @param systemLogRepository
      * @param passwordEncoder
+     * @param searchIndexService
      */
-    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, SystemLogRepository systemLogRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, SystemLogRepository systemLogRepository, PasswordEncoder passwordEncoder,
+                           SearchIndexService searchIndexService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.systemLogRepository = systemLogRepository;
         this.passwordEncoder = passwordEncoder;
+        this.searchIndexService = searchIndexService;
     }
 
     /**
@@ -85,7 +113,28 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public List<User> findAllUsers() {
-        return userRepository.findAll();
+        return userRepository.findAllWithRolesAndManager();
+    }
+
+    @Override
+    public UserPageResponse findUserPage(int page, int size, String sort, String direction,
+                                         UserStatus status, String role, Long managerId) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Ungültige Seite oder Seitengrösse (1 bis " + MAX_PAGE_SIZE + ")");
+        }
+        String[] sortExpressions = USER_PAGE_SORT.get(sort);
+        if (sortExpressions == null) {
+            throw new IllegalArgumentException("Ungültiges Sortierfeld: " + sort);
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new IllegalArgumentException("Ungültige Sortierrichtung: " + direction));
+
+        // Aliase der Abfrage statt Entity-Pfade, damit der Manager-Join ein LEFT JOIN bleibt
+        Sort order = JpaSort.unsafe(sortDirection, sortExpressions).andUnsafe(Sort.Direction.ASC, "u.id");
+        String roleFilter = role == null || role.isBlank() ? null : role.trim().toUpperCase();
+        Page<UserResponse> result = userRepository.findUserPage(status, roleFilter, managerId,
+                PageRequest.of(page, size, order));
+        return new UserPageResponse(result.getContent(), page, size, result.getTotalElements(), result.getTotalPages());
     }
 
     @Override
@@ -471,7 +520,7 @@ public class UserServiceImpl implements UserService {
 
         // Rolle entfernen
         if (roleToRemove != null) {
-            user.getRoles().remove(roleToRemove);
+            user.removeRole(roleToRemove);
             userRepository.save(user);
 
             // Systemlog erstellen
@@ -487,7 +536,30 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<User> searchUsers(String searchTerm) {
-        return userRepository.searchUsers(searchTerm);
+        // Ohne Limit wie bisher alle Treffer, beste zuerst
+        return findUsers(searchTerm, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<User> searchUsers(String searchTerm, int limit) {
+        return findUsers(searchTerm, Math.max(1, Math.min(limit, SearchIndexService.MAX_LIMIT)));
+    }
+
+    private List<User> findUsers(String searchTerm, int limit) {
+        String term = searchTerm != null ? searchTerm.trim() : "";
+        Optional<List<Long>> ids = term.isEmpty() ? Optional.empty() : searchIndexService.searchUserIds(term, limit);
+        if (ids.isEmpty()) {
+            return userRepository.searchUsers(term,
+                    limit == Integer.MAX_VALUE ? Pageable.unpaged() : PageRequest.of(0, limit));
+        }
+
+        // Reihenfolge des Index beibehalten
+        Map<Long, User> byId = userRepository.findAllById(ids.get()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.get().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     @Override
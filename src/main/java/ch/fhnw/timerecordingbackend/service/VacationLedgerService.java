@@ -0,0 +1,61 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.Absence;
+
+import java.util.Map;
+
+/**
+ * Interface für die Ferienkonten der Benutzer pro Jahr.
+ * Genehmigte und beantragte Ferientage (Werktage von Abwesenheiten der Art VACATION) werden bei jeder Änderung
+ * einer Abwesenheit in derselben Transaktion nachgeführt. Der Übertrag eines Jahres wird aus dem Ferienkonto des
+ * Vorjahres berechnet (verbleibende Tage, höchstens app.vacation.max-carry-over-days) und bei jeder Änderung
+ * des Vorjahres in den Folgejahren nachgeführt. Nur ohne Vorjahreskonto gilt der gesetzte Übertrag.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public interface VacationLedgerService {
+
+    /**
+     * Bucht die Ferientage einer Abwesenheit gemäss ihrem aktuellen Status (genehmigt oder beantragt) auf das Konto.
+     * Andere Arten und abgelehnte Abwesenheiten werden ignoriert.
+     * @param absence Abwesenheit nach der Änderung
+     */
+    void addAbsence(Absence absence);
+
+    /**
+     * Bucht die Ferientage einer Abwesenheit gemäss ihrem bisherigen Status zurück.
+     * Muss vor dem Ändern, Genehmigen, Ablehnen oder Löschen der Abwesenheit aufgerufen werden.
+     * @param absence Abwesenheit mit den bisher gebuchten Daten
+     */
+    void removeAbsence(Absence absence);
+
+    /**
+     * Prüft, ob für eine Ferien-Abwesenheit in jedem betroffenen Jahr genügend Ferientage verfügbar sind.
+     * @param absence neue oder geänderte Abwesenheit, deren bisherige Buchung bereits zurückgebucht ist
+     * @throws IllegalArgumentException wenn die verfügbaren Tage nicht reichen
+     */
+    void checkAvailable(Absence absence);
+
+    /**
+     * Ferienkonto eines Benutzers für ein Jahr. Ohne Zeile werden Standardanspruch und Übertrag geliefert.
+     * @param userId Benutzer-ID
+     * @param year Jahr
+     * @return Map mit Anspruch, Übertrag, genehmigten, beantragten, verbleibenden und verfügbaren Tagen
+     */
+    Map<String, Object> getLedger(Long userId, int year);
+
+    /**
+     * Setzt Anspruch und Übertrag eines Benutzers für ein Jahr und führt die Überträge der Folgejahre nach.
+     * @param carriedOverDays Übertrag oder null, um den bisherigen bzw. aus dem Vorjahr berechneten zu behalten
+     * @throws IllegalArgumentException bei negativen Werten oder einem Übertrag, der vom aus dem Vorjahreskonto
+     * berechneten abweicht
+     */
+    Map<String, Object> setEntitlement(Long userId, int year, int entitlementDays, Integer carriedOverDays);
+
+    /**
+     * Baut die genehmigten und beantragten Tage aller Ferienkonten aus den Abwesenheiten neu auf.
+     * Bestehende Ansprüche bleiben erhalten, Überträge werden aus den Vorjahreskonten neu berechnet.
+     * @return Anzahl geschriebener Zeilen
+     */
+    int rebuildAll();
+}
@@ -0,0 +1,293 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.Absence;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
+import ch.fhnw.timerecordingbackend.repository.VacationLedgerRepository;
+import ch.fhnw.timerecordingbackend.util.DateTimeUtils;
+import ch.fhnw.timerecordingbackend.util.InsertIfAbsent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementierung VacationLedgerService Interface.
+ * Pro Benutzer und Jahr existiert eine Zeile, auf die genehmigte und beantragte Tage als Deltas mit einem UPDATE
+ * addiert werden. Fehlt die Zeile, wird sie wie beim Monatssaldo in der laufenden Transaktion mit dem
+ * Standardanspruch und dem Übertrag aus dem Vorjahr angelegt. Ändern sich die verbleibenden Tage eines Jahres,
+ * werden die Überträge der bestehenden Folgejahre in derselben Transaktion neu berechnet.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Service
+@Transactional
+public class VacationLedgerServiceImpl implements VacationLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VacationLedgerServiceImpl.class);
+
+    private static final List<String> KEY_COLUMNS = List.of("user_id", "ledger_year");
+    private static final List<String> INSERT_COLUMNS = List.of("user_id", "ledger_year", "entitlement_days",
+            "carried_over_days", "approved_days", "pending_days", "updated_at");
+
+    private static final String INSERT_SQL = "INSERT INTO vacation_ledgers (user_id, ledger_year, entitlement_days, "
+            + "carried_over_days, approved_days, pending_days, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private VacationLedgerRepository vacationLedgerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.vacation.default-entitlement-days:25}")
+    private int defaultEntitlementDays;
+
+    @Value("${app.vacation.max-carry-over-days:10}")
+    private int maxCarryOverDays;
+
+    @Autowired
+    private InsertIfAbsent insertIfAbsent;
+
+    @Override
+    public void addAbsence(Absence absence) {
+        applyAbsence(absence, 1);
+    }
+
+    @Override
+    public void removeAbsence(Absence absence) {
+        applyAbsence(absence, -1);
+    }
+
+    private void applyAbsence(Absence absence, int sign) {
+        if (absence.getType() != AbsenceType.VACATION || absence.getStatus() == AbsenceStatus.REJECTED) {
+            return;
+        }
+        boolean approved = absence.getStatus() == AbsenceStatus.APPROVED;
+        Long userId = absence.getUser().getId();
+        daysByYear(absence.getStartDate(), absence.getEndDate()).forEach((year, days) ->
+                applyDays(userId, year, approved ? sign * days : 0, approved ? 0 : sign * days));
+    }
+
+    private void applyDays(Long userId, int year, int approvedDays, int pendingDays) {
+        if (approvedDays == 0 && pendingDays == 0) {
+            return;
+        }
+        if (vacationLedgerRepository.addDays(userId, year, approvedDays, pendingDays) == 0) {
+            createRow(userId, year);
+            vacationLedgerRepository.addDays(userId, year, approvedDays, pendingDays);
+            propagateCarryOver(userId, year);
+        } else if (approvedDays != 0) {
+            propagateCarryOver(userId, year);
+        }
+    }
+
+    /**
+     * Berechnet die Überträge der Folgejahre aus den verbleibenden Tagen des geänderten Jahres neu.
+     * Bricht beim ersten Folgejahr ohne Zeile oder mit unverändertem Übertrag ab.
+     */
+    private void propagateCarryOver(Long userId, int changedYear) {
+        int year = changedYear;
+        while (true) {
+            List<Object[]> rows = vacationLedgerRepository.findDays(userId, year);
+            if (rows.isEmpty()) {
+                return;
+            }
+            int carriedOver = carryOver(remainingDays(toDays(rows.get(0))));
+            if (vacationLedgerRepository.updateCarryOver(userId, year + 1, carriedOver) == 0) {
+                return;
+            }
+            year++;
+        }
+    }
+
+    /**
+     * Legt das Ferienkonto in der laufenden Transaktion an, falls es noch nicht existiert.
+     */
+    private void createRow(Long userId, int year) {
+        int carriedOver = carryOverFrom(userId, year - 1);
+        if (insertIfAbsent.insert("vacation_ledgers", KEY_COLUMNS, INSERT_COLUMNS, userId, year,
+                defaultEntitlementDays, carriedOver, 0, 0, Timestamp.valueOf(LocalDateTime.now())) == 0) {
+            logger.debug("Ferienkonto {} für Benutzer {} wurde gleichzeitig angelegt", year, userId);
+        }
+    }
+
+    @Override
+    public void checkAvailable(Absence absence) {
+        if (absence.getType() != AbsenceType.VACATION || absence.getStatus() == AbsenceStatus.REJECTED) {
+            return;
+        }
+        Long userId = absence.getUser().getId();
+        daysByYear(absence.getStartDate(), absence.getEndDate()).forEach((year, days) -> {
+            int available = availableDays(readDays(userId, year));
+            if (days > available) {
+                throw new IllegalArgumentException("Nicht genügend Ferientage für " + year
+                        + ": beantragt " + days + ", verfügbar " + available);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getLedger(Long userId, int year) {
+        int[] days = readDays(userId, year);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("userId", userId);
+        response.put("year", year);
+        response.put("entitlementDays", days[0]);
+        response.put("carriedOverDays", days[1]);
+        response.put("approvedDays", days[2]);
+        response.put("pendingDays", days[3]);
+        response.put("remainingDays", remainingDays(days));
+        response.put("availableDays", availableDays(days));
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> setEntitlement(Long userId, int year, int entitlementDays, Integer carriedOverDays) {
+        if (entitlementDays < 0 || (carriedOverDays != null && carriedOverDays < 0)) {
+            throw new IllegalArgumentException("Anspruch und Übertrag dürfen nicht negativ sein");
+        }
+        int currentCarryOver = readDays(userId, year)[1];
+        if (carriedOverDays != null && carriedOverDays != currentCarryOver
+                && !vacationLedgerRepository.findDays(userId, year - 1).isEmpty()) {
+            throw new IllegalArgumentException("Der Übertrag für " + year + " wird aus dem Ferienkonto "
+                    + (year - 1) + " berechnet (" + currentCarryOver + " Tage)");
+        }
+        int carriedOver = carriedOverDays != null ? carriedOverDays : currentCarryOver;
+        if (vacationLedgerRepository.updateEntitlement(userId, year, entitlementDays, carriedOver) == 0) {
+            createRow(userId, year);
+            vacationLedgerRepository.updateEntitlement(userId, year, entitlementDays, carriedOver);
+        }
+        propagateCarryOver(userId, year);
+        return getLedger(userId, year);
+    }
+
+    /**
+     * Werte [Anspruch, Übertrag, genehmigt, beantragt] eines Ferienkontos, ohne Zeile mit Standardanspruch
+     * und dem Übertrag, mit dem die Zeile angelegt würde.
+     */
+    private int[] readDays(Long userId, int year) {
+        List<Object[]> rows = vacationLedgerRepository.findDays(userId, year);
+        if (rows.isEmpty()) {
+            return new int[]{defaultEntitlementDays, carryOverFrom(userId, year - 1), 0, 0};
+        }
+        return toDays(rows.get(0));
+    }
+
+    private static int[] toDays(Object[] row) {
+        return new int[]{((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                ((Number) row[2]).intValue(), ((Number) row[3]).intValue()};
+    }
+
+    /**
+     * Übertrag aus dem Vorjahr: verbleibende Tage, höchstens app.vacation.max-carry-over-days.
+     */
+    private int carryOverFrom(Long userId, int previousYear) {
+        List<Object[]> rows = vacationLedgerRepository.findDays(userId, previousYear);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return carryOver(remainingDays(toDays(rows.get(0))));
+    }
+
+    private int carryOver(int remainingDays) {
+        return Math.max(0, Math.min(maxCarryOverDays, remainingDays));
+    }
+
+    private static int remainingDays(int[] days) {
+        return days[0] + days[1] - days[2];
+    }
+
+    private static int availableDays(int[] days) {
+        return remainingDays(days) - days[3];
+    }
+
+    /**
+     * Werktage pro Kalenderjahr für einen Datumsbereich.
+     */
+    static Map<Integer, Integer> daysByYear(LocalDate startDate, LocalDate endDate) {
+        Map<Integer, Integer> result = new TreeMap<>();
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            return result;
+        }
+        LocalDate segmentStart = startDate;
+        while (!segmentStart.isAfter(endDate)) {
+            LocalDate yearEnd = LocalDate.of(segmentStart.getYear(), 12, 31);
+            LocalDate segmentEnd = yearEnd.isBefore(endDate) ? yearEnd : endDate;
+            long workdays = DateTimeUtils.countWorkdays(segmentStart, segmentEnd);
+            if (workdays > 0) {
+                result.put(segmentStart.getYear(), (int) workdays);
+            }
+            segmentStart = segmentEnd.plusDays(1);
+        }
+        return result;
+    }
+
+    @Override
+    public int rebuildAll() {
+        // Bestehende Ansprüche und Überträge pro Benutzer und Jahr übernehmen
+        Map<Long, Map<Integer, int[]>> totals = new TreeMap<>();
+        Map<Long, Map<Integer, Boolean>> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, ledger_year, entitlement_days, carried_over_days FROM vacation_ledgers",
+                (RowCallbackHandler) rs -> {
+                    int[] values = totalsFor(totals, rs.getLong(1), rs.getInt(2));
+                    values[0] = rs.getInt(3);
+                    values[1] = rs.getInt(4);
+                    existing.computeIfAbsent(rs.getLong(1), id -> new HashMap<>()).put(rs.getInt(2), true);
+                });
+
+        // Genehmigte und beantragte Ferien pro Benutzer und Jahr zählen
+        jdbcTemplate.query("SELECT user_id, start_date, end_date, status FROM absences "
+                        + "WHERE type = 'VACATION' AND status IN ('APPROVED', 'PENDING')",
+                (RowCallbackHandler) rs -> {
+                    long userId = rs.getLong(1);
+                    int index = AbsenceStatus.APPROVED.name().equals(rs.getString(4)) ? 2 : 3;
+                    daysByYear(rs.getObject(2, LocalDate.class), rs.getObject(3, LocalDate.class))
+                            .forEach((year, days) -> totalsFor(totals, userId, year)[index] += days);
+                });
+
+        // Neue Zeilen erhalten den Standardanspruch; der Übertrag folgt wie bei der laufenden Nachführung aus dem
+        // (aufsteigend verarbeiteten) Vorjahr, nur ohne Vorjahreskonto bleibt der gespeicherte Übertrag
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        totals.forEach((userId, years) -> years.forEach((year, values) -> {
+            boolean isNew = !existing.getOrDefault(userId, Map.of()).containsKey(year);
+            if (isNew) {
+                values[0] = defaultEntitlementDays;
+            }
+            int[] previous = years.get(year - 1);
+            if (previous != null) {
+                values[1] = carryOver(remainingDays(previous));
+            } else if (isNew) {
+                values[1] = 0;
+            }
+            rows.add(new Object[]{userId, year, values[0], values[1], values[2], values[3], now});
+        }));
+
+        jdbcTemplate.update("DELETE FROM vacation_ledgers");
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+        logger.info("Ferienkonten neu aufgebaut: {} Zeilen für {} Benutzer", rows.size(), totals.size());
+        return rows.size();
+    }
+
+    private static int[] totalsFor(Map<Long, Map<Integer, int[]>> totals, Long userId, int year) {
+        return totals.computeIfAbsent(userId, id -> new TreeMap<>())
+                .computeIfAbsent(year, y -> new int[4]);
+    }
+}
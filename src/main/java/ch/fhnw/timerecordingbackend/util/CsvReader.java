@@ -0,0 +1,229 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Liest CSV-Dateien nach RFC 4180 gestreamt Datensatz für Datensatz. Felder in Anführungszeichen dürfen das
+ * Trennzeichen, Zeilenumbrüche und verdoppelte Anführungszeichen ("") enthalten. Das Trennzeichen (Semikolon oder
+ * Komma) wird aus der Kopfzeile bestimmt, ein Byte Order Mark (Excel) wird entfernt und leere Zeilen übersprungen.
+ * Wird von den Massenimporten für Zeiteinträge und Benutzer verwendet.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public class CsvReader {
+
+    private static final int EOF = -1;
+
+    /**
+     * Verarbeitet einen Datensatz. Ausnahmen beim Parsen der Werte werden als Fehler dieser Zeile gemeldet.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void accept(long row, Row values);
+    }
+
+    /**
+     * Nimmt den Fehler einer Zeile entgegen.
+     */
+    @FunctionalInterface
+    public interface ErrorHandler {
+        void accept(long row, String message);
+    }
+
+    /**
+     * Werte eines Datensatzes, Zugriff über den Spaltennamen der Kopfzeile.
+     */
+    public static final class Row {
+        private final List<String> values;
+        private final Map<String, Integer> columns;
+
+        private Row(List<String> values, Map<String, Integer> columns) {
+            this.values = values;
+            this.columns = columns;
+        }
+
+        /**
+         * @param column Spaltenname in Kleinbuchstaben
+         * @return getrimmter Wert oder "", wenn die Spalte fehlt oder leer ist
+         */
+        public String get(String column) {
+            Integer index = columns.get(column);
+            return index != null && index < values.size() ? values.get(index).trim() : "";
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private char separator = ',';
+    private int next = EOF;
+    private boolean peeked;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Liest die Kopfzeile und bestimmt daraus das Trennzeichen. Spaltennamen werden getrimmt und klein geschrieben.
+     * @return false, wenn die Kopfzeile fehlt oder leer ist
+     */
+    public boolean readHeader() throws IOException {
+        String header = reader.readLine();
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        if (header.startsWith("\uFEFF")) { // Byte Order Mark aus Excel entfernen
+            header = header.substring(1);
+        }
+        separator = header.contains(";") ? ';' : ',';
+        List<String> names = new CsvReader(new StringReader(header)).withSeparator(separator).readRecord();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return true;
+    }
+
+    /**
+     * @return true, wenn die Kopfzeile alle angegebenen Spalten (in Kleinbuchstaben) enthält
+     */
+    public boolean hasColumns(String... names) {
+        for (String name : names) {
+            if (!columns.containsKey(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean hasColumn(String name) {
+        return columns.containsKey(name);
+    }
+
+    /**
+     * Übergibt alle Datensätze nach der Kopfzeile mit fortlaufender Zeilennummer (ab 1, ohne leere Zeilen).
+     * Fehlerhafte Datensätze und Werte, die der Handler nicht parsen kann ({@link IllegalArgumentException},
+     * {@link DateTimeException}), werden mit ihrer Zeilennummer an errors gemeldet, danach geht es weiter.
+     */
+    public void forEachRow(RowHandler handler, ErrorHandler errors) throws IOException {
+        Map<String, Integer> header = Collections.unmodifiableMap(columns);
+        long row = 0;
+        while (true) {
+            List<String> values;
+            try {
+                values = readRecord();
+            } catch (IllegalArgumentException e) {
+                errors.accept(++row, e.getMessage());
+                continue;
+            }
+            if (values == null) {
+                return;
+            }
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                handler.accept(row, new Row(values, header));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                errors.accept(row, e.getMessage());
+            }
+        }
+    }
+
+    private CsvReader withSeparator(char separator) {
+        this.separator = separator;
+        return this;
+    }
+
+    /**
+     * Liest den nächsten nicht leeren Datensatz.
+     * @return Felder des Datensatzes oder null am Ende der Eingabe
+     * @throws IllegalArgumentException bei fehlerhaften Anführungszeichen; der Datensatz ist dann bereits gelesen
+     */
+    List<String> readRecord() throws IOException {
+        int c = read();
+        // Leere Zeilen überspringen
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == EOF) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        String error = null;
+        while (true) {
+            if (c == '"' && field.toString().isBlank()) {
+                // Feld in Anführungszeichen bis zum schliessenden Anführungszeichen lesen,
+                // Leerzeichen vor dem öffnenden Anführungszeichen (z. B. nach "; ") gehören nicht zum Wert
+                field.setLength(0);
+                while (true) {
+                    c = read();
+                    if (c == EOF) {
+                        throw new IllegalArgumentException("Anführungszeichen nicht geschlossen");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    field.append((char) c);
+                }
+                while (c == ' ' || c == '\t') {
+                    c = read();
+                }
+                if (c != separator && c != '\r' && c != '\n' && c != EOF && error == null) {
+                    error = "Unerwartetes Zeichen nach schliessendem Anführungszeichen";
+                }
+            }
+            if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+                c = read();
+                continue;
+            }
+            if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                fields.add(field.toString());
+                if (error != null) {
+                    throw new IllegalArgumentException(error);
+                }
+                return fields;
+            }
+            if (c == '"' && error == null) {
+                error = "Anführungszeichen innerhalb eines Feldes ohne Anführungszeichen";
+            }
+            field.append((char) c);
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked) {
+            peeked = false;
+            return next;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        next = c;
+        peeked = true;
+    }
+}
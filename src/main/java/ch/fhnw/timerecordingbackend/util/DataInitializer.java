@@ -5,6 +5,8 @@ import ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus;
 import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
 import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
 import ch.fhnw.timerecordingbackend.repository.*;
+import ch.fhnw.timerecordingbackend.service.MonthlyBalanceService;
+import ch.fhnw.timerecordingbackend.service.VacationLedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
@@ -41,6 +43,12 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private VacationLedgerService vacationLedgerService;
+
+    @Autowired
+    private MonthlyBalanceService monthlyBalanceService;
+
     @Override
     public void run(String... args) throws Exception {
         if (userRepository.count() == 0) {
@@ -280,6 +288,9 @@ public class DataInitializer implements CommandLineRunner {
             vacation.setCreatedAt(LocalDateTime.now());
             vacation.setUpdatedAt(LocalDateTime.now());
 
+            // Wie bei der Genehmigung im Monatssaldo gutschreiben, der Backfill ist zu diesem Zeitpunkt schon gelaufen
+            monthlyBalanceService.creditAbsence(vacation);
+            vacationLedgerService.addAbsence(vacation);
             absenceRepository.save(vacation);
             System.out.println("  ✓ Urlaub für Laura Weber erstellt (genehmigt)");
         }
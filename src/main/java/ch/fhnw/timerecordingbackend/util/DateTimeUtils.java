@@ -132,17 +132,8 @@ public class DateTimeUtils {
         if (hours == null) {
             return "00:00";
         }
-
-        int totalMinutes = (int) Math.round(hours * 60);
-        int h = totalMinutes / 60;
-        int m = Math.abs(totalMinutes % 60);
-
         // Negative Stunden mit Vorzeichen darstellen
-        if (totalMinutes < 0 && h == 0) {
-            return String.format("-%02d:%02d", Math.abs(h), m);
-        }
-
-        return String.format("%02d:%02d", h, m);
+        return HoursCodec.format((int) Math.round(hours * 60));
     }
 
     /**
@@ -151,28 +142,65 @@ public class DateTimeUtils {
      * @return Stunden als Double
      */
     public static Double parseHours(String timeString) {
-        if (timeString == null || timeString.trim().isEmpty()) {
-            return 0.0;
+        int minutes = HoursCodec.parse(timeString);
+        if (minutes != HoursCodec.INVALID) {
+            return minutes / 60.0;
         }
+        return parseDecimalHours(timeString);
+    }
 
-        try {
-            boolean negative = timeString.startsWith("-");
-            String cleanTime = timeString.replace("-", "");
-            String[] parts = cleanTime.split(":");
-
-            if (parts.length == 2) {
-                int hours = Integer.parseInt(parts[0]);
-                int minutes = Integer.parseInt(parts[1]);
-                double result = hours + (minutes / 60.0);
-                return negative ? -result : result;
-            }
+    /**
+     * Konvertiert "HH:mm" oder Dezimalstunden (z.B. "8.5") zu ganzen Minuten
+     * @param timeString Zeit im Format "HH:mm" mit optionalem Vorzeichen oder als Dezimalzahl
+     * @return Minuten oder 0 bei leerem/ungültigem Format
+     */
+    public static int parseHoursToMinutes(String timeString) {
+        int minutes = HoursCodec.parse(timeString);
+        if (minutes != HoursCodec.INVALID) {
+            return minutes;
+        }
+        return (int) Math.round(parseDecimalHours(timeString) * 60);
+    }
 
+    private static double parseDecimalHours(String timeString) {
+        if (timeString == null || timeString.isBlank() || timeString.indexOf(':') >= 0) {
+            return 0.0;
+        }
+        try {
             return Double.parseDouble(timeString);
         } catch (NumberFormatException e) {
             return 0.0;
         }
     }
 
+    /**
+     * Konvertiert Minuten zu "HH:mm" Format
+     * @param minutes Minuten (negative Werte werden mit "-" dargestellt)
+     * @return Zeit im Format "HH:mm" bzw. "-HH:mm"
+     */
+    public static String formatMinutes(int minutes) {
+        return HoursCodec.format(minutes);
+    }
+
+    /**
+     * Konvertiert Minuten zu "+HH:mm" bzw. "-HH:mm" Format (immer mit Vorzeichen)
+     * @param minutes Minuten
+     * @return Zeit im Format "+HH:mm" bzw. "-HH:mm"
+     */
+    public static String formatSignedMinutes(int minutes) {
+        return HoursCodec.formatSigned(minutes);
+    }
+
+    /**
+     * Konvertiert "HH:mm", "+HH:mm" oder "-HH:mm" Format zu Minuten
+     * @param timeString Zeit im Format "HH:mm" mit optionalem Vorzeichen
+     * @return Minuten oder 0 bei leerem/ungültigem Format
+     */
+    public static int parseMinutes(String timeString) {
+        int minutes = HoursCodec.parse(timeString);
+        return minutes != HoursCodec.INVALID ? minutes : 0;
+    }
+
     /**
      * Berechnet die Differenz zwischen zwei Zeitpunkten in Stunden
      * @param startTime Startzeit
@@ -195,9 +223,7 @@ public class DateTimeUtils {
      * @return Summe im "HH:mm" Format
      */
     public static String addHours(String time1, String time2) {
-        Double hours1 = parseHours(time1);
-        Double hours2 = parseHours(time2);
-        return formatHours(hours1 + hours2);
+        return HoursCodec.format(parseHoursToMinutes(time1) + parseHoursToMinutes(time2));
     }
 
     /**
@@ -207,9 +233,7 @@ public class DateTimeUtils {
      * @return Differenz im "HH:mm" Format
      */
     public static String subtractHours(String time1, String time2) {
-        Double hours1 = parseHours(time1);
-        Double hours2 = parseHours(time2);
-        return formatHours(hours1 - hours2);
+        return HoursCodec.format(parseHoursToMinutes(time1) - parseHoursToMinutes(time2));
     }
 
     /**
@@ -0,0 +1,138 @@
+package ch.fhnw.timerecordingbackend.util;
+
+/**
+ * Formatiert und parst Stundenangaben im Format "HH:mm" ohne String.format, split oder Regex.
+ * Für Werte bis {@link #CACHED_MINUTES} Minuten werden die Strings beim Laden der Klasse einmalig vorberechnet,
+ * Formatieren ist dann ein Array-Zugriff. Grössere Beträge (z.B. Jahressummen) werden direkt zusammengesetzt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public final class HoursCodec {
+
+    /**
+     * Rückgabewert von {@link #parse(CharSequence)} für leere oder ungültige Eingaben.
+     */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    // 0:00 bis 99:59, deckt Tages-, Wochen- und die meisten Monatswerte ab
+    static final int CACHED_MINUTES = 100 * 60;
+
+    private static final String[] PLAIN = new String[CACHED_MINUTES];
+    private static final String[] POSITIVE = new String[CACHED_MINUTES];
+    private static final String[] NEGATIVE = new String[CACHED_MINUTES];
+
+    static {
+        for (int minutes = 0; minutes < CACHED_MINUTES; minutes++) {
+            String formatted = build(minutes);
+            PLAIN[minutes] = formatted;
+            POSITIVE[minutes] = "+" + formatted;
+            NEGATIVE[minutes] = "-" + formatted;
+        }
+    }
+
+    private HoursCodec() {
+    }
+
+    /**
+     * @param minutes Minuten, negative Werte mit "-"
+     * @return "HH:mm" bzw. "-HH:mm"
+     */
+    public static String format(int minutes) {
+        if (minutes >= 0) {
+            return minutes < CACHED_MINUTES ? PLAIN[minutes] : build(minutes);
+        }
+        long abs = -(long) minutes;
+        return abs < CACHED_MINUTES ? NEGATIVE[(int) abs] : "-" + build(abs);
+    }
+
+    /**
+     * @param minutes Minuten
+     * @return "+HH:mm" bzw. "-HH:mm" (immer mit Vorzeichen)
+     */
+    public static String formatSigned(int minutes) {
+        if (minutes >= 0) {
+            return minutes < CACHED_MINUTES ? POSITIVE[minutes] : "+" + build(minutes);
+        }
+        return format(minutes);
+    }
+
+    /**
+     * Parst "HH:mm" mit optionalem Vorzeichen und umgebenden Leerzeichen. Stunden und Minuten dürfen
+     * ein- oder mehrstellig sein (wie bisher mit Integer.parseInt pro Teil).
+     * @return Minuten oder {@link #INVALID}
+     */
+    public static int parse(CharSequence value) {
+        if (value == null) {
+            return INVALID;
+        }
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return INVALID;
+        }
+
+        boolean negative = false;
+        char first = value.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+        }
+
+        long hours = 0;
+        int i = start;
+        while (i < end && isDigit(value.charAt(i))) {
+            hours = hours * 10 + (value.charAt(i) - '0');
+            if (hours > Integer.MAX_VALUE / 60) {
+                return INVALID;
+            }
+            i++;
+        }
+        if (i == start || i >= end || value.charAt(i) != ':') {
+            return INVALID;
+        }
+        int minuteStart = ++i;
+        long minutes = 0;
+        while (i < end && isDigit(value.charAt(i))) {
+            minutes = minutes * 10 + (value.charAt(i) - '0');
+            if (minutes > Integer.MAX_VALUE / 2) {
+                return INVALID;
+            }
+            i++;
+        }
+        if (i == minuteStart || i != end) {
+            return INVALID;
+        }
+        long total = hours * 60 + minutes;
+        if (total > Integer.MAX_VALUE) {
+            return INVALID;
+        }
+        return negative ? (int) -total : (int) total;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Setzt "HH:mm" für einen nicht-negativen Betrag zusammen (mindestens zweistellige Stunden).
+     */
+    private static String build(long minutes) {
+        long hours = minutes / 60;
+        int rest = (int) (minutes % 60);
+        StringBuilder builder = new StringBuilder(8);
+        if (hours < 10) {
+            builder.append('0');
+        }
+        builder.append(hours).append(':');
+        if (rest < 10) {
+            builder.append('0');
+        }
+        return builder.append(rest).toString();
+    }
+}
@@ -0,0 +1,64 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Legt eine Zeile an, sofern für ihren Schlüssel noch keine existiert, in der laufenden Transaktion und auf
+ * derselben Verbindung. Unter PostgreSQL mit INSERT ... ON CONFLICT DO NOTHING, da eine Verletzung der
+ * Unique-Constraint dort die ganze Transaktion abbrechen würde; sonst (H2) mit MERGE ... WHEN NOT MATCHED.
+ * Wird für die per Delta-UPDATE nachgeführten Zeilen (Monatssaldo, Projektzugehörigkeit, Ferienkonto) verwendet.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+public class InsertIfAbsent {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, String> sqlByTable = new ConcurrentHashMap<>();
+
+    private volatile Boolean postgres;
+
+    /**
+     * @param table Tabelle
+     * @param keyColumns Spalten der Unique-Constraint
+     * @param columns alle einzufügenden Spalten, inklusive Schlüsselspalten
+     * @param values Werte in der Reihenfolge von columns
+     * @return 1, wenn die Zeile angelegt wurde, 0, wenn sie bereits existierte
+     */
+    public int insert(String table, List<String> keyColumns, List<String> columns, Object... values) {
+        String sql = sqlByTable.computeIfAbsent(table, t -> buildSql(t, keyColumns, columns));
+        return jdbcTemplate.update(sql, values);
+    }
+
+    private String buildSql(String table, List<String> keyColumns, List<String> columns) {
+        String columnList = String.join(", ", columns);
+        String parameters = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
+        if (isPostgres()) {
+            return "INSERT INTO " + table + " (" + columnList + ") VALUES (" + parameters + ") "
+                    + "ON CONFLICT (" + String.join(", ", keyColumns) + ") DO NOTHING";
+        }
+        return "MERGE INTO " + table + " t USING (VALUES (" + parameters + ")) s (" + columnList + ") ON "
+                + keyColumns.stream().map(c -> "t." + c + " = s." + c).collect(Collectors.joining(" AND "))
+                + " WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES ("
+                + columns.stream().map(c -> "s." + c).collect(Collectors.joining(", ")) + ")";
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = product != null && product.toLowerCase().contains("postgres");
+        }
+        return postgres;
+    }
+}
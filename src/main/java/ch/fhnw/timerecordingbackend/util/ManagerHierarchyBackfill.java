@@ -0,0 +1,43 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import ch.fhnw.timerecordingbackend.service.ManagerHierarchyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Baut die Manager-Hierarchie beim Start der Anwendung aus users.manager_id auf.
+ * Läuft nur, wenn ein Benutzer mit Manager keine passende Zeile der Tiefe 1 hat (z.B. bestehende Datenbank vor
+ * Einführung der Tabelle), danach wird die Hierarchie bei jeder Speicherung eines Benutzers nachgeführt.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ManagerHierarchyBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagerHierarchyBackfill.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ManagerHierarchyService managerHierarchyService;
+
+    @Override
+    public void run(String... args) {
+        Boolean missing = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM users u "
+                + "WHERE u.manager_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM manager_hierarchy h "
+                + "WHERE h.descendant_id = u.id AND h.ancestor_id = u.manager_id AND h.depth = 1))", Boolean.class);
+        if (!Boolean.TRUE.equals(missing)) {
+            return;
+        }
+        logger.info("Baue Manager-Hierarchie aus bestehenden Benutzern auf...");
+        managerHierarchyService.rebuildAll();
+    }
+}
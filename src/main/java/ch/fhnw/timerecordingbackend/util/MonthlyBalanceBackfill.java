@@ -0,0 +1,48 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import ch.fhnw.timerecordingbackend.service.MonthlyBalanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Baut die Monatssalden beim Start der Anwendung einmalig aus den bestehenden Zeiteinträgen
+ * und genehmigten Abwesenheiten auf. Läuft nach den Zeiteintrags-Migrationen und nur, solange
+ * die Tabelle monthly_balances leer ist, danach werden die Salden inkrementell nachgeführt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class MonthlyBalanceBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyBalanceBackfill.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MonthlyBalanceService monthlyBalanceService;
+
+    @Override
+    public void run(String... args) {
+        if (hasRows("monthly_balances")) {
+            return;
+        }
+        if (!hasRows("time_entries") && !hasRows("absences")) {
+            return;
+        }
+        logger.info("Baue Monatssalden aus bestehenden Zeiteinträgen und Abwesenheiten auf...");
+        monthlyBalanceService.rebuildAll();
+    }
+
+    private boolean hasRows(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class));
+    }
+}
@@ -0,0 +1,48 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import ch.fhnw.timerecordingbackend.service.ProjectMembershipService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Baut die Projektzugehörigkeiten beim Start der Anwendung einmalig aus den bestehenden Zeiteinträgen auf.
+ * Läuft nach den Zeiteintrags-Migrationen und nur, solange die Tabelle project_memberships leer ist,
+ * danach werden die Zugehörigkeiten bei jeder Buchung nachgeführt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ProjectMembershipBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectMembershipBackfill.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectMembershipService projectMembershipService;
+
+    @Override
+    public void run(String... args) {
+        if (hasRows("SELECT 1 FROM project_memberships")) {
+            return;
+        }
+        if (!hasRows("SELECT 1 FROM time_entries WHERE project_id IS NOT NULL")) {
+            return;
+        }
+        logger.info("Baue Projektzugehörigkeiten aus bestehenden Zeiteinträgen auf...");
+        projectMembershipService.rebuildAll();
+    }
+
+    private boolean hasRows(String query) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (" + query + ")", Boolean.class));
+    }
+}
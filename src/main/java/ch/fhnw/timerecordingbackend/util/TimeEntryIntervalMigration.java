@@ -0,0 +1,128 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import ch.fhnw.timerecordingbackend.model.TimeIntervals;
+import ch.fhnw.timerecordingbackend.model.TimeIntervalsConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Datenmigration für Zeiteinträge beim Start der Anwendung.
+ * Überträgt Start-, End- und Pausenzeiten aus den früheren Tabellen time_entry_start_times,
+ * time_entry_end_times und time_entry_breaks in die kodierten Spalten work_intervals und break_intervals
+ * und entfernt die alten Tabellen anschliessend.
+ * Läuft nur, solange die alte Tabelle time_entry_start_times noch existiert, und ist damit idempotent.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TimeEntryIntervalMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeEntryIntervalMigration.class);
+
+    private static final String[] LEGACY_TABLES = {"time_entry_start_times", "time_entry_end_times", "time_entry_breaks"};
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        if (!tableExists("time_entry_start_times")) {
+            return;
+        }
+        logger.info("Migriere Start-, End- und Pausenzeiten in kodierte Intervalle...");
+
+        Map<Long, List<LocalTime>> startTimes = loadTimes("time_entry_start_times", "start_time");
+        Map<Long, List<LocalTime>> endTimes = tableExists("time_entry_end_times")
+                ? loadTimes("time_entry_end_times", "end_time") : new HashMap<>();
+        Map<Long, TimeIntervals> breaks = tableExists("time_entry_breaks") ? loadBreaks() : new HashMap<>();
+
+        TreeSet<Long> entryIds = new TreeSet<>(startTimes.keySet());
+        entryIds.addAll(endTimes.keySet());
+        entryIds.addAll(breaks.keySet());
+
+        TimeIntervalsConverter converter = new TimeIntervalsConverter();
+        List<Object[]> rows = new ArrayList<>(entryIds.size());
+        for (Long entryId : entryIds) {
+            TimeIntervals work = TimeIntervals.fromStartAndEndTimes(
+                    startTimes.getOrDefault(entryId, List.of()), endTimes.getOrDefault(entryId, List.of()));
+            rows.add(new Object[]{
+                    converter.convertToDatabaseColumn(work),
+                    converter.convertToDatabaseColumn(breaks.getOrDefault(entryId, TimeIntervals.EMPTY)),
+                    entryId
+            });
+        }
+
+        String update = "UPDATE time_entries SET work_intervals = ?, break_intervals = ? WHERE id = ?";
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(update, rows.subList(i, Math.min(i + BATCH_SIZE, rows.size())));
+        }
+
+        for (String table : LEGACY_TABLES) {
+            if (tableExists(table)) {
+                jdbcTemplate.execute("DROP TABLE " + table);
+            }
+        }
+        logger.info("Migration abgeschlossen: {} Zeiteinträge übertragen", rows.size());
+    }
+
+    private Map<Long, List<LocalTime>> loadTimes(String table, String column) {
+        Map<Long, List<LocalTime>> result = new HashMap<>();
+        jdbcTemplate.query("SELECT time_entry_id, " + column + " FROM " + table, (RowCallbackHandler) rs -> {
+            LocalTime time = rs.getObject(column, LocalTime.class);
+            if (time != null) {
+                result.computeIfAbsent(rs.getLong("time_entry_id"), id -> new ArrayList<>()).add(time);
+            }
+        });
+        return result;
+    }
+
+    private Map<Long, TimeIntervals> loadBreaks() {
+        Map<Long, TimeIntervals> result = new HashMap<>();
+        jdbcTemplate.query("SELECT time_entry_id, break_start, break_end FROM time_entry_breaks", (RowCallbackHandler) rs -> {
+            LocalTime start = rs.getObject("break_start", LocalTime.class);
+            if (start != null) {
+                LocalTime end = rs.getObject("break_end", LocalTime.class);
+                result.merge(rs.getLong("time_entry_id"), TimeIntervals.EMPTY.with(start, end),
+                        (existing, added) -> existing.with(start, end));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Prüft über die JDBC-Metadaten, ob eine Tabelle existiert (H2 speichert Namen in Grossbuchstaben).
+     */
+    private boolean tableExists(String table) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{table, table.toUpperCase()}) {
+                try (ResultSet rs = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                    if (rs.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
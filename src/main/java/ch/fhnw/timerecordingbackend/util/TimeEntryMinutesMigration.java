@@ -0,0 +1,89 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datenmigration für Zeiteinträge beim Start der Anwendung.
+ * Überträgt die früher als "HH:mm" gespeicherten Spalten actual_hours, planned_hours und difference
+ * in die Minuten-Spalten und entfernt die alten Spalten anschliessend.
+ * Läuft nur, solange die alte Spalte actual_hours noch existiert, und ist damit idempotent.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TimeEntryMinutesMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeEntryMinutesMigration.class);
+
+    private static final String TABLE = "time_entries";
+    private static final String[] LEGACY_COLUMNS = {"actual_hours", "planned_hours", "difference"};
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        if (!columnExists(TABLE, "actual_hours")) {
+            return;
+        }
+        logger.info("Migriere Zeiteinträge von HH:mm-Spalten auf Minuten...");
+
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, actual_hours, planned_hours, difference FROM " + TABLE, (RowCallbackHandler) rs -> {
+            rows.add(new Object[]{
+                    DateTimeUtils.parseMinutes(rs.getString("actual_hours")),
+                    DateTimeUtils.parseMinutes(rs.getString("planned_hours")),
+                    DateTimeUtils.parseMinutes(rs.getString("difference")),
+                    rs.getLong("id")
+            });
+        });
+
+        String update = "UPDATE " + TABLE
+                + " SET actual_minutes = ?, planned_minutes = ?, difference_minutes = ? WHERE id = ?";
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(update, rows.subList(i, Math.min(i + BATCH_SIZE, rows.size())));
+        }
+
+        // Alte Spalten entfernen, damit neue Einträge nicht an deren NOT NULL-Constraint scheitern
+        for (String column : LEGACY_COLUMNS) {
+            if (columnExists(TABLE, column)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP COLUMN " + column);
+            }
+        }
+        logger.info("Migration abgeschlossen: {} Zeiteinträge übertragen", rows.size());
+    }
+
+    /**
+     * Prüft über die JDBC-Metadaten, ob eine Spalte existiert (H2 speichert Namen in Grossbuchstaben).
+     */
+    private boolean columnExists(String table, String column) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String[] names : new String[][]{{table, column}, {table.toUpperCase(), column.toUpperCase()}}) {
+                try (ResultSet rs = metaData.getColumns(null, null, names[0], names[1])) {
+                    if (rs.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
@@ -0,0 +1,284 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.LongStream;
+
+/**
+ * In-Memory-Index für Teilstring-Suche über mehrere Textfelder pro Dokument (z.B. Vorname, Nachname, E-Mail).
+ * Jedes Feld wird in Trigramme zerlegt, pro Trigramm wird eine Liste der Dokumente geführt. Eine Suche prüft nur
+ * die Dokumente der kürzesten Trigramm-Liste des Suchbegriffs statt aller Zeilen. Begriffe mit weniger als drei
+ * Zeichen werden linear über die normalisierten Felder gesucht.
+ * Treffer werden nach Exakt-, Präfix-, Wortanfang- und Teilstring-Treffer sortiert, danach nach Sortierschlüssel.
+ * Lesen ist parallel möglich, Änderungen sperren den Index kurz exklusiv.
+ * @author FA
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public final class TrigramIndex {
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private static final class Document {
+        private final long id;
+        private final String sortKey;
+        private final String[] fields;
+
+        private Document(long id, String sortKey, String[] fields) {
+            this.id = id;
+            this.sortKey = sortKey;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * Wachsende int-Liste ohne Boxing für die Dokument-Slots eines Trigramms.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Match {
+        private final Document document;
+        private final int rank;
+
+        private Match(Document document, int rank) {
+            this.document = document;
+            this.rank = rank;
+        }
+    }
+
+    // Bester Treffer zuerst: Rang, Sortierschlüssel, ID
+    private static final Comparator<Match> BEST_FIRST = Comparator.<Match>comparingInt(match -> match.rank)
+            .thenComparing(match -> match.document.sortKey)
+            .thenComparingLong(match -> match.document.id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final List<Document> slots = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    /**
+     * Fügt ein Dokument hinzu oder ersetzt es.
+     * @param id ID der Entität
+     * @param sortKey Schlüssel für die Reihenfolge bei gleichem Rang (z.B. "nachname vorname")
+     * @param fields durchsuchbare Felder, null-Werte werden ignoriert
+     */
+    public void put(long id, String sortKey, String... fields) {
+        String[] normalized = Arrays.stream(fields)
+                .filter(field -> field != null && !field.isBlank())
+                .map(TrigramIndex::normalize)
+                .toArray(String[]::new);
+        Document document = new Document(id, normalize(sortKey != null ? sortKey : ""), normalized);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            Integer free = freeSlots.poll();
+            int slot;
+            if (free != null) {
+                slot = free;
+                slots.set(slot, document);
+            } else {
+                slot = slots.size();
+                slots.add(document);
+            }
+            slotById.put(id, slot);
+            for (long gram : trigrams(normalized)) {
+                postings.computeIfAbsent(gram, key -> new IntList()).add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Entfernt ein Dokument, falls vorhanden.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sucht Dokumente, bei denen der Begriff in mindestens einem Feld als Teilstring vorkommt (ohne Gross-/Kleinschreibung).
+     * @param term Suchbegriff
+     * @param limit maximale Anzahl Treffer, Integer.MAX_VALUE für alle Treffer
+     * @return IDs der besten Treffer, bester zuerst
+     */
+    public List<Long> search(String term, int limit) {
+        if (term == null || term.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        String query = normalize(term);
+
+        // Die schlechtesten der bisher besten Treffer stehen vorne und werden zuerst verdrängt
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.min(limit, 64) + 1, BEST_FIRST.reversed());
+        lock.readLock().lock();
+        try {
+            if (query.length() < 3) {
+                for (Document document : slots) {
+                    if (document != null) {
+                        offer(best, document, query, limit);
+                    }
+                }
+            } else {
+                IntList candidates = shortestPosting(query);
+                if (candidates == null) {
+                    return List.of();
+                }
+                for (int i = 0; i < candidates.size; i++) {
+                    offer(best, slots.get(candidates.values[i]), query, limit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(BEST_FIRST);
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ids.add(match.document.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Normalisierung für Index und Suche (wie LOWER() in den Datenbankabfragen).
+     */
+    public static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void offer(PriorityQueue<Match> best, Document document, String query, int limit) {
+        int rank = rank(document, query);
+        if (rank == NO_MATCH) {
+            return;
+        }
+        best.add(new Match(document, rank));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    private static int rank(Document document, String query) {
+        int rank = NO_MATCH;
+        for (String field : document.fields) {
+            int index = field.indexOf(query);
+            if (index < 0) {
+                continue;
+            }
+            if (field.length() == query.length()) {
+                return EXACT;
+            }
+            if (index == 0) {
+                rank = PREFIX;
+            } else if (rank > WORD_PREFIX && isWordStart(field, query)) {
+                rank = WORD_PREFIX;
+            } else if (rank > SUBSTRING) {
+                rank = SUBSTRING;
+            }
+        }
+        return rank;
+    }
+
+    private static boolean isWordStart(String field, String query) {
+        for (int index = field.indexOf(query); index > 0; index = field.indexOf(query, index + 1)) {
+            if (!Character.isLetterOrDigit(field.charAt(index - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private IntList shortestPosting(String query) {
+        IntList shortest = null;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            IntList posting = postings.get(gram(query, i));
+            if (posting == null || posting.size == 0) {
+                // Ein Trigramm ohne Dokumente: kein Treffer möglich
+                return null;
+            }
+            if (shortest == null || posting.size < shortest.size) {
+                shortest = posting;
+            }
+        }
+        return shortest;
+    }
+
+    private void removeInternal(long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (long gram : trigrams(slots.get(slot).fields)) {
+            IntList posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(slot);
+                if (posting.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    private static long[] trigrams(String[] fields) {
+        return Arrays.stream(fields)
+                .flatMapToLong(field -> LongStream.range(0, Math.max(0, field.length() - 2))
+                        .map(i -> gram(field, (int) i)))
+                .distinct()
+                .toArray();
+    }
+
+    // Drei UTF-16-Zeichen in einem long
+    private static long gram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+}
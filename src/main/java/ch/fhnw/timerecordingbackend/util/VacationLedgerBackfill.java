@@ -0,0 +1,46 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import ch.fhnw.timerecordingbackend.service.VacationLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Baut die Ferienkonten beim Start der Anwendung einmalig aus den bestehenden Ferien-Abwesenheiten auf.
+ * Läuft nur, solange die Tabelle vacation_ledgers leer ist, danach werden die Konten inkrementell nachgeführt.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class VacationLedgerBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VacationLedgerBackfill.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VacationLedgerService vacationLedgerService;
+
+    @Override
+    public void run(String... args) {
+        if (hasRows("SELECT EXISTS (SELECT 1 FROM vacation_ledgers)")) {
+            return;
+        }
+        if (!hasRows("SELECT EXISTS (SELECT 1 FROM absences WHERE type = 'VACATION')")) {
+            return;
+        }
+        logger.info("Baue Ferienkonten aus bestehenden Ferien-Abwesenheiten auf...");
+        vacationLedgerService.rebuildAll();
+    }
+
+    private boolean hasRows(String sql) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class));
+    }
+}
@@ -0,0 +1,45 @@
+package ch.fhnw.timerecordingbackend.util;
+
+/**
+ * Berechnung der Arbeitszeit auf Minuten-Arrays, ohne Zwischenlisten, Sortierung oder Duration-Objekte.
+ * Intervalle werden als Paare [start0, end0, start1, end1, ...] in Minuten des Tages übergeben,
+ * ein offenes Intervall hat als Ende {@link #OPEN}. Wird von TimeIntervals, der Zeiterfassung und dem
+ * Import gemeinsam verwendet.
+ * @author PD
+ * Code von anderen Teammitgliedern oder Quellen wird durch einzelne Kommentare deklariert
+ */
+public final class WorkingTimeCalculator {
+
+    public static final int OPEN = -1;
+
+    private WorkingTimeCalculator() {
+    }
+
+    /**
+     * Summe der Minuten aller abgeschlossenen Intervalle, deren Ende nach dem Start liegt.
+     */
+    public static int closedMinutes(int[] pairs) {
+        int total = 0;
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            int end = pairs[i + 1];
+            if (end != OPEN && end > pairs[i]) {
+                total += end - pairs[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Ist-Zeit: abgeschlossene Arbeitsintervalle abzüglich abgeschlossener Pausen.
+     */
+    public static int actualMinutes(int[] workPairs, int[] breakPairs) {
+        return closedMinutes(workPairs) - closedMinutes(breakPairs);
+    }
+
+    /**
+     * Soll-Zeit pro Tag in ganzen Minuten.
+     */
+    public static int plannedMinutes(double plannedHoursPerDay) {
+        return (int) Math.round(plannedHoursPerDay * 60);
+    }
+}
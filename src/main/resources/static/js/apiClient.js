@@ -126,4 +126,89 @@ async function apiCall(url, options = {}) {
 
         throw error;
     }
-}
\ No newline at end of file
+}
+
+// Abonniert die Server-Sent Events des angemeldeten Nutzers (/api/events).
+// fetch statt EventSource, damit der JWT wie bei apiCall im Authorization-Header mitgeht.
+// onEvent(name, data) wird pro Ereignis aufgerufen, onReconnect nach einem Wiederaufbau der Verbindung,
+// da in der Zwischenzeit Ereignisse verpasst worden sein können.
+function subscribeToServerEvents(onEvent, onReconnect) {
+    if (typeof ReadableStream === 'undefined' || typeof TextDecoder === 'undefined') {
+        return null;
+    }
+    let closed = false;
+    let abortController = null;
+    let retryDelay = 1000;
+    let connectedBefore = false;
+
+    async function connect() {
+        const token = localStorage.getItem('jwtToken');
+        if (!token || closed) return;
+        abortController = new AbortController();
+        try {
+            const response = await fetch('/api/events', {
+                headers: { 'Authorization': `Bearer ${token}`, 'Accept': 'text/event-stream' },
+                signal: abortController.signal
+            });
+            if (response.status === 401 || response.status === 403) {
+                closed = true;
+                return;
+            }
+            if (!response.ok || !response.body) throw new Error(`HTTP ${response.status}`);
+
+            if (connectedBefore && typeof onReconnect === 'function') onReconnect();
+            connectedBefore = true;
+            retryDelay = 1000;
+
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            while (!closed) {
+                const { value, done } = await reader.read();
+                if (done) break;
+                buffer += decoder.decode(value, { stream: true });
+                // Ereignisse sind durch eine Leerzeile getrennt
+                let separator;
+                while ((separator = buffer.search(/\r?\n\r?\n/)) >= 0) {
+                    const frame = buffer.substring(0, separator);
+                    buffer = buffer.substring(separator).replace(/^\r?\n\r?\n/, '');
+                    dispatchFrame(frame);
+                }
+            }
+        } catch (error) {
+            if (closed) return;
+            if (DEBUG_MODE) console.log('⚠️ Ereignis-Stream unterbrochen:', error.message);
+        }
+        if (!closed) {
+            setTimeout(connect, retryDelay);
+            retryDelay = Math.min(retryDelay * 2, 30000);
+        }
+    }
+
+    function dispatchFrame(frame) {
+        let name = 'message';
+        const dataLines = [];
+        frame.split(/\r?\n/).forEach(line => {
+            if (line.startsWith(':')) return; // Heartbeat-Kommentar
+            if (line.startsWith('event:')) name = line.substring(6).trim();
+            else if (line.startsWith('data:')) dataLines.push(line.substring(5).trim());
+        });
+        if (dataLines.length === 0) return;
+        let data = dataLines.join('\n');
+        try {
+            data = JSON.parse(data);
+        } catch (e) {
+            // Text-Ereignis unverändert weitergeben
+        }
+        if (DEBUG_MODE) console.log('📡 Ereignis:', name, data);
+        onEvent(name, data);
+    }
+
+    connect();
+    return {
+        close() {
+            closed = true;
+            if (abortController) abortController.abort();
+        }
+    };
+}
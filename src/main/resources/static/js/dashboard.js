@@ -367,37 +367,13 @@ async function loadDashboardPageData(forceRefresh = false) {
     try {
         const cacheBuster = forceRefresh ? `?_t=${Date.now()}` : '';
 
-        // Zeiteinträge für Statistiken (Wochenstunden, Einträge heute)
-        const timeEntriesResponse = await apiCall(`/api/time-entries${cacheBuster}`);
-        if (timeEntriesResponse && timeEntriesResponse.entries) {
-            const today = new Date();
-            const todayEntries = timeEntriesResponse.entries.filter(entry => {
-                const entryDate = new Date(entry.date);
-                return entryDate.toDateString() === today.toDateString();
-            });
-            const entryCountEl = document.getElementById('entryCount');
-            if (entryCountEl) entryCountEl.textContent = todayEntries.length;
-
-            const totalHoursEl = document.getElementById('totalHours');
-            if (totalHoursEl) totalHoursEl.textContent = calculateWeekHoursForDashboard(timeEntriesResponse.entries);
-        }
-
-        // Aktive Projekte für Statistik und Dropdowns
-        const projectsResponse = await apiCall(`/api/projects/active${cacheBuster}`);
-        if (projectsResponse && projectsResponse.projects) {
-            window.projects = projectsResponse.projects; // Globale Variable aktualisieren
-            const projectCountEl = document.getElementById('projectCount');
-            if (projectCountEl) projectCountEl.textContent = window.projects.length;
+        // Laufende Zeiterfassung wiederherstellen
+        await restoreActiveTimer();
 
-            populateProjectDropdown(document.getElementById('manualProject'), window.projects);
-            populateProjectDropdown(document.getElementById('editProject'), window.projects);
-        }
-        const absencesResponse = await apiCall(`/api/absences${cacheBuster}`);
-        if (absencesResponse && absencesResponse.absences) {
-            const pending = absencesResponse.absences.filter(absence => absence.status === 'PENDING'); // Annahme: Status ist PENDING
-            const pendingAbsencesEl = document.getElementById('pendingAbsences');
-            if (pendingAbsencesEl) pendingAbsencesEl.textContent = pending.length;
-        }
+        await refreshTimeEntryStats(cacheBuster);
+        await refreshProjects(cacheBuster);
+        await refreshAbsenceStats(cacheBuster);
+        await refreshBalance(cacheBuster);
 
     } catch (error) {
         console.error('❌ Fehler beim Laden der Dashboard-Seiten-Daten:', error);
@@ -407,6 +383,54 @@ async function loadDashboardPageData(forceRefresh = false) {
     }
 }
 
+// Zeiteinträge für Statistiken (Wochenstunden, Einträge heute)
+async function refreshTimeEntryStats(cacheBuster = '') {
+    const timeEntriesResponse = await apiCall(`/api/time-entries${cacheBuster}`);
+    if (timeEntriesResponse && timeEntriesResponse.entries) {
+        const today = new Date();
+        const todayEntries = timeEntriesResponse.entries.filter(entry => {
+            const entryDate = new Date(entry.date);
+            return entryDate.toDateString() === today.toDateString();
+        });
+        const entryCountEl = document.getElementById('entryCount');
+        if (entryCountEl) entryCountEl.textContent = todayEntries.length;
+
+        const totalHoursEl = document.getElementById('totalHours');
+        if (totalHoursEl) totalHoursEl.textContent = calculateWeekHoursForDashboard(timeEntriesResponse.entries);
+    }
+}
+
+// Aktive Projekte für Statistik und Dropdowns
+async function refreshProjects(cacheBuster = '') {
+    const projectsResponse = await apiCall(`/api/projects/active?includeUsers=false${cacheBuster.replace('?', '&')}`);
+    if (projectsResponse && projectsResponse.projects) {
+        window.projects = projectsResponse.projects; // Globale Variable aktualisieren
+        const projectCountEl = document.getElementById('projectCount');
+        if (projectCountEl) projectCountEl.textContent = window.projects.length;
+
+        populateProjectDropdown(document.getElementById('manualProject'), window.projects);
+        populateProjectDropdown(document.getElementById('editProject'), window.projects);
+    }
+}
+
+async function refreshAbsenceStats(cacheBuster = '') {
+    const absencesResponse = await apiCall(`/api/absences${cacheBuster}`);
+    if (absencesResponse && absencesResponse.absences) {
+        const pending = absencesResponse.absences.filter(absence => absence.status === 'PENDING'); // Annahme: Status ist PENDING
+        const pendingAbsencesEl = document.getElementById('pendingAbsences');
+        if (pendingAbsencesEl) pendingAbsencesEl.textContent = pending.length;
+    }
+}
+
+// Saldo seit Jahresbeginn aus den Monatssalden
+async function refreshBalance(cacheBuster = '') {
+    const balanceResponse = await apiCall(`/api/time-entries/balance${cacheBuster}`);
+    if (balanceResponse) {
+        const yearBalanceEl = document.getElementById('yearBalance');
+        if (yearBalanceEl) yearBalanceEl.textContent = balanceResponse.balance;
+    }
+}
+
 async function viewEmployeeTimeEntriesHandler() {
     try {
         hideDataDisplay();
@@ -467,17 +491,77 @@ function calculateWeekHoursForDashboard(entries) {
     return formatMinutesToHours(totalMinutes);
 }
 
-setInterval(() => {
-    let isTimerCurrentlyActive = false;
-    if (typeof activeTimeEntry !== 'undefined' && activeTimeEntry != null) {
-        isTimerCurrentlyActive = true;
+// Live-Aktualisierung: statt periodisch alles neu zu laden, werden nur die von einem Ereignis
+// betroffenen Bereiche nachgeladen. Mehrere Ereignisse kurz hintereinander werden zusammengefasst.
+let dashboardEventUserId = null;
+const pendingDashboardRefreshes = new Set();
+let dashboardRefreshTimeout = null;
+
+function scheduleDashboardRefresh(...parts) {
+    parts.forEach(part => pendingDashboardRefreshes.add(part));
+    if (dashboardRefreshTimeout) return;
+    dashboardRefreshTimeout = setTimeout(async () => {
+        const parts = Array.from(pendingDashboardRefreshes);
+        pendingDashboardRefreshes.clear();
+        dashboardRefreshTimeout = null;
+        const cacheBuster = `?_t=${Date.now()}`;
+        try {
+            if (parts.includes('timer')) await restoreActiveTimer();
+            if (parts.includes('timeEntries')) await refreshTimeEntryStats(cacheBuster);
+            if (parts.includes('balance')) await refreshBalance(cacheBuster);
+            if (parts.includes('absences')) await refreshAbsenceStats(cacheBuster);
+            if (parts.includes('projects')) await refreshProjects(cacheBuster);
+        } catch (error) {
+            console.error('❌ Fehler bei der Live-Aktualisierung:', error);
+        }
+    }, 300);
+}
+
+function handleDashboardEvent(name, data) {
+    if (name === 'connected') {
+        dashboardEventUserId = data.userId;
+        return;
+    }
+    const ownChange = data && data.userId === dashboardEventUserId;
+    if (name === 'time-entry') {
+        // Änderungen von Teammitgliedern betreffen die eigenen Statistiken nicht
+        if (!ownChange) return;
+        if (data.action === 'timer-started' || data.action === 'timer-stopped') {
+            scheduleDashboardRefresh('timer', 'timeEntries', 'balance');
+        } else {
+            scheduleDashboardRefresh('timeEntries', 'balance');
+        }
+    } else if (name === 'absence') {
+        if (ownChange && (data.action === 'approved' || data.action === 'rejected' || data.action === 'deleted' || data.action === 'updated')) {
+            scheduleDashboardRefresh('absences', 'balance');
+        } else {
+            scheduleDashboardRefresh('absences');
+        }
+    } else if (name === 'project') {
+        scheduleDashboardRefresh('projects');
     }
+}
 
-    if (document.visibilityState === 'visible' && !isTimerCurrentlyActive) {
-        console.log('Automatisches Neuladen der Dashboard-Daten...');
-        loadDashboardPageData(true);
+if (localStorage.getItem('jwtToken')) {
+    const subscription = subscribeToServerEvents(handleDashboardEvent, () => {
+        // Nach einem Verbindungsabbruch können Ereignisse verpasst worden sein
+        if (document.visibilityState === 'visible') loadDashboardPageData(true);
+    });
+    if (!subscription) {
+        // Fallback für Browser ohne Streaming-Unterstützung: periodisches Neuladen
+        setInterval(() => {
+            let isTimerCurrentlyActive = false;
+            if (typeof activeTimeEntry !== 'undefined' && activeTimeEntry != null) {
+                isTimerCurrentlyActive = true;
+            }
+
+            if (document.visibilityState === 'visible' && !isTimerCurrentlyActive) {
+                console.log('Automatisches Neuladen der Dashboard-Daten...');
+                loadDashboardPageData(true);
+            }
+        }, 5 * 60 * 1000); // 5 Minuten
     }
-}, 5 * 60 * 1000); // 5 Minuten
+}
 
 // Service Worker Registrierung (optional, für Offline-Fähigkeiten oder Caching)
 if ('serviceWorker' in navigator) {
@@ -6,7 +6,7 @@ let availableManagers = [];
 
 async function viewProjects() {
     try {
-        const response = await apiCall('/api/projects/active');
+        const response = await apiCall('/api/projects/active?includeUsers=false');
         if (response && response.projects) {
             displayData('Aktive Projekte', formatProjectsTable(response.projects));
         } else {
@@ -41,6 +41,44 @@ function updateTimer() {
         `${hours.toString().padStart(2, '0')}:${minutes.toString().padStart(2, '0')}:${seconds.toString().padStart(2, '0')}`;
 }
 
+// Stellt eine laufende Zeiterfassung nach dem Neuladen der Seite wieder her (Backend antwortet aus dem Timer-Register)
+async function restoreActiveTimer() {
+    try {
+        const response = await apiCall(`/api/time-entries/active?_t=${Date.now()}`);
+        if (!response || !response.active) {
+            if (activeTimeEntry) {
+                // Timer wurde an anderer Stelle gestoppt
+                stopTimer();
+                activeTimeEntry = null;
+                startTimeForTimer = null;
+                document.getElementById('startTimer').style.display = 'inline-block';
+                document.getElementById('stopTimer').style.display = 'none';
+            }
+            return;
+        }
+        if (activeTimeEntry && activeTimeEntry.id === response.entryId) return;
+
+        activeTimeEntry = {
+            id: response.entryId,
+            date: response.date,
+            startTimes: [response.startTime.slice(11, 16)],
+            endTimes: [],
+            breaks: [],
+            project: response.projectId ? { id: response.projectId, name: response.projectName } : null
+        };
+        startTimeForTimer = new Date(response.startTime);
+        if (!timerInterval) startTimer();
+
+        document.getElementById('startTimer').style.display = 'none';
+        document.getElementById('stopTimer').style.display = 'inline-block';
+        document.getElementById('currentProject').textContent = activeTimeEntry.project
+            ? `Projekt: ${activeTimeEntry.project.name}`
+            : 'Kein Projekt ausgewählt';
+    } catch (error) {
+        console.error('❌ Fehler beim Laden der laufenden Zeiterfassung:', error);
+    }
+}
+
 async function startTimeTracking() {
     try {
         console.log('🚀 Starte Zeiterfassung...');
@@ -199,7 +237,7 @@ async function loadProjectsForManualEntry() {
         if (window.projects && projectSelect) {
             populateProjectDropdown(projectSelect, window.projects);
         } else if (projectSelect) { // Fallback, falls window.projects nicht da ist
-            const response = await apiCall('/api/projects/active');
+            const response = await apiCall('/api/projects/active?includeUsers=false');
             if (response && response.projects) {
                 window.projects = response.projects;
                 populateProjectDropdown(projectSelect, window.projects);
@@ -345,7 +383,7 @@ async function openEditTimeEntryModal(entry) {
         populateProjectDropdown(editProjectSelect, window.projects, entry.project ? entry.project.id : null);
     } else if (editProjectSelect) { // Fallback
         try {
-            const projectsResponse = await apiCall('/api/projects/active');
+            const projectsResponse = await apiCall('/api/projects/active?includeUsers=false');
             if (projectsResponse && projectsResponse.projects) {
                 window.projects = projectsResponse.projects;
                 populateProjectDropdown(editProjectSelect, window.projects, entry.project ? entry.project.id : null);
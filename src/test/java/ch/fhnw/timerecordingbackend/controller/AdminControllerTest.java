@@ -1,6 +1,7 @@
 package ch.fhnw.timerecordingbackend.controller;
 
 import ch.fhnw.timerecordingbackend.config.WebSecurityConfig;
+import ch.fhnw.timerecordingbackend.dto.admin.UserPageResponse;
 import ch.fhnw.timerecordingbackend.dto.admin.UserRegistrationRequest;
 import ch.fhnw.timerecordingbackend.dto.admin.UserResponse;
 import ch.fhnw.timerecordingbackend.model.Registration;
@@ -10,9 +11,17 @@ import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
 import ch.fhnw.timerecordingbackend.repository.SystemLogRepository;
 import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
 import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
+import ch.fhnw.timerecordingbackend.security.LoginAdmissionControl;
+import ch.fhnw.timerecordingbackend.security.TokenRevocationStore;
 import ch.fhnw.timerecordingbackend.security.UserDetailsServiceImpl;
+import ch.fhnw.timerecordingbackend.service.ManagerHierarchyService;
+import ch.fhnw.timerecordingbackend.service.SystemLogWriter;
+import ch.fhnw.timerecordingbackend.service.ProjectStatisticsCache;
 import ch.fhnw.timerecordingbackend.service.RegistrationService;
+import ch.fhnw.timerecordingbackend.service.SearchIndexService;
+import ch.fhnw.timerecordingbackend.service.UserProvisioningService;
 import ch.fhnw.timerecordingbackend.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ValidationException;
@@ -81,6 +90,30 @@ class AdminControllerTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private ProjectStatisticsCache projectStatisticsCache;
+
+    @MockBean
+    private SearchIndexService searchIndexService;
+
+    @MockBean
+    private ManagerHierarchyService managerHierarchyService;
+
+    @MockBean
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
+    @MockBean
+    private LoginAdmissionControl loginAdmissionControl;
+
+    @MockBean
+    private SystemLogWriter systemLogWriter;
+
+    @MockBean
+    private UserProvisioningService userProvisioningService;
+
     private User user1;
     private User user2;
     private Role adminRole;
@@ -315,6 +348,30 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$.logs[1].action").value("User Login"));
     }
 
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    void getUserPage_whenManager_shouldPassFiltersAndReturnPage() throws Exception {
+        UserResponse response = new UserResponse();
+        response.setId(user1.getId());
+        response.setEmail(user1.getEmail());
+        when(userService.findUserPage(1, 20, "managerName", "desc", UserStatus.ACTIVE, "EMPLOYEE", 7L))
+                .thenReturn(new UserPageResponse(List.of(response), 1, 20, 21, 2));
+
+        mockMvc.perform(get("/api/admin/users/page")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .param("sort", "managerName")
+                        .param("direction", "desc")
+                        .param("status", "ACTIVE")
+                        .param("role", "EMPLOYEE")
+                        .param("managerId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].email").value(user1.getEmail()))
+                .andExpect(jsonPath("$.totalElements").value(21))
+                .andExpect(jsonPath("$.totalPages").value(2));
+    }
+
     @Test
     @WithMockUser(authorities = "ADMIN")
     void getAllUsers_whenAdmin_shouldReturnListOfUsers() throws Exception {
@@ -1,6 +1,7 @@
 package ch.fhnw.timerecordingbackend.controller;
 
 import ch.fhnw.timerecordingbackend.config.WebSecurityConfig;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
 import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
 import ch.fhnw.timerecordingbackend.security.UserDetailsServiceImpl;
 import ch.fhnw.timerecordingbackend.service.BackupService;
@@ -51,6 +52,8 @@ class BackupControllerTest {
     private UserDetailsServiceImpl userDetailsService;
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
+    @MockBean
+    private AuthenticatedUserCache authenticatedUserCache;
 
     @Value("${backup.storage.path}")
     private String backupStoragePath;
@@ -0,0 +1,83 @@
+package ch.fhnw.timerecordingbackend.controller;
+
+import ch.fhnw.timerecordingbackend.config.WebSecurityConfig;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
+import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import ch.fhnw.timerecordingbackend.security.UserDetailsServiceImpl;
+import ch.fhnw.timerecordingbackend.service.DashboardEventPublisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prüft den SSE-Endpunkt für Live-Aktualisierungen des Dashboards.
+ * @author FA
+ */
+@WebMvcTest(EventController.class)
+@Import({WebSecurityConfig.class, UserDetailsServiceImpl.class, JwtTokenProvider.class, DashboardEventPublisher.class})
+class EventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DashboardEventPublisher dashboardEventPublisher;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+    @MockBean
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Test
+    @WithMockUser(username = "employee@example.com", authorities = {"EMPLOYEE"})
+    void streamEvents_pushesOnlyEventsForRecipients() throws Exception {
+        when(securityUtils.getCurrentUserId()).thenReturn(7L);
+
+        MvcResult result = mockMvc.perform(get("/api/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1, dashboardEventPublisher.connectionCount());
+
+        dashboardEventPublisher.publish(DashboardEventPublisher.TIME_ENTRY, "created", 7L, 11L, List.of(7L));
+        dashboardEventPublisher.publish(DashboardEventPublisher.ABSENCE, "approved", 8L, 12L, List.of(8L));
+        dashboardEventPublisher.publishToAll(DashboardEventPublisher.PROJECT, "created", 13L);
+
+        // Versand läuft auf einem eigenen Thread
+        String content = "";
+        for (int i = 0; i < 50 && !content.contains("event:project"); i++) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains("event:connected"));
+        assertTrue(content.contains("event:time-entry"));
+        assertTrue(content.contains("\"entityId\":11"));
+        assertTrue(content.contains("event:project"));
+        assertFalse(content.contains("event:absence"));
+    }
+
+    @Test
+    void streamEvents_withoutAuthentication_isRejected() throws Exception {
+        mockMvc.perform(get("/api/events"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,103 @@
+package ch.fhnw.timerecordingbackend.controller;
+
+import ch.fhnw.timerecordingbackend.config.WebSecurityConfig;
+import ch.fhnw.timerecordingbackend.dto.project.ProjectResponse;
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
+import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
+import ch.fhnw.timerecordingbackend.security.UserDetailsServiceImpl;
+import ch.fhnw.timerecordingbackend.service.ProjectService;
+import ch.fhnw.timerecordingbackend.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prüft, dass die Projektlisten Statistiken und Mitarbeiter gesammelt statt pro Projekt laden.
+ * @author PD
+ */
+@WebMvcTest(ProjectController.class)
+@Import({WebSecurityConfig.class, UserDetailsServiceImpl.class, JwtTokenProvider.class})
+class ProjectControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProjectService projectService;
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+    @MockBean
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Test
+    @WithMockUser(authorities = {"EMPLOYEE"})
+    void getActiveProjects_loadsStatisticsAndUsersOnceForAllProjects() throws Exception {
+        Project first = project(1L, "Alpha");
+        Project second = project(2L, "Beta");
+        User user = new User("Anna", "Muster", "anna@example.com", "password");
+        user.setId(5L);
+        when(projectService.findActiveProjects()).thenReturn(List.of(first, second));
+        when(projectService.calculateStatisticsForProjects(List.of(1L, 2L))).thenReturn(Map.of(
+                1L, new ProjectResponse.ProjectStatistics(3, 1, "12:30"),
+                2L, new ProjectResponse.ProjectStatistics(0, 0, "00:00")));
+        when(projectService.findUsersByProjectIds(List.of(1L, 2L))).thenReturn(Map.of(1L, List.of(user)));
+
+        mockMvc.perform(get("/api/projects/active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projects", hasSize(2)))
+                .andExpect(jsonPath("$.projects[0].statistics.totalHoursWorked").value("12:30"))
+                .andExpect(jsonPath("$.projects[0].statistics.totalTimeEntries").value(3))
+                .andExpect(jsonPath("$.projects[0].involvedUsers[0].email").value("anna@example.com"))
+                .andExpect(jsonPath("$.projects[1].involvedUsers", hasSize(0)));
+
+        verify(projectService, times(1)).calculateStatisticsForProjects(any());
+        verify(projectService, times(1)).findUsersByProjectIds(any());
+        verify(projectService, never()).calculateTotalActualHoursForProject(anyLong());
+        verify(projectService, never()).findUsersByProjectId(anyLong());
+    }
+
+    @Test
+    @WithMockUser(authorities = {"EMPLOYEE"})
+    void getActiveProjects_withoutUsers_skipsUserQuery() throws Exception {
+        when(projectService.findActiveProjects()).thenReturn(List.of(project(1L, "Alpha")));
+        when(projectService.calculateStatisticsForProjects(List.of(1L))).thenReturn(Map.of(
+                1L, new ProjectResponse.ProjectStatistics(1, 1, "08:00")));
+
+        mockMvc.perform(get("/api/projects/active").param("includeUsers", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projects[0].statistics.totalHoursWorked").value("08:00"))
+                .andExpect(jsonPath("$.projects[0].involvedUsers").doesNotExist());
+
+        verify(projectService, never()).findUsersByProjectIds(any());
+    }
+
+    private static Project project(Long id, String name) {
+        Project project = new Project(name);
+        project.setId(id);
+        return project;
+    }
+}
@@ -4,6 +4,7 @@ import ch.fhnw.timerecordingbackend.config.WebSecurityConfig;
 import ch.fhnw.timerecordingbackend.dto.registration.RegistrationRequest;
 import ch.fhnw.timerecordingbackend.model.Registration;
 import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
 import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
 import ch.fhnw.timerecordingbackend.security.UserDetailsServiceImpl;
 import ch.fhnw.timerecordingbackend.service.RegistrationService;
@@ -61,6 +62,9 @@ class PublicRegistrationControllerTest {
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockBean
+    private AuthenticatedUserCache authenticatedUserCache;
+
 
     private RegistrationRequest registrationRequest;
     private Registration createdRegistration;
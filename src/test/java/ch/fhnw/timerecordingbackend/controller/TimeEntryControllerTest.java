@@ -1,11 +1,16 @@
 package ch.fhnw.timerecordingbackend.controller;
 
 import ch.fhnw.timerecordingbackend.config.WebSecurityConfig;
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryImportResult;
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryPageResponse;
 import ch.fhnw.timerecordingbackend.dto.time.TimeEntryRequest;
 import ch.fhnw.timerecordingbackend.dto.time.TimeEntryResponse;
 import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
 import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
 import ch.fhnw.timerecordingbackend.security.UserDetailsServiceImpl;
+import ch.fhnw.timerecordingbackend.service.MonthlyBalanceService;
+import ch.fhnw.timerecordingbackend.service.TimeEntryImportService;
 import ch.fhnw.timerecordingbackend.service.TimeEntryServiceImpl; // Nur diese für Mocking
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,20 +22,26 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -53,10 +64,18 @@ class TimeEntryControllerTest {
     @MockBean(name = "timeEntryServiceImpl")
     private TimeEntryServiceImpl timeEntryServiceImplMock;
 
+    @MockBean
+    private TimeEntryImportService timeEntryImportService;
+
+    @MockBean
+    private MonthlyBalanceService monthlyBalanceService;
+
     @MockBean
     private UserDetailsServiceImpl userDetailsService;
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
+    @MockBean
+    private AuthenticatedUserCache authenticatedUserCache;
 
     private TimeEntryRequest timeEntryRequestDTO;
     private TimeEntryResponse timeEntryResponseDTO;
@@ -157,6 +176,54 @@ class TimeEntryControllerTest {
                 .andExpect(jsonPath("$.entries", hasSize(2)));
     }
 
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void getAllTimeEntriesPage_whenAdmin_shouldReturnPageWithCursor() throws Exception {
+        TimeEntryPageResponse page = new TimeEntryPageResponse(List.of(timeEntryResponseDTO), "next-cursor", true);
+        when(timeEntryServiceImplMock.getAllTimeEntriesPage(eq(LocalDate.of(2025, 1, 1)), isNull(), eq(1L), isNull(), isNull(), eq(50)))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/time-entries/all/page")
+                        .param("from", "2025-01-01")
+                        .param("userId", "1")
+                        .param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com", authorities = {"EMPLOYEE"})
+    void getAllTimeEntriesPage_whenEmployee_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(get("/api/time-entries/all/page"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void exportAllTimeEntries_whenAdmin_shouldStreamAllPagesAsNdjson() throws Exception {
+        TimeEntryResponse secondEntry = new TimeEntryResponse();
+        secondEntry.setId(2L);
+        when(timeEntryServiceImplMock.getAllTimeEntriesPage(isNull(), isNull(), isNull(), isNull(), isNull(), any(Integer.class)))
+                .thenReturn(new TimeEntryPageResponse(List.of(timeEntryResponseDTO), "c1", true));
+        when(timeEntryServiceImplMock.getAllTimeEntriesPage(isNull(), isNull(), isNull(), isNull(), eq("c1"), any(Integer.class)))
+                .thenReturn(new TimeEntryPageResponse(List.of(secondEntry), null, false));
+
+        MvcResult result = mockMvc.perform(get("/api/time-entries/all/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
     @Test
     @WithMockUser(username = "test@example.com", authorities = {"EMPLOYEE"})
     void startTimeTracking_shouldReturnOk() throws Exception {
@@ -181,6 +248,54 @@ class TimeEntryControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Zeiterfassung gestoppt"));
     }
-}
 
+    @Test
+    @WithMockUser(username = "test@example.com", authorities = {"EMPLOYEE"})
+    void getActiveTimer_shouldReturnRunningTimer() throws Exception {
+        when(timeEntryServiceImplMock.getActiveTimer()).thenReturn(Map.of(
+                "active", true, "entryId", 5L, "startTime", "2025-03-03T08:00:12"));
+
+        mockMvc.perform(get("/api/time-entries/active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active", is(true)))
+                .andExpect(jsonPath("$.entryId", is(5)));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com", authorities = {"EMPLOYEE"})
+    void getBalance_shouldReturnBalanceForRequestedMonths() throws Exception {
+        when(monthlyBalanceService.getCurrentUserBalance(YearMonth.of(2025, 1), YearMonth.of(2025, 3)))
+                .thenReturn(Map.of("balance", "+02:30", "balanceMinutes", 150, "months", List.of()));
+
+        mockMvc.perform(get("/api/time-entries/balance").param("from", "2025-01").param("to", "2025-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance", is("+02:30")))
+                .andExpect(jsonPath("$.balanceMinutes", is(150)));
+    }
 
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void importTimeEntries_whenAdminSendsCsv_shouldReturnResult() throws Exception {
+        TimeEntryImportResult result = new TimeEntryImportResult();
+        result.addImported(1);
+        result.addError(2, "Benutzer nicht gefunden");
+        when(timeEntryImportService.importCsv(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/time-entries/import")
+                        .contentType("text/csv")
+                        .content("userEmail,date,startTimes,endTimes\ntest@example.com,2025-03-03,08:00,17:00\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com", authorities = {"EMPLOYEE"})
+    void importTimeEntries_whenEmployee_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/time-entries/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -5,6 +5,7 @@ import ch.fhnw.timerecordingbackend.dto.authentication.ChangePasswordRequest;
 import ch.fhnw.timerecordingbackend.dto.authentication.ResetPasswordRequest;
 import ch.fhnw.timerecordingbackend.model.User;
 import ch.fhnw.timerecordingbackend.repository.SystemLogRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUserCache;
 import ch.fhnw.timerecordingbackend.security.JwtTokenProvider;
 import ch.fhnw.timerecordingbackend.security.UserDetailsServiceImpl;
 import ch.fhnw.timerecordingbackend.service.UserService;
@@ -58,6 +59,9 @@ class UserControllerTest {
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockBean
+    private AuthenticatedUserCache authenticatedUserCache;
+
     private ChangePasswordRequest changePasswordRequest;
     private ResetPasswordRequest resetPasswordRequest;
     private User testUser;
@@ -0,0 +1,114 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.RoleRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Authentifizierung über die Claims des JWT und die Invalidierung des Benutzer-Caches
+ * bei Rollenwechsel und Deaktivierung.
+ * @author FA
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = new User("Jana", "Token", "jwt.claims@example.com", "password");
+        newUser.addRole(roleRepository.findByName("EMPLOYEE").orElseThrow());
+        newUser.setPlannedHoursPerDay(6.5);
+        user = userRepository.save(newUser);
+
+        AuthenticatedUser principal = (AuthenticatedUser) userDetailsService.loadUserByUsername(user.getEmail());
+        token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        userRepository.delete(userRepository.findById(user.getId()).orElseThrow());
+    }
+
+    @Test
+    void tokenClaimsContainUserIdRolesAndPlannedHours() {
+        AuthenticatedUser principal = jwtTokenProvider.getPrincipalFromJwt(token);
+
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("jwt.claims@example.com", principal.getEmail());
+        assertTrue(principal.hasRole("EMPLOYEE"));
+        assertEquals(6.5, principal.getPlannedHoursPerDay());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    void filterUsesCachedPrincipalAndSeesRoleChangeAndDeactivation() throws Exception {
+        Authentication authentication = authenticate();
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertEquals(user.getId(), principal.getId());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("EMPLOYEE")));
+
+        // Rollenwechsel gilt ohne neues Token
+        User managed = userRepository.findById(user.getId()).orElseThrow();
+        managed.addRole(roleRepository.findByName("MANAGER").orElseThrow());
+        userRepository.save(managed);
+        assertTrue(authenticate().getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("MANAGER")));
+
+        // Deaktivierte Benutzer werden trotz gültigem Token nicht mehr authentifiziert
+        managed = userRepository.findById(user.getId()).orElseThrow();
+        managed.setActive(false);
+        userRepository.save(managed);
+        assertNull(authenticate());
+    }
+
+    @Test
+    void verifiedTokenIsCachedButTamperedAndBlacklistedTokensAreRejected() {
+        assertNotNull(jwtTokenProvider.verify(token));
+        // Zweiter Aufruf aus dem Cache liefert dieselben Claims
+        assertSame(jwtTokenProvider.verify(token), jwtTokenProvider.verify(token));
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertNull(jwtTokenProvider.verify(tampered));
+
+        jwtTokenProvider.blacklistToken(token);
+        assertNull(jwtTokenProvider.verify(token));
+        assertFalse(jwtTokenProvider.validateToken(token));
+    }
+
+    private Authentication authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
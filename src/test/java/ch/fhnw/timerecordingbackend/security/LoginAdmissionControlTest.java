@@ -0,0 +1,113 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Limits pro Konto und IP sowie das Abweisen von Passwortprüfungen bei ausgelastetem Pool.
+ * @author FA
+ */
+class LoginAdmissionControlTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    // Blockiert jede Prüfung, bis der Test sie freigibt, damit der Pool gezielt ausgelastet werden kann
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    private final PasswordHashingPool pool = new PasswordHashingPool(blockingEncoder, 1, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pool.shutdown();
+    }
+
+    @Test
+    void admit_throttlesPerAccountAndPerIp() {
+        LoginAdmissionControl control = new LoginAdmissionControl(pool, 3, 4, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            control.admit("Anna@Example.com", "10.0.0.1");
+        }
+        // Gross-/Kleinschreibung zählt für dasselbe Konto
+        LoginThrottledException account = assertThrows(LoginThrottledException.class,
+                () -> control.admit("anna@example.com ", "10.0.0.2"));
+        assertTrue(account.getRetryAfterSeconds() >= 1);
+
+        control.admit("ben@example.com", "10.0.0.1");
+        assertThrows(LoginThrottledException.class, () -> control.admit("clara@example.com", "10.0.0.1"));
+
+        Map<String, Object> stats = control.stats();
+        assertEquals(4L, stats.get("admitted"));
+        assertEquals(1L, stats.get("throttledAccount"));
+        assertEquals(1L, stats.get("throttledIp"));
+    }
+
+    @Test
+    void admit_withIpLimitZero_onlyLimitsPerAccount() {
+        LoginAdmissionControl control = new LoginAdmissionControl(pool, 2, 0, 1000);
+
+        // Viele Konten hinter derselben Adresse (z.B. Büro-NAT)
+        for (int i = 0; i < 100; i++) {
+            control.admit("user" + i + "@example.com", "10.0.0.1");
+        }
+        control.admit("user0@example.com", "10.0.0.1");
+        assertThrows(LoginThrottledException.class, () -> control.admit("user0@example.com", "10.0.0.1"));
+        assertEquals(0, control.stats().get("trackedIps"));
+    }
+
+    @Test
+    void verifyPassword_shedsLoadWhenPoolAndQueueAreFull() throws Exception {
+        LoginAdmissionControl control = new LoginAdmissionControl(pool, 10, 60, 5000);
+
+        // Ein Thread prüft, ein Platz in der Warteschlange: die dritte gleichzeitige Prüfung wird abgewiesen
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> control.verifyPassword("secret", "{plain}secret"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> control.verifyPassword("wrong", "{plain}secret"));
+        waitForQueueDepth(1);
+
+        assertThrows(LoginThrottledException.class, () -> control.verifyPassword("secret", "{plain}secret"));
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertFalse(queued.get(5, TimeUnit.SECONDS));
+
+        Map<String, Object> stats = control.stats();
+        assertEquals(1L, stats.get("rejectedBusy"));
+        assertEquals(0, stats.get("queueDepth"));
+        assertEquals(2, ((Map<?, ?>) stats.get("verificationLatency")).get("samples"));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.getVerificationQueueDepth() < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, pool.getVerificationQueueDepth());
+    }
+}
@@ -0,0 +1,86 @@
+package ch.fhnw.timerecordingbackend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft das Sperren von Tokens im lokalen Modus (Ablauf der Einträge) und im geteilten JDBC-Modus
+ * (Übernahme der Sperren einer anderen Instanz).
+ * @author FA
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenRevocationStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM revoked_tokens");
+    }
+
+    @Test
+    void localStoreForgetsEntriesAfterTokenExpiry() throws Exception {
+        TokenRevocationStore store = store("local");
+        long now = System.currentTimeMillis();
+
+        store.revoke("already-expired", now - 1);
+        store.revoke("short-lived", now + 50);
+        store.revoke("long-lived", now + 60_000);
+        assertFalse(store.isRevoked("already-expired"));
+        assertTrue(store.isRevoked("short-lived"));
+        assertTrue(store.isRevoked("long-lived"));
+
+        Thread.sleep(60);
+        store.maintain();
+        assertFalse(store.isRevoked("short-lived"));
+        assertTrue(store.isRevoked("long-lived"));
+        assertEquals(1, store.stats().get("size"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_tokens", Integer.class));
+    }
+
+    @Test
+    void sharedStoreDistributesRevocationsToOtherInstances() {
+        TokenRevocationStore first = store("jdbc");
+        TokenRevocationStore second = store("jdbc");
+        first.afterSingletonsInstantiated();
+        second.afterSingletonsInstantiated();
+
+        first.revoke("logout-token", System.currentTimeMillis() + 60_000);
+        first.revoke("logout-token", System.currentTimeMillis() + 60_000);
+        assertTrue(first.isRevoked("logout-token"));
+        assertFalse(second.isRevoked("logout-token"));
+
+        second.maintain();
+        assertTrue(second.isRevoked("logout-token"));
+
+        // Abgelaufene Zeilen werden beim Abgleich gelöscht
+        jdbcTemplate.update("INSERT INTO revoked_tokens (token_hash, expires_at, revoked_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                "stale-token", new Timestamp(System.currentTimeMillis() - 1000));
+        second.maintain();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_tokens", Integer.class));
+        assertFalse(second.isRevoked("stale-token"));
+
+        // Eine neu gestartete Instanz übernimmt die bestehenden Sperren beim Start
+        TokenRevocationStore restarted = store("jdbc");
+        restarted.afterSingletonsInstantiated();
+        assertTrue(restarted.isRevoked("logout-token"));
+    }
+
+    private TokenRevocationStore store(String mode) {
+        TokenRevocationStore store = new TokenRevocationStore();
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(store, "mode", mode);
+        return store;
+    }
+}
@@ -0,0 +1,131 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.absence.AbsenceBulkResult;
+import ch.fhnw.timerecordingbackend.model.Absence;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
+import ch.fhnw.timerecordingbackend.repository.AbsenceRepository;
+import ch.fhnw.timerecordingbackend.repository.MonthlyBalanceRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.repository.VacationLedgerRepository;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft Sammelgenehmigung und -ablehnung: Autorisierung über das Team, Status, Saldo, Ferienkonto und Protokolle.
+ * @author PD
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AbsenceBulkDecisionTest {
+
+    @Autowired
+    private AbsenceService absenceService;
+    @Autowired
+    private VacationLedgerService vacationLedgerService;
+    @Autowired
+    private AbsenceRepository absenceRepository;
+    @Autowired
+    private VacationLedgerRepository vacationLedgerRepository;
+    @Autowired
+    private MonthlyBalanceRepository monthlyBalanceRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User manager;
+    private User employee;
+    private User outsider;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.save(new User("Bulk", "Manager", "bulk.manager@example.com", "password"));
+        User member = new User("Bulk", "Employee", "bulk.employee@example.com", "password");
+        member.setManager(manager);
+        employee = userRepository.save(member);
+        outsider = userRepository.save(new User("Bulk", "Outsider", "bulk.outsider@example.com", "password"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM system_logs WHERE user_id = ?", manager.getId());
+        absenceRepository.deleteAll();
+        vacationLedgerRepository.deleteAll();
+        monthlyBalanceRepository.deleteAll();
+        userRepository.delete(employee);
+        userRepository.delete(outsider);
+        userRepository.delete(manager);
+    }
+
+    @Test
+    void decideAbsences_authorizesBatchByTeamAndUpdatesLedgerAndLogs() {
+        // Mo 06.05. bis Fr 10.05.2030: 5 Werktage
+        Absence vacation = absenceService.createAbsence(new Absence(employee, LocalDate.of(2030, 5, 6),
+                LocalDate.of(2030, 5, 10), AbsenceType.VACATION));
+        Absence training = absenceService.createAbsence(new Absence(employee, LocalDate.of(2030, 6, 3),
+                LocalDate.of(2030, 6, 3), AbsenceType.TRAINING));
+        Absence approved = absenceService.createAbsence(new Absence(employee, LocalDate.of(2030, 7, 1),
+                LocalDate.of(2030, 7, 1), AbsenceType.ILLNESS));
+        absenceService.approveAbsence(approved.getId(), manager.getId());
+        Absence foreign = absenceService.createAbsence(new Absence(outsider, LocalDate.of(2030, 5, 6),
+                LocalDate.of(2030, 5, 6), AbsenceType.VACATION));
+
+        AbsenceBulkResult result = absenceService.decideAbsences(List.of(vacation.getId(), training.getId(),
+                approved.getId(), foreign.getId(), -1L, vacation.getId()), manager.getId(), true);
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(foreign.getId(), -1L),
+                result.getErrors().stream().map(AbsenceBulkResult.IdError::getId).toList());
+
+        Absence approvedVacation = absenceRepository.findById(vacation.getId()).orElseThrow();
+        assertEquals(AbsenceStatus.APPROVED, approvedVacation.getStatus());
+        assertEquals(8 * 60, approvedVacation.getCreditedMinutesPerDay());
+        assertEquals(AbsenceStatus.PENDING, absenceRepository.findById(foreign.getId()).orElseThrow().getStatus());
+        assertLedger(5, 0);
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM system_logs WHERE user_id = ? "
+                + "AND target_entity = 'Absence'", Integer.class, manager.getId()));
+
+        AbsenceBulkResult rejected = absenceService.decideAbsences(List.of(vacation.getId(), training.getId()),
+                manager.getId(), false);
+
+        assertEquals(2, rejected.getUpdated());
+        Absence rejectedVacation = absenceRepository.findById(vacation.getId()).orElseThrow();
+        assertEquals(AbsenceStatus.REJECTED, rejectedVacation.getStatus());
+        assertNull(rejectedVacation.getCreditedMinutesPerDay());
+        assertLedger(0, 0);
+        assertEquals(0, monthlyBalanceRepository.findByUserIdAndMonthStartBetween(employee.getId(),
+                LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 1)).get(0).getAbsenceCreditMinutes());
+    }
+
+    @Test
+    void decideAbsences_rejectsEmptyBatchAndUnknownApprover() {
+        assertThrows(IllegalArgumentException.class, () -> absenceService.decideAbsences(List.of(), manager.getId(), true));
+        assertThrows(IllegalArgumentException.class, () -> absenceService.decideAbsences(List.of(1L), -1L, true));
+    }
+
+    private void assertLedger(int approvedDays, int pendingDays) {
+        Map<String, Object> ledger = vacationLedgerService.getLedger(employee.getId(), 2030);
+        assertEquals(approvedDays, ledger.get("approvedDays"));
+        assertEquals(pendingDays, ledger.get("pendingDays"));
+    }
+}
@@ -0,0 +1,118 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.absence.AbsenceCalendarResponse;
+import ch.fhnw.timerecordingbackend.model.Absence;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
+import ch.fhnw.timerecordingbackend.repository.AbsenceRepository;
+import ch.fhnw.timerecordingbackend.repository.RoleRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft den Team-Kalender: nur genehmigte Abwesenheiten des Teams, auf den Zeitraum beschnitten und nach Art getrennt.
+ * @author PD
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AbsenceCalendarTest {
+
+    @Autowired
+    private AbsenceService absenceService;
+    @Autowired
+    private AbsenceRepository absenceRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User manager;
+    private User anna;
+    private User beat;
+
+    @BeforeEach
+    void setUp() {
+        manager = new User("Kalender", "Manager", "calendar.manager@example.com", "password");
+        manager.getRoles().add(roleRepository.findByName("MANAGER").orElseThrow());
+        manager = userRepository.save(manager);
+        anna = userRepository.save(member("Anna", "Aebi", "calendar.anna@example.com", manager));
+        beat = userRepository.save(member("Beat", "Brunner", "calendar.beat@example.com", manager));
+        User outsider = userRepository.save(member("Olga", "Other", "calendar.other@example.com", null));
+
+        // Über den Monatsanfang hinaus, wird auf den 1. und 2. August beschnitten
+        absence(anna, LocalDate.of(2025, 7, 30), LocalDate.of(2025, 8, 2), AbsenceType.VACATION, AbsenceStatus.APPROVED);
+        absence(anna, LocalDate.of(2025, 8, 5), LocalDate.of(2025, 8, 5), AbsenceType.ILLNESS, AbsenceStatus.APPROVED);
+        absence(beat, LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 3), AbsenceType.VACATION, AbsenceStatus.PENDING);
+        absence(outsider, LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 3), AbsenceType.VACATION, AbsenceStatus.APPROVED);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getTeamCalendar_encodesApprovedTeamAbsencesAsDayBitsets() {
+        AbsenceCalendarResponse calendar = absenceService.getTeamCalendar(manager, null, YearMonth.of(2025, 8), 1);
+
+        assertEquals(LocalDate.of(2025, 8, 1), calendar.getFrom());
+        assertEquals(LocalDate.of(2025, 8, 31), calendar.getTo());
+        assertEquals(31, calendar.getDays());
+        assertEquals(List.of(anna.getId(), beat.getId()),
+                calendar.getUsers().stream().map(AbsenceCalendarResponse.Row::getUserId).toList());
+
+        // Bit 0 und 1 (1. und 2. August) bzw. Bit 4 (5. August)
+        assertEquals(Map.of(AbsenceType.VACATION, "Aw==", AbsenceType.ILLNESS, "EA=="),
+                calendar.getUsers().get(0).getAbsences());
+        assertTrue(calendar.getUsers().get(1).getAbsences().isEmpty());
+        assertEquals(1, calendar.getAwayPerDay()[0]);
+        assertEquals(0, calendar.getAwayPerDay()[2]);
+        assertEquals(1, calendar.getAwayPerDay()[4]);
+    }
+
+    @Test
+    void getTeamCalendar_rejectsForeignTeamsAndTooLongRanges() {
+        User otherManager = userRepository.save(member("Max", "Fremd", "calendar.foreign@example.com", null));
+
+        assertThrows(AccessDeniedException.class,
+                () -> absenceService.getTeamCalendar(manager, otherManager.getId(), YearMonth.of(2025, 8), 1));
+        assertThrows(AccessDeniedException.class,
+                () -> absenceService.getTeamCalendar(anna, null, YearMonth.of(2025, 8), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> absenceService.getTeamCalendar(manager, null, YearMonth.of(2025, 1), 13));
+        assertEquals(365, absenceService.getTeamCalendar(manager, null, YearMonth.of(2025, 1), 12).getDays());
+    }
+
+    private User member(String firstName, String lastName, String email, User manager) {
+        User user = new User(firstName, lastName, email, "password");
+        user.getRoles().add(roleRepository.findByName("EMPLOYEE").orElseThrow());
+        user.setManager(manager);
+        return user;
+    }
+
+    private void absence(User user, LocalDate start, LocalDate end, AbsenceType type, AbsenceStatus status) {
+        Absence absence = new Absence(user, start, end, type);
+        absence.setStatus(status);
+        absenceRepository.save(absence);
+    }
+}
@@ -0,0 +1,149 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prüft das In-Memory-Register der laufenden Zeiterfassungen gegen H2.
+ * @author FA
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ActiveTimerRegistryTest {
+
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private ActiveTimerRegistry activeTimerRegistry;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Timer", "User", "timer.user@example.com", "password"));
+        when(securityUtils.getCurrentPrincipal()).thenReturn(AuthenticatedUser.of(user));
+        when(securityUtils.getCurrentUserId()).thenReturn(user.getId());
+        when(securityUtils.getCurrentUsername()).thenReturn(user.getEmail());
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeEntryRepository.deleteAll();
+        userRepository.delete(user);
+        activeTimerRegistry.rebuild();
+    }
+
+    @Test
+    void startAndStop_updateRegistryWriteThrough() {
+        Map<String, Object> started = timeEntryService.startTimeTracking(null);
+        Long entryId = (Long) started.get("entryId");
+
+        assertTrue(activeTimerRegistry.isRunning(user.getId()));
+        assertEquals(entryId, activeTimerRegistry.findByUserId(user.getId()).orElseThrow().getEntryId());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> timeEntryService.startTimeTracking(null));
+        assertTrue(exception.getReason().contains("läuft bereits"));
+
+        timeEntryService.stopTimeTracking(entryId);
+
+        assertFalse(activeTimerRegistry.isRunning(user.getId()));
+        assertEquals(Boolean.FALSE, timeEntryService.getActiveTimer().get("active"));
+    }
+
+    @Test
+    void getActiveTimer_answersWithoutDatabaseAccess() {
+        Map<String, Object> started = timeEntryService.startTimeTracking(null);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<String, Object> timer = timeEntryService.getActiveTimer();
+
+        assertEquals(Boolean.TRUE, timer.get("active"));
+        assertEquals(started.get("entryId"), timer.get("entryId"));
+        assertEquals(started.get("startTime"), timer.get("startTime"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void startAndStop_doNotLoadCurrentUser() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<String, Object> started = timeEntryService.startTimeTracking(null);
+        timeEntryService.stopTimeTracking((Long) started.get("entryId"));
+
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void rebuild_restoresRunningTimersFromDatabase() {
+        TimeEntry open = new TimeEntry();
+        open.setUser(user);
+        open.setDate(LocalDate.of(2025, 3, 3));
+        open.addStartTime(LocalTime.of(7, 45));
+        open = timeEntryRepository.save(open);
+
+        assertFalse(activeTimerRegistry.isRunning(user.getId()));
+        activeTimerRegistry.rebuild();
+
+        ActiveTimerRegistry.ActiveTimer timer = activeTimerRegistry.findByEmail(user.getEmail()).orElseThrow();
+        assertEquals(open.getId(), timer.getEntryId());
+        assertEquals(LocalTime.of(7, 45), timer.getStartedAt().toLocalTime());
+    }
+
+    @Test
+    void startTimeTracking_allowsStartWhileYesterdaysTimerIsOpen() {
+        TimeEntry yesterday = new TimeEntry();
+        yesterday.setUser(user);
+        yesterday.setDate(LocalDate.now().minusDays(1));
+        yesterday.addStartTime(LocalTime.MIDNIGHT);
+        yesterday = timeEntryRepository.save(yesterday);
+        activeTimerRegistry.rebuild();
+        assertTrue(activeTimerRegistry.isRunning(user.getId()));
+
+        Long todayId = (Long) timeEntryService.startTimeTracking(null).get("entryId");
+
+        // Beide offenen Einträge sind registriert, angezeigt wird der zuletzt gestartete
+        assertEquals(2, activeTimerRegistry.size());
+        assertEquals(todayId, timeEntryService.getActiveTimer().get("entryId"));
+
+        timeEntryService.stopTimeTracking(todayId);
+        assertEquals(yesterday.getId(), activeTimerRegistry.findByUserId(user.getId()).orElseThrow().getEntryId());
+
+        timeEntryService.stopTimeTracking(yesterday.getId());
+        assertFalse(activeTimerRegistry.isRunning(user.getId()));
+        assertTrue(activeTimerRegistry.findByEmail(user.getEmail()).isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft, dass die Manager-Hierarchie beim Speichern von Benutzern nachgeführt wird und keine Zyklen zulässt.
+ * @author FA
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ManagerHierarchyServiceTest {
+
+    @Autowired
+    private ManagerHierarchyService managerHierarchyService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User head;
+    private User lead;
+    private User member;
+    private User otherHead;
+
+    @BeforeEach
+    void setUp() {
+        head = userRepository.save(new User("Hanna", "Head", "hierarchy.head@example.com", "password"));
+        otherHead = userRepository.save(new User("Olga", "Other", "hierarchy.other@example.com", "password"));
+        lead = userRepository.save(withManager(new User("Lars", "Lead", "hierarchy.lead@example.com", "password"), head));
+        member = userRepository.save(withManager(new User("Mara", "Member", "hierarchy.member@example.com", "password"), lead));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(member);
+        userRepository.delete(lead);
+        userRepository.delete(head);
+        userRepository.delete(otherHead);
+    }
+
+    @Test
+    void changingManager_movesSubtreeWithTransitiveRows() {
+        assertEquals(List.of(
+                head.getId() + ">" + lead.getId() + "@1",
+                head.getId() + ">" + member.getId() + "@2",
+                lead.getId() + ">" + member.getId() + "@1"), rows());
+        assertTrue(managerHierarchyService.isInTeam(head.getId(), lead.getId()));
+        // Ohne app.team.include-indirect-reports nur direkt unterstellte Mitarbeiter
+        assertFalse(managerHierarchyService.isInTeam(head.getId(), member.getId()));
+
+        lead = userRepository.save(withManager(userRepository.findById(lead.getId()).orElseThrow(), otherHead));
+
+        assertEquals(List.of(
+                otherHead.getId() + ">" + lead.getId() + "@1",
+                otherHead.getId() + ">" + member.getId() + "@2",
+                lead.getId() + ">" + member.getId() + "@1"), rows());
+        assertFalse(managerHierarchyService.isInTeam(head.getId(), lead.getId()));
+        assertArrayEquals(new long[]{lead.getId()}, managerHierarchyService.findTeamUserIds(otherHead.getId()));
+
+        List<String> maintained = rows();
+        assertTrue(managerHierarchyService.rebuildAll() >= maintained.size());
+        assertEquals(maintained, rows());
+    }
+
+    @Test
+    void assigningSubordinateAsManager_isRejected() {
+        User reloadedHead = withManager(userRepository.findById(head.getId()).orElseThrow(), member);
+
+        Exception exception = assertThrows(RuntimeException.class, () -> userRepository.save(reloadedHead));
+
+        Throwable cause = exception;
+        while (cause != null && !(cause instanceof ValidationException)) {
+            cause = cause.getCause();
+        }
+        assertNotNull(cause, "ValidationException erwartet, war: " + exception);
+        assertNull(userRepository.findById(head.getId()).orElseThrow().getManager());
+        assertEquals(3, rows().size());
+    }
+
+    private static User withManager(User user, User manager) {
+        user.setManager(manager);
+        return user;
+    }
+
+    private List<String> rows() {
+        return jdbcTemplate.query("SELECT ancestor_id, descendant_id, depth FROM manager_hierarchy "
+                        + "WHERE descendant_id IN (?, ?, ?, ?) ORDER BY ancestor_id, descendant_id",
+                (rs, rowNum) -> rs.getLong(1) + ">" + rs.getLong(2) + "@" + rs.getInt(3),
+                head.getId(), lead.getId(), member.getId(), otherHead.getId());
+    }
+}
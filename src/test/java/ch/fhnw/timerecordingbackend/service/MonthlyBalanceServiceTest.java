@@ -0,0 +1,180 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryRequest;
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryResponse;
+import ch.fhnw.timerecordingbackend.model.Absence;
+import ch.fhnw.timerecordingbackend.model.MonthlyBalance;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
+import ch.fhnw.timerecordingbackend.repository.AbsenceRepository;
+import ch.fhnw.timerecordingbackend.repository.MonthlyBalanceRepository;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prüft die inkrementelle Nachführung der Monatssalden gegen H2.
+ * @author PD
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MonthlyBalanceServiceTest {
+
+    @Autowired
+    private MonthlyBalanceService monthlyBalanceService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private AbsenceService absenceService;
+    @Autowired
+    private MonthlyBalanceRepository monthlyBalanceRepository;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private AbsenceRepository absenceRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User manager;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.save(new User("Balance", "Manager", "balance.manager@example.com", "password"));
+        User employee = new User("Balance", "User", "balance.user@example.com", "password");
+        employee.setPlannedHoursPerDay(8.0);
+        employee.setManager(manager);
+        user = userRepository.save(employee);
+        when(securityUtils.getCurrentPrincipal()).thenReturn(AuthenticatedUser.of(user));
+        when(securityUtils.getCurrentUserId()).thenReturn(user.getId());
+        when(securityUtils.getCurrentUsername()).thenReturn(user.getEmail());
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeEntryRepository.deleteAll();
+        absenceRepository.deleteAll();
+        monthlyBalanceRepository.deleteAll();
+        userRepository.delete(user);
+        userRepository.delete(manager);
+    }
+
+    @Test
+    void timeEntryChanges_areBookedIncrementallyPerMonth() {
+        // 9h im Januar, 7.5h im Februar bei 8h Soll
+        TimeEntryResponse january = timeEntryService.createTimeEntry(request(LocalDate.of(2025, 1, 6), "08:00", "17:00"));
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 2, 3), "08:00", "15:30"));
+
+        Map<String, Object> balance = monthlyBalanceService.getBalance(user.getId(), YearMonth.of(2025, 1), YearMonth.of(2025, 2));
+        assertEquals("16:30", balance.get("actualHours"));
+        assertEquals("+00:30", balance.get("difference"));
+        assertEquals(2, ((List<?>) balance.get("months")).size());
+
+        // Änderung bucht nur das Delta des Januars
+        timeEntryService.updateTimeEntry(january.getId(), request(LocalDate.of(2025, 1, 6), "07:00", "17:00"));
+        MonthlyBalance januaryRow = month(2025, 1);
+        assertEquals(10 * 60, januaryRow.getActualMinutes());
+        assertEquals(120, januaryRow.getDifferenceMinutes());
+
+        timeEntryService.deleteTimeEntry(january.getId());
+        januaryRow = month(2025, 1);
+        assertEquals(0, januaryRow.getActualMinutes());
+        assertEquals(0, januaryRow.getPlannedMinutes());
+        assertEquals(-30, month(2025, 2).getDifferenceMinutes());
+    }
+
+    @Test
+    void absenceApproval_creditsWorkdaysAcrossMonthsAndRejectRevokes() {
+        // Fr 31.01. bis Di 04.02.2025: 1 Werktag im Januar, 2 im Februar
+        Absence absence = absenceRepository.save(new Absence(user, LocalDate.of(2025, 1, 31),
+                LocalDate.of(2025, 2, 4), AbsenceType.VACATION));
+
+        absenceService.approveAbsence(absence.getId(), manager.getId());
+        assertEquals(8 * 60, month(2025, 1).getAbsenceCreditMinutes());
+        assertEquals(2 * 8 * 60, month(2025, 2).getAbsenceCreditMinutes());
+
+        // Erneute Genehmigung bucht nicht doppelt, eine geänderte Sollzeit ändert die Rückbuchung nicht
+        absenceService.approveAbsence(absence.getId(), manager.getId());
+        assertEquals(2 * 8 * 60, month(2025, 2).getAbsenceCreditMinutes());
+        user.setPlannedHoursPerDay(4.0);
+        userRepository.save(user);
+
+        absenceService.rejectAbsence(absence.getId(), manager.getId());
+        assertEquals(0, month(2025, 1).getAbsenceCreditMinutes());
+        assertEquals(0, month(2025, 2).getAbsenceCreditMinutes());
+        assertNull(absenceRepository.findById(absence.getId()).orElseThrow().getCreditedMinutesPerDay());
+    }
+
+    @Test
+    void applyDeltas_createsMissingRowInCallersTransaction() {
+        LocalDate month = LocalDate.of(2025, 5, 1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Zeile und Delta werden gemeinsam mit der aufrufenden Transaktion zurückgerollt
+        transaction.executeWithoutResult(status -> {
+            monthlyBalanceService.applyDeltas(user.getId(), month, 60, 0, 60, 0);
+            monthlyBalanceService.applyDeltas(user.getId(), month, 30, 0, 30, 0);
+            assertEquals(90, monthlyBalanceRepository.findByUserIdAndMonthStartBetween(user.getId(), month, month)
+                    .get(0).getActualMinutes());
+            status.setRollbackOnly();
+        });
+        assertTrue(monthlyBalanceRepository.findByUserIdAndMonthStartBetween(user.getId(), month, month).isEmpty());
+    }
+
+    @Test
+    void rebuildAll_matchesIncrementalState() {
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 3, 3), "08:00", "18:00"));
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 3, 4), "08:00", "12:00"));
+        Absence absence = absenceRepository.save(new Absence(user, LocalDate.of(2025, 3, 10),
+                LocalDate.of(2025, 3, 14), AbsenceType.ILLNESS));
+        absenceService.approveAbsence(absence.getId(), manager.getId());
+        MonthlyBalance incremental = month(2025, 3);
+
+        monthlyBalanceService.rebuildAll();
+
+        MonthlyBalance rebuilt = month(2025, 3);
+        assertEquals(incremental.getActualMinutes(), rebuilt.getActualMinutes());
+        assertEquals(incremental.getPlannedMinutes(), rebuilt.getPlannedMinutes());
+        assertEquals(incremental.getDifferenceMinutes(), rebuilt.getDifferenceMinutes());
+        assertEquals(5 * 8 * 60, rebuilt.getAbsenceCreditMinutes());
+        assertEquals(-2 * 60 + 5 * 8 * 60, rebuilt.getBalanceMinutes());
+    }
+
+    private MonthlyBalance month(int year, int month) {
+        LocalDate monthStart = LocalDate.of(year, month, 1);
+        List<MonthlyBalance> rows = monthlyBalanceRepository.findByUserIdAndMonthStartBetween(user.getId(), monthStart, monthStart);
+        assertEquals(1, rows.size());
+        return rows.get(0);
+    }
+
+    private static TimeEntryRequest request(LocalDate date, String start, String end) {
+        TimeEntryRequest request = new TimeEntryRequest();
+        request.setDate(date);
+        request.setStartTimes(List.of(start));
+        request.setEndTimes(List.of(end));
+        return request;
+    }
+}
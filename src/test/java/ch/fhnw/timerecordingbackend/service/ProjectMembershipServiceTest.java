@@ -0,0 +1,131 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryRequest;
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.ProjectMembership;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.MonthlyBalanceRepository;
+import ch.fhnw.timerecordingbackend.repository.ProjectMembershipRepository;
+import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prüft, dass die Projektzugehörigkeiten beim Anlegen, Umbuchen und Löschen von Zeiteinträgen nachgeführt werden.
+ * @author PD
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProjectMembershipServiceTest {
+
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private ProjectMembershipService projectMembershipService;
+    @Autowired
+    private ProjectMembershipRepository projectMembershipRepository;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private MonthlyBalanceRepository monthlyBalanceRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User user;
+    private Project alpha;
+    private Project beta;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Mia", "Member", "membership.mia@example.com", "password"));
+        alpha = projectRepository.save(new Project("Membership Alpha"));
+        beta = projectRepository.save(new Project("Membership Beta"));
+        when(securityUtils.getCurrentPrincipal()).thenReturn(AuthenticatedUser.of(user));
+        when(securityUtils.getCurrentUserId()).thenReturn(user.getId());
+        when(securityUtils.getCurrentUsername()).thenReturn(user.getEmail());
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeEntryRepository.deleteAll();
+        monthlyBalanceRepository.deleteAll();
+        projectMembershipRepository.deleteAll();
+        projectRepository.delete(alpha);
+        projectRepository.delete(beta);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void bookings_maintainMembershipWithFirstAndLastDate() {
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 3, 4), alpha.getId()));
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 3, 2), alpha.getId()));
+        Long lastId = timeEntryService.createTimeEntry(request(LocalDate.of(2025, 3, 9), alpha.getId())).getId();
+
+        ProjectMembership membership = membership(alpha);
+        assertEquals(3, membership.getEntryCount());
+        assertEquals(LocalDate.of(2025, 3, 2), membership.getFirstBookedDate());
+        assertEquals(LocalDate.of(2025, 3, 9), membership.getLastBookedDate());
+        assertEquals(List.of(alpha.getId()), projectService.findProjectsByUserId(user.getId()).stream().map(Project::getId).toList());
+        assertEquals(1, projectService.countUsersByProjectId(alpha.getId()));
+
+        // Umbuchen des letzten Tages: Zeitraum schrumpft, neues Projekt kommt hinzu
+        timeEntryService.assignProject(lastId, beta.getId());
+        membership = membership(alpha);
+        assertEquals(2, membership.getEntryCount());
+        assertEquals(LocalDate.of(2025, 3, 4), membership.getLastBookedDate());
+        assertEquals(LocalDate.of(2025, 3, 9), membership(beta).getFirstBookedDate());
+
+        // Letzter Eintrag auf Beta gelöscht: keine Zugehörigkeit mehr
+        timeEntryService.deleteTimeEntry(lastId);
+        assertTrue(projectMembershipRepository.findByUserIdAndProjectId(user.getId(), beta.getId()).isEmpty());
+        assertEquals(List.of(alpha.getId()), projectService.findActiveProjectsByUserId(user.getId()).stream().map(Project::getId).toList());
+        assertTrue(projectService.findUsersByProjectId(beta.getId()).isEmpty());
+    }
+
+    @Test
+    void rebuildAll_restoresMembershipsFromTimeEntries() {
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 4, 1), alpha.getId()));
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 4, 2), beta.getId()));
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 4, 3), null));
+        projectMembershipRepository.deleteAll();
+
+        assertEquals(2, projectMembershipService.rebuildAll());
+        assertEquals(1, membership(alpha).getEntryCount());
+        assertEquals(LocalDate.of(2025, 4, 2), membership(beta).getLastBookedDate());
+    }
+
+    private ProjectMembership membership(Project project) {
+        return projectMembershipRepository.findByUserIdAndProjectId(user.getId(), project.getId()).orElseThrow();
+    }
+
+    private static TimeEntryRequest request(LocalDate date, Long projectId) {
+        TimeEntryRequest request = new TimeEntryRequest();
+        request.setDate(date);
+        request.setStartTimes(List.of("08:00"));
+        request.setEndTimes(List.of("12:00"));
+        request.setProjectId(projectId);
+        return request;
+    }
+}
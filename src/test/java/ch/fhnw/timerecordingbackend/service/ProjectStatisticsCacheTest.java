@@ -0,0 +1,60 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft Begrenzung, Invalidierung und Kennzahlen des Caches der Projektstatistiken.
+ * @author PD
+ */
+class ProjectStatisticsCacheTest {
+
+    @Test
+    void getAll_countsHitsAndMissesAndEvictsLeastRecentlyUsed() {
+        ProjectStatisticsCache cache = new ProjectStatisticsCache();
+        cache.putAll(Map.of(1L, entry(60)), cache.currentGeneration());
+        assertEquals(60, cache.getAll(List.of(1L, 2L)).get(1L).getTotalMinutes());
+
+        // Projekt 1 bleibt durch den Zugriff erhalten, Projekt 2 wird als ältestes verdrängt
+        long generation = cache.currentGeneration();
+        for (long id = 2; id <= ProjectStatisticsCache.MAX_ENTRIES; id++) {
+            cache.putAll(Map.of(id, entry(id)), generation);
+        }
+        cache.getAll(List.of(1L));
+        cache.putAll(Map.of(5000L, entry(1)), generation);
+
+        assertTrue(cache.getAll(List.of(1L)).containsKey(1L));
+        assertFalse(cache.getAll(List.of(2L)).containsKey(2L));
+        Map<String, Object> stats = cache.stats();
+        assertEquals(ProjectStatisticsCache.MAX_ENTRIES, stats.get("size"));
+        assertEquals(3L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses"));
+        assertEquals(1L, stats.get("evictions"));
+    }
+
+    @Test
+    void invalidate_discardsEntryAndRejectsValuesLoadedBefore() {
+        ProjectStatisticsCache cache = new ProjectStatisticsCache();
+        cache.putAll(Map.of(1L, entry(60)), cache.currentGeneration());
+
+        // Ein Leser lädt vor der Invalidierung und will danach einen veralteten Stand schreiben
+        long staleGeneration = cache.currentGeneration();
+        cache.invalidate(1L);
+        cache.putAll(Map.of(1L, entry(60)), staleGeneration);
+        assertTrue(cache.getAll(List.of(1L)).isEmpty());
+
+        cache.putAll(Map.of(1L, entry(90)), cache.currentGeneration());
+        assertEquals(90, cache.getAll(List.of(1L)).get(1L).getTotalMinutes());
+        cache.invalidateAll(List.of(1L, 2L));
+        assertTrue(cache.getAll(List.of(1L)).isEmpty());
+        assertEquals(3L, cache.stats().get("invalidations"));
+    }
+
+    private static ProjectStatisticsCache.Entry entry(long minutes) {
+        return new ProjectStatisticsCache.Entry(minutes, 1, new long[]{7L});
+    }
+}
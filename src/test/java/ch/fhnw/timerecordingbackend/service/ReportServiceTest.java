@@ -0,0 +1,180 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.report.ReportResponse;
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryRequest;
+import ch.fhnw.timerecordingbackend.model.Absence;
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceStatus;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
+import ch.fhnw.timerecordingbackend.model.enums.ReportGranularity;
+import ch.fhnw.timerecordingbackend.repository.AbsenceRepository;
+import ch.fhnw.timerecordingbackend.repository.MonthlyBalanceRepository;
+import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prüft die aggregierten Auswertungen pro Benutzer, Team und Projekt gegen H2.
+ * @author PD
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService reportService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private AbsenceRepository absenceRepository;
+    @Autowired
+    private MonthlyBalanceRepository monthlyBalanceRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User manager;
+    private User alice;
+    private User bob;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.save(new User("Report", "Manager", "report.manager@example.com", "password"));
+        alice = userRepository.save(member("Alice", "report.alice@example.com"));
+        bob = userRepository.save(member("Bob", "report.bob@example.com"));
+        Project newProject = new Project("Report-Projekt");
+        newProject.setManager(manager);
+        project = projectRepository.save(newProject);
+
+        // Alice: Mo 06.01. 9h, Di 07.01. 7h (Projekt), Mo 03.02. 8h; Bob: Mo 06.01. 8h (Projekt)
+        loginAs(alice);
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 1, 6), "08:00", "17:00", null));
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 1, 7), "08:00", "15:00", project.getId()));
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 2, 3), "08:00", "16:00", null));
+        loginAs(bob);
+        timeEntryService.createTimeEntry(request(LocalDate.of(2025, 1, 6), "09:00", "17:00", project.getId()));
+
+        // Genehmigte Ferien Fr 10.01. bis Mo 13.01. (2 Werktage), Home-Office zählt nicht als Abwesenheit
+        Absence vacation = new Absence(alice, LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 13), AbsenceType.VACATION);
+        vacation.setStatus(AbsenceStatus.APPROVED);
+        absenceRepository.save(vacation);
+        Absence homeOffice = new Absence(alice, LocalDate.of(2025, 1, 14), LocalDate.of(2025, 1, 14), AbsenceType.HOME_OFFICE);
+        homeOffice.setStatus(AbsenceStatus.APPROVED);
+        absenceRepository.save(homeOffice);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeEntryRepository.deleteAll();
+        absenceRepository.deleteAll();
+        monthlyBalanceRepository.deleteAll();
+        projectRepository.delete(project);
+        userRepository.delete(alice);
+        userRepository.delete(bob);
+        userRepository.delete(manager);
+    }
+
+    @Test
+    void userReport_groupsByMonthAndWeekWithOvertimeAndAbsenceDays() {
+        loginAs(alice);
+        ReportResponse monthly = reportService.getCurrentUserReport(LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 2, 28), ReportGranularity.MONTH);
+
+        assertEquals(2, monthly.getRows().size());
+        assertArrayEquals(new Object[]{"2025-01", alice.getId(), 16 * 60, 16 * 60, 0, 2}, monthly.getRows().get(0));
+        assertArrayEquals(new Object[]{"2025-02", alice.getId(), 8 * 60, 8 * 60, 0, 0}, monthly.getRows().get(1));
+        assertEquals("24:00", monthly.getTotals().get("actualHours"));
+        assertEquals(2, monthly.getTotals().get("absenceDays"));
+
+        ReportResponse weekly = reportService.getCurrentUserReport(LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 1, 31), ReportGranularity.WEEK);
+        assertEquals(List.of("2025-W02", "2025-W03"), weekly.getRows().stream().map(row -> row[0]).toList());
+        assertArrayEquals(new Object[]{"2025-W02", alice.getId(), 16 * 60, 16 * 60, 0, 1}, weekly.getRows().get(0));
+        assertArrayEquals(new Object[]{"2025-W03", alice.getId(), 0, 0, 0, 1}, weekly.getRows().get(1));
+    }
+
+    @Test
+    void teamReport_aggregatesAllDirectReportsInOneQuery() {
+        loginAs(manager);
+        ReportResponse team = reportService.getTeamReport(null, LocalDate.of(2025, 1, 6),
+                LocalDate.of(2025, 1, 6), ReportGranularity.DAY);
+
+        assertEquals(2, team.getUsers().size());
+        assertEquals(2, team.getRows().size());
+        assertArrayEquals(new Object[]{"2025-01-06", alice.getId(), 9 * 60, 8 * 60, 60, 0}, team.getRows().get(0));
+        assertArrayEquals(new Object[]{"2025-01-06", bob.getId(), 8 * 60, 8 * 60, 0, 0}, team.getRows().get(1));
+        assertEquals("+01:00", team.getTotals().get("overtime"));
+
+        // Mitarbeitende dürfen weder fremde Teams noch Auswertungen von Kollegen sehen
+        loginAs(alice);
+        ResponseStatusException teamDenied = assertThrows(ResponseStatusException.class,
+                () -> reportService.getTeamReport(manager.getId(), null, null, null));
+        assertEquals(HttpStatus.FORBIDDEN, teamDenied.getStatusCode());
+        assertThrows(ResponseStatusException.class,
+                () -> reportService.getUserReport(bob.getId(), null, null, null));
+    }
+
+    @Test
+    void projectReport_sumsBookedTimePerUser() {
+        loginAs(manager);
+        ReportResponse report = reportService.getProjectReport(project.getId(), LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), ReportGranularity.MONTH);
+
+        assertEquals(2, report.getRows().size());
+        assertArrayEquals(new Object[]{"2025-01", alice.getId(), 7 * 60, 1}, report.getRows().get(0));
+        assertArrayEquals(new Object[]{"2025-01", bob.getId(), 8 * 60, 1}, report.getRows().get(1));
+        assertEquals("15:00", report.getTotals().get("actualHours"));
+        assertEquals(2, report.getUsers().size());
+
+        loginAs(alice);
+        assertThrows(ResponseStatusException.class, () -> reportService.getProjectReport(project.getId(),
+                null, null, ReportGranularity.MONTH));
+    }
+
+    private User member(String firstName, String email) {
+        User user = new User(firstName, "Report", email, "password");
+        user.setPlannedHoursPerDay(8.0);
+        user.setManager(manager);
+        return user;
+    }
+
+    private void loginAs(User user) {
+        when(securityUtils.getCurrentPrincipal()).thenReturn(AuthenticatedUser.of(user));
+        when(securityUtils.getCurrentUserId()).thenReturn(user.getId());
+        when(securityUtils.getCurrentUsername()).thenReturn(user.getEmail());
+    }
+
+    private static TimeEntryRequest request(LocalDate date, String start, String end, Long projectId) {
+        TimeEntryRequest request = new TimeEntryRequest();
+        request.setDate(date);
+        request.setStartTimes(List.of(start));
+        request.setEndTimes(List.of(end));
+        request.setProjectId(projectId);
+        return request;
+    }
+}
@@ -0,0 +1,86 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft, dass der Suchindex Änderungen an Benutzern und Projekten über den Entity-Listener übernimmt.
+ * @author FA
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchIndexServiceTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.findByName("Suchindex Testprojekt").ifPresent(projectRepository::delete);
+        projectRepository.findByName("Umbenanntes Projekt").ifPresent(projectRepository::delete);
+        userRepository.findByEmail("xaver.quendt@example.com").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void searchUsers_followsInsertUpdateAndDelete() {
+        User user = userRepository.save(new User("Xaver", "Quendt", "xaver.quendt@example.com", "password"));
+        assertEquals(List.of(user.getId()), ids(userService.searchUsers("quend", 10)));
+        assertEquals(List.of(user.getId()), ids(userService.searchUsers("xaver quendt", 10)));
+
+        user.setLastName("Quastl");
+        userRepository.save(user);
+        // "quendt" steht weiterhin in der E-Mail, der volle Name nicht mehr
+        assertTrue(userService.searchUsers("xaver quendt", 10).isEmpty());
+        assertEquals(List.of(user.getId()), ids(userService.searchUsers("quastl", 10)));
+
+        userRepository.delete(user);
+        assertTrue(userService.searchUsers("quastl", 10).isEmpty());
+    }
+
+    @Test
+    void searchProjects_followsRenameAndRespectsLimit() {
+        Project project = projectRepository.save(new Project("Suchindex Testprojekt", "Kundenportal"));
+        assertEquals(List.of(project.getId()), projectService.searchProjects("kundenport", 10).stream().map(Project::getId).toList());
+
+        project.setName("Umbenanntes Projekt");
+        projectRepository.save(project);
+        assertTrue(projectService.searchProjects("suchindex", 10).isEmpty());
+        assertEquals(1, projectService.searchProjects("umbenannt", 1).size());
+    }
+
+    @Test
+    void searchProjects_withoutLimitReturnsAllMatches() {
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            projects.add(projectRepository.save(new Project("Vollsuche " + i, null)));
+        }
+        try {
+            assertEquals(60, projectService.searchProjects("vollsuche").size());
+            assertEquals(5, projectService.searchProjects("vollsuche", 5).size());
+        } finally {
+            projectRepository.deleteAll(projects);
+        }
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,150 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryImportResult;
+import ch.fhnw.timerecordingbackend.model.Project;
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integrationstest für den Massenimport von Zeiteinträgen gegen H2.
+ * @author FA
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TimeEntryImportServiceTest {
+
+    @Autowired
+    private TimeEntryImportService timeEntryImportService;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private ActiveTimerRegistry activeTimerRegistry;
+
+    private User anna;
+    private User peter;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        anna = userRepository.save(new User("Anna", "Import", "anna.import@example.com", "password"));
+        peter = userRepository.save(new User("Peter", "Import", "peter.import@example.com", "password"));
+        project = projectRepository.save(new Project("Importprojekt"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeEntryRepository.deleteAll();
+        projectRepository.delete(project);
+        userRepository.deleteAll(List.of(anna, peter));
+        activeTimerRegistry.rebuild();
+    }
+
+    @Test
+    void importJson_importsValidRowsAndReportsInvalidOnes() throws Exception {
+        TimeEntry existing = new TimeEntry();
+        existing.setUser(peter);
+        existing.setDate(LocalDate.of(2025, 3, 4));
+        timeEntryRepository.save(existing);
+
+        String json = "[" +
+                "{\"userId\":" + anna.getId() + ",\"date\":\"2025-03-03\",\"startTimes\":[\"08:00\",\"13:00\"]," +
+                "\"endTimes\":[\"12:00\",\"17:30\"],\"breaks\":[{\"start\":\"15:00\",\"end\":\"15:15\"}]," +
+                "\"projectId\":" + project.getId() + "}," +
+                "{\"userEmail\":\"peter.import@example.com\",\"date\":\"2025-03-04\",\"startTimes\":[\"08:00\"]}," +
+                "{\"userId\":" + anna.getId() + ",\"date\":\"2025-03-05\",\"startTimes\":[\"8 Uhr\"]}," +
+                "{\"userId\":" + anna.getId() + ",\"date\":\"kein Datum\",\"startTimes\":[\"08:00\"]}," +
+                "{\"userEmail\":\"unbekannt@example.com\",\"date\":\"2025-03-05\",\"startTimes\":[\"08:00\"]}," +
+                "{\"userId\":" + anna.getId() + ",\"date\":\"2025-03-03\",\"startTimes\":[\"09:00\"]}" +
+                "]";
+
+        TimeEntryImportResult result = timeEntryImportService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getImported());
+        assertEquals(5, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), result.getErrors().stream().map(e -> e.getRow()).toList());
+        assertTrue(result.getErrors().get(0).getMessage().contains("bereits ein Zeiteintrag"));
+        assertTrue(result.getErrors().get(1).getMessage().contains("Startzeit-Format"));
+
+        TimeEntry imported = timeEntryRepository.findByUserAndDate(anna, LocalDate.of(2025, 3, 3)).orElseThrow();
+        assertEquals(8 * 60 + 15, imported.getActualMinutes());
+        assertEquals(List.of(LocalTime.of(8, 0), LocalTime.of(13, 0)), imported.getStartTimes());
+        assertEquals(project.getId(), timeEntryRepository.findById(imported.getId()).orElseThrow().getProject().getId());
+    }
+
+    @Test
+    void importCsv_importsAcrossSeveralChunks() throws Exception {
+        int rows = TimeEntryImportServiceImpl.CHUNK_SIZE + 200;
+        StringBuilder csv = new StringBuilder("userEmail;date;startTimes;endTimes;breaks;projectId\n");
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            csv.append("anna.import@example.com;").append(start.plusDays(i))
+                    .append(";08:00|13:00;12:00|17:00;15:00-15:10;\n");
+        }
+        csv.append("anna.import@example.com;2030-01-01;08:00;;12:00;\n");
+
+        TimeEntryImportResult result = timeEntryImportService.importCsv(new StringReader(csv.toString()));
+
+        assertEquals(rows, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(rows + 1, result.getErrors().get(0).getRow());
+        assertEquals(rows, timeEntryRepository.findByUser(anna).size());
+        assertEquals(rows * (8 * 60 - 10L), timeEntryRepository.sumActualMinutesByUserIdAndDateBetween(
+                anna.getId(), start, start.plusDays(rows)));
+    }
+
+    @Test
+    void importCsv_keepsQuotedFieldsInTheirColumns() throws Exception {
+        // Zusätzliche Spalte mit Trennzeichen, Zeilenumbruch und verdoppelten Anführungszeichen
+        String csv = "userEmail;date;comment;startTimes;endTimes\n"
+                + "anna.import@example.com;2025-03-03;\"Meeting; Planung\";08:00;12:00\n"
+                + "\"peter.import@example.com\";2025-03-03;\"Kunde \"\"Muster\"\";\nzweite Zeile\";07:30;11:00\n"
+                + "anna.import@example.com;2025-03-04;\"nicht geschlossen;08:00;12:00\n";
+
+        TimeEntryImportResult result = timeEntryImportService.importCsv(new StringReader(csv));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().contains("Anführungszeichen"));
+        TimeEntry annaEntry = timeEntryRepository.findByUserAndDate(anna, LocalDate.of(2025, 3, 3)).orElseThrow();
+        assertEquals(List.of(LocalTime.of(8, 0)), annaEntry.getStartTimes());
+        assertEquals(4 * 60, annaEntry.getActualMinutes());
+        TimeEntry peterEntry = timeEntryRepository.findByUserAndDate(peter, LocalDate.of(2025, 3, 3)).orElseThrow();
+        assertEquals(List.of(LocalTime.of(7, 30)), peterEntry.getStartTimes());
+        assertEquals(3 * 60 + 30, peterEntry.getActualMinutes());
+    }
+
+    @Test
+    void importJson_registersImportedRunningTimers() throws Exception {
+        String json = "[{\"userId\":" + peter.getId() + ",\"date\":\"2025-03-03\",\"startTimes\":[\"07:30\"]}]";
+
+        TimeEntryImportResult result = timeEntryImportService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getImported());
+        assertTrue(activeTimerRegistry.isRunning(peter.getId()));
+    }
+}
@@ -10,6 +10,7 @@ import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
 import ch.fhnw.timerecordingbackend.repository.ProjectRepository;
 import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
 import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
 import ch.fhnw.timerecordingbackend.security.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -65,7 +66,8 @@ class TimeEntryServiceIntegrationTest {
             return projectRepository.save(project);
         });
 
-        when(securityUtils.getCurrentUser()).thenReturn(testUser);
+        when(securityUtils.getCurrentPrincipal()).thenReturn(AuthenticatedUser.of(testUser));
+        when(securityUtils.getCurrentUserId()).thenReturn(testUser.getId());
     }
 
     @Test
@@ -96,9 +98,9 @@ class TimeEntryServiceIntegrationTest {
         initialEntry.setDate(LocalDate.now());
         initialEntry.addStartTime(LocalTime.of(8,0));
         initialEntry.addEndTime(LocalTime.of(9,0));
-        initialEntry.setActualHours("01:00");
-        initialEntry.setPlannedHours("08:00");
-        initialEntry.setDifference("-07:00");
+        initialEntry.setActualMinutes(60);
+        initialEntry.setPlannedMinutes(480);
+        initialEntry.setDifferenceMinutes(-420);
         timeEntryRepository.save(initialEntry);
 
         TimeEntryRequest request = new TimeEntryRequest();
@@ -119,9 +121,9 @@ class TimeEntryServiceIntegrationTest {
         initialEntry.setDate(LocalDate.now());
         initialEntry.addStartTime(LocalTime.of(8,0));
         initialEntry.addEndTime(LocalTime.of(12,0));
-        initialEntry.setActualHours("04:00");
-        initialEntry.setPlannedHours("08:00");
-        initialEntry.setDifference("-04:00");
+        initialEntry.setActualMinutes(240);
+        initialEntry.setPlannedMinutes(480);
+        initialEntry.setDifferenceMinutes(-240);
         timeEntryRepository.save(initialEntry);
 
         TimeEntryRequest updateRequest = new TimeEntryRequest();
@@ -136,7 +138,7 @@ class TimeEntryServiceIntegrationTest {
         Optional<TimeEntry> updatedEntry = timeEntryRepository.findById(initialEntry.getId());
         assertTrue(updatedEntry.isPresent());
         assertTrue(updatedEntry.get().getStartTimes().contains(LocalTime.of(9,0)));
-        assertEquals("07:30", updatedEntry.get().getActualHours());
+        assertEquals(450, updatedEntry.get().getActualMinutes());
         assertEquals(testProject.getId(), updatedEntry.get().getProject().getId());
     }
 
@@ -146,9 +148,9 @@ class TimeEntryServiceIntegrationTest {
         entryToDelete.setUser(testUser);
         entryToDelete.setDate(LocalDate.now().minusDays(1));
         entryToDelete.addStartTime(LocalTime.of(8,0));
-        entryToDelete.setActualHours("08:00");
-        entryToDelete.setPlannedHours("08:00");
-        entryToDelete.setDifference("00:00");
+        entryToDelete.setActualMinutes(480);
+        entryToDelete.setPlannedMinutes(480);
+        entryToDelete.setDifferenceMinutes(0);
         timeEntryRepository.save(entryToDelete);
 
         timeEntryService.deleteTimeEntry(entryToDelete.getId());
@@ -177,9 +179,9 @@ class TimeEntryServiceIntegrationTest {
         activeEntry.setUser(testUser);
         activeEntry.setDate(LocalDate.now());
         activeEntry.addStartTime(LocalTime.now().minusHours(1));
-        activeEntry.setActualHours("00:00");
-        activeEntry.setPlannedHours("08:00");
-        activeEntry.setDifference("-08:00");
+        activeEntry.setActualMinutes(0);
+        activeEntry.setPlannedMinutes(480);
+        activeEntry.setDifferenceMinutes(-480);
         timeEntryRepository.save(activeEntry);
 
         Map<String, Object> response = timeEntryService.stopTimeTracking(activeEntry.getId());
@@ -190,6 +192,6 @@ class TimeEntryServiceIntegrationTest {
         Optional<TimeEntry> stoppedEntry = timeEntryRepository.findById(activeEntry.getId());
         assertTrue(stoppedEntry.isPresent());
         assertFalse(stoppedEntry.get().isActive());
-        assertNotNull(stoppedEntry.get().getActualHours());
+        assertTrue(stoppedEntry.get().getActualMinutes() >= 0);
     }
 }
\ No newline at end of file
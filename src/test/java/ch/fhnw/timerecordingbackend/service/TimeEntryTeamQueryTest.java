@@ -0,0 +1,132 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryPageResponse;
+import ch.fhnw.timerecordingbackend.dto.time.TimeEntryResponse;
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.AuthenticatedUser;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prüft, dass das Laden der Team-Zeiteinträge eine feste, kleine Anzahl SQL-Statements benötigt,
+ * unabhängig von der Anzahl Teammitglieder und Einträge.
+ * @author FA
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class TimeEntryTeamQueryTest {
+
+    // Obergrenze: Benutzer, Rollen und Seite inkl. Benutzer/Projekt; Zeiten und Pausen liegen in der Eintragszeile
+    private static final long MAX_STATEMENTS = 3;
+
+    private static final int TEAM_SIZE = 25;
+    private static final int DAYS = 4;
+
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User manager;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.save(new User("Team", "Manager", "team.manager@example.com", "password"));
+        LocalDate start = LocalDate.of(2025, 3, 3);
+        for (int i = 0; i < TEAM_SIZE; i++) {
+            User member = new User("Member" + i, "Team", "member" + i + "@example.com", "password");
+            member.setManager(manager);
+            userRepository.save(member);
+            for (int d = 0; d < DAYS; d++) {
+                TimeEntry entry = new TimeEntry();
+                entry.setUser(member);
+                entry.setDate(start.plusDays(d));
+                entry.addStartTime(LocalTime.of(8, 0));
+                entry.addEndTime(LocalTime.of(17, 0));
+                entry.addBreak(LocalTime.of(12, 0), LocalTime.of(12, 30));
+                timeEntryRepository.save(entry);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        when(securityUtils.getCurrentPrincipal()).thenReturn(AuthenticatedUser.of(manager));
+        when(securityUtils.getCurrentUserId()).thenReturn(manager.getId());
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getTeamTimeEntries_usesConstantNumberOfStatements() {
+        List<TimeEntryResponse> entries = timeEntryService.getTeamTimeEntries();
+
+        assertEquals(TEAM_SIZE * DAYS, entries.size());
+        assertEquals(List.of("08:00"), entries.get(0).getStartTimes());
+        assertEquals(1, entries.get(0).getBreaks().size());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getTeamTimeEntriesPage_pagesThroughDateWindowWithConstantStatements() {
+        TimeEntryPageResponse firstPage = timeEntryService.getTeamTimeEntriesPage(
+                LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 5), null, 30);
+
+        assertEquals(30, firstPage.getEntries().size());
+        assertTrue(firstPage.isHasMore());
+        assertEquals(LocalDate.of(2025, 3, 5), firstPage.getEntries().get(0).getDate());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Statements: " + statistics.getPrepareStatementCount());
+
+        TimeEntryPageResponse secondPage = timeEntryService.getTeamTimeEntriesPage(
+                LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 5), firstPage.getNextCursor(), 30);
+
+        assertEquals(TEAM_SIZE * 2 - 30, secondPage.getEntries().size());
+        assertFalse(secondPage.isHasMore());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getAllTimeEntriesPage_pagesByUserWithoutDateWindow() {
+        User member = userRepository.findByEmail("member3@example.com").orElseThrow();
+
+        TimeEntryPageResponse firstPage = timeEntryService.getAllTimeEntriesPage(null, null, member.getId(), null,
+                null, 3);
+        TimeEntryPageResponse secondPage = timeEntryService.getAllTimeEntriesPage(null, null, member.getId(), null,
+                firstPage.getNextCursor(), 3);
+
+        assertEquals(List.of(LocalDate.of(2025, 3, 6), LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 4)),
+                firstPage.getEntries().stream().map(TimeEntryResponse::getDate).toList());
+        assertEquals(List.of(LocalDate.of(2025, 3, 3)),
+                secondPage.getEntries().stream().map(TimeEntryResponse::getDate).toList());
+        assertFalse(secondPage.isHasMore());
+    }
+}
@@ -0,0 +1,99 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.admin.UserPageResponse;
+import ch.fhnw.timerecordingbackend.dto.admin.UserResponse;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.model.enums.UserStatus;
+import ch.fhnw.timerecordingbackend.repository.RoleRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Benutzerliste als Projektion: Rollen und Managername ohne Nachladen pro Benutzer, Filter und Sortierung.
+ * @author PD
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class UserPageQueryTest {
+
+    private static final int TEAM_SIZE = 12;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private User manager;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.save(new User("Page", "Manager", "page.manager@example.com", "password"));
+        for (int i = 0; i < TEAM_SIZE; i++) {
+            User member = new User("Member" + i, String.format("Page%02d", i), "page.member" + i + "@example.com", "password");
+            member.setManager(manager);
+            member.getRoles().add(roleRepository.findByName("EMPLOYEE").orElseThrow());
+            if (i % 3 == 0) {
+                member.getRoles().add(roleRepository.findByName("MANAGER").orElseThrow());
+                member.setStatus(UserStatus.INACTIVE);
+            }
+            userRepository.save(member);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findUserPage_projectsRolesAndManagerWithPageAndCountQuery() {
+        UserPageResponse page = userService.findUserPage(1, 5, "lastName", "desc", null, null, manager.getId());
+
+        assertEquals(TEAM_SIZE, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(List.of("Page06", "Page05", "Page04", "Page03", "Page02"),
+                page.getUsers().stream().map(UserResponse::getLastName).toList());
+        UserResponse page03 = page.getUsers().get(3);
+        assertEquals(Set.of("EMPLOYEE", "MANAGER"), page03.getRoles());
+        assertEquals("Page Manager", page03.getManagerName());
+        assertEquals(manager.getId(), page03.getManagerId());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findUserPage_filtersByRoleAndStatusAndRejectsUnknownSort() {
+        UserPageResponse managers = userService.findUserPage(0, 50, "lastName", "asc", null, "manager", manager.getId());
+        assertEquals(List.of("Page00", "Page03", "Page06", "Page09"),
+                managers.getUsers().stream().map(UserResponse::getLastName).toList());
+        // Rollen bleiben vollständig, auch wenn nach einer Rolle gefiltert wird
+        assertEquals(Set.of("EMPLOYEE", "MANAGER"), managers.getUsers().get(0).getRoles());
+
+        UserPageResponse active = userService.findUserPage(0, 50, "lastName", "asc", UserStatus.ACTIVE, "EMPLOYEE", manager.getId());
+        assertEquals(8, active.getTotalElements());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.findUserPage(0, 50, "password", "asc", null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.findUserPage(0, 500, "lastName", "asc", null, null, null));
+    }
+}
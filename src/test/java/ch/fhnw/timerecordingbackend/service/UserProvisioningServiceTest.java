@@ -0,0 +1,133 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.dto.admin.UserImportResult;
+import ch.fhnw.timerecordingbackend.model.Registration;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.RegistrationRepository;
+import ch.fhnw.timerecordingbackend.repository.RoleRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Massenanlage von Benutzern per CSV und die Sammelgenehmigung von Registrierungsanfragen.
+ * @author PD
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserProvisioningServiceTest {
+
+    private static final List<String> CREATED_EMAILS = List.of(
+            "bulk.anna@example.com", "bulk.ben@example.com", "bulk.clara@example.com");
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private RegistrationRepository registrationRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User manager;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("Maja", "Manager", "bulk.manager@example.com", "password");
+        user.addRole(roleRepository.findByName("MANAGER").orElseThrow());
+        manager = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registrationRepository.deleteAll(registrationRepository.findAll().stream()
+                .filter(request -> request.getEmail().startsWith("bulk.")).toList());
+        userRepository.deleteAll(userRepository.findByEmailIn(CREATED_EMAILS));
+        userRepository.delete(manager);
+    }
+
+    @Test
+    void importCsv_createsValidRowsAndReportsInvalidOnes() throws Exception {
+        String csv = "firstName;lastName;email;role;managerEmail\n"
+                + "Anna;Adler;Bulk.Anna@example.com;employee;bulk.manager@example.com\n"
+                + "Bert;Bauer;bulk.manager@example.com;EMPLOYEE;\n"
+                + "Carl;Chef;bulk.carl@example.com;BOSS;\n"
+                + "Anna;Adler;bulk.anna@example.com;EMPLOYEE;\n"
+                + "Ben;Berger;bulk.ben@example.com;EMPLOYEE;unknown@example.com\n";
+
+        UserImportResult result = userProvisioningService.importCsv(new StringReader(csv));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L), result.getErrors().stream().map(UserImportResult.RowError::getRow).toList());
+        assertEquals("Email existiert bereits", result.getErrors().get(0).getMessage());
+
+        User anna = userRepository.findByEmail("bulk.anna@example.com").orElseThrow();
+        assertTrue(anna.hasRole("EMPLOYEE"));
+        assertEquals(manager.getId(), anna.getManager().getId());
+        assertTrue(passwordEncoder.matches("adler", anna.getPassword()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM manager_hierarchy "
+                + "WHERE ancestor_id = ? AND descendant_id = ? AND depth = 1", Integer.class, manager.getId(), anna.getId()));
+    }
+
+    @Test
+    void importCsv_keepsQuotedNamesInTheirColumns() throws Exception {
+        String csv = "firstName,lastName,email,role,plannedHoursPerDay\n"
+                + "\"Clara, Maria\",\"O\"\"Neill\",bulk.clara@example.com,EMPLOYEE,6.5\n"
+                + "Ben,\"Berger, jun.\",bulk.ben@example.com,EMPLOYEE,\n";
+
+        UserImportResult result = userProvisioningService.importCsv(new StringReader(csv));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(0, result.getFailed());
+        User clara = userRepository.findByEmail("bulk.clara@example.com").orElseThrow();
+        assertEquals("Clara, Maria", clara.getFirstName());
+        assertEquals("O\"Neill", clara.getLastName());
+        assertEquals(6.5, clara.getPlannedHoursPerDay());
+        assertEquals("Berger, jun.", userRepository.findByEmail("bulk.ben@example.com").orElseThrow().getLastName());
+    }
+
+    @Test
+    void approveRegistrations_createsUsersAndMarksRequestsApproved() {
+        Registration ben = registrationRepository.save(
+                new Registration("Ben", "Berger", "bulk.ben@example.com", "EMPLOYEE", manager));
+        Registration clara = registrationRepository.save(
+                new Registration("Clara", "Conrad", "bulk.clara@example.com", "MANAGER", null));
+
+        UserImportResult result = userProvisioningService.approveRegistrations(
+                List.of(ben.getId(), clara.getId(), -1L), "bulk.manager@example.com");
+
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(-1L, result.getErrors().get(0).getRow());
+        assertEquals("APPROVED", registrationRepository.findById(ben.getId()).orElseThrow().getStatus());
+        assertEquals("APPROVED", registrationRepository.findById(clara.getId()).orElseThrow().getStatus());
+        assertEquals(manager.getId(), userRepository.findByEmail("bulk.ben@example.com").orElseThrow().getManager().getId());
+        assertTrue(userRepository.findByEmail("bulk.clara@example.com").orElseThrow().hasRole("MANAGER"));
+
+        // Bereits genehmigte Anfragen werden nicht erneut angelegt
+        UserImportResult again = userProvisioningService.approveRegistrations(List.of(ben.getId()), "bulk.manager@example.com");
+        assertEquals(0, again.getCreated());
+        assertEquals(1, again.getFailed());
+    }
+}
@@ -0,0 +1,163 @@
+package ch.fhnw.timerecordingbackend.service;
+
+import ch.fhnw.timerecordingbackend.model.Absence;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.model.enums.AbsenceType;
+import ch.fhnw.timerecordingbackend.repository.AbsenceRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import ch.fhnw.timerecordingbackend.repository.VacationLedgerRepository;
+import ch.fhnw.timerecordingbackend.security.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Nachführung der Ferienkonten bei Antrag, Genehmigung, Änderung, Ablehnung und Löschung gegen H2.
+ * @author PD
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class VacationLedgerServiceTest {
+
+    @Autowired
+    private VacationLedgerService vacationLedgerService;
+    @Autowired
+    private AbsenceService absenceService;
+    @Autowired
+    private VacationLedgerRepository vacationLedgerRepository;
+    @Autowired
+    private AbsenceRepository absenceRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private SecurityUtils securityUtils;
+
+    private User manager;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.save(new User("Ledger", "Manager", "ledger.manager@example.com", "password"));
+        User employee = new User("Ledger", "User", "ledger.user@example.com", "password");
+        employee.setManager(manager);
+        user = userRepository.save(employee);
+    }
+
+    @AfterEach
+    void tearDown() {
+        absenceRepository.deleteAll();
+        vacationLedgerRepository.deleteAll();
+        userRepository.delete(user);
+        userRepository.delete(manager);
+    }
+
+    @Test
+    void absenceLifecycle_booksWorkdaysAsPendingAndApproved() {
+        // Mo 04.03. bis Fr 08.03.2030 plus Wochenende: 5 Werktage
+        Absence absence = absenceService.createAbsence(new Absence(user, LocalDate.of(2030, 3, 4),
+                LocalDate.of(2030, 3, 10), AbsenceType.VACATION));
+        assertLedger(2030, 0, 5, 20);
+
+        absenceService.approveAbsence(absence.getId(), manager.getId());
+        absenceService.approveAbsence(absence.getId(), manager.getId());
+        assertLedger(2030, 5, 0, 20);
+
+        absenceService.updateAbsence(absence.getId(), new Absence(user, LocalDate.of(2030, 3, 4),
+                LocalDate.of(2030, 3, 6), AbsenceType.VACATION));
+        assertLedger(2030, 3, 0, 22);
+
+        // Übertrag ins Folgejahr: höchstens app.vacation.max-carry-over-days
+        Map<String, Object> nextYear = vacationLedgerService.getLedger(user.getId(), 2031);
+        assertEquals(10, nextYear.get("carriedOverDays"));
+        assertEquals(35, nextYear.get("availableDays"));
+
+        absenceService.rejectAbsence(absence.getId(), manager.getId());
+        assertLedger(2030, 0, 0, 25);
+
+        // Andere Arten und abgelehnte Abwesenheiten zählen nicht
+        Absence training = absenceService.createAbsence(new Absence(user, LocalDate.of(2030, 4, 1),
+                LocalDate.of(2030, 4, 2), AbsenceType.TRAINING));
+        absenceService.deleteAbsence(training.getId());
+        absenceService.deleteAbsence(absence.getId());
+        assertLedger(2030, 0, 0, 25);
+    }
+
+    @Test
+    void createAbsence_rejectsVacationBeyondAvailableDaysPerYear() {
+        vacationLedgerService.setEntitlement(user.getId(), 2031, 3, 1);
+        assertLedger(2031, 0, 0, 4);
+
+        // Mi 31.12.2031 bis Mo 05.01.2032: 1 Werktag 2031, 3 Werktage 2032
+        Absence turnOfYear = absenceService.createAbsence(new Absence(user, LocalDate.of(2031, 12, 31),
+                LocalDate.of(2032, 1, 5), AbsenceType.VACATION));
+        assertLedger(2031, 0, 1, 3);
+        assertLedger(2032, 0, 3, 26);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                absenceService.createAbsence(new Absence(user, LocalDate.of(2031, 6, 2),
+                        LocalDate.of(2031, 6, 5), AbsenceType.VACATION)));
+        assertTrue(exception.getMessage().contains("verfügbar 3"));
+        assertThrows(IllegalArgumentException.class, () ->
+                vacationLedgerService.setEntitlement(user.getId(), 2031, -1, 0));
+
+        // Die Genehmigung verbraucht einen Tag 2031, der Übertrag nach 2032 sinkt von 4 auf 3
+        absenceService.approveAbsence(turnOfYear.getId(), manager.getId());
+        assertLedger(2031, 1, 0, 3);
+        assertLedger(2032, 3, 0, 25);
+
+        // Neuaufbau ergibt dieselben Zahlen und behält den gesetzten Anspruch
+        vacationLedgerService.rebuildAll();
+        assertLedger(2031, 1, 0, 3);
+        assertLedger(2032, 3, 0, 25);
+        assertEquals(3, vacationLedgerService.getLedger(user.getId(), 2031).get("entitlementDays"));
+    }
+
+    @Test
+    void previousYearChanges_updateCarryOverOfExistingNextYear() {
+        vacationLedgerService.setEntitlement(user.getId(), 2030, 25, 0);
+        // Ferien im Folgejahr früh beantragt: Konto 2031 mit Übertrag 10 (25 verbleibend, höchstens 10)
+        absenceService.createAbsence(new Absence(user, LocalDate.of(2031, 3, 3),
+                LocalDate.of(2031, 3, 7), AbsenceType.VACATION));
+        assertLedger(2031, 0, 5, 30);
+
+        // Später genehmigte Ferien 2030: 20 Werktage, noch 5 verbleibend, Übertrag sinkt auf 5
+        Absence late = absenceService.createAbsence(new Absence(user, LocalDate.of(2030, 10, 7),
+                LocalDate.of(2030, 11, 1), AbsenceType.VACATION));
+        absenceService.approveAbsence(late.getId(), manager.getId());
+        assertLedger(2031, 0, 5, 25);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                absenceService.createAbsence(new Absence(user, LocalDate.of(2031, 4, 1),
+                        LocalDate.of(2031, 5, 30), AbsenceType.VACATION)));
+        assertTrue(exception.getMessage().contains("verfügbar 25"));
+
+        // Ein geringerer Anspruch 2030 wirkt ebenfalls auf 2031, ein abweichender Übertrag wird abgelehnt
+        vacationLedgerService.setEntitlement(user.getId(), 2030, 22, null);
+        assertLedger(2031, 0, 5, 22);
+        assertThrows(IllegalArgumentException.class, () ->
+                vacationLedgerService.setEntitlement(user.getId(), 2031, 25, 10));
+
+        // Ablehnen gibt die Tage zurück, laufender Stand und Neuaufbau stimmen überein
+        absenceService.rejectAbsence(late.getId(), manager.getId());
+        assertLedger(2031, 0, 5, 30);
+        vacationLedgerService.rebuildAll();
+        assertLedger(2030, 0, 0, 22);
+        assertLedger(2031, 0, 5, 30);
+    }
+
+    private void assertLedger(int year, int approved, int pending, int available) {
+        Map<String, Object> ledger = vacationLedgerService.getLedger(user.getId(), year);
+        assertEquals(approved, ledger.get("approvedDays"), "genehmigt " + year);
+        assertEquals(pending, ledger.get("pendingDays"), "beantragt " + year);
+        assertEquals(available, ledger.get("availableDays"), "verfügbar " + year);
+    }
+}
@@ -0,0 +1,61 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft das Lesen von CSV nach RFC 4180: Anführungszeichen, Trennzeichen, Zeilenenden und fehlerhafte Datensätze.
+ * @author FA
+ */
+class CsvReaderTest {
+
+    @Test
+    void forEachRow_splitsQuotedFieldsAndSkipsBlankLines() throws Exception {
+        CsvReader csv = new CsvReader(new StringReader("\uFEFFName,\"Adresse\", Ort\r\n"
+                + "\"Muster, Anna\",\"Bahnhofstrasse 1\r\n4600 Olten\",Olten\r\n"
+                + "\r\n"
+                + "   \n"
+                + "Peter, \"Sagte \"\"Hallo\"\"\" ,\"\"\n"));
+        assertTrue(csv.readHeader());
+        assertTrue(csv.hasColumns("name", "adresse", "ort"));
+
+        List<String> values = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        csv.forEachRow((row, rowValues) -> values.add(row + ":" + rowValues.get("name") + "|"
+                        + rowValues.get("adresse") + "|" + rowValues.get("ort") + "|" + rowValues.get("fehlt")),
+                (row, message) -> errors.add(row + ":" + message));
+
+        assertEquals(List.of("1:Muster, Anna|Bahnhofstrasse 1\r\n4600 Olten|Olten|", "2:Peter|Sagte \"Hallo\"||"),
+                values);
+        assertEquals(List.of(), errors);
+    }
+
+    @Test
+    void forEachRow_reportsMalformedRowsAndContinues() throws Exception {
+        CsvReader csv = new CsvReader(new StringReader("a;b\n\"x\"y;1\nok;2\nzahl;abc\nletzte;\"offen\n"));
+        assertTrue(csv.readHeader());
+
+        List<String> values = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        csv.forEachRow((row, rowValues) -> values.add(row + ":" + rowValues.get("a") + "="
+                        + Integer.parseInt(rowValues.get("b"))),
+                (row, message) -> errors.add(row + ":" + message));
+
+        assertEquals(List.of("2:ok=2"), values);
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).startsWith("1:Unerwartetes Zeichen"));
+        assertTrue(errors.get(1).startsWith("3:"));
+        assertTrue(errors.get(2).startsWith("4:Anführungszeichen nicht geschlossen"));
+    }
+
+    @Test
+    void readHeader_returnsFalseWithoutHeader() throws Exception {
+        assertFalse(new CsvReader(new StringReader("")).readHeader());
+        assertFalse(new CsvReader(new StringReader("  \n")).readHeader());
+    }
+}
@@ -0,0 +1,59 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft den "HH:mm"-Codec und die darauf umgestellten DateTimeUtils-Methoden.
+ * @author PD
+ */
+class HoursCodecTest {
+
+    @Test
+    void format_coversCachedAndUncachedRanges() {
+        assertEquals("00:00", HoursCodec.format(0));
+        assertEquals("08:24", HoursCodec.format(504));
+        assertEquals("-00:30", HoursCodec.format(-30));
+        assertEquals("-01:30", HoursCodec.format(-90));
+        assertEquals("99:59", HoursCodec.format(HoursCodec.CACHED_MINUTES - 1));
+        assertEquals("100:00", HoursCodec.format(HoursCodec.CACHED_MINUTES));
+        assertEquals("-1840:15", HoursCodec.format(-(1840 * 60 + 15)));
+        assertEquals("+00:00", HoursCodec.formatSigned(0));
+        assertEquals("+120:05", HoursCodec.formatSigned(120 * 60 + 5));
+        assertEquals("-00:01", HoursCodec.formatSigned(-1));
+        // Gleiche Instanz aus dem Cache, keine Allokation pro Aufruf
+        assertSame(HoursCodec.format(504), HoursCodec.format(504));
+    }
+
+    @Test
+    void parse_acceptsSignsWhitespaceAndRejectsInvalidInput() {
+        assertEquals(504, HoursCodec.parse("08:24"));
+        assertEquals(504, HoursCodec.parse(" 8:24 "));
+        assertEquals(-90, HoursCodec.parse("-01:30"));
+        assertEquals(90, HoursCodec.parse("+01:30"));
+        assertEquals(1840 * 60 + 15, HoursCodec.parse("1840:15"));
+        assertEquals(HoursCodec.INVALID, HoursCodec.parse(null));
+        assertEquals(HoursCodec.INVALID, HoursCodec.parse("   "));
+        assertEquals(HoursCodec.INVALID, HoursCodec.parse("8.5"));
+        assertEquals(HoursCodec.INVALID, HoursCodec.parse("08:"));
+        assertEquals(HoursCodec.INVALID, HoursCodec.parse(":30"));
+        assertEquals(HoursCodec.INVALID, HoursCodec.parse("08:30:00"));
+        assertEquals(HoursCodec.INVALID, HoursCodec.parse("99999999999:00"));
+    }
+
+    @Test
+    void dateTimeUtils_delegatesToCodec() {
+        assertEquals("08:30", DateTimeUtils.formatHours(8.5));
+        assertEquals("-01:30", DateTimeUtils.formatHours(-1.5));
+        assertEquals("00:00", DateTimeUtils.formatHours(null));
+        assertEquals(8.5, DateTimeUtils.parseHours("08:30"));
+        assertEquals(8.5, DateTimeUtils.parseHours("8.5"));
+        assertEquals(0.0, DateTimeUtils.parseHours("abc"));
+        assertEquals("09:00", DateTimeUtils.addHours("08:30", "00:30"));
+        assertEquals("-00:30", DateTimeUtils.subtractHours("08:00", "08:30"));
+        assertEquals("10:00", DateTimeUtils.addHours("8.5", "01:30"));
+        assertEquals(-90, DateTimeUtils.parseMinutes("-01:30"));
+        assertEquals(0, DateTimeUtils.parseMinutes("invalid"));
+    }
+}
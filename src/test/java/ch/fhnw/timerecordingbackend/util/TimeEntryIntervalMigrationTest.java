@@ -0,0 +1,105 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Migration der Start-/End-/Pausentabellen in kodierte Intervalle auf H2.
+ * @author PD
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TimeEntryIntervalMigrationTest {
+
+    @Autowired
+    private TimeEntryIntervalMigration migration;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @AfterEach
+    void tearDown() {
+        timeEntryRepository.deleteAll();
+        if (user != null) {
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void run_movesSideTablesIntoIntervalColumns() {
+        user = userRepository.save(new User("Legacy", "Intervals", "legacy.intervals@example.com", "password"));
+        TimeEntry closed = new TimeEntry();
+        closed.setUser(user);
+        closed.setDate(LocalDate.of(2025, 1, 6));
+        closed = timeEntryRepository.save(closed);
+        TimeEntry active = new TimeEntry();
+        active.setUser(user);
+        active.setDate(LocalDate.of(2025, 1, 7));
+        active = timeEntryRepository.save(active);
+
+        jdbcTemplate.execute("CREATE TABLE time_entry_start_times (time_entry_id BIGINT NOT NULL, start_time TIME)");
+        jdbcTemplate.execute("CREATE TABLE time_entry_end_times (time_entry_id BIGINT NOT NULL, end_time TIME)");
+        jdbcTemplate.execute("CREATE TABLE time_entry_breaks (time_entry_id BIGINT NOT NULL, break_start TIME, break_end TIME)");
+        jdbcTemplate.update("INSERT INTO time_entry_start_times VALUES (?, '13:00:00'), (?, '08:00:00'), (?, '07:30:00')",
+                closed.getId(), closed.getId(), active.getId());
+        jdbcTemplate.update("INSERT INTO time_entry_end_times VALUES (?, '17:00:00'), (?, '12:00:00')",
+                closed.getId(), closed.getId());
+        jdbcTemplate.update("INSERT INTO time_entry_breaks VALUES (?, '15:00:00', '15:15:00')", closed.getId());
+
+        migration.run();
+
+        TimeEntry migrated = timeEntryRepository.findById(closed.getId()).orElseThrow();
+        assertEquals(List.of(LocalTime.of(8, 0), LocalTime.of(13, 0)), migrated.getStartTimes());
+        assertEquals(List.of(LocalTime.of(12, 0), LocalTime.of(17, 0)), migrated.getEndTimes());
+        assertEquals(1, migrated.getBreaks().size());
+        assertEquals(LocalTime.of(15, 15), migrated.getBreaks().get(0).getEnd());
+        assertFalse(migrated.isActive());
+        assertEquals("480-720,780-1020", jdbcTemplate.queryForObject(
+                "SELECT work_intervals FROM time_entries WHERE id = ?", String.class, closed.getId()));
+
+        List<TimeEntry> activeEntries = timeEntryRepository.findActiveEntriesByUserId(user.getId());
+        assertEquals(1, activeEntries.size());
+        assertEquals(active.getId(), activeEntries.get(0).getId());
+
+        Integer legacyTables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME IN "
+                        + "('TIME_ENTRY_START_TIMES', 'TIME_ENTRY_END_TIMES', 'TIME_ENTRY_BREAKS')", Integer.class);
+        assertEquals(0, legacyTables);
+    }
+
+    @Test
+    void timeEntry_keepsDuplicatePunchesAndClosesOpenInterval() {
+        user = userRepository.save(new User("Punch", "User", "punch.user@example.com", "password"));
+        TimeEntry entry = new TimeEntry();
+        entry.setUser(user);
+        entry.setDate(LocalDate.of(2025, 1, 8));
+        entry.setWorkTimes(List.of(LocalTime.of(8, 0), LocalTime.of(8, 0)), List.of(LocalTime.of(8, 0)));
+        assertTrue(entry.isActive());
+        entry.addEndTime(LocalTime.of(9, 30));
+        entry = timeEntryRepository.save(entry);
+
+        TimeEntry reloaded = timeEntryRepository.findById(entry.getId()).orElseThrow();
+        assertEquals(2, reloaded.getStartTimes().size());
+        assertFalse(reloaded.isActive());
+        assertEquals(90, reloaded.getWorkIntervals().totalClosedMinutes());
+    }
+}
@@ -0,0 +1,76 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import ch.fhnw.timerecordingbackend.model.TimeEntry;
+import ch.fhnw.timerecordingbackend.model.User;
+import ch.fhnw.timerecordingbackend.repository.TimeEntryRepository;
+import ch.fhnw.timerecordingbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Migration der HH:mm-Spalten auf Minuten-Spalten auf H2.
+ * @author FA
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TimeEntryMinutesMigrationTest {
+
+    @Autowired
+    private TimeEntryMinutesMigration migration;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @AfterEach
+    void tearDown() {
+        timeEntryRepository.deleteAll();
+        if (user != null) {
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void run_backfillsMinutesAndDropsLegacyColumns() {
+        user = userRepository.save(new User("Legacy", "User", "legacy.user@example.com", "password"));
+        TimeEntry entry = new TimeEntry();
+        entry.setUser(user);
+        entry.setDate(LocalDate.of(2025, 1, 6));
+        entry = timeEntryRepository.save(entry);
+
+        jdbcTemplate.execute("ALTER TABLE time_entries ADD COLUMN actual_hours VARCHAR(10)");
+        jdbcTemplate.execute("ALTER TABLE time_entries ADD COLUMN planned_hours VARCHAR(10)");
+        jdbcTemplate.execute("ALTER TABLE time_entries ADD COLUMN difference VARCHAR(10)");
+        jdbcTemplate.update("UPDATE time_entries SET actual_hours = '08:30', planned_hours = '08:00', "
+                + "difference = '-00:15' WHERE id = ?", entry.getId());
+
+        migration.run();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT actual_minutes, planned_minutes, difference_minutes FROM time_entries WHERE id = ?",
+                entry.getId());
+        assertEquals(510, ((Number) row.get("ACTUAL_MINUTES")).intValue());
+        assertEquals(480, ((Number) row.get("PLANNED_MINUTES")).intValue());
+        assertEquals(-15, ((Number) row.get("DIFFERENCE_MINUTES")).intValue());
+
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'TIME_ENTRIES' "
+                        + "AND COLUMN_NAME IN ('ACTUAL_HOURS', 'PLANNED_HOURS', 'DIFFERENCE')", Integer.class);
+        assertEquals(0, legacyColumns);
+        assertEquals(510, timeEntryRepository.sumActualMinutesByUserIdAndDateBetween(
+                user.getId(), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)));
+    }
+}
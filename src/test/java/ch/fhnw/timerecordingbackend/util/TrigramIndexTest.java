@@ -0,0 +1,54 @@
+package ch.fhnw.timerecordingbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft Teilstring-Suche, Ranking und Nachführung des Trigramm-Index.
+ * @author FA
+ */
+class TrigramIndexTest {
+
+    @Test
+    void search_ranksExactPrefixWordPrefixAndSubstring() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "muster anna", "Anna", "Muster", "anna.muster@example.com");
+        index.put(2, "annahme beat", "Beat", "Annahme", "beat@example.com");
+        index.put(3, "keller hanna", "Hanna", "Keller", "hanna.keller@example.com");
+        index.put(4, "weber tom", "Tom", "Weber", "tom@johanna.ch");
+        index.put(5, "zahn marie", "Marie-Anna", "Zahn", "marie@example.com");
+
+        // exakt, Präfix (nach Sortierschlüssel), Wortanfang, Teilstring
+        assertEquals(List.of(1L, 2L, 5L, 3L, 4L), index.search("anna", 10));
+        assertEquals(List.of(1L, 2L), index.search("ANNA", 2));
+        assertEquals(List.of(3L), index.search("kell", 10));
+        // Begriffe unter drei Zeichen werden linear gesucht
+        assertEquals(List.of(4L), index.search("to", 10));
+        assertEquals(List.of(), index.search("xyz", 10));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+
+    @Test
+    void putAndRemove_keepPostingsConsistent() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "alpha", "Alpha Projekt");
+        index.put(2, "beta", "Beta Projekt");
+        assertEquals(List.of(1L, 2L), index.search("projekt", 10));
+
+        index.put(1, "gamma", "Gamma");
+        assertEquals(List.of(2L), index.search("projekt", 10));
+        assertEquals(List.of(1L), index.search("gamma", 10));
+
+        index.remove(2);
+        assertEquals(List.of(), index.search("projekt", 10));
+        assertEquals(1, index.size());
+
+        // Freier Slot wird wiederverwendet
+        index.put(3, "delta", "Delta Projekt");
+        assertEquals(List.of(3L), index.search("projekt", 10));
+        assertEquals(2, index.size());
+    }
+}